@@ -4,7 +4,6 @@ import android.content.Context
 import android.graphics.Bitmap
 import android.graphics.BitmapFactory
 import android.graphics.Typeface
-import android.util.Base64
 import androidx.compose.runtime.Composable
 import androidx.compose.runtime.LaunchedEffect
 import androidx.compose.runtime.getValue
@@ -21,6 +20,7 @@ import com.airbnb.lottie.utils.Utils
 import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.suspendCancellableCoroutine
 import kotlinx.coroutines.withContext
+import java.io.File
 import java.io.FileInputStream
 import java.io.IOException
 import java.util.zip.GZIPInputStream
@@ -182,24 +182,23 @@ private fun lottieTask(
                 // create the FileInputStream needed in this path.
                 null
             } else {
-                val fis = FileInputStream(spec.fileName)
                 val actualCacheKey = if (cacheKey == DefaultCacheKey) spec.fileName else cacheKey
                 when {
                     spec.fileName.endsWith("zip") -> LottieCompositionFactory.fromZipStream(
                         context,
-                        ZipInputStream(fis),
+                        ZipInputStream(FileInputStream(spec.fileName)),
                         actualCacheKey,
                     )
 
                     spec.fileName.endsWith("tgs") -> LottieCompositionFactory.fromJsonInputStream(
                         context,
-                        GZIPInputStream(fis),
+                        GZIPInputStream(FileInputStream(spec.fileName)),
                         actualCacheKey,
                     )
 
-                    else -> LottieCompositionFactory.fromJsonInputStream(
+                    else -> LottieCompositionFactory.fromFile(
                         context,
-                        fis,
+                        File(spec.fileName),
                         actualCacheKey,
                     )
                 }
@@ -281,11 +280,10 @@ private fun maybeLoadImageFromAsset(
 
 private fun maybeDecodeBase64Image(asset: LottieImageAsset) {
     if (asset.bitmap != null) return
-    val filename = asset.fileName
-    if (filename.startsWith("data:") && filename.indexOf("base64,") > 0) {
+    if (asset.hasBitmap()) {
         // Contents look like a base64 data URI, with the format data:image/png;base64,<data>.
         try {
-            val data = Base64.decode(filename.substring(filename.indexOf(',') + 1), Base64.DEFAULT)
+            val data = asset.decodeEmbeddedData() ?: return
             val opts = BitmapFactory.Options()
             opts.inScaled = true
             opts.inDensity = 160
@@ -10,12 +10,18 @@ import com.airbnb.lottie.configurations.reducemotion.ReducedMotionOption;
 import com.airbnb.lottie.configurations.reducemotion.SystemReducedMotionOption;
 import com.airbnb.lottie.network.DefaultLottieNetworkFetcher;
 import com.airbnb.lottie.network.LottieNetworkCacheProvider;
+import com.airbnb.lottie.network.LottieNetworkCacheRevalidation;
 import com.airbnb.lottie.network.LottieNetworkFetcher;
 import com.airbnb.lottie.network.NetworkCache;
 import com.airbnb.lottie.network.NetworkFetcher;
+import com.airbnb.lottie.utils.LottieThreadFactory;
 import com.airbnb.lottie.utils.LottieTrace;
 
 import java.io.File;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 @RestrictTo(RestrictTo.Scope.LIBRARY)
 public class L {
@@ -30,11 +36,20 @@ public class L {
 
   private static LottieNetworkFetcher fetcher;
   private static LottieNetworkCacheProvider cacheProvider;
+  private static LottieNetworkCacheRevalidation networkCacheRevalidation = LottieNetworkCacheRevalidation.NEVER;
+  private static long networkCacheMaxSizeInBytes = 0;
 
   private static volatile NetworkFetcher networkFetcher;
   private static volatile NetworkCache networkCache;
   private static ThreadLocal<LottieTrace> lottieTrace;
   private static ReducedMotionOption reducedMotionOption = new SystemReducedMotionOption();
+  @Nullable private static Executor asyncUpdatesExecutor;
+  private static boolean parallelParsingEnabled = false;
+  private static boolean lazyPrecompParsingEnabled = false;
+  private static boolean progressiveLoadingEnabled = false;
+  private static boolean networkCacheCompilationEnabled = false;
+  private static boolean hardwareBitmapsEnabled = false;
+  private static volatile Executor parsingExecutor;
 
   private L() {
   }
@@ -98,6 +113,25 @@ public class L {
     networkCache = null;
   }
 
+  public static void setNetworkCacheMaxSizeInBytes(long maxSizeInBytes) {
+    if (networkCacheMaxSizeInBytes == maxSizeInBytes) {
+      return;
+    }
+
+    networkCacheMaxSizeInBytes = maxSizeInBytes;
+    networkCache = null;
+    networkFetcher = null;
+  }
+
+  public static void setNetworkCacheRevalidation(@NonNull LottieNetworkCacheRevalidation revalidation) {
+    if (networkCacheRevalidation == revalidation) {
+      return;
+    }
+
+    networkCacheRevalidation = revalidation;
+    networkFetcher = null;
+  }
+
   @NonNull
   public static NetworkFetcher networkFetcher(@NonNull Context context) {
     NetworkFetcher local = networkFetcher;
@@ -105,7 +139,8 @@ public class L {
       synchronized (NetworkFetcher.class) {
         local = networkFetcher;
         if (local == null) {
-          networkFetcher = local = new NetworkFetcher(networkCache(context), fetcher != null ? fetcher : new DefaultLottieNetworkFetcher());
+          networkFetcher = local = new NetworkFetcher(networkCache(context), fetcher != null ? fetcher : new DefaultLottieNetworkFetcher(),
+              networkCacheRevalidation, LottieTask.EXECUTOR);
         }
       }
     }
@@ -124,7 +159,7 @@ public class L {
         local = networkCache;
         if (local == null) {
           networkCache = local = new NetworkCache(cacheProvider != null ? cacheProvider :
-              () -> new File(appContext.getCacheDir(), "lottie_network_cache"));
+              () -> new File(appContext.getCacheDir(), "lottie_network_cache"), networkCacheMaxSizeInBytes);
         }
       }
     }
@@ -152,4 +187,83 @@ public class L {
   }
 
   public static ReducedMotionOption getReducedMotionOption(){return reducedMotionOption;}
+
+  public static void setAsyncUpdatesExecutor(@Nullable Executor executor) {
+    L.asyncUpdatesExecutor = executor;
+  }
+
+  /**
+   * Returns the executor set with {@link LottieConfig.Builder#setAsyncUpdatesExecutor(Executor)} or null to use the default.
+   */
+  @Nullable
+  public static Executor getAsyncUpdatesExecutor() {
+    return asyncUpdatesExecutor;
+  }
+
+  public static void setParallelParsingEnabled(boolean enabled) {
+    L.parallelParsingEnabled = enabled;
+  }
+
+  public static boolean isParallelParsingEnabled() {
+    return parallelParsingEnabled;
+  }
+
+  public static void setLazyPrecompParsingEnabled(boolean enabled) {
+    L.lazyPrecompParsingEnabled = enabled;
+  }
+
+  public static boolean isLazyPrecompParsingEnabled() {
+    return lazyPrecompParsingEnabled;
+  }
+
+  public static void setProgressiveLoadingEnabled(boolean enabled) {
+    L.progressiveLoadingEnabled = enabled;
+  }
+
+  public static void setNetworkCacheCompilationEnabled(boolean enabled) {
+    L.networkCacheCompilationEnabled = enabled;
+  }
+
+  public static boolean isNetworkCacheCompilationEnabled() {
+    return networkCacheCompilationEnabled;
+  }
+
+  public static boolean isProgressiveLoadingEnabled() {
+    return progressiveLoadingEnabled;
+  }
+
+  public static void setHardwareBitmapsEnabled(boolean enabled) {
+    L.hardwareBitmapsEnabled = enabled;
+  }
+
+  public static boolean isHardwareBitmapsEnabled() {
+    return hardwareBitmapsEnabled;
+  }
+
+  /**
+   * The number of threads that parse assets in addition to the thread that loads the composition.
+   */
+  public static int getParsingParallelism() {
+    return Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+  }
+
+  /**
+   * Idle threads time out so the executor doesn't hold on to any threads after animations have loaded.
+   */
+  @NonNull
+  public static Executor getParsingExecutor() {
+    Executor local = parsingExecutor;
+    if (local == null) {
+      synchronized (L.class) {
+        local = parsingExecutor;
+        if (local == null) {
+          int parallelism = getParsingParallelism();
+          parsingExecutor = local = new ThreadPoolExecutor(parallelism, parallelism, 1, TimeUnit.SECONDS,
+              new LinkedBlockingQueue<>(), new LottieThreadFactory());
+          ((ThreadPoolExecutor) local).allowCoreThreadTimeOut(true);
+        }
+      }
+    }
+    return local;
+  }
 }
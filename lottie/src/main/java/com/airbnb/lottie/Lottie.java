@@ -2,6 +2,12 @@ package com.airbnb.lottie;
 
 import androidx.annotation.NonNull;
 
+import com.airbnb.lottie.model.LottieBitmapPool;
+import com.airbnb.lottie.model.LottieFrameCache;
+import com.airbnb.lottie.model.LottieImageCache;
+import com.airbnb.lottie.model.LottieStaticLayerCacheBudget;
+import com.airbnb.lottie.utils.AsyncUpdatesMetrics;
+
 /**
  * Class for initializing the library with custom config
  */
@@ -20,8 +26,41 @@ public class Lottie {
     L.setCacheProvider(lottieConfig.cacheProvider);
     L.setTraceEnabled(lottieConfig.enableSystraceMarkers);
     L.setNetworkCacheEnabled(lottieConfig.enableNetworkCache);
+    L.setNetworkCacheRevalidation(lottieConfig.networkCacheRevalidation);
+    L.setNetworkCacheMaxSizeInBytes(lottieConfig.networkCacheMaxSizeInBytes);
+    L.setNetworkCacheCompilationEnabled(lottieConfig.enableNetworkCacheCompilation);
     L.setDisablePathInterpolatorCache(lottieConfig.disablePathInterpolatorCache);
     L.setDefaultAsyncUpdates(lottieConfig.defaultAsyncUpdates);
     L.setReducedMotionOption(lottieConfig.reducedMotionOption);
+    if (lottieConfig.compositionCacheMaxSizeInBytes > 0) {
+      LottieCompositionFactory.setMaxCacheSizeInBytes(lottieConfig.compositionCacheMaxSizeInBytes);
+    }
+    LottieFrameCache.getInstance().resize(lottieConfig.frameCacheMaxSizeInBytes);
+    LottieImageCache.getInstance().resize(lottieConfig.imageCacheMaxSizeInBytes);
+    LottieBitmapPool.getInstance().resize(lottieConfig.bitmapPoolMaxSizeInBytes);
+    LottieStaticLayerCacheBudget.getInstance().resize(lottieConfig.staticLayerCacheMaxSizeInBytes);
+    L.setHardwareBitmapsEnabled(lottieConfig.enableHardwareBitmaps);
+    L.setAsyncUpdatesExecutor(lottieConfig.asyncUpdatesExecutor);
+    L.setParallelParsingEnabled(lottieConfig.enableParallelParsing);
+    L.setLazyPrecompParsingEnabled(lottieConfig.enableLazyPrecompParsing);
+    L.setProgressiveLoadingEnabled(lottieConfig.enableProgressiveLoading);
+  }
+
+  /**
+   * Returns a snapshot of the queue depth, wait time, and dropped update counters for progress updates that run in the
+   * background when {@link AsyncUpdates} are enabled.
+   *
+   * @see LottieConfig.Builder#setAsyncUpdatesExecutor(java.util.concurrent.Executor)
+   */
+  @NonNull
+  public static LottieAsyncUpdatesStats getAsyncUpdatesStats() {
+    return AsyncUpdatesMetrics.getStats();
+  }
+
+  /**
+   * Resets the counters returned by {@link #getAsyncUpdatesStats()}. The queue depth is not affected.
+   */
+  public static void resetAsyncUpdatesStats() {
+    AsyncUpdatesMetrics.reset();
   }
 }
@@ -89,6 +89,11 @@ import java.util.zip.ZipInputStream;
       if (targetView == null) {
         return;
       }
+      if (targetView.getComposition() == result) {
+        // The composition was already set from the partial result of a progressive load.
+        targetView.lottieDrawable.onCompositionLoaded();
+        return;
+      }
       targetView.setComposition(result);
     }
   }
@@ -448,6 +453,55 @@ import java.util.zip.ZipInputStream;
     lottieDrawable.setClipToCompositionBounds(clipToCompositionBounds);
   }
 
+  /**
+   * @see LottieDrawable#setStaticLayerCachingEnabled(boolean)
+   */
+  public void setStaticLayerCachingEnabled(boolean staticLayerCachingEnabled) {
+    lottieDrawable.setStaticLayerCachingEnabled(staticLayerCachingEnabled);
+  }
+
+  /**
+   * @see LottieDrawable#setStaticLayerCachingEnabled(boolean)
+   */
+  public boolean isStaticLayerCachingEnabled() {
+    return lottieDrawable.isStaticLayerCachingEnabled();
+  }
+
+  /**
+   * @see LottieDrawable#setDisplayListCachingEnabled(boolean)
+   */
+  public void setDisplayListCachingEnabled(boolean displayListCachingEnabled) {
+    lottieDrawable.setDisplayListCachingEnabled(displayListCachingEnabled);
+  }
+
+  /**
+   * @see LottieDrawable#setDisplayListCachingEnabled(boolean)
+   */
+  public boolean isDisplayListCachingEnabled() {
+    return lottieDrawable.isDisplayListCachingEnabled();
+  }
+
+  /**
+   * @see LottieDrawable#setFrameCacheEnabled(boolean)
+   */
+  public void setFrameCacheEnabled(boolean frameCacheEnabled) {
+    lottieDrawable.setFrameCacheEnabled(frameCacheEnabled);
+  }
+
+  /**
+   * @see LottieDrawable#setFrameCacheEnabled(boolean)
+   */
+  public boolean isFrameCacheEnabled() {
+    return lottieDrawable.isFrameCacheEnabled();
+  }
+
+  /**
+   * @see LottieDrawable#setFrameCacheKey(String)
+   */
+  public void setFrameCacheKey(@Nullable String frameCacheKey) {
+    lottieDrawable.setFrameCacheKey(frameCacheKey);
+  }
+
   /**
    * Gets whether or not Lottie should clip to the original animation composition bounds.
    * <p>
@@ -641,12 +695,14 @@ import java.util.zip.ZipInputStream;
     clearComposition();
     cancelLoaderTask();
     this.compositionTask = compositionTask
+        .addPartialListener(loadedListener)
         .addListener(loadedListener)
         .addFailureListener(wrappedFailureListener);
   }
 
   private void cancelLoaderTask() {
     if (compositionTask != null) {
+      compositionTask.removePartialListener(loadedListener);
       compositionTask.removeListener(loadedListener);
       compositionTask.removeFailureListener(wrappedFailureListener);
     }
@@ -0,0 +1,81 @@
+package com.airbnb.lottie;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RestrictTo;
+
+/**
+ * A snapshot of the counters for the background progress updates that run when {@link AsyncUpdates} are enabled.
+ *
+ * @see Lottie#getAsyncUpdatesStats()
+ */
+public final class LottieAsyncUpdatesStats {
+
+  private final int queueDepth;
+  private final long scheduledCount;
+  private final long startedCount;
+  private final long completedCount;
+  private final long droppedCount;
+  private final long totalWaitTimeNanos;
+  private final long maxWaitTimeNanos;
+
+  @RestrictTo(RestrictTo.Scope.LIBRARY)
+  public LottieAsyncUpdatesStats(int queueDepth, long scheduledCount, long startedCount, long completedCount, long droppedCount,
+      long totalWaitTimeNanos, long maxWaitTimeNanos) {
+    this.queueDepth = queueDepth;
+    this.scheduledCount = scheduledCount;
+    this.startedCount = startedCount;
+    this.completedCount = completedCount;
+    this.droppedCount = droppedCount;
+    this.totalWaitTimeNanos = totalWaitTimeNanos;
+    this.maxWaitTimeNanos = maxWaitTimeNanos;
+  }
+
+  /**
+   * The number of progress updates that are waiting for a thread.
+   */
+  public int getQueueDepth() {
+    return queueDepth;
+  }
+
+  public long getScheduledCount() {
+    return scheduledCount;
+  }
+
+  /**
+   * The number of progress updates that started running. The difference to {@link #getCompletedCount()} is the number
+   * that are running right now.
+   */
+  public long getStartedCount() {
+    return startedCount;
+  }
+
+  public long getCompletedCount() {
+    return completedCount;
+  }
+
+  /**
+   * The number of progress updates that were skipped because the drawable already had a newer update pending or because
+   * the executor rejected them.
+   */
+  public long getDroppedCount() {
+    return droppedCount;
+  }
+
+  /**
+   * The average time that a progress update waited in the queue before it started running.
+   */
+  public long getAverageWaitTimeNanos() {
+    return startedCount == 0 ? 0 : totalWaitTimeNanos / startedCount;
+  }
+
+  public long getMaxWaitTimeNanos() {
+    return maxWaitTimeNanos;
+  }
+
+  @NonNull
+  @Override public String toString() {
+    return "LottieAsyncUpdatesStats{queueDepth=" + queueDepth + ", scheduled=" + scheduledCount + ", started=" + startedCount +
+        ", completed=" + completedCount + ", dropped=" + droppedCount + ", averageWaitNanos=" + getAverageWaitTimeNanos() +
+        ", maxWaitNanos=" + maxWaitTimeNanos + "}";
+  }
+}
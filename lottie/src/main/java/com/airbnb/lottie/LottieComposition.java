@@ -2,6 +2,7 @@ package com.airbnb.lottie;
 
 import android.content.Context;
 import android.content.res.Resources;
+import android.graphics.Bitmap;
 import android.graphics.Rect;
 
 import androidx.annotation.NonNull;
@@ -16,6 +17,7 @@ import com.airbnb.lottie.model.Font;
 import com.airbnb.lottie.model.FontCharacter;
 import com.airbnb.lottie.model.Marker;
 import com.airbnb.lottie.model.layer.Layer;
+import com.airbnb.lottie.parser.SplitCompositionParser;
 import com.airbnb.lottie.parser.moshi.JsonReader;
 import com.airbnb.lottie.utils.Logger;
 import com.airbnb.lottie.utils.MiscUtils;
@@ -23,9 +25,11 @@ import com.airbnb.lottie.utils.Utils;
 
 import org.json.JSONObject;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -41,10 +45,26 @@ import java.util.Set;
  * {@link com.airbnb.lottie.LottieDrawable}.
  */
 public class LottieComposition {
+  /**
+   * Rough retained sizes of the parsed model. These only need to weigh compositions relative to each other.
+   */
+  private static final int BASE_SIZE_BYTES = 1024;
+  private static final int LAYER_SIZE_BYTES = 512;
+  private static final int KEYFRAME_SIZE_BYTES = 96;
+  private static final int SHAPE_VERTEX_SIZE_BYTES = 96;
 
   private final PerformanceTracker performanceTracker = new PerformanceTracker();
   private final HashSet<String> warnings = new HashSet<>();
   private Map<String, List<Layer>> precomps;
+  /**
+   * Precomps whose layers will be parsed the first time that they are used.
+   */
+  @Nullable private Map<String, SplitCompositionParser.LazyPrecomp> lazyPrecomps;
+  /**
+   * The size of the document that lazy precomps are parsed from. It is retained until every one of them is parsed but
+   * it is still counted by {@link #getEstimatedSizeInBytes()} afterwards in place of the layers that were parsed.
+   */
+  private int lazyPrecompSourceSizeInBytes;
   private Map<String, LottieImageAsset> images;
   private float imagesDpScale;
   /**
@@ -70,6 +90,14 @@ public class LottieComposition {
    * was only faster until you had ~4 masks after which it would actually become slower.
    */
   private int maskAndMatteCount = 0;
+  /**
+   * Parse time counts used to estimate how much memory this composition holds.
+   *
+   * @see #getEstimatedSizeInBytes()
+   */
+  private int layerCount = 0;
+  private int keyframeCount = 0;
+  private int shapeVertexCount = 0;
 
   private int unscaledWidth;
   private int unscaledHeight;
@@ -96,22 +124,42 @@ public class LottieComposition {
     this.unscaledHeight = unscaledHeight;
   }
 
+  /**
+   * The methods that are called while parsing are synchronized because precomps can be parsed in parallel.
+   *
+   * @see com.airbnb.lottie.parser.SplitCompositionParser
+   */
   @RestrictTo(RestrictTo.Scope.LIBRARY)
-  public void addWarning(String warning) {
+  public synchronized void addWarning(String warning) {
     Logger.warning(warning);
     warnings.add(warning);
   }
 
   @RestrictTo(RestrictTo.Scope.LIBRARY)
-  public void setHasDashPattern(boolean hasDashPattern) {
+  public synchronized void setHasDashPattern(boolean hasDashPattern) {
     this.hasDashPattern = hasDashPattern;
   }
 
   @RestrictTo(RestrictTo.Scope.LIBRARY)
-  public void incrementMatteOrMaskCount(int amount) {
+  public synchronized void incrementMatteOrMaskCount(int amount) {
     maskAndMatteCount += amount;
   }
 
+  @RestrictTo(RestrictTo.Scope.LIBRARY)
+  public synchronized void incrementLayerCount(int amount) {
+    layerCount += amount;
+  }
+
+  @RestrictTo(RestrictTo.Scope.LIBRARY)
+  public synchronized void incrementKeyframeCount(int amount) {
+    keyframeCount += amount;
+  }
+
+  @RestrictTo(RestrictTo.Scope.LIBRARY)
+  public synchronized void incrementShapeVertexCount(int amount) {
+    shapeVertexCount += amount;
+  }
+
   /**
    * Used to determine if an animation can be drawn with hardware acceleration.
    */
@@ -180,9 +228,94 @@ public class LottieComposition {
   }
 
   @RestrictTo(RestrictTo.Scope.LIBRARY)
+  public synchronized void setLazyPrecomps(Map<String, SplitCompositionParser.LazyPrecomp> lazyPrecomps,
+      int sourceSizeInBytes) {
+    this.lazyPrecomps = lazyPrecomps;
+    this.lazyPrecompSourceSizeInBytes = sourceSizeInBytes;
+  }
+
+  /**
+   * Returns false if the precomp is lazy and {@link #getPrecomps(String)} would parse it.
+   */
+  @RestrictTo(RestrictTo.Scope.LIBRARY)
+  public synchronized boolean isPrecompParsed(String id) {
+    return lazyPrecomps == null || !lazyPrecomps.containsKey(id);
+  }
+
+  /**
+   * Parses every precomp that is still lazy. Each one is parsed separately so that a thread that needs a specific one
+   * only has to wait for the one that is being parsed.
+   * <p>
+   * Unlike {@link #getPrecomps(String)}, this throws if a precomp can't be parsed so that loading can fail.
+   */
+  @RestrictTo(RestrictTo.Scope.LIBRARY)
+  public void parseLazyPrecomps() throws IOException {
+    List<String> ids;
+    synchronized (this) {
+      if (lazyPrecomps == null) {
+        return;
+      }
+      ids = new ArrayList<>(lazyPrecomps.keySet());
+    }
+    for (int i = 0; i < ids.size(); i++) {
+      parseLazyPrecomp(ids.get(i));
+    }
+  }
+
+  /**
+   * Lazy precomps are parsed the first time that they are requested. If one can't be parsed, a warning is added and it
+   * has no layers because this is called while drawing.
+   *
+   * @see LottieConfig.Builder#setEnableLazyPrecompParsing(boolean)
+   */
+  @RestrictTo(RestrictTo.Scope.LIBRARY)
+  @Nullable
+  public synchronized List<Layer> getPrecomps(String id) {
+    List<Layer> layers = precomps.get(id);
+    if (layers == null && lazyPrecomps != null) {
+      try {
+        layers = parseLazyPrecomp(id);
+      } catch (IOException | RuntimeException e) {
+        String warning = "Unable to parse precomp " + id;
+        Logger.warning(warning, e);
+        warnings.add(warning);
+        layers = precomps.get(id);
+      }
+    }
+    return layers;
+  }
+
+  /**
+   * The layers, keyframes, and vertices of lazy precomps aren't counted because
+   * {@link #getEstimatedSizeInBytes()} already counts the document that they are parsed from. That way the estimate
+   * doesn't change after the composition has been weighed by a cache.
+   */
   @Nullable
-  public List<Layer> getPrecomps(String id) {
-    return precomps.get(id);
+  private synchronized List<Layer> parseLazyPrecomp(String id) throws IOException {
+    if (lazyPrecomps == null) {
+      return precomps.get(id);
+    }
+    SplitCompositionParser.LazyPrecomp lazyPrecomp = lazyPrecomps.remove(id);
+    if (lazyPrecomps.isEmpty()) {
+      lazyPrecomps = null;
+    }
+    if (lazyPrecomp == null) {
+      return precomps.get(id);
+    }
+    int layerCount = this.layerCount;
+    int keyframeCount = this.keyframeCount;
+    int shapeVertexCount = this.shapeVertexCount;
+    // Failed precomps are left empty so that they aren't parsed again on every frame.
+    List<Layer> layers = Collections.emptyList();
+    try {
+      layers = lazyPrecomp.parse(this);
+    } finally {
+      precomps.put(id, layers);
+      this.layerCount = layerCount;
+      this.keyframeCount = keyframeCount;
+      this.shapeVertexCount = shapeVertexCount;
+    }
+    return layers;
   }
 
   public SparseArrayCompat<FontCharacter> getCharacters() {
@@ -233,6 +366,35 @@ public class LottieComposition {
     return images;
   }
 
+  /**
+   * Returns a rough estimate of the number of bytes retained by this composition. It is derived from the
+   * number of layers, keyframes, and shape vertices that were parsed plus the size of any image bitmaps that
+   * are held by its assets. Images that have not been decoded yet are counted at their full ARGB_8888 size
+   * because they will be held by the composition once they are. Lazy precomps are counted as the size of the
+   * document that they are parsed from, both before and after they are parsed.
+   * <p>
+   * This is what {@link com.airbnb.lottie.model.LottieCompositionCache} uses to weigh entries when it is
+   * configured with a byte budget.
+   */
+  public int getEstimatedSizeInBytes() {
+    long size = BASE_SIZE_BYTES
+        + (long) layerCount * LAYER_SIZE_BYTES
+        + (long) keyframeCount * KEYFRAME_SIZE_BYTES
+        + (long) shapeVertexCount * SHAPE_VERTEX_SIZE_BYTES
+        + lazyPrecompSourceSizeInBytes;
+    if (images != null) {
+      for (LottieImageAsset asset : images.values()) {
+        Bitmap bitmap = asset.getBitmap();
+        if (bitmap != null) {
+          size += bitmap.getByteCount();
+        } else {
+          size += (long) asset.getWidth() * asset.getHeight() * 4;
+        }
+      }
+    }
+    return (int) Math.min(size, Integer.MAX_VALUE);
+  }
+
   public float getDurationFrames() {
     return endFrame - startFrame;
   }
@@ -0,0 +1,66 @@
+package com.airbnb.lottie;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RestrictTo;
+
+/**
+ * A snapshot of the in-memory composition cache counters.
+ *
+ * @see LottieCompositionFactory#getCacheStats()
+ */
+public final class LottieCompositionCacheStats {
+
+  private final int hitCount;
+  private final int missCount;
+  private final int evictionCount;
+  private final int size;
+  private final int maxSize;
+  private final boolean sizeInBytes;
+
+  @RestrictTo(RestrictTo.Scope.LIBRARY)
+  public LottieCompositionCacheStats(int hitCount, int missCount, int evictionCount, int size, int maxSize, boolean sizeInBytes) {
+    this.hitCount = hitCount;
+    this.missCount = missCount;
+    this.evictionCount = evictionCount;
+    this.size = size;
+    this.maxSize = maxSize;
+    this.sizeInBytes = sizeInBytes;
+  }
+
+  public int getHitCount() {
+    return hitCount;
+  }
+
+  public int getMissCount() {
+    return missCount;
+  }
+
+  public int getEvictionCount() {
+    return evictionCount;
+  }
+
+  /**
+   * The current size of the cache. This is an estimated number of bytes if {@link #isSizeInBytes()} and a
+   * number of compositions otherwise.
+   */
+  public int getSize() {
+    return size;
+  }
+
+  /**
+   * @see #getSize()
+   */
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  public boolean isSizeInBytes() {
+    return sizeInBytes;
+  }
+
+  @NonNull
+  @Override public String toString() {
+    return "LottieCompositionCacheStats{hits=" + hitCount + ", misses=" + missCount + ", evictions=" + evictionCount +
+        ", size=" + size + "/" + maxSize + (sizeInBytes ? " bytes" : "") + "}";
+  }
+}
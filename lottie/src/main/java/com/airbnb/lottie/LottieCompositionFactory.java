@@ -11,16 +11,23 @@ import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
 import android.graphics.Typeface;
 import android.os.Looper;
-import android.util.Base64;
 
 import androidx.annotation.Nullable;
 import androidx.annotation.RawRes;
 import androidx.annotation.WorkerThread;
 
+import com.airbnb.lottie.manager.AssetPreloader;
 import com.airbnb.lottie.model.Font;
+import com.airbnb.lottie.model.LottieBitmapPool;
 import com.airbnb.lottie.model.LottieCompositionCache;
+import com.airbnb.lottie.model.LottieFrameCache;
+import com.airbnb.lottie.model.LottieImageCache;
+import com.airbnb.lottie.model.layer.StartingPrecomps;
 import com.airbnb.lottie.network.NetworkCache;
 import com.airbnb.lottie.parser.LottieCompositionMoshiParser;
+import com.airbnb.lottie.parser.MappedJsonSource;
+import com.airbnb.lottie.parser.SplitCompositionParser;
+import com.airbnb.lottie.parser.moshi.JsonBinaryWriter;
 import com.airbnb.lottie.parser.moshi.JsonReader;
 import com.airbnb.lottie.utils.Logger;
 import com.airbnb.lottie.utils.Utils;
@@ -34,6 +41,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.lang.ref.WeakReference;
+import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -41,13 +49,17 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 
 import okio.BufferedSource;
+import okio.BufferedSink;
 import okio.Okio;
+import okio.Sink;
 import okio.Source;
 
 /**
@@ -67,6 +79,11 @@ public class LottieCompositionFactory {
    */
   private static final Map<String, LottieTask<LottieComposition>> taskCache = new HashMap<>();
   private static final Set<LottieTaskIdleListener> taskIdleListeners = new HashSet<>();
+  /**
+   * Set while a task runs with progressive loading enabled so that json parsing deep inside of it can publish the
+   * composition before it has been parsed completely.
+   */
+  private static final ThreadLocal<LottieListener<LottieComposition>> partialResultListener = new ThreadLocal<>();
 
   /**
    * reference magic bytes for zip compressed files.
@@ -87,6 +104,49 @@ public class LottieCompositionFactory {
     LottieCompositionCache.getInstance().resize(size);
   }
 
+  /**
+   * Bound the in-memory composition cache by the estimated number of bytes its compositions retain rather
+   * than by count. This replaces any limit set with {@link #setMaxCacheSize(int)} and clears the cache if
+   * it was previously count based.
+   * This must be {@literal >} 0.
+   *
+   * @see LottieComposition#getEstimatedSizeInBytes()
+   */
+  public static void setMaxCacheSizeInBytes(int maxSizeInBytes) {
+    LottieCompositionCache.getInstance().setMaxSizeInBytes(maxSizeInBytes);
+  }
+
+  /**
+   * Call this from {@link android.content.ComponentCallbacks2#onTrimMemory(int)} to release cached
+   * compositions, pre-rendered frames, decoded images, and pooled bitmaps when the system is low on memory.
+   * Images that are still drawn are kept.
+   */
+  public static void onTrimMemory(int level) {
+    LottieCompositionCache.getInstance().trimMemory(level);
+    LottieFrameCache.getInstance().trimMemory(level);
+    LottieImageCache.getInstance().trimMemory(level);
+    LottieBitmapPool.getInstance().trimMemory(level);
+  }
+
+  /**
+   * Returns a snapshot of the in-memory composition cache's hit, miss, and eviction counts.
+   */
+  public static LottieCompositionCacheStats getCacheStats() {
+    return LottieCompositionCache.getInstance().getStats();
+  }
+
+  /**
+   * Returns a snapshot of the network disk cache's size and hit, miss, and eviction counts or null if the network cache
+   * is disabled. This reads the cache directory the first time that it is used so it shouldn't be called on the main
+   * thread.
+   */
+  @Nullable
+  @WorkerThread
+  public static LottieNetworkCacheStats getNetworkCacheStats(Context context) {
+    NetworkCache networkCache = L.networkCache(context);
+    return networkCache == null ? null : networkCache.getStats();
+  }
+
   /**
    * Like {@link #clearCache(Context, boolean)} but defaults to clearing the network cache.
    *
@@ -103,6 +163,9 @@ public class LottieCompositionFactory {
   public static void clearCache(Context context, boolean includeNetwork) {
     taskCache.clear();
     LottieCompositionCache.getInstance().clear();
+    LottieFrameCache.getInstance().clear();
+    LottieImageCache.getInstance().clear();
+    LottieBitmapPool.getInstance().clear();
     if (includeNetwork) {
       final NetworkCache networkCache = L.networkCache(context);
       if (networkCache != null) {
@@ -111,6 +174,42 @@ public class LottieCompositionFactory {
     }
   }
 
+  /**
+   * Returns a task that completes with the composition of the given task once its images and fonts have been loaded on
+   * a background thread. Otherwise, they are loaded on the thread that draws the first frame that shows them which can
+   * cause that frame to be dropped. No thread is blocked while the given task is still running.
+   * <p>
+   * Images are decoded into the same cache that drawables decode them into, so they are only kept within its budget
+   * until a drawable shows them. An image that is larger than the whole budget, which is
+   * {@link LottieImageCache#DEFAULT_MAX_SIZE_IN_BYTES} unless it is set in {@link LottieConfig}, is decoded and then
+   * evicted right away so it is decoded again when it is shown. Drawables with an {@link ImageAssetDelegate} still get
+   * their images from it. Fonts are set on the composition so they are used by every drawable that shows it.
+   *
+   * @param imageAssetsFolder the folder in src/main/assets that images are loaded from, like
+   *                          {@link LottieDrawable#setImagesAssetsFolder(String)}. Pass null to only load images that
+   *                          are embedded in the animation.
+   * @param fontAssetsFolder  the folder in src/main/assets that fonts are loaded from or null to not load fonts. Lottie
+   *                          loads fonts from "fonts/" by default.
+   * @param fontFileExtension the extension of the font files, including the period. Lottie uses ".ttf" by default.
+   */
+  public static LottieTask<LottieComposition> preloadAssets(Context context, final LottieTask<LottieComposition> task,
+      @Nullable final String imageAssetsFolder, @Nullable final String fontAssetsFolder, final String fontFileExtension) {
+    // Prevent accidentally leaking an Activity.
+    final Context appContext = context.getApplicationContext();
+    return task.then(composition -> preloadAssetsSync(appContext, composition, imageAssetsFolder, fontAssetsFolder, fontFileExtension));
+  }
+
+  /**
+   * Loads the images and fonts of a composition on the current thread.
+   *
+   * @see #preloadAssets(Context, LottieTask, String, String, String)
+   */
+  @WorkerThread
+  public static void preloadAssetsSync(Context context, LottieComposition composition, @Nullable String imageAssetsFolder,
+      @Nullable String fontAssetsFolder, String fontFileExtension) {
+    AssetPreloader.preload(context, composition, imageAssetsFolder, fontAssetsFolder, fontFileExtension);
+  }
+
   /**
    * Use this to register a callback for when the composition factory is idle or not.
    * This can be used to provide data to an espresso idling resource.
@@ -286,14 +385,65 @@ public class LottieCompositionFactory {
     if (cachedComposition != null) {
       return new LottieResult<>(cachedComposition);
     }
+    return fromBufferedSourceSync(context, Okio.buffer(source(inputStream)), null, cacheKey);
+  }
+
+  /**
+   * Parse an animation from a file on disk. It may be a json, zip, gzip, or precompiled binary file.
+   * <p>
+   * The file is memory mapped rather than copied through an input stream so large animations don't need to
+   * be held on the heap while they are parsed. Images that are embedded in a json file as base64 strings are not
+   * copied either. They are decoded directly from the mapping the first time they are drawn.
+   * <p>
+   * Pass null as the cache key to skip caching.
+   *
+   * @param context is optional and only needed if your zip file contains ttf or otf fonts. If yours doesn't, you may pass null.
+   */
+  public static LottieTask<LottieComposition> fromFile(@Nullable Context context, final File file, @Nullable final String cacheKey) {
+    // App can override {@link Context#getMainLooper()} to support lottie view on per-window ui thread.
+    final Looper uiLooper = context != null ? context.getMainLooper() : Looper.getMainLooper();
+    // Prevent accidentally leaking an Activity.
+    final Context appContext = context == null ? null : context.getApplicationContext();
+    return cache(uiLooper, cacheKey, () -> fromFileSync(appContext, file, cacheKey), null);
+  }
+
+  /**
+   * @see #fromFile(Context, File, String)
+   */
+  @WorkerThread
+  public static LottieResult<LottieComposition> fromFileSync(@Nullable Context context, File file, @Nullable String cacheKey) {
+    final LottieComposition cachedComposition = cacheKey == null ? null : LottieCompositionCache.getInstance().get(cacheKey);
+    if (cachedComposition != null) {
+      return new LottieResult<>(cachedComposition);
+    }
+    FileInputStream stream = null;
+    try {
+      stream = new FileInputStream(file);
+      FileChannel channel = stream.getChannel();
+      // The mapping stays valid after the channel is closed.
+      MappedJsonSource mappedSource = new MappedJsonSource(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+      return fromBufferedSourceSync(context, mappedSource.buffered(), mappedSource, cacheKey);
+    } catch (IOException e) {
+      return new LottieResult<>(e);
+    } finally {
+      closeQuietly(stream);
+    }
+  }
+
+  private static LottieResult<LottieComposition> fromBufferedSourceSync(@Nullable Context context, BufferedSource source,
+      @Nullable MappedJsonSource mappedSource, @Nullable String cacheKey) {
     try {
-      BufferedSource source = Okio.buffer(source(inputStream));
       if (isZipCompressed(source)) {
         return fromZipStreamSync(context, new ZipInputStream(source.inputStream()), cacheKey);
       } else if (isGzipCompressed(source)) {
         return fromJsonInputStreamSync(new GZIPInputStream(source.inputStream()), cacheKey);
+      } else if (isBinaryCompiled(source)) {
+        return fromJsonReaderSync(JsonReader.ofBinary(source), cacheKey);
       }
-      return fromJsonReaderSync(JsonReader.of(source), cacheKey);
+      if (mappedSource == null) {
+        return fromJsonBufferedSourceSyncInternal(source, cacheKey, true);
+      }
+      return fromJsonReaderSyncInternal(JsonReader.of(source), cacheKey, true, mappedSource);
     } catch (IOException e) {
       return new LottieResult<>(e);
     }
@@ -375,6 +525,8 @@ public class LottieCompositionFactory {
           // This shouldn't happen because we check the header for magic bytes.
           return new LottieResult<>(e);
         }
+      } else if (isBinaryCompiled(source)) {
+        return fromJsonReaderSync(JsonReader.ofBinary(source), cacheKey);
       }
       return fromJsonReaderSync(JsonReader.of(source), cacheKey);
     } catch (Resources.NotFoundException e) {
@@ -491,7 +643,7 @@ public class LottieCompositionFactory {
   @WorkerThread
   public static LottieResult<LottieComposition> fromJsonSourceSync(final Source source, @Nullable String cacheKey,
       boolean close) {
-    return fromJsonReaderSyncInternal(JsonReader.of(buffer(source)), cacheKey, close);
+    return fromJsonBufferedSourceSyncInternal(buffer(source), cacheKey, close);
   }
 
   public static LottieTask<LottieComposition> fromJsonReader(final JsonReader reader, @Nullable final String cacheKey) {
@@ -509,14 +661,112 @@ public class LottieCompositionFactory {
     return fromJsonReaderSyncInternal(reader, cacheKey, close);
   }
 
+  /**
+   * @see #fromBinaryInputStreamSync(InputStream, String)
+   */
+  public static LottieTask<LottieComposition> fromBinaryInputStream(final InputStream stream, @Nullable final String cacheKey) {
+    return cache(cacheKey, () -> fromBinaryInputStreamSync(stream, cacheKey), () -> closeQuietly(stream));
+  }
+
+  /**
+   * Return a LottieComposition for an InputStream to an animation that was precompiled with
+   * {@link #writeBinarySync(Source, Sink)}.
+   */
+  @WorkerThread
+  public static LottieResult<LottieComposition> fromBinaryInputStreamSync(InputStream stream, @Nullable String cacheKey) {
+    return fromBinarySourceSync(source(stream), cacheKey);
+  }
+
+  /**
+   * @see #fromBinarySourceSync(Source, String)
+   */
+  public static LottieTask<LottieComposition> fromBinarySource(final Source source, @Nullable final String cacheKey) {
+    return cache(cacheKey, () -> fromBinarySourceSync(source, cacheKey), () -> Utils.closeQuietly(source));
+  }
+
+  /**
+   * Return a LottieComposition for an animation that was precompiled with {@link #writeBinarySync(Source, Sink)}.
+   * <p>
+   * The binary format stores names and strings in a table, numbers in their binary form, and the size of
+   * every object and array so unused values can be skipped without reading them. Loading it skips json
+   * tokenization and number parsing entirely. {@link #fromInputStream(Context, InputStream, String)},
+   * {@link #fromAsset(Context, String)} and {@link #fromRawRes(Context, int)} also detect binary files automatically.
+   */
+  @WorkerThread
+  public static LottieResult<LottieComposition> fromBinarySourceSync(final Source source, @Nullable String cacheKey) {
+    return fromJsonReaderSyncInternal(JsonReader.ofBinary(buffer(source)), cacheKey, true);
+  }
+
+  /**
+   * Precompiles a json animation into the binary format that can be loaded with {@link #fromBinarySourceSync(Source, String)}.
+   * This can be done once at build time or after the first time an animation is loaded.
+   * Both the source and the sink will be closed.
+   */
+  @WorkerThread
+  public static void writeBinarySync(Source jsonSource, Sink binarySink) throws IOException {
+    JsonReader reader = JsonReader.of(buffer(jsonSource));
+    BufferedSink sink = buffer(binarySink);
+    try {
+      JsonBinaryWriter.write(reader, sink);
+    } finally {
+      closeQuietly(reader);
+      closeQuietly(sink);
+    }
+  }
+
+  /**
+   * Splits json into its assets first if {@link LottieConfig.Builder#setEnableParallelParsing(boolean)},
+   * {@link LottieConfig.Builder#setEnableLazyPrecompParsing(boolean)}, or
+   * {@link LottieConfig.Builder#setEnableProgressiveLoading(boolean)} is enabled.
+   */
+  private static LottieResult<LottieComposition> fromJsonBufferedSourceSyncInternal(
+      BufferedSource source, @Nullable String cacheKey, boolean close) {
+    boolean parallel = L.isParallelParsingEnabled();
+    boolean lazyPrecomps = L.isLazyPrecompParsingEnabled();
+    LottieListener<LottieComposition> onPartialResult = partialResultListener.get();
+    if (!parallel && !lazyPrecomps && onPartialResult == null) {
+      return fromJsonReaderSyncInternal(JsonReader.of(source), cacheKey, close);
+    }
+    try {
+      final LottieComposition cachedComposition = cacheKey == null ? null : LottieCompositionCache.getInstance().get(cacheKey);
+      if (cachedComposition != null) {
+        return new LottieResult<>(cachedComposition);
+      }
+      LottieComposition composition = SplitCompositionParser.parse(source.readByteArray(),
+          parallel ? L.getParsingExecutor() : null, L.getParsingParallelism(), lazyPrecomps || onPartialResult != null);
+      if (onPartialResult != null) {
+        StartingPrecomps.parse(composition);
+        onPartialResult.onResult(composition);
+        if (!lazyPrecomps) {
+          composition.parseLazyPrecomps();
+        }
+      }
+      if (cacheKey != null) {
+        LottieCompositionCache.getInstance().put(cacheKey, composition);
+      }
+      return new LottieResult<>(composition);
+    } catch (Exception e) {
+      return new LottieResult<>(e);
+    } finally {
+      if (close) {
+        closeQuietly(source);
+      }
+    }
+  }
+
   private static LottieResult<LottieComposition> fromJsonReaderSyncInternal(
       JsonReader reader, @Nullable String cacheKey, boolean close) {
+    return fromJsonReaderSyncInternal(reader, cacheKey, close, null);
+  }
+
+  private static LottieResult<LottieComposition> fromJsonReaderSyncInternal(
+      JsonReader reader, @Nullable String cacheKey, boolean close, @Nullable MappedJsonSource mappedSource) {
     try {
       final LottieComposition cachedComposition = cacheKey == null ? null : LottieCompositionCache.getInstance().get(cacheKey);
       if (cachedComposition != null) {
         return new LottieResult<>(cachedComposition);
       }
-      LottieComposition composition = LottieCompositionMoshiParser.parse(reader);
+      LottieComposition composition = LottieCompositionMoshiParser.parse(reader, mappedSource);
       if (cacheKey != null) {
         LottieCompositionCache.getInstance().put(cacheKey, composition);
       }
@@ -636,6 +886,7 @@ public class LottieCompositionFactory {
       @Nullable String cacheKey) {
     LottieComposition composition = null;
     Map<String, Bitmap> images = new HashMap<>();
+    Map<String, FutureTask<Bitmap>> pendingImages = new HashMap<>();
     Map<String, Typeface> fonts = new HashMap<>();
 
     try {
@@ -656,7 +907,15 @@ public class LottieCompositionFactory {
         } else if (entryName.contains(".png") || entryName.contains(".webp") || entryName.contains(".jpg") || entryName.contains(".jpeg")) {
           String[] splitName = entryName.split("/");
           String name = splitName[splitName.length - 1];
-          images.put(name, BitmapFactory.decodeStream(inputStream));
+          if (L.isParallelParsingEnabled()) {
+            // Decode images on the parsing executor so they decode while the rest of the zip is read and parsed.
+            final byte[] bytes = buffer(source(inputStream)).readByteArray();
+            FutureTask<Bitmap> decode = new FutureTask<>(() -> BitmapFactory.decodeByteArray(bytes, 0, bytes.length));
+            L.getParsingExecutor().execute(decode);
+            pendingImages.put(name, decode);
+          } else {
+            images.put(name, BitmapFactory.decodeStream(inputStream));
+          }
         } else if (entryName.contains(".ttf") || entryName.contains(".otf")) {
           String[] splitName = entryName.split("/");
           String fileName = splitName[splitName.length - 1];
@@ -695,6 +954,19 @@ public class LottieCompositionFactory {
       return new LottieResult<>(e);
     }
 
+    for (Map.Entry<String, FutureTask<Bitmap>> e : pendingImages.entrySet()) {
+      FutureTask<Bitmap> decode = e.getValue();
+      // Decode it here if the executor hasn't started it yet. This is a no-op if it has.
+      decode.run();
+      try {
+        images.put(e.getKey(), decode.get());
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        return new LottieResult<>(ex);
+      } catch (ExecutionException ex) {
+        return new LottieResult<>(ex.getCause());
+      }
+    }
 
     if (composition == null) {
       return new LottieResult<>(new IllegalArgumentException("Unable to parse composition"));
@@ -726,20 +998,19 @@ public class LottieCompositionFactory {
         if (asset == null) {
           return null;
         }
-        String filename = asset.getFileName();
         BitmapFactory.Options opts = new BitmapFactory.Options();
         opts.inScaled = true;
         opts.inDensity = 160;
 
-        if (filename.startsWith("data:") && filename.indexOf("base64,") > 0) {
-          // Contents look like a base64 data URI, with the format data:image/png;base64,<data>.
-          byte[] data;
-          try {
-            data = Base64.decode(filename.substring(filename.indexOf(',') + 1), Base64.DEFAULT);
-          } catch (IllegalArgumentException e) {
-            Logger.warning("data URL did not have correct base64 format.", e);
-            return null;
-          }
+        // Embedded images are base64 data URIs with the format data:image/png;base64,<data>.
+        byte[] data;
+        try {
+          data = asset.decodeEmbeddedData();
+        } catch (IllegalArgumentException e) {
+          Logger.warning("data URL did not have correct base64 format.", e);
+          return null;
+        }
+        if (data != null) {
           Bitmap bitmap = BitmapFactory.decodeByteArray(data, 0, data.length, opts);
           if (bitmap != null) {
             bitmap = Utils.resizeBitmapIfNeeded(bitmap, asset.getWidth(), asset.getHeight());
@@ -769,6 +1040,21 @@ public class LottieCompositionFactory {
     return matchesMagicBytes(inputSource, GZIP_MAGIC);
   }
 
+  /**
+   * Check if a given InputStream points to an animation precompiled with {@link #writeBinarySync(Source, Sink)}
+   */
+  private static Boolean isBinaryCompiled(BufferedSource inputSource) {
+    try {
+      return JsonBinaryWriter.isBinary(inputSource);
+    } catch (NoSuchMethodError e) {
+      // This happens in the Android Studio layout preview.
+      return false;
+    } catch (Exception e) {
+      Logger.error("Failed to check binary file header", e);
+      return false;
+    }
+  }
+
   private static Boolean matchesMagicBytes(BufferedSource inputSource, byte[] magic) {
     try {
       BufferedSource peek = inputSource.peek();
@@ -825,7 +1111,19 @@ public class LottieCompositionFactory {
       return task;
     }
 
-    task = new LottieTask<>(uiLooper, callable);
+    if (L.isProgressiveLoadingEnabled()) {
+      LottieTask.ProgressiveCallable<LottieComposition> progressiveCallable = onPartialResult -> {
+        partialResultListener.set(onPartialResult);
+        try {
+          return callable.call();
+        } finally {
+          partialResultListener.remove();
+        }
+      };
+      task = new LottieTask<>(uiLooper, progressiveCallable);
+    } else {
+      task = new LottieTask<>(uiLooper, callable);
+    }
     if (cacheKey != null) {
       AtomicBoolean resultAlreadyCalled = new AtomicBoolean(false);
       task.addListener(result -> {
@@ -5,10 +5,16 @@ import androidx.annotation.Nullable;
 import com.airbnb.lottie.configurations.reducemotion.ReducedMotionOption;
 import com.airbnb.lottie.configurations.reducemotion.IgnoreDisabledSystemAnimationsOption;
 import com.airbnb.lottie.configurations.reducemotion.SystemReducedMotionOption;
+import com.airbnb.lottie.model.LottieBitmapPool;
+import com.airbnb.lottie.model.LottieFrameCache;
+import com.airbnb.lottie.model.LottieImageCache;
+import com.airbnb.lottie.model.LottieStaticLayerCacheBudget;
 import com.airbnb.lottie.network.LottieNetworkCacheProvider;
+import com.airbnb.lottie.network.LottieNetworkCacheRevalidation;
 import com.airbnb.lottie.network.LottieNetworkFetcher;
 
 import java.io.File;
+import java.util.concurrent.Executor;
 
 /**
  * Class for custom library configuration.
@@ -21,20 +27,50 @@ public class LottieConfig {
   @Nullable final LottieNetworkCacheProvider cacheProvider;
   final boolean enableSystraceMarkers;
   final boolean enableNetworkCache;
+  final LottieNetworkCacheRevalidation networkCacheRevalidation;
+  final long networkCacheMaxSizeInBytes;
+  final boolean enableNetworkCacheCompilation;
   final boolean disablePathInterpolatorCache;
   final AsyncUpdates defaultAsyncUpdates;
   final ReducedMotionOption reducedMotionOption;
+  final int compositionCacheMaxSizeInBytes;
+  final int frameCacheMaxSizeInBytes;
+  final int imageCacheMaxSizeInBytes;
+  final int bitmapPoolMaxSizeInBytes;
+  final int staticLayerCacheMaxSizeInBytes;
+  final boolean enableHardwareBitmaps;
+  @Nullable final Executor asyncUpdatesExecutor;
+  final boolean enableParallelParsing;
+  final boolean enableLazyPrecompParsing;
+  final boolean enableProgressiveLoading;
 
   private LottieConfig(@Nullable LottieNetworkFetcher networkFetcher, @Nullable LottieNetworkCacheProvider cacheProvider,
-      boolean enableSystraceMarkers, boolean enableNetworkCache, boolean disablePathInterpolatorCache,
-      AsyncUpdates defaultAsyncUpdates, ReducedMotionOption reducedMotionOption) {
+      boolean enableSystraceMarkers, boolean enableNetworkCache, LottieNetworkCacheRevalidation networkCacheRevalidation,
+      long networkCacheMaxSizeInBytes, boolean enableNetworkCacheCompilation, boolean disablePathInterpolatorCache,
+      AsyncUpdates defaultAsyncUpdates, ReducedMotionOption reducedMotionOption, int compositionCacheMaxSizeInBytes,
+      int frameCacheMaxSizeInBytes, int imageCacheMaxSizeInBytes, int bitmapPoolMaxSizeInBytes, int staticLayerCacheMaxSizeInBytes,
+      boolean enableHardwareBitmaps, @Nullable Executor asyncUpdatesExecutor, boolean enableParallelParsing, boolean enableLazyPrecompParsing,
+      boolean enableProgressiveLoading) {
     this.networkFetcher = networkFetcher;
     this.cacheProvider = cacheProvider;
     this.enableSystraceMarkers = enableSystraceMarkers;
     this.enableNetworkCache = enableNetworkCache;
+    this.networkCacheRevalidation = networkCacheRevalidation;
+    this.networkCacheMaxSizeInBytes = networkCacheMaxSizeInBytes;
+    this.enableNetworkCacheCompilation = enableNetworkCacheCompilation;
     this.disablePathInterpolatorCache = disablePathInterpolatorCache;
     this.defaultAsyncUpdates = defaultAsyncUpdates;
     this.reducedMotionOption = reducedMotionOption;
+    this.compositionCacheMaxSizeInBytes = compositionCacheMaxSizeInBytes;
+    this.frameCacheMaxSizeInBytes = frameCacheMaxSizeInBytes;
+    this.imageCacheMaxSizeInBytes = imageCacheMaxSizeInBytes;
+    this.bitmapPoolMaxSizeInBytes = bitmapPoolMaxSizeInBytes;
+    this.staticLayerCacheMaxSizeInBytes = staticLayerCacheMaxSizeInBytes;
+    this.enableHardwareBitmaps = enableHardwareBitmaps;
+    this.asyncUpdatesExecutor = asyncUpdatesExecutor;
+    this.enableParallelParsing = enableParallelParsing;
+    this.enableLazyPrecompParsing = enableLazyPrecompParsing;
+    this.enableProgressiveLoading = enableProgressiveLoading;
   }
 
   public static final class Builder {
@@ -45,9 +81,23 @@ public class LottieConfig {
     private LottieNetworkCacheProvider cacheProvider;
     private boolean enableSystraceMarkers = false;
     private boolean enableNetworkCache = true;
+    private LottieNetworkCacheRevalidation networkCacheRevalidation = LottieNetworkCacheRevalidation.NEVER;
+    private long networkCacheMaxSizeInBytes = 0;
+    private boolean enableNetworkCacheCompilation = false;
     private boolean disablePathInterpolatorCache = false;
     private AsyncUpdates defaultAsyncUpdates = AsyncUpdates.AUTOMATIC;
     private ReducedMotionOption reducedMotionOption = new SystemReducedMotionOption();
+    private int compositionCacheMaxSizeInBytes = 0;
+    private int frameCacheMaxSizeInBytes = LottieFrameCache.DEFAULT_MAX_SIZE_IN_BYTES;
+    private int imageCacheMaxSizeInBytes = LottieImageCache.DEFAULT_MAX_SIZE_IN_BYTES;
+    private int bitmapPoolMaxSizeInBytes = LottieBitmapPool.DEFAULT_MAX_SIZE_IN_BYTES;
+    private int staticLayerCacheMaxSizeInBytes = LottieStaticLayerCacheBudget.DEFAULT_MAX_SIZE_IN_BYTES;
+    private boolean enableHardwareBitmaps = false;
+    @Nullable
+    private Executor asyncUpdatesExecutor;
+    private boolean enableParallelParsing = false;
+    private boolean enableLazyPrecompParsing = false;
+    private boolean enableProgressiveLoading = false;
 
     /**
      * Lottie has a default network fetching stack built on {@link java.net.HttpURLConnection}. However, if you would like to hook into your own
@@ -123,6 +173,58 @@ public class LottieConfig {
       return this;
     }
 
+    /**
+     * Limit the number of bytes that animations in the network cache may use. When a new animation is cached, the least
+     * recently used ones are evicted until the cache fits. Reads and writes are tracked in a journal in the cache
+     * directory so the order survives restarts.
+     * <p>
+     * This must be {@literal >} 0. The network cache is unbounded by default.
+     *
+     * @see LottieCompositionFactory#getNetworkCacheStats(android.content.Context)
+     */
+    @NonNull
+    public Builder setNetworkCacheMaxSizeInBytes(long maxSizeInBytes) {
+      if (maxSizeInBytes <= 0) {
+        throw new IllegalArgumentException("maxSizeInBytes must be > 0");
+      }
+      networkCacheMaxSizeInBytes = maxSizeInBytes;
+      return this;
+    }
+
+    /**
+     * After an animation is downloaded, replace its json, zip, or gzip file in the network cache with a pre-parsed form in
+     * the background. It stores the animation in the binary format from
+     * {@link LottieCompositionFactory#writeBinarySync(okio.Source, okio.Sink)} and the images of zip animations already
+     * decoded and scaled to the size of their assets, so loading it from the cache after a restart doesn't tokenize json
+     * or inflate a zip.
+     * <p>
+     * Zip animations with embedded fonts are cached as they are.
+     * <p>
+     * This is disabled by default.
+     */
+    @NonNull
+    public Builder setEnableNetworkCacheCompilation(boolean enable) {
+      enableNetworkCacheCompilation = enable;
+      return this;
+    }
+
+    /**
+     * Check animations in the network cache for updates when they are loaded. Conditional requests are made with the
+     * ETag and Last-Modified headers of the cached response so unchanged animations aren't downloaded again. Custom
+     * {@link LottieNetworkFetcher}s need to implement
+     * {@link LottieNetworkFetcher#fetchSync(String, String, String)} to support this.
+     * <p>
+     * This only applies to animations loaded from the network cache. Animations that are still in the in-memory
+     * composition cache are used as they are.
+     * <p>
+     * Cached animations are never revalidated by default.
+     */
+    @NonNull
+    public Builder setNetworkCacheRevalidation(@NonNull LottieNetworkCacheRevalidation revalidation) {
+      networkCacheRevalidation = revalidation;
+      return this;
+    }
+
     /**
      * When parsing animations, Lottie has a path interpolator cache. This cache allows Lottie to reuse PathInterpolators
      * across an animation. This is desirable in most cases. However, when shared across screenshot tests, it can cause slight
@@ -162,10 +264,186 @@ public class LottieConfig {
       return this;
     }
 
+    /**
+     * By default, Lottie keeps the 20 most recently used compositions in memory regardless of how large they are.
+     * Set this to bound the in-memory composition cache by the estimated number of bytes its compositions retain
+     * instead so that a few large animations can't hold on to more memory than many small ones.
+     * <p>
+     * 0 keeps the default count based cache.
+     *
+     * @see LottieCompositionFactory#setMaxCacheSizeInBytes(int)
+     */
+    @NonNull
+    public Builder setCompositionCacheMaxSizeInBytes(int maxSizeInBytes) {
+      if (maxSizeInBytes < 0) {
+        throw new IllegalArgumentException("maxSizeInBytes must be >= 0");
+      }
+      compositionCacheMaxSizeInBytes = maxSizeInBytes;
+      return this;
+    }
+
+    /**
+     * Sets how much memory frames that are pre-rendered for {@link LottieDrawable#setFrameCacheEnabled(boolean)} may use
+     * across all animations. Frames that aren't currently shown are evicted, least recently used first.
+     * <p>
+     * Defaults to 8MB.
+     */
+    @NonNull
+    public Builder setFrameCacheMaxSizeInBytes(int maxSizeInBytes) {
+      if (maxSizeInBytes <= 0) {
+        throw new IllegalArgumentException("maxSizeInBytes must be > 0");
+      }
+      frameCacheMaxSizeInBytes = maxSizeInBytes;
+      return this;
+    }
+
+    /**
+     * Sets how much memory images from an images folder or embedded in animations may keep once no drawable shows them.
+     * Decoded images are shared by every drawable that shows them at the same size so an animation that plays in many
+     * list items only decodes its images once. Images that are in use are always kept. The rest are evicted least
+     * recently used first.
+     * <p>
+     * 0 evicts images as soon as they aren't shown. Defaults to 8MB.
+     *
+     * @see LottieCompositionFactory#onTrimMemory(int)
+     */
+    @NonNull
+    public Builder setImageCacheMaxSizeInBytes(int maxSizeInBytes) {
+      if (maxSizeInBytes < 0) {
+        throw new IllegalArgumentException("maxSizeInBytes must be >= 0");
+      }
+      imageCacheMaxSizeInBytes = maxSizeInBytes;
+      return this;
+    }
+
+    /**
+     * Sets how much memory bitmaps that Lottie no longer draws may keep so that they can be reused for images that are
+     * decoded later instead of allocating new ones. Reuse requires KitKat and only applies to images decoded with
+     * {@link android.graphics.BitmapFactory} which Lottie uses for image assets before Pie.
+     * <p>
+     * 0 disables the pool. Defaults to 4MB.
+     */
+    @NonNull
+    public Builder setBitmapPoolMaxSizeInBytes(int maxSizeInBytes) {
+      if (maxSizeInBytes < 0) {
+        throw new IllegalArgumentException("maxSizeInBytes must be >= 0");
+      }
+      bitmapPoolMaxSizeInBytes = maxSizeInBytes;
+      return this;
+    }
+
+    /**
+     * Sets how much memory the bitmaps of layers that are cached by {@link LottieDrawable#setStaticLayerCachingEnabled(boolean)}
+     * may use across all drawables. Each cached layer holds a bitmap the size of its on screen bounds. Layers that don't
+     * fit are drawn normally.
+     * <p>
+     * 0 disables static layer caching. Defaults to 16MB.
+     */
+    @NonNull
+    public Builder setStaticLayerCacheMaxSizeInBytes(int maxSizeInBytes) {
+      if (maxSizeInBytes < 0) {
+        throw new IllegalArgumentException("maxSizeInBytes must be >= 0");
+      }
+      staticLayerCacheMaxSizeInBytes = maxSizeInBytes;
+      return this;
+    }
+
+    /**
+     * Decode image assets from the images folder or embedded in the animation into {@link android.graphics.Bitmap.Config#HARDWARE}
+     * bitmaps on Pie and above. They are stored only in graphics memory rather than on the Java heap. This only applies
+     * to drawables that use {@link RenderMode#HARDWARE} and don't have the frame cache enabled. If such an image is drawn
+     * on a software canvas anyway, for example by another drawable that shares the composition, a software copy is
+     * made for it.
+     * <p>
+     * Bitmaps from an {@link ImageAssetDelegate} or a zip file are used as they are.
+     * <p>
+     * This is disabled by default.
+     */
+    @NonNull
+    public Builder setEnableHardwareBitmaps(boolean enable) {
+      enableHardwareBitmaps = enable;
+      return this;
+    }
+
+    /**
+     * Provide the executor that progress updates run on when {@link AsyncUpdates} are enabled. By default, Lottie uses a
+     * small pool of up to two high priority threads that time out when no animations are playing. You may want to share an
+     * executor with the rest of your app or give it more threads if you play many animations at once.
+     * <p>
+     * Each drawable only ever has one progress update queued at a time so a busy executor will skip frames rather than
+     * fall further behind. Use {@link Lottie#getAsyncUpdatesStats()} to see how long updates wait in the queue.
+     */
+    @NonNull
+    public Builder setAsyncUpdatesExecutor(@NonNull Executor executor) {
+      asyncUpdatesExecutor = executor;
+      return this;
+    }
+
+    /**
+     * Parse the precomps, images, and font characters of json animations on multiple threads. The document is split
+     * into the byte ranges of each of them first and they are parsed while the loading thread parses the top level
+     * layers. This speeds up loading animations with large precomps or many glyphs on multi-core devices at the cost of
+     * holding the whole document in memory while it is parsed.
+     * <p>
+     * Images in zip files are also decoded on other threads while the rest of the zip is read.
+     * <p>
+     * Binary animations and files loaded with {@link LottieCompositionFactory#fromFile(android.content.Context, File)} are always
+     * parsed on a single thread.
+     * <p>
+     * This is disabled by default.
+     */
+    @NonNull
+    public Builder setEnableParallelParsing(boolean enable) {
+      enableParallelParsing = enable;
+      return this;
+    }
+
+    /**
+     * Skip the layers of precomps when json animations are loaded and parse them the first time that they are drawn
+     * instead. Precomps that are never on screen, such as ones that are only visible in segments or markers that
+     * aren't played, are never parsed. This reduces load time and memory for animations that are only partially played
+     * at the cost of parsing precomps on the thread that first draws them and holding the json in memory until they
+     * have all been parsed. Resolving key paths parses every precomp that they could match.
+     * <p>
+     * {@link RenderMode#AUTOMATIC} only takes the masks, mattes, and dash patterns of precomps that have been parsed
+     * into account. Binary animations and files loaded with
+     * {@link LottieCompositionFactory#fromFile(android.content.Context, File)} are always parsed completely.
+     * <p>
+     * This is disabled by default.
+     */
+    @NonNull
+    public Builder setEnableLazyPrecompParsing(boolean enable) {
+      enableLazyPrecompParsing = enable;
+      return this;
+    }
+
+    /**
+     * Show json animations loaded with {@link LottieCompositionFactory} and {@link LottieAnimationView} before they have
+     * been parsed completely. Once the top level layers and the precomps that are visible on the first frame have been
+     * parsed, the composition is published to {@link LottieTask#addPartialListener(LottieListener)} so that it can be
+     * drawn. The rest of its precomps are then parsed in the background before the task completes with the same
+     * composition. If a precomp is drawn before the background has reached it, it is parsed when it is drawn.
+     * <p>
+     * This shortens the time to the first frame of large animations, especially ones loaded from the network. The
+     * animation still has to be downloaded completely before it can be shown.
+     * <p>
+     * This is disabled by default.
+     *
+     * @see #setEnableLazyPrecompParsing(boolean)
+     */
+    @NonNull
+    public Builder setEnableProgressiveLoading(boolean enable) {
+      enableProgressiveLoading = enable;
+      return this;
+    }
+
     @NonNull
     public LottieConfig build() {
-      return new LottieConfig(networkFetcher, cacheProvider, enableSystraceMarkers, enableNetworkCache, disablePathInterpolatorCache,
-          defaultAsyncUpdates, reducedMotionOption);
+      return new LottieConfig(networkFetcher, cacheProvider, enableSystraceMarkers, enableNetworkCache, networkCacheRevalidation,
+          networkCacheMaxSizeInBytes, enableNetworkCacheCompilation, disablePathInterpolatorCache, defaultAsyncUpdates,
+          reducedMotionOption, compositionCacheMaxSizeInBytes, frameCacheMaxSizeInBytes, imageCacheMaxSizeInBytes,
+          bitmapPoolMaxSizeInBytes, staticLayerCacheMaxSizeInBytes, enableHardwareBitmaps, asyncUpdatesExecutor,
+          enableParallelParsing, enableLazyPrecompParsing, enableProgressiveLoading);
     }
   }
 }
@@ -6,12 +6,15 @@ import android.annotation.SuppressLint;
 import android.content.Context;
 import android.graphics.Bitmap;
 import android.graphics.Canvas;
+import android.graphics.Color;
 import android.graphics.ColorFilter;
 import android.graphics.Matrix;
 import android.graphics.Paint;
 import android.graphics.PixelFormat;
+import android.graphics.PorterDuff;
 import android.graphics.Rect;
 import android.graphics.RectF;
+import android.graphics.RenderNode;
 import android.graphics.Typeface;
 import android.graphics.drawable.Animatable;
 import android.graphics.drawable.Drawable;
@@ -31,6 +34,7 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.RequiresApi;
 import androidx.annotation.RestrictTo;
+import androidx.annotation.VisibleForTesting;
 
 import com.airbnb.lottie.animation.LPaint;
 import com.airbnb.lottie.configurations.reducemotion.ReducedMotionMode;
@@ -38,9 +42,12 @@ import com.airbnb.lottie.manager.FontAssetManager;
 import com.airbnb.lottie.manager.ImageAssetManager;
 import com.airbnb.lottie.model.Font;
 import com.airbnb.lottie.model.KeyPath;
+import com.airbnb.lottie.model.LottieBitmapPool;
+import com.airbnb.lottie.model.LottieFrameCache;
 import com.airbnb.lottie.model.Marker;
 import com.airbnb.lottie.model.layer.CompositionLayer;
 import com.airbnb.lottie.parser.LayerParser;
+import com.airbnb.lottie.utils.AsyncUpdatesMetrics;
 import com.airbnb.lottie.utils.Logger;
 import com.airbnb.lottie.utils.LottieThreadFactory;
 import com.airbnb.lottie.utils.LottieValueAnimator;
@@ -60,9 +67,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Executor;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * This can be used to show an lottie animation in any place that would normally take a drawable.
@@ -162,6 +171,7 @@ public class LottieDrawable extends Drawable implements Drawable.Callback, Anima
   private boolean isApplyingOpacityToLayersEnabled;
   private boolean isApplyingShadowToLayersEnabled;
   private boolean clipTextToBoundingBox = false;
+  private boolean staticLayerCachingEnabled = false;
 
   private RenderMode renderMode = RenderMode.AUTOMATIC;
   /**
@@ -170,6 +180,11 @@ public class LottieDrawable extends Drawable implements Drawable.Callback, Anima
   private boolean useSoftwareRendering = false;
   private final Matrix renderingMatrix = new Matrix();
   private Bitmap softwareRenderingBitmap;
+  /**
+   * Whether {@link #softwareRenderingBitmap} has been drawn on a hardware accelerated canvas. A display list may still
+   * reference it, so it is neither reconfigured nor given to {@link LottieBitmapPool} once it is replaced.
+   */
+  private boolean softwareRenderingBitmapDrawnToHardwareCanvas = false;
   private Canvas softwareRenderingCanvas;
   private Rect canvasClipBounds;
   private RectF canvasClipBoundsRectF;
@@ -181,6 +196,30 @@ public class LottieDrawable extends Drawable implements Drawable.Callback, Anima
   private Matrix softwareRenderingOriginalCanvasMatrix;
   private float[] softwareRenderingOriginalCanvasMatrixElements = new float[9];
   private Matrix softwareRenderingOriginalCanvasMatrixInverse;
+  /**
+   * The area of {@link #softwareRenderingBitmap} that has to be redrawn for the current frame.
+   */
+  private RectF softwareRenderingDamage;
+  /**
+   * The rendering matrix, canvas scale, and alpha that {@link #softwareRenderingBitmap} was last drawn with.
+   */
+  private Matrix softwareRenderingDrawnMatrix;
+  private float softwareRenderingDrawnScaleX;
+  private float softwareRenderingDrawnScaleY;
+  private int softwareRenderingDrawnAlpha;
+  /**
+   * False if something other than the progress changed since {@link #softwareRenderingBitmap} was last drawn so that
+   * it has to be redrawn in full rather than only the layers that changed.
+   */
+  private volatile boolean softwareRenderingDamageTracked = false;
+  /**
+   * False if which layers are static hasn't been computed for the current composition layer and render state yet.
+   */
+  private boolean staticLayerStateUpToDate = false;
+  /**
+   * The thread that is setting the progress of the composition layer. Invalidations from it are tracked as damage.
+   */
+  @Nullable private volatile Thread progressUpdateThread;
 
   /**
    * True if the drawable has not been drawn since the last invalidateSelf.
@@ -189,6 +228,31 @@ public class LottieDrawable extends Drawable implements Drawable.Callback, Anima
    */
   private boolean isDirty = false;
 
+  private boolean displayListCachingEnabled = false;
+  /**
+   * The composition recorded at {@link #displayListProgress}, {@link #displayListAlpha}, and {@link #displayListMatrix}.
+   */
+  @Nullable private RenderNode displayListRenderNode;
+  private float displayListProgress;
+  private int displayListAlpha;
+  private final Matrix displayListMatrix = new Matrix();
+
+  private boolean frameCacheEnabled = false;
+  /**
+   * The pre-rendered frames that are currently being drawn. While this is set, the composition layer's progress is only
+   * updated when a frame that hasn't been rendered yet is needed.
+   */
+  @Nullable private LottieFrameCache.Strip frameCacheStrip;
+  @Nullable private String frameCacheKey;
+  /**
+   * Set once anything that changes how frames are rendered, such as a value callback, is applied. After that, pre-rendered
+   * frames are only shared with drawables that use the same {@link #setFrameCacheKey(String) frame cache key}.
+   */
+  private boolean hasCustomRenderState = false;
+  private final Object customRenderStateToken = new Object();
+  private Paint frameCachePaint;
+  private Canvas frameCacheCanvas;
+
   /**
    * Use the getter so that it can fall back to {@link L#getDefaultAsyncUpdates()}.
    */
@@ -199,9 +263,14 @@ public class LottieDrawable extends Drawable implements Drawable.Callback, Anima
       // If draw is called while lastDrawnProgress is still recent enough, it will
       // draw straight away and then enqueue a background setProgress immediately after draw
       // finishes.
+      progressUpdateThread = Thread.currentThread();
+      invalidateSelf();
+      progressUpdateThread = null;
+    } else if (frameCacheStrip != null) {
+      // The frame will be picked from the frame cache when it is drawn.
       invalidateSelf();
     } else if (compositionLayer != null) {
-      compositionLayer.setProgress(animator.getAnimatedValueAbsolute());
+      setCompositionLayerProgress(compositionLayer, animator.getAnimatedValueAbsolute());
     }
   };
 
@@ -223,20 +292,31 @@ public class LottieDrawable extends Drawable implements Drawable.Callback, Anima
    * <p/>
    * Each thread will timeout after 35ms which gives it enough time to persist for one frame, one dropped frame
    * and a few extra ms just in case.
+   * <p/>
+   * This can be replaced with {@link LottieConfig.Builder#setAsyncUpdatesExecutor(Executor)}.
    */
-  private static final Executor setProgressExecutor = new ThreadPoolExecutor(0, 2, 35, TimeUnit.MILLISECONDS,
+  private static final Executor defaultSetProgressExecutor = new ThreadPoolExecutor(0, 2, 35, TimeUnit.MILLISECONDS,
       new LinkedBlockingQueue<>(), new LottieThreadFactory());
   private Handler mainThreadHandler;
   private Runnable invalidateSelfRunnable;
+  /**
+   * True while {@link #updateProgressRunnable} is queued but hasn't started yet. It always sets the latest progress when it
+   * runs so there is no need to queue it again until then.
+   */
+  private final AtomicBoolean progressUpdatePending = new AtomicBoolean(false);
+  private volatile long progressUpdateScheduledNanos;
 
   private final Runnable updateProgressRunnable = () -> {
+    progressUpdatePending.set(false);
+    AsyncUpdatesMetrics.onStarted(System.nanoTime() - progressUpdateScheduledNanos);
     CompositionLayer compositionLayer = this.compositionLayer;
     if (compositionLayer == null) {
+      AsyncUpdatesMetrics.onCompleted();
       return;
     }
     try {
       setProgressDrawLock.acquire();
-      compositionLayer.setProgress(animator.getAnimatedValueAbsolute());
+      setCompositionLayerProgress(compositionLayer, animator.getAnimatedValueAbsolute());
       // Refer to invalidateSelfOnMainThread for more info.
       if (invalidateSelfOnMainThread && isDirty) {
         if (mainThreadHandler == null) {
@@ -254,6 +334,7 @@ public class LottieDrawable extends Drawable implements Drawable.Callback, Anima
       // Do nothing.
     } finally {
       setProgressDrawLock.release();
+      AsyncUpdatesMetrics.onCompleted();
     }
   };
   private float lastDrawnProgress = -Float.MAX_VALUE;
@@ -354,6 +435,7 @@ public class LottieDrawable extends Drawable implements Drawable.Callback, Anima
   public void setClipToCompositionBounds(boolean clipToCompositionBounds) {
     if (clipToCompositionBounds != this.clipToCompositionBounds) {
       this.clipToCompositionBounds = clipToCompositionBounds;
+      onCustomRenderStateChanged();
       CompositionLayer compositionLayer = this.compositionLayer;
       if (compositionLayer != null) {
         compositionLayer.setClipToCompositionBounds(clipToCompositionBounds);
@@ -402,7 +484,12 @@ public class LottieDrawable extends Drawable implements Drawable.Callback, Anima
    * Defaults to false.
    */
   public void setMaintainOriginalImageBounds(boolean maintainOriginalImageBounds) {
+    if (this.maintainOriginalImageBounds == maintainOriginalImageBounds) {
+      return;
+    }
     this.maintainOriginalImageBounds = maintainOriginalImageBounds;
+    // Images that were cached as part of static layers are drawn with different bounds now.
+    onCustomRenderStateChanged();
   }
 
   /**
@@ -528,6 +615,31 @@ public class LottieDrawable extends Drawable implements Drawable.Callback, Anima
         Build.VERSION.SDK_INT, composition.hasDashPattern(), composition.getMaskAndMatteCount());
   }
 
+  /**
+   * Called when the composition was set from a partial result of a progressive load and the load has completed. The
+   * precomps that were parsed in the meantime can have dash patterns, masks, and mattes so the render mode is computed
+   * again.
+   */
+  void onCompositionLoaded() {
+    computeRenderMode();
+    invalidateSelf();
+  }
+
+  /**
+   * Called when the layers of a lazy precomp were built. Parsing it can add dash patterns, masks, and mattes to the
+   * composition after the render mode was computed in {@link #setComposition(LottieComposition)}.
+   */
+  @RestrictTo(RestrictTo.Scope.LIBRARY)
+  public void onLazyPrecompLayersBuilt() {
+    boolean useSoftwareRendering = this.useSoftwareRendering;
+    computeRenderMode();
+    if (useSoftwareRendering != this.useSoftwareRendering) {
+      // This is usually called while drawing so the frame that is being drawn doesn't count as the redraw.
+      isDirty = false;
+      invalidateSelf();
+    }
+  }
+
   public void setPerformanceTrackingEnabled(boolean enabled) {
     performanceTrackingEnabled = enabled;
     if (composition != null) {
@@ -546,6 +658,7 @@ public class LottieDrawable extends Drawable implements Drawable.Callback, Anima
       return;
     }
     outlineMasksAndMattes = outline;
+    onCustomRenderStateChanged();
     if (compositionLayer != null) {
       compositionLayer.setOutlineMasksAndMattes(outline);
     }
@@ -574,6 +687,7 @@ public class LottieDrawable extends Drawable implements Drawable.Callback, Anima
    */
   public void setApplyingOpacityToLayersEnabled(boolean isApplyingOpacityToLayersEnabled) {
     this.isApplyingOpacityToLayersEnabled = isApplyingOpacityToLayersEnabled;
+    onCustomRenderStateChanged();
   }
 
   /**
@@ -592,6 +706,7 @@ public class LottieDrawable extends Drawable implements Drawable.Callback, Anima
    */
   public void setApplyingShadowToLayersEnabled(boolean isApplyingShadowsToLayersEnabled) {
     this.isApplyingShadowToLayersEnabled = isApplyingShadowsToLayersEnabled;
+    onCustomRenderStateChanged();
   }
 
   /**
@@ -621,10 +736,167 @@ public class LottieDrawable extends Drawable implements Drawable.Callback, Anima
   public void setClipTextToBoundingBox(boolean clipTextToBoundingBox) {
     if (clipTextToBoundingBox != this.clipTextToBoundingBox) {
       this.clipTextToBoundingBox = clipTextToBoundingBox;
+      onCustomRenderStateChanged();
       invalidateSelf();
     }
   }
 
+  /**
+   * When enabled, each frame of the animation is rendered once at the size of this drawable's bounds and then the rendered
+   * bitmap is drawn for every subsequent draw of that frame. The rendered frames are shared by every drawable that shows
+   * the same composition at the same size so this is well suited to small animations that are shown many times at once such
+   * as loaders or like buttons in a list.
+   * <p>
+   * Frames are rendered at whole composition frames and are scaled if the canvas is scaled so this is not well suited to
+   * large animations or ones that are drawn with a transform. The memory used by pre-rendered frames is bounded by
+   * {@link LottieConfig.Builder#setFrameCacheMaxSizeInBytes(int)}. If an animation doesn't fit in the budget, it will be
+   * rendered normally.
+   * <p>
+   * Once dynamic properties, a text delegate, or fonts are set, frames are no longer shared with other drawables unless
+   * they are given the same {@link #setFrameCacheKey(String)}.
+   * <p>
+   * Defaults to false.
+   */
+  public void setFrameCacheEnabled(boolean frameCacheEnabled) {
+    if (this.frameCacheEnabled == frameCacheEnabled) {
+      return;
+    }
+    this.frameCacheEnabled = frameCacheEnabled;
+    if (!frameCacheEnabled) {
+      releaseFrameCacheStrip();
+    }
+    invalidateSelf();
+  }
+
+  /**
+   * @see #setFrameCacheEnabled(boolean)
+   */
+  public boolean isFrameCacheEnabled() {
+    return frameCacheEnabled;
+  }
+
+  /**
+   * Drawables with custom dynamic properties only share pre-rendered frames if they have the same key. Set the same key on
+   * every drawable that applies the same dynamic properties to let them share frames again.
+   *
+   * @see #setFrameCacheEnabled(boolean)
+   */
+  public void setFrameCacheKey(@Nullable String frameCacheKey) {
+    this.frameCacheKey = frameCacheKey;
+    releaseFrameCacheStrip();
+    invalidateSelf();
+  }
+
+  /**
+   * When enabled, layers and precomps that look exactly the same on every frame are found when the composition is set and
+   * are rendered once into a bitmap that is drawn on every subsequent frame. This skips recomputing their matrices, paths,
+   * and paints and can make animations with large static backgrounds or decorations much cheaper to draw.
+   * <p>
+   * Each cached layer holds a bitmap the size of its on screen bounds. They are limited across all drawables by
+   * {@link LottieConfig.Builder#setStaticLayerCacheMaxSizeInBytes(int)}. Layers are re-rendered if the size of the drawable
+   * changes and layers that turn out to be drawn with a changing transform, such as an animated parent, stop being cached.
+   * Setting a value callback re-evaluates which layers are static.
+   * <p>
+   * Defaults to false.
+   */
+  public void setStaticLayerCachingEnabled(boolean staticLayerCachingEnabled) {
+    if (this.staticLayerCachingEnabled == staticLayerCachingEnabled) {
+      return;
+    }
+    this.staticLayerCachingEnabled = staticLayerCachingEnabled;
+    CompositionLayer compositionLayer = this.compositionLayer;
+    if (compositionLayer != null) {
+      updateStaticLayerCaches(compositionLayer);
+    }
+    invalidateSelf();
+  }
+
+  /**
+   * @see #setStaticLayerCachingEnabled(boolean)
+   */
+  public boolean isStaticLayerCachingEnabled() {
+    return staticLayerCachingEnabled;
+  }
+
+  /**
+   * When enabled on Android 10 and above, the composition is recorded into a {@link RenderNode} when it is drawn with
+   * hardware acceleration. If it is drawn again at the same progress, alpha, and bounds without having been invalidated in
+   * between, only the recorded node is drawn instead of issuing every path and paint again. This makes paused animations
+   * and static thumbnails that are redrawn because of their surroundings, such as while scrolling, much cheaper to draw.
+   * <p>
+   * This has no effect with {@link RenderMode#SOFTWARE} or while frames are drawn from the frame cache.
+   * <p>
+   * Defaults to false.
+   */
+  public void setDisplayListCachingEnabled(boolean displayListCachingEnabled) {
+    if (this.displayListCachingEnabled == displayListCachingEnabled) {
+      return;
+    }
+    this.displayListCachingEnabled = displayListCachingEnabled;
+    if (!displayListCachingEnabled) {
+      releaseDisplayList();
+    }
+    invalidateSelf();
+  }
+
+  /**
+   * @see #setDisplayListCachingEnabled(boolean)
+   */
+  public boolean isDisplayListCachingEnabled() {
+    return displayListCachingEnabled;
+  }
+
+  private void releaseDisplayList() {
+    if (displayListRenderNode != null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+      displayListRenderNode.discardDisplayList();
+    }
+    displayListRenderNode = null;
+  }
+
+  private void onCustomRenderStateChanged() {
+    hasCustomRenderState = true;
+    // Frames that were already rendered may not match the new state.
+    releaseFrameCacheStrip();
+    softwareRenderingDamageTracked = false;
+    staticLayerStateUpToDate = false;
+    CompositionLayer compositionLayer = this.compositionLayer;
+    if (staticLayerCachingEnabled && compositionLayer != null) {
+      updateStaticLayerCaches(compositionLayer);
+    }
+  }
+
+  /**
+   * Recomputes which layers are static. This is needed by static layer caching and by software rendering, which only
+   * redraws the layers that changed. Otherwise it is skipped.
+   */
+  private void updateStaticLayerCaches(CompositionLayer compositionLayer) {
+    compositionLayer.updateStaticLayerCaches(staticLayerCachingEnabled);
+    staticLayerStateUpToDate = true;
+  }
+
+  private void setCompositionLayerProgress(CompositionLayer compositionLayer, float progress) {
+    progressUpdateThread = Thread.currentThread();
+    try {
+      compositionLayer.setProgress(progress);
+    } finally {
+      progressUpdateThread = null;
+    }
+  }
+
+  private void releaseFrameCacheStrip() {
+    LottieFrameCache.Strip strip = frameCacheStrip;
+    if (strip == null) {
+      return;
+    }
+    frameCacheStrip = null;
+    LottieFrameCache.getInstance().release(strip);
+    // The composition layer's progress wasn't updated while frames were drawn from the strip.
+    CompositionLayer compositionLayer = this.compositionLayer;
+    if (compositionLayer != null) {
+      compositionLayer.setProgress(animator.getAnimatedValueAbsolute());
+    }
+  }
+
   private void buildCompositionLayer() {
     LottieComposition composition = this.composition;
     if (composition == null) {
@@ -636,6 +908,10 @@ public class LottieDrawable extends Drawable implements Drawable.Callback, Anima
       compositionLayer.setOutlineMasksAndMattes(true);
     }
     compositionLayer.setClipToCompositionBounds(clipToCompositionBounds);
+    staticLayerStateUpToDate = false;
+    if (staticLayerCachingEnabled) {
+      updateStaticLayerCaches(compositionLayer);
+    }
   }
 
   public void clearComposition() {
@@ -645,8 +921,14 @@ public class LottieDrawable extends Drawable implements Drawable.Callback, Anima
         onVisibleAction = OnVisibleAction.NONE;
       }
     }
+    releaseFrameCacheStrip();
+    releaseDisplayList();
+    releaseSoftwareRenderingBitmap();
     composition = null;
     compositionLayer = null;
+    if (imageAssetManager != null) {
+      imageAssetManager.release();
+    }
     imageAssetManager = null;
     lastDrawnProgress = -Float.MAX_VALUE;
     animator.clearComposition();
@@ -667,6 +949,10 @@ public class LottieDrawable extends Drawable implements Drawable.Callback, Anima
 
   @Override
   public void invalidateSelf() {
+    if (progressUpdateThread != Thread.currentThread()) {
+      // Only changes to the progress are tracked by the layers.
+      softwareRenderingDamageTracked = false;
+    }
     if (isDirty) {
       return;
     }
@@ -748,7 +1034,9 @@ public class LottieDrawable extends Drawable implements Drawable.Callback, Anima
 
       if (safeMode) {
         try {
-          if (useSoftwareRendering) {
+          if (frameCacheEnabled && drawFromFrameCache(canvas, compositionLayer)) {
+            // Drawn from pre-rendered frames.
+          } else if (useSoftwareRendering) {
             renderAndDrawAsBitmap(canvas, compositionLayer);
           } else {
             drawDirectlyToCanvas(canvas);
@@ -757,7 +1045,9 @@ public class LottieDrawable extends Drawable implements Drawable.Callback, Anima
           Logger.error("Lottie crashed in draw!", e);
         }
       } else {
-        if (useSoftwareRendering) {
+        if (frameCacheEnabled && drawFromFrameCache(canvas, compositionLayer)) {
+          // Drawn from pre-rendered frames.
+        } else if (useSoftwareRendering) {
           renderAndDrawAsBitmap(canvas, compositionLayer);
         } else {
           drawDirectlyToCanvas(canvas);
@@ -774,7 +1064,7 @@ public class LottieDrawable extends Drawable implements Drawable.Callback, Anima
       if (asyncUpdatesEnabled) {
         setProgressDrawLock.release();
         if (compositionLayer.getProgress() != animator.getAnimatedValueAbsolute()) {
-          setProgressExecutor.execute(updateProgressRunnable);
+          scheduleProgressUpdate();
         }
       }
     }
@@ -815,12 +1105,29 @@ public class LottieDrawable extends Drawable implements Drawable.Callback, Anima
       if (asyncUpdatesEnabled) {
         setProgressDrawLock.release();
         if (compositionLayer.getProgress() != animator.getAnimatedValueAbsolute()) {
-          setProgressExecutor.execute(updateProgressRunnable);
+          scheduleProgressUpdate();
         }
       }
     }
   }
 
+  @VisibleForTesting void scheduleProgressUpdate() {
+    if (!progressUpdatePending.compareAndSet(false, true)) {
+      AsyncUpdatesMetrics.onDropped();
+      return;
+    }
+    progressUpdateScheduledNanos = System.nanoTime();
+    AsyncUpdatesMetrics.onScheduled();
+    Executor executor = L.getAsyncUpdatesExecutor();
+    try {
+      (executor != null ? executor : defaultSetProgressExecutor).execute(updateProgressRunnable);
+    } catch (RejectedExecutionException e) {
+      progressUpdatePending.set(false);
+      AsyncUpdatesMetrics.onUnscheduled();
+      AsyncUpdatesMetrics.onDropped();
+    }
+  }
+
   private void draw(Canvas canvas, Matrix matrix, CompositionLayer compositionLayer, int alpha) {
     if (useSoftwareRendering) {
       canvas.save();
@@ -1357,6 +1664,7 @@ public class LottieDrawable extends Drawable implements Drawable.Callback, Anima
    */
   public void setImageAssetDelegate(ImageAssetDelegate assetDelegate) {
     this.imageAssetDelegate = assetDelegate;
+    onCustomRenderStateChanged();
     if (imageAssetManager != null) {
       imageAssetManager.setDelegate(assetDelegate);
     }
@@ -1367,6 +1675,7 @@ public class LottieDrawable extends Drawable implements Drawable.Callback, Anima
    */
   public void setFontAssetDelegate(FontAssetDelegate assetDelegate) {
     this.fontAssetDelegate = assetDelegate;
+    onCustomRenderStateChanged();
     if (fontAssetManager != null) {
       fontAssetManager.setDelegate(assetDelegate);
     }
@@ -1388,11 +1697,13 @@ public class LottieDrawable extends Drawable implements Drawable.Callback, Anima
       return;
     }
     this.fontMap = fontMap;
+    onCustomRenderStateChanged();
     invalidateSelf();
   }
 
   public void setTextDelegate(@SuppressWarnings("NullableProblems") TextDelegate textDelegate) {
     this.textDelegate = textDelegate;
+    onCustomRenderStateChanged();
   }
 
   @Nullable
@@ -1489,6 +1800,7 @@ public class LottieDrawable extends Drawable implements Drawable.Callback, Anima
       invalidate = !elements.isEmpty();
     }
     if (invalidate) {
+      onCustomRenderStateChanged();
       invalidateSelf();
       if (property == LottieProperty.TIME_REMAP) {
         // Time remapping values are read in setProgress. In order for the new value
@@ -1530,6 +1842,7 @@ public class LottieDrawable extends Drawable implements Drawable.Callback, Anima
       return null;
     }
     Bitmap ret = bm.updateBitmap(id, bitmap);
+    onCustomRenderStateChanged();
     invalidateSelf();
     return ret;
   }
@@ -1593,6 +1906,7 @@ public class LottieDrawable extends Drawable implements Drawable.Callback, Anima
 
   private ImageAssetManager getImageAssetManager() {
     if (imageAssetManager != null && !imageAssetManager.hasSameContext(getContext())) {
+      imageAssetManager.release();
       imageAssetManager = null;
     }
 
@@ -1600,6 +1914,8 @@ public class LottieDrawable extends Drawable implements Drawable.Callback, Anima
       imageAssetManager = new ImageAssetManager(getCallback(),
           imageAssetsFolder, imageAssetDelegate, composition.getImages());
     }
+    // Software rendering and the frame cache draw onto software canvases which can't draw hardware bitmaps.
+    imageAssetManager.setHardwareBitmapsAllowed(L.isHardwareBitmapsEnabled() && !useSoftwareRendering && !frameCacheEnabled);
 
     return imageAssetManager;
   }
@@ -1733,6 +2049,55 @@ public class LottieDrawable extends Drawable implements Drawable.Callback, Anima
     callback.unscheduleDrawable(this, what);
   }
 
+  /**
+   * Pre-rendered frame path.
+   *
+   * @return false if the frames couldn't be cached and the animation should be drawn normally.
+   * @see #setFrameCacheEnabled(boolean)
+   */
+  private boolean drawFromFrameCache(Canvas canvas, CompositionLayer compositionLayer) {
+    LottieComposition composition = this.composition;
+    Rect bounds = getBounds();
+    if (composition == null || bounds.isEmpty()) {
+      return false;
+    }
+    int width = bounds.width();
+    int height = bounds.height();
+    Object renderState = frameCacheKey != null ? frameCacheKey : hasCustomRenderState ? customRenderStateToken : "";
+    LottieFrameCache.Strip strip = frameCacheStrip;
+    if (strip == null || !strip.matches(composition, width, height, renderState)) {
+      releaseFrameCacheStrip();
+      strip = LottieFrameCache.getInstance().acquire(composition, width, height, renderState);
+      if (strip == null) {
+        return false;
+      }
+      frameCacheStrip = strip;
+    }
+
+    int index = strip.getFrameIndex(animator.getFrame());
+    Bitmap frame = strip.getBitmap(index);
+    if (frame == null) {
+      frame = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+      if (frameCacheCanvas == null) {
+        frameCacheCanvas = new Canvas();
+      }
+      frameCacheCanvas.setBitmap(frame);
+      compositionLayer.setProgress(composition.getProgressForFrame(strip.getFrame(index)));
+      renderingMatrix.reset();
+      renderingMatrix.preScale(width / (float) composition.getBounds().width(), height / (float) composition.getBounds().height());
+      compositionLayer.draw(frameCacheCanvas, renderingMatrix, 255, null);
+      frameCacheCanvas.setBitmap(null);
+      strip.putBitmap(index, frame);
+    }
+
+    if (frameCachePaint == null) {
+      frameCachePaint = new LPaint();
+    }
+    frameCachePaint.setAlpha(alpha);
+    canvas.drawBitmap(frame, bounds.left, bounds.top, frameCachePaint);
+    return true;
+  }
+
   /**
    * Hardware accelerated render path.
    */
@@ -1753,9 +2118,53 @@ public class LottieDrawable extends Drawable implements Drawable.Callback, Anima
       renderingMatrix.preTranslate(bounds.left, bounds.top);
       renderingMatrix.preScale(scaleX, scaleY);
     }
+    if (displayListCachingEnabled && Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q && canvas.isHardwareAccelerated()) {
+      drawDisplayList(canvas, compositionLayer);
+      return;
+    }
     compositionLayer.draw(canvas, renderingMatrix, alpha, null);
   }
 
+  /**
+   * Draws the composition from {@link #displayListRenderNode} and only records it again if the drawable has been invalidated
+   * or if it would be drawn differently than when it was last recorded.
+   *
+   * @see #setDisplayListCachingEnabled(boolean)
+   */
+  @RequiresApi(api = Build.VERSION_CODES.Q)
+  private void drawDisplayList(Canvas canvas, CompositionLayer compositionLayer) {
+    RenderNode renderNode = displayListRenderNode;
+    if (renderNode == null) {
+      renderNode = displayListRenderNode = new RenderNode("LottieDrawable");
+      // The composition may draw outside of the drawable's bounds if clipToCompositionBounds is false.
+      renderNode.setClipToBounds(false);
+    }
+    float progress = compositionLayer.getProgress();
+    if (isDirty || !renderNode.hasDisplayList() || displayListProgress != progress || displayListAlpha != alpha ||
+        !displayListMatrix.equals(renderingMatrix)) {
+      if (L.isTraceEnabled()) {
+        L.beginSection("Drawable#recordDisplayList");
+      }
+      Rect bounds = getBounds();
+      int width = Math.max(bounds.right, 1);
+      int height = Math.max(bounds.bottom, 1);
+      renderNode.setPosition(0, 0, width, height);
+      Canvas recordingCanvas = renderNode.beginRecording(width, height);
+      try {
+        compositionLayer.draw(recordingCanvas, renderingMatrix, alpha, null);
+      } finally {
+        renderNode.endRecording();
+      }
+      displayListProgress = progress;
+      displayListAlpha = alpha;
+      displayListMatrix.set(renderingMatrix);
+      if (L.isTraceEnabled()) {
+        L.endSection("Drawable#recordDisplayList");
+      }
+    }
+    canvas.drawRenderNode(renderNode);
+  }
+
   /**
    * Software accelerated render path.
    * <p>
@@ -1833,10 +2242,38 @@ public class LottieDrawable extends Drawable implements Drawable.Callback, Anima
       renderingMatrix.postTranslate(-softwareRenderingTransformedBounds.left, -softwareRenderingTransformedBounds.top);
       renderingMatrix.postScale(1.0f / preExistingScaleX, 1.0f / preExistingScaleY);
 
-      softwareRenderingBitmap.eraseColor(0);
       softwareRenderingCanvas.setMatrix(Utils.IDENTITY_MATRIX);
       softwareRenderingCanvas.scale(preExistingScaleX, preExistingScaleY);
-      compositionLayer.draw(softwareRenderingCanvas, renderingMatrix, alpha, null);
+      if (!staticLayerStateUpToDate) {
+        // Damage is only tracked for layers that are known to be static.
+        updateStaticLayerCaches(compositionLayer);
+        softwareRenderingDamageTracked = false;
+      }
+      if (softwareRenderingDamageTracked && alpha == softwareRenderingDrawnAlpha &&
+          preExistingScaleX == softwareRenderingDrawnScaleX && preExistingScaleY == softwareRenderingDrawnScaleY &&
+          renderingMatrix.equals(softwareRenderingDrawnMatrix) &&
+          compositionLayer.getDamagedBounds(softwareRenderingDamage, renderingMatrix)) {
+        // Only clear and redraw the layers that changed since the last frame.
+        if (!softwareRenderingDamage.isEmpty()) {
+          // Leave room for anti-aliasing.
+          softwareRenderingDamage.inset(-1f / Math.abs(preExistingScaleX), -1f / Math.abs(preExistingScaleY));
+          softwareRenderingCanvas.save();
+          softwareRenderingCanvas.clipRect(softwareRenderingDamage);
+          softwareRenderingCanvas.drawColor(Color.TRANSPARENT, PorterDuff.Mode.CLEAR);
+          compositionLayer.draw(softwareRenderingCanvas, renderingMatrix, alpha, null);
+          softwareRenderingCanvas.restore();
+        }
+      } else {
+        // Set before drawing so that anything that invalidates this drawable while it is drawn is redrawn in full too.
+        softwareRenderingDamageTracked = true;
+        softwareRenderingBitmap.eraseColor(0);
+        compositionLayer.draw(softwareRenderingCanvas, renderingMatrix, alpha, null);
+        compositionLayer.resetDamageTracking(renderingMatrix);
+        softwareRenderingDrawnMatrix.set(renderingMatrix);
+        softwareRenderingDrawnScaleX = preExistingScaleX;
+        softwareRenderingDrawnScaleY = preExistingScaleY;
+        softwareRenderingDrawnAlpha = alpha;
+      }
 
       // Calculate the dst bounds.
       // We need to map the rendered coordinates back to the canvas's coordinates. To do so, we need to invert the transform
@@ -1850,6 +2287,9 @@ public class LottieDrawable extends Drawable implements Drawable.Callback, Anima
 
     softwareRenderingSrcBoundsRect.set(0, 0, renderWidth, renderHeight);
     originalCanvas.drawBitmap(softwareRenderingBitmap, softwareRenderingSrcBoundsRect, softwareRenderingDstBoundsRect, softwareRenderingPaint);
+    if (originalCanvas.isHardwareAccelerated()) {
+      softwareRenderingBitmapDrawnToHardwareCanvas = true;
+    }
   }
 
   private void ensureSoftwareRenderingObjectsInitialized() {
@@ -1866,22 +2306,41 @@ public class LottieDrawable extends Drawable implements Drawable.Callback, Anima
     softwareRenderingSrcBoundsRect = new Rect();
     softwareRenderingDstBoundsRect = new Rect();
     softwareRenderingDstBoundsRectF = new RectF();
+    softwareRenderingDamage = new RectF();
+    softwareRenderingDrawnMatrix = new Matrix();
   }
 
   private void ensureSoftwareRenderingBitmap(int renderWidth, int renderHeight) {
-    if (softwareRenderingBitmap == null ||
-        softwareRenderingBitmap.getWidth() < renderWidth ||
-        softwareRenderingBitmap.getHeight() < renderHeight) {
-      // The bitmap is larger. We need to create a new one.
-      softwareRenderingBitmap = Bitmap.createBitmap(renderWidth, renderHeight, Bitmap.Config.ARGB_8888);
-      softwareRenderingCanvas.setBitmap(softwareRenderingBitmap);
-      isDirty = true;
-    } else if (softwareRenderingBitmap.getWidth() > renderWidth || softwareRenderingBitmap.getHeight() > renderHeight) {
-      // The bitmap is smaller. Take subset of the original.
-      softwareRenderingBitmap = Bitmap.createBitmap(softwareRenderingBitmap, 0, 0, renderWidth, renderHeight);
-      softwareRenderingCanvas.setBitmap(softwareRenderingBitmap);
-      isDirty = true;
+    Bitmap bitmap = softwareRenderingBitmap;
+    if (bitmap != null && bitmap.getWidth() == renderWidth && bitmap.getHeight() == renderHeight) {
+      return;
+    }
+    if (bitmap != null && !softwareRenderingBitmapDrawnToHardwareCanvas && Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT &&
+        bitmap.getAllocationByteCount() >= renderWidth * renderHeight * 4) {
+      // The bitmap is smaller or fits in the memory of the current one. Reuse it.
+      softwareRenderingCanvas.setBitmap(null);
+      bitmap.reconfigure(renderWidth, renderHeight, Bitmap.Config.ARGB_8888);
+    } else {
+      // The bitmap is larger. Give the current one to other drawables and take one from the pool.
+      releaseSoftwareRenderingBitmap();
+      softwareRenderingBitmap = LottieBitmapPool.getInstance().get(renderWidth, renderHeight, Bitmap.Config.ARGB_8888);
+    }
+    softwareRenderingCanvas.setBitmap(softwareRenderingBitmap);
+    softwareRenderingDamageTracked = false;
+    isDirty = true;
+  }
+
+  private void releaseSoftwareRenderingBitmap() {
+    if (softwareRenderingBitmap == null) {
+      return;
+    }
+    softwareRenderingCanvas.setBitmap(null);
+    if (!softwareRenderingBitmapDrawnToHardwareCanvas) {
+      LottieBitmapPool.getInstance().put(softwareRenderingBitmap);
     }
+    softwareRenderingBitmap = null;
+    softwareRenderingBitmapDrawnToHardwareCanvas = false;
+    softwareRenderingDamageTracked = false;
   }
 
   /**
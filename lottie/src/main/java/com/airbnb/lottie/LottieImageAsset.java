@@ -1,10 +1,13 @@
 package com.airbnb.lottie;
 
 import android.graphics.Bitmap;
+import android.util.Base64;
 
 import androidx.annotation.Nullable;
 import androidx.annotation.RestrictTo;
 
+import java.nio.ByteBuffer;
+
 /**
  * Data class describing an image asset embedded in a Lottie json file.
  */
@@ -14,6 +17,11 @@ public class LottieImageAsset {
   private final String id;
   private final String fileName;
   private final String dirName;
+  /**
+   * Base64 encoded image data that still lives in a memory mapped animation file.
+   * When this is set, fileName only contains the data uri header.
+   */
+  @Nullable private final ByteBuffer embeddedData;
   /**
    * Pre-set a bitmap for this asset
    */
@@ -21,11 +29,17 @@ public class LottieImageAsset {
 
   @RestrictTo(RestrictTo.Scope.LIBRARY)
   public LottieImageAsset(int width, int height, String id, String fileName, String dirName) {
+    this(width, height, id, fileName, dirName, null);
+  }
+
+  @RestrictTo(RestrictTo.Scope.LIBRARY)
+  public LottieImageAsset(int width, int height, String id, String fileName, String dirName, @Nullable ByteBuffer embeddedData) {
     this.width = width;
     this.height = height;
     this.id = id;
     this.fileName = fileName;
     this.dirName = dirName;
+    this.embeddedData = embeddedData;
   }
 
   public int getWidth() {
@@ -75,7 +89,7 @@ public class LottieImageAsset {
    * dimensions and bitmap scaled.
    */
   public LottieImageAsset copyWithScale(float scale) {
-    LottieImageAsset newAsset = new LottieImageAsset((int) (width * scale), (int) (height * scale), id, fileName, dirName);
+    LottieImageAsset newAsset = new LottieImageAsset((int) (width * scale), (int) (height * scale), id, fileName, dirName, embeddedData);
     if (bitmap != null) {
       Bitmap scaledBitmap = Bitmap.createScaledBitmap(bitmap, newAsset.width, newAsset.height, true);
       newAsset.setBitmap(scaledBitmap);
@@ -87,6 +101,31 @@ public class LottieImageAsset {
    * Returns whether this asset has an embedded Bitmap or whether the fileName is a base64 encoded bitmap.
    */
   public boolean hasBitmap() {
-    return bitmap != null || (fileName.startsWith("data:") && fileName.indexOf("base64,") > 0);
+    return bitmap != null || embeddedData != null || isDataUri();
+  }
+
+  /**
+   * Returns the decoded bytes of an image that is embedded in the animation as a base64 data uri
+   * or null if the image is not embedded.
+   *
+   * @throws IllegalArgumentException if the data is not valid base64.
+   */
+  @Nullable public byte[] decodeEmbeddedData() {
+    if (embeddedData != null) {
+      ByteBuffer data = embeddedData.duplicate();
+      byte[] encoded = new byte[data.remaining()];
+      data.get(encoded);
+      // The data is still json encoded. An escaped "\/" is fine because the decoder skips characters
+      // outside of the base64 alphabet.
+      return Base64.decode(encoded, Base64.DEFAULT);
+    }
+    if (isDataUri()) {
+      return Base64.decode(fileName.substring(fileName.indexOf(',') + 1), Base64.DEFAULT);
+    }
+    return null;
+  }
+
+  private boolean isDataUri() {
+    return fileName.startsWith("data:") && fileName.indexOf("base64,") > 0;
   }
 }
@@ -0,0 +1,73 @@
+package com.airbnb.lottie;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RestrictTo;
+
+/**
+ * A snapshot of the network disk cache counters.
+ *
+ * @see LottieCompositionFactory#getNetworkCacheStats(android.content.Context)
+ */
+public final class LottieNetworkCacheStats {
+
+  private final int hitCount;
+  private final int missCount;
+  private final int evictionCount;
+  private final int entryCount;
+  private final long sizeInBytes;
+  private final long maxSizeInBytes;
+
+  @RestrictTo(RestrictTo.Scope.LIBRARY)
+  public LottieNetworkCacheStats(int hitCount, int missCount, int evictionCount, int entryCount, long sizeInBytes, long maxSizeInBytes) {
+    this.hitCount = hitCount;
+    this.missCount = missCount;
+    this.evictionCount = evictionCount;
+    this.entryCount = entryCount;
+    this.sizeInBytes = sizeInBytes;
+    this.maxSizeInBytes = maxSizeInBytes;
+  }
+
+  /**
+   * The number of animations that were loaded from the cache since the process started.
+   */
+  public int getHitCount() {
+    return hitCount;
+  }
+
+  /**
+   * The number of animations that weren't in the cache and had to be fetched since the process started.
+   */
+  public int getMissCount() {
+    return missCount;
+  }
+
+  public int getEvictionCount() {
+    return evictionCount;
+  }
+
+  /**
+   * The number of animations in the cache.
+   */
+  public int getEntryCount() {
+    return entryCount;
+  }
+
+  public long getSizeInBytes() {
+    return sizeInBytes;
+  }
+
+  /**
+   * The byte budget of the cache or 0 if it is unbounded.
+   *
+   * @see LottieConfig.Builder#setNetworkCacheMaxSizeInBytes(long)
+   */
+  public long getMaxSizeInBytes() {
+    return maxSizeInBytes;
+  }
+
+  @NonNull
+  @Override public String toString() {
+    return "LottieNetworkCacheStats{hits=" + hitCount + ", misses=" + missCount + ", evictions=" + evictionCount +
+        ", entries=" + entryCount + ", size=" + sizeInBytes + "/" + (maxSizeInBytes > 0 ? maxSizeInBytes : "unbounded") + " bytes}";
+  }
+}
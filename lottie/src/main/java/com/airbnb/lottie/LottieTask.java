@@ -18,13 +18,15 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Helper to run asynchronous tasks with a result.
  * Results can be obtained with {@link #addListener(LottieListener)}.
  * Failures can be obtained with {@link #addFailureListener(LottieListener)}.
  * <p>
- * A task will produce a single result or a single failure.
+ * A task will produce a single result or a single failure. Some tasks also produce a partial result that can be
+ * used before the final one is ready. See {@link #addPartialListener(LottieListener)}.
  */
 @SuppressWarnings("UnusedReturnValue")
 public class LottieTask<T> {
@@ -47,8 +49,17 @@ public class LottieTask<T> {
     }
   }
 
+  /**
+   * A callable that can publish a partial result before it returns the final one.
+   */
+  @RestrictTo(RestrictTo.Scope.LIBRARY)
+  public interface ProgressiveCallable<T> {
+    LottieResult<T> call(LottieListener<T> onPartialResult) throws Exception;
+  }
+
   /* Preserve add order. */
   private final Set<LottieListener<T>> successListeners = new LinkedHashSet<>(1);
+  private final Set<LottieListener<T>> partialListeners = new LinkedHashSet<>(1);
   private final Set<LottieListener<Throwable>> failureListeners = new LinkedHashSet<>(1);
 
   /**
@@ -59,12 +70,20 @@ public class LottieTask<T> {
   private final Handler uiHandler;
 
   @Nullable private volatile LottieResult<T> result = null;
+  @Nullable private volatile T partialResult = null;
 
   @RestrictTo(RestrictTo.Scope.LIBRARY)
   public LottieTask(Looper uiLooper, Callable<LottieResult<T>> runnable) {
     this(uiLooper, runnable, false);
   }
 
+  @RestrictTo(RestrictTo.Scope.LIBRARY)
+  public LottieTask(Looper uiLooper, ProgressiveCallable<T> callable) {
+    uiHandler = new Handler(uiLooper);
+    Callable<LottieResult<T>> runnable = () -> callable.call(this::setPartialResult);
+    EXECUTOR.execute(new LottieFutureTask<T>(this, runnable));
+  }
+
   public LottieTask(T result) {
     this(Looper.getMainLooper(), result);
   }
@@ -74,6 +93,13 @@ public class LottieTask<T> {
     setResult(new LottieResult<>(result));
   }
 
+  /**
+   * A task that is completed by {@link #then(LottieListener)}.
+   */
+  private LottieTask(Looper uiLooper) {
+    uiHandler = new Handler(uiLooper);
+  }
+
   /**
    * runNow is only used for testing.
    */
@@ -95,6 +121,7 @@ public class LottieTask<T> {
       throw new IllegalStateException("A task may only be set once.");
     }
     this.result = result;
+    partialResult = null;
     notifyListeners();
   }
 
@@ -124,6 +151,36 @@ public class LottieTask<T> {
     return this;
   }
 
+  /**
+   * Add a listener for a partial result that is published before the task completes. For compositions, this is
+   * published when progressive loading is enabled with {@link LottieConfig.Builder#setEnableProgressiveLoading(boolean)}
+   * and it is the same composition that the task will complete with.
+   * <p>
+   * The listener won't be called once the task has completed. If a partial result has already been published, the
+   * listener will be called synchronously.
+   *
+   * @return the task for call chaining.
+   */
+  public synchronized LottieTask<T> addPartialListener(LottieListener<T> listener) {
+    T partialResult = this.partialResult;
+    if (partialResult != null && result == null) {
+      listener.onResult(partialResult);
+    }
+
+    partialListeners.add(listener);
+    return this;
+  }
+
+  /**
+   * Remove a given partial result listener.
+   *
+   * @return the task for call chaining.
+   */
+  public synchronized LottieTask<T> removePartialListener(LottieListener<T> listener) {
+    partialListeners.remove(listener);
+    return this;
+  }
+
   /**
    * Add a task failure listener. This will only be called in the even that an exception
    * occurs. If an exception has already occurred, the listener will be called immediately.
@@ -156,6 +213,41 @@ public class LottieTask<T> {
     return result;
   }
 
+  /**
+   * Returns a task that completes with the result of this task once action has been run with it on {@link #EXECUTOR}.
+   * If this task fails, the returned task fails with the same exception and action isn't run. No thread waits for this
+   * task in the meantime.
+   */
+  @RestrictTo(RestrictTo.Scope.LIBRARY)
+  public LottieTask<T> then(LottieListener<T> action) {
+    LottieTask<T> next = new LottieTask<>(uiHandler.getLooper());
+    new ChainedListener<>(this, next, action).register();
+    return next;
+  }
+
+  private void setPartialResult(T partialResult) {
+    if (result != null) {
+      return;
+    }
+    this.partialResult = partialResult;
+    if (Looper.myLooper() == uiHandler.getLooper()) {
+      notifyPartialListeners(partialResult);
+    } else {
+      uiHandler.post(() -> notifyPartialListeners(partialResult));
+    }
+  }
+
+  private synchronized void notifyPartialListeners(T partialResult) {
+    if (result != null) {
+      // The final result has already been delivered.
+      return;
+    }
+    List<LottieListener<T>> listenersCopy = new ArrayList<>(partialListeners);
+    for (LottieListener<T> l : listenersCopy) {
+      l.onResult(partialResult);
+    }
+  }
+
   private void notifyListeners() {
     // Listeners should be called on the ui thread.
     if (Looper.myLooper() == uiHandler.getLooper()) {
@@ -201,6 +293,58 @@ public class LottieTask<T> {
     }
   }
 
+  /**
+   * Starts the next task of {@link #then(LottieListener)} and removes itself from the previous task once that completes
+   * so that the previous task doesn't keep the next one reachable.
+   */
+  private static class ChainedListener<T> implements LottieListener<T> {
+    private final LottieTask<T> previous;
+    private final LottieTask<T> next;
+    private final LottieListener<T> action;
+    private final LottieListener<Throwable> failureListener = this::onFailure;
+    /**
+     * Listeners that are added to a completed task are called synchronously and may be called again once the task
+     * notifies them.
+     */
+    private final AtomicBoolean done = new AtomicBoolean();
+
+    ChainedListener(LottieTask<T> previous, LottieTask<T> next, LottieListener<T> action) {
+      this.previous = previous;
+      this.next = next;
+      this.action = action;
+    }
+
+    void register() {
+      previous.addListener(this).addFailureListener(failureListener);
+      if (done.get()) {
+        unregister();
+      }
+    }
+
+    @Override public void onResult(T value) {
+      if (!done.compareAndSet(false, true)) {
+        return;
+      }
+      unregister();
+      EXECUTOR.execute(new LottieFutureTask<>(next, () -> {
+        action.onResult(value);
+        return new LottieResult<>(value);
+      }));
+    }
+
+    private void onFailure(Throwable e) {
+      if (!done.compareAndSet(false, true)) {
+        return;
+      }
+      unregister();
+      next.setResult(new LottieResult<>(e));
+    }
+
+    private void unregister() {
+      previous.removeListener(this).removeFailureListener(failureListener);
+    }
+  }
+
   private static class LottieFutureTask<T> extends FutureTask<LottieResult<T>> {
 
     private LottieTask<T> lottieTask;
@@ -249,10 +249,19 @@ public abstract class BaseStrokeContent
       return;
     }
 
-    pm.setPath(path, false);
-    float totalLength = pm.getLength();
-    while (pm.nextContour()) {
-      totalLength += pm.getLength();
+    float totalLength;
+    boolean isStatic = pathGroup.isStatic();
+    if (isStatic && pathGroup.pathMeasures != null) {
+      totalLength = pathGroup.totalLength;
+    } else {
+      pm.setPath(path, false);
+      totalLength = pm.getLength();
+      while (pm.nextContour()) {
+        totalLength += pm.getLength();
+      }
+      // Measurements of static paths are kept so that animating the trim path doesn't measure them again.
+      pathGroup.totalLength = totalLength;
+      pathGroup.pathMeasures = isStatic ? new CachedPathMeasure[pathGroup.paths.size()] : null;
     }
     float offsetLength = totalLength * animOffsetValue;
     float startLength = totalLength * animStartValue + offsetLength;
@@ -261,8 +270,20 @@ public abstract class BaseStrokeContent
     float currentLength = 0;
     for (int j = pathGroup.paths.size() - 1; j >= 0; j--) {
       trimPathPath.set(pathGroup.paths.get(j).getPath());
-      pm.setPath(trimPathPath, false);
-      float length = pm.getLength();
+      CachedPathMeasure pathMeasure = null;
+      float length;
+      if (pathGroup.pathMeasures != null) {
+        pathMeasure = pathGroup.pathMeasures[j];
+        if (pathMeasure == null) {
+          pathMeasure = new CachedPathMeasure();
+          pathMeasure.setPath(trimPathPath);
+          pathGroup.pathMeasures[j] = pathMeasure;
+        }
+        length = pathMeasure.getLength();
+      } else {
+        pm.setPath(trimPathPath, false);
+        length = pm.getLength();
+      }
       if (endLength > totalLength && endLength - totalLength < currentLength + length &&
           currentLength < endLength - totalLength) {
         // Draw the segment when the end is greater than the length which wraps around to the
@@ -274,7 +295,7 @@ public abstract class BaseStrokeContent
           startValue = 0;
         }
         float endValue = Math.min((endLength - totalLength) / length, 1);
-        Utils.applyTrimPathIfNeeded(trimPathPath, startValue, endValue, 0);
+        applyTrimPath(trimPathPath, pathMeasure, startValue, endValue);
         canvas.drawPath(trimPathPath, paint);
       } else
         //noinspection StatementWithEmptyBody
@@ -295,7 +316,7 @@ public abstract class BaseStrokeContent
           } else {
             endValue = (endLength - currentLength) / length;
           }
-          Utils.applyTrimPathIfNeeded(trimPathPath, startValue, endValue, 0);
+          applyTrimPath(trimPathPath, pathMeasure, startValue, endValue);
           canvas.drawPath(trimPathPath, paint);
         }
       currentLength += length;
@@ -305,6 +326,14 @@ public abstract class BaseStrokeContent
     }
   }
 
+  private static void applyTrimPath(Path path, @Nullable CachedPathMeasure pathMeasure, float startValue, float endValue) {
+    if (pathMeasure == null) {
+      Utils.applyTrimPathIfNeeded(path, startValue, endValue, 0);
+    } else {
+      pathMeasure.applyTrimPath(path, startValue, endValue, 0);
+    }
+  }
+
   @Override public void getBounds(RectF outBounds, Matrix parentMatrix, boolean applyParents) {
     if (L.isTraceEnabled()) {
       L.beginSection("StrokeContent#getBounds");
@@ -412,9 +441,24 @@ public abstract class BaseStrokeContent
   private static final class PathGroup {
     private final List<PathContent> paths = new ArrayList<>();
     @Nullable private final TrimPathContent trimPath;
+    /**
+     * The measurements of each path when all of them are static. Entries are filled in as they are needed.
+     */
+    @Nullable private CachedPathMeasure[] pathMeasures;
+    private float totalLength;
 
     private PathGroup(@Nullable TrimPathContent trimPath) {
       this.trimPath = trimPath;
     }
+
+    private boolean isStatic() {
+      for (int i = 0; i < paths.size(); i++) {
+        PathContent path = paths.get(i);
+        if (!(path instanceof ShapeContent) || !((ShapeContent) path).isPathStatic()) {
+          return false;
+        }
+      }
+      return true;
+    }
   }
 }
@@ -0,0 +1,49 @@
+package com.airbnb.lottie.animation.content;
+
+import android.graphics.Path;
+import android.graphics.PathMeasure;
+
+import com.airbnb.lottie.utils.Utils;
+
+/**
+ * Measures the first contour of a path once so that it can be trimmed on every frame without being measured again.
+ * <p>
+ * {@link PathMeasure} builds its table of arc lengths the first time that it is used after
+ * {@link PathMeasure#setPath(Path, boolean)} and keeps its own copy of the path. Holding on to it for a path that
+ * doesn't change makes trimming that path a lookup in the table plus copying out the segment.
+ */
+class CachedPathMeasure {
+  private final PathMeasure pathMeasure = new PathMeasure();
+  private float length;
+  private boolean isValid;
+
+  void setPath(Path path) {
+    pathMeasure.setPath(path, false);
+    length = pathMeasure.getLength();
+    isValid = true;
+  }
+
+  void invalidate() {
+    isValid = false;
+  }
+
+  boolean isValid() {
+    return isValid;
+  }
+
+  /**
+   * The length of the first contour of the path.
+   */
+  float getLength() {
+    return length;
+  }
+
+  /**
+   * Trims a path with the same contents as the path that was last measured.
+   *
+   * @see Utils#applyTrimPathIfNeeded(Path, PathMeasure, float, float, float, float)
+   */
+  void applyTrimPath(Path path, float startValue, float endValue, float offsetValue) {
+    Utils.applyTrimPathIfNeeded(path, pathMeasure, length, startValue, endValue, offsetValue);
+  }
+}
@@ -2,6 +2,7 @@ package com.airbnb.lottie.animation.content;
 
 import android.graphics.Path;
 
+import com.airbnb.lottie.animation.keyframe.FloatKeyframeAnimation;
 import com.airbnb.lottie.utils.Utils;
 
 import java.util.ArrayList;
@@ -14,9 +15,40 @@ public class CompoundTrimPathContent {
     contents.add(trimPath);
   }
 
+  boolean isEmpty() {
+    return contents.isEmpty();
+  }
+
   public void apply(Path path) {
     for (int i = contents.size() - 1; i >= 0; i--) {
       Utils.applyTrimPathIfNeeded(path, contents.get(i));
     }
   }
+
+  /**
+   * Like {@link #apply(Path)} but the first trim path reuses the measurement of the untrimmed path.
+   *
+   * @param untrimmedPathMeasure measures {@code path}. It is updated if it isn't valid.
+   */
+  void apply(Path path, CachedPathMeasure untrimmedPathMeasure) {
+    boolean isTrimmed = false;
+    for (int i = contents.size() - 1; i >= 0; i--) {
+      TrimPathContent trimPath = contents.get(i);
+      if (isTrimmed) {
+        Utils.applyTrimPathIfNeeded(path, trimPath);
+        continue;
+      }
+      if (trimPath.isHidden()) {
+        continue;
+      }
+      if (!untrimmedPathMeasure.isValid()) {
+        untrimmedPathMeasure.setPath(path);
+      }
+      float start = ((FloatKeyframeAnimation) trimPath.getStart()).getFloatValue();
+      float end = ((FloatKeyframeAnimation) trimPath.getEnd()).getFloatValue();
+      float offset = ((FloatKeyframeAnimation) trimPath.getOffset()).getFloatValue();
+      untrimmedPathMeasure.applyTrimPath(path, start / 100f, end / 100f, offset / 360f);
+      isTrimmed = true;
+    }
+  }
 }
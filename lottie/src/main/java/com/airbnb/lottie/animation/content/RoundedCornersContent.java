@@ -7,12 +7,12 @@ import androidx.annotation.Nullable;
 
 import com.airbnb.lottie.LottieDrawable;
 import com.airbnb.lottie.animation.keyframe.BaseKeyframeAnimation;
+import com.airbnb.lottie.animation.keyframe.FloatKeyframeAnimation;
 import com.airbnb.lottie.model.CubicCurveData;
 import com.airbnb.lottie.model.content.RoundedCorners;
 import com.airbnb.lottie.model.content.ShapeData;
 import com.airbnb.lottie.model.layer.BaseLayer;
 
-import java.util.ArrayList;
 import java.util.List;
 
 public class RoundedCornersContent implements ShapeModifierContent, BaseKeyframeAnimation.AnimationListener {
@@ -80,7 +80,8 @@ public class RoundedCornersContent implements ShapeModifierContent, BaseKeyframe
     if (startingCurves.size() <= 2) {
       return startingShapeData;
     }
-    float roundedness = roundedCorners.getValue();
+    float roundedness = roundedCorners instanceof FloatKeyframeAnimation ?
+        ((FloatKeyframeAnimation) roundedCorners).getFloatValue() : roundedCorners.getValue();
     if (roundedness == 0f) {
       return startingShapeData;
     }
@@ -197,13 +198,12 @@ public class RoundedCornersContent implements ShapeModifierContent, BaseKeyframe
         vertices += 1;
       }
     }
-    if (shapeData == null || shapeData.getCurves().size() != vertices) {
-      List<CubicCurveData> newCurves = new ArrayList<>(vertices);
-      for (int i = 0; i < vertices; i++) {
-        newCurves.add(new CubicCurveData());
-      }
-      shapeData = new ShapeData(new PointF(0f, 0f), false, newCurves);
+    if (shapeData == null) {
+      shapeData = new ShapeData();
     }
+    // This content can modify several shapes with different vertex counts so the curves are reused rather than
+    // replaced when the count changes.
+    shapeData.setCurveCount(vertices);
     shapeData.setClosed(isClosed);
     return shapeData;
   }
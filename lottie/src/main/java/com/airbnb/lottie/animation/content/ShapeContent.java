@@ -20,6 +20,12 @@ import java.util.List;
 
 public class ShapeContent implements PathContent, BaseKeyframeAnimation.AnimationListener, KeyPathElementContent {
   private final Path path = new Path();
+  /**
+   * The shape before it is trimmed. Only used when there are trim paths so that animating them doesn't require
+   * evaluating and measuring the shape again.
+   */
+  private final Path untrimmedPath = new Path();
+  private final CachedPathMeasure untrimmedPathMeasure = new CachedPathMeasure();
 
   private final String name;
   private final boolean hidden;
@@ -28,7 +34,9 @@ public class ShapeContent implements PathContent, BaseKeyframeAnimation.Animatio
   @Nullable private List<ShapeModifierContent> shapeModifierContents;
 
   private boolean isPathValid;
+  private boolean isUntrimmedPathValid;
   private final CompoundTrimPathContent trimPaths = new CompoundTrimPathContent();
+  private final BaseKeyframeAnimation.AnimationListener trimPathListener = this::onTrimPathChanged;
 
   public ShapeContent(LottieDrawable lottieDrawable, BaseLayer layer, ShapePath shape) {
     name = shape.getName();
@@ -40,6 +48,11 @@ public class ShapeContent implements PathContent, BaseKeyframeAnimation.Animatio
   }
 
   @Override public void onValueChanged() {
+    isUntrimmedPathValid = false;
+    invalidate();
+  }
+
+  private void onTrimPathChanged() {
     invalidate();
   }
 
@@ -57,7 +70,7 @@ public class ShapeContent implements PathContent, BaseKeyframeAnimation.Animatio
         // Trim path individually will be handled by the stroke where paths are combined.
         TrimPathContent trimPath = (TrimPathContent) content;
         trimPaths.addTrimPath(trimPath);
-        trimPath.addListener(this);
+        trimPath.addListener(trimPathListener);
       } else if (content instanceof ShapeModifierContent) {
         if (shapeModifierContents == null) {
           shapeModifierContents = new ArrayList<>();
@@ -66,9 +79,17 @@ public class ShapeContent implements PathContent, BaseKeyframeAnimation.Animatio
         shapeModifierContents.add((ShapeModifierContent) content);
       }
     }
+    this.shapeModifierContents = shapeModifierContents;
     shapeAnimation.setShapeModifiers(shapeModifierContents);
   }
 
+  /**
+   * Returns true if {@link #getPath()} returns the same path on every frame.
+   */
+  boolean isPathStatic() {
+    return shapeAnimation.isStatic() && shapeModifierContents == null && trimPaths.isEmpty();
+  }
+
   @Override public Path getPath() {
     if (isPathValid && !shapeAnimation.hasValueCallback()) {
       return path;
@@ -81,6 +102,14 @@ public class ShapeContent implements PathContent, BaseKeyframeAnimation.Animatio
       return path;
     }
 
+    if (!trimPaths.isEmpty() && isUntrimmedPathValid && !shapeAnimation.hasValueCallback()) {
+      // Only the trim paths changed.
+      path.set(untrimmedPath);
+      trimPaths.apply(path, untrimmedPathMeasure);
+      isPathValid = true;
+      return path;
+    }
+
     Path shapeAnimationPath = shapeAnimation.getValue();
     if (shapeAnimationPath == null) {
       // It is unclear why this ever returns null but it seems to in rare cases.
@@ -90,7 +119,12 @@ public class ShapeContent implements PathContent, BaseKeyframeAnimation.Animatio
     path.set(shapeAnimationPath);
     path.setFillType(Path.FillType.EVEN_ODD);
 
-    trimPaths.apply(path);
+    if (!trimPaths.isEmpty()) {
+      untrimmedPath.set(path);
+      untrimmedPathMeasure.invalidate();
+      isUntrimmedPathValid = true;
+      trimPaths.apply(path, untrimmedPathMeasure);
+    }
 
     isPathValid = true;
     return path;
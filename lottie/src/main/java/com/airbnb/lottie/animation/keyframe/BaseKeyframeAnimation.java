@@ -91,6 +91,17 @@ public abstract class BaseKeyframeAnimation<K, A> {
     }
   }
 
+  boolean isDiscrete() {
+    return isDiscrete;
+  }
+
+  /**
+   * Returns the index of {@link #getCurrentKeyframe()} in the list of keyframes that this animation was created with.
+   */
+  int getCurrentKeyframeIndex() {
+    return keyframesWrapper.getCurrentKeyframeIndex();
+  }
+
   protected Keyframe<K> getCurrentKeyframe() {
     if (L.isTraceEnabled()) {
       L.beginSection("BaseKeyframeAnimation#getCurrentKeyframe");
@@ -198,6 +209,13 @@ public abstract class BaseKeyframeAnimation<K, A> {
     return valueCallback != null;
   }
 
+  /**
+   * Returns true if this animation has the same value at every progress.
+   */
+  public boolean isStatic() {
+    return valueCallback == null && keyframesWrapper.isStatic();
+  }
+
   /**
    * keyframeProgress will be [0, 1] unless the interpolator has overshoot in which case, this
    * should be able to handle values outside of that range.
@@ -229,6 +247,8 @@ public abstract class BaseKeyframeAnimation<K, A> {
 
     Keyframe<T> getCurrentKeyframe();
 
+    int getCurrentKeyframeIndex();
+
     @FloatRange(from = 0f, to = 1f)
     float getStartDelayProgress();
 
@@ -236,6 +256,8 @@ public abstract class BaseKeyframeAnimation<K, A> {
     float getEndProgress();
 
     boolean isCachedValueEnabled(float progress);
+
+    boolean isStatic();
   }
 
   private static final class EmptyKeyframeWrapper<T> implements KeyframesWrapper<T> {
@@ -255,6 +277,11 @@ public abstract class BaseKeyframeAnimation<K, A> {
       throw new IllegalStateException("not implemented");
     }
 
+    @Override
+    public int getCurrentKeyframeIndex() {
+      throw new IllegalStateException("not implemented");
+    }
+
     @Override
     public float getStartDelayProgress() {
       return 0f;
@@ -269,6 +296,11 @@ public abstract class BaseKeyframeAnimation<K, A> {
     public boolean isCachedValueEnabled(float progress) {
       throw new IllegalStateException("not implemented");
     }
+
+    @Override
+    public boolean isStatic() {
+      return true;
+    }
   }
 
   private static final class SingleKeyframeWrapper<T> implements KeyframesWrapper<T> {
@@ -296,6 +328,11 @@ public abstract class BaseKeyframeAnimation<K, A> {
       return keyframe;
     }
 
+    @Override
+    public int getCurrentKeyframeIndex() {
+      return 0;
+    }
+
     @Override
     public float getStartDelayProgress() {
       return keyframe.getStartProgress();
@@ -314,19 +351,62 @@ public abstract class BaseKeyframeAnimation<K, A> {
       cachedInterpolatedProgress = progress;
       return false;
     }
+
+    @Override
+    public boolean isStatic() {
+      return keyframe.isStatic();
+    }
   }
 
   private static final class KeyframesWrapperImpl<T> implements KeyframesWrapper<T> {
 
     private final List<? extends Keyframe<T>> keyframes;
-    @NonNull
+    /**
+     * Set if the keyframes are a view of packed keyframes. Lookups then read from it so that keyframes are only created
+     * when {@link #getCurrentKeyframe()} is called.
+     */
+    @Nullable private final ScalarKeyframes packedKeyframes;
+    private final float[] startProgresses;
+    private final float[] endProgresses;
+    /**
+     * Keyframes are almost always in order. If they aren't, lookups fall back to a linear scan.
+     */
+    private final boolean isSorted;
+    /**
+     * Created lazily from {@link #currentKeyframeIndex}.
+     */
+    @Nullable
     private Keyframe<T> currentKeyframe;
-    private Keyframe<T> cachedCurrentKeyframe = null;
+    private int currentKeyframeIndex = -1;
+    private int cachedCurrentKeyframeIndex = -1;
     private float cachedInterpolatedProgress = -1f;
 
     KeyframesWrapperImpl(List<? extends Keyframe<T>> keyframes) {
       this.keyframes = keyframes;
-      currentKeyframe = findKeyframe(0);
+      if (keyframes instanceof ScalarKeyframes.KeyframeList) {
+        packedKeyframes = ((ScalarKeyframes.KeyframeList<?>) keyframes).packed;
+        startProgresses = packedKeyframes.startProgress;
+        endProgresses = packedKeyframes.endProgress;
+      } else {
+        packedKeyframes = null;
+        int size = keyframes.size();
+        startProgresses = new float[size];
+        endProgresses = new float[size];
+        for (int i = 0; i < size; i++) {
+          Keyframe<T> keyframe = keyframes.get(i);
+          startProgresses[i] = keyframe.getStartProgress();
+          endProgresses[i] = keyframe.getEndProgress();
+        }
+      }
+      boolean isSorted = true;
+      for (int i = 1; i < startProgresses.length; i++) {
+        if (startProgresses[i] < startProgresses[i - 1]) {
+          isSorted = false;
+          break;
+        }
+      }
+      this.isSorted = isSorted;
+      currentKeyframeIndex = findKeyframeIndex(0);
     }
 
     @Override
@@ -336,55 +416,128 @@ public abstract class BaseKeyframeAnimation<K, A> {
 
     @Override
     public boolean isValueChanged(float progress) {
-      if (currentKeyframe.containsProgress(progress)) {
-        return !currentKeyframe.isStatic();
+      int index = currentKeyframeIndex;
+      if (progress >= startProgresses[index] && progress < endProgresses[index]) {
+        return !isKeyframeStatic(index);
+      }
+      int newIndex = findKeyframeIndex(progress);
+      if (newIndex != currentKeyframeIndex) {
+        currentKeyframeIndex = newIndex;
+        currentKeyframe = null;
       }
-      currentKeyframe = findKeyframe(progress);
       return true;
     }
 
-    private Keyframe<T> findKeyframe(float progress) {
-      Keyframe<T> keyframe = keyframes.get(keyframes.size() - 1);
-      if (progress >= keyframe.getStartProgress()) {
-        return keyframe;
+    private boolean isKeyframeStatic(int index) {
+      if (packedKeyframes != null) {
+        return packedKeyframes.isStatic(index);
+      }
+      return keyframes.get(index).isStatic();
+    }
+
+    private int findKeyframeIndex(float progress) {
+      int lastIndex = startProgresses.length - 1;
+      if (progress >= startProgresses[lastIndex]) {
+        return lastIndex;
+      }
+      if (!isSorted) {
+        return findKeyframeIndexLinear(progress, lastIndex - 1);
+      }
+      int index = findLastKeyframeStartingBefore(progress);
+      if (index < 1) {
+        return 0;
+      }
+      if (progress < endProgresses[index]) {
+        return index;
+      }
+      // The progress is in a gap after the keyframe. An earlier keyframe may still overlap it.
+      return findKeyframeIndexLinear(progress, index - 1);
+    }
+
+    /**
+     * Returns the index of the last keyframe that starts at or before the progress or -1 if there is none.
+     * Sequential playback and reversing only ever move to a neighboring keyframe so those are checked before
+     * falling back to a binary search.
+     */
+    private int findLastKeyframeStartingBefore(float progress) {
+      int lastIndex = startProgresses.length - 1;
+      int current = currentKeyframeIndex;
+      if (current >= 0) {
+        int next = current + 1;
+        if (next <= lastIndex && startProgresses[next] <= progress
+            && (next == lastIndex || startProgresses[next + 1] > progress)) {
+          return next;
+        }
+        int previous = current - 1;
+        if (previous >= 0 && startProgresses[previous] <= progress && startProgresses[current] > progress) {
+          return previous;
+        }
       }
-      for (int i = keyframes.size() - 2; i >= 1; i--) {
-        keyframe = keyframes.get(i);
-        if (currentKeyframe == keyframe) {
+      int low = 0;
+      int high = lastIndex;
+      while (low <= high) {
+        int mid = (low + high) >>> 1;
+        if (startProgresses[mid] <= progress) {
+          low = mid + 1;
+        } else {
+          high = mid - 1;
+        }
+      }
+      return high;
+    }
+
+    private int findKeyframeIndexLinear(float progress, int fromIndex) {
+      for (int i = fromIndex; i >= 1; i--) {
+        if (i == currentKeyframeIndex) {
           continue;
         }
-        if (keyframe.containsProgress(progress)) {
-          return keyframe;
+        if (progress >= startProgresses[i] && progress < endProgresses[i]) {
+          return i;
         }
       }
-      return keyframes.get(0);
+      return 0;
     }
 
     @Override
     @NonNull
     public Keyframe<T> getCurrentKeyframe() {
-      return currentKeyframe;
+      Keyframe<T> keyframe = currentKeyframe;
+      if (keyframe == null) {
+        keyframe = keyframes.get(currentKeyframeIndex);
+        currentKeyframe = keyframe;
+      }
+      return keyframe;
+    }
+
+    @Override
+    public int getCurrentKeyframeIndex() {
+      return currentKeyframeIndex;
     }
 
     @Override
     public float getStartDelayProgress() {
-      return keyframes.get(0).getStartProgress();
+      return startProgresses[0];
     }
 
     @Override
     public float getEndProgress() {
-      return keyframes.get(keyframes.size() - 1).getEndProgress();
+      return endProgresses[endProgresses.length - 1];
     }
 
     @Override
     public boolean isCachedValueEnabled(float progress) {
-      if (cachedCurrentKeyframe == currentKeyframe
+      if (cachedCurrentKeyframeIndex == currentKeyframeIndex
           && cachedInterpolatedProgress == progress) {
         return true;
       }
-      cachedCurrentKeyframe = currentKeyframe;
+      cachedCurrentKeyframeIndex = currentKeyframeIndex;
       cachedInterpolatedProgress = progress;
       return false;
     }
+
+    @Override
+    public boolean isStatic() {
+      return false;
+    }
   }
 }
@@ -1,5 +1,7 @@
 package com.airbnb.lottie.animation.keyframe;
 
+import androidx.annotation.Nullable;
+
 import com.airbnb.lottie.utils.MiscUtils;
 import com.airbnb.lottie.value.Keyframe;
 
@@ -7,8 +9,18 @@ import java.util.List;
 
 public class FloatKeyframeAnimation extends KeyframeAnimation<Float> {
 
+  @Nullable private final ScalarKeyframes packedKeyframes;
+
   public FloatKeyframeAnimation(List<Keyframe<Float>> keyframes) {
+    this(keyframes, null);
+  }
+
+  /**
+   * @param packedKeyframes the same keyframes packed with {@link ScalarKeyframes#ofFloats(List)}.
+   */
+  public FloatKeyframeAnimation(List<Keyframe<Float>> keyframes, @Nullable ScalarKeyframes packedKeyframes) {
     super(keyframes);
+    this.packedKeyframes = packedKeyframes;
   }
 
   @Override Float getValue(Keyframe<Float> keyframe, float keyframeProgress) {
@@ -40,6 +52,9 @@ public class FloatKeyframeAnimation extends KeyframeAnimation<Float> {
    * Optimization to avoid autoboxing.
    */
   public float getFloatValue() {
+    if (packedKeyframes != null && valueCallback == null) {
+      return packedKeyframes.getValue(getCurrentKeyframeIndex(), progress, isDiscrete());
+    }
     return getFloatValue(getCurrentKeyframe(), getInterpolatedCurrentKeyframeProgress());
   }
 }
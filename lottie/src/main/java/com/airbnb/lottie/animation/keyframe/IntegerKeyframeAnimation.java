@@ -1,5 +1,7 @@
 package com.airbnb.lottie.animation.keyframe;
 
+import androidx.annotation.Nullable;
+
 import com.airbnb.lottie.utils.MiscUtils;
 import com.airbnb.lottie.value.Keyframe;
 
@@ -7,8 +9,18 @@ import java.util.List;
 
 public class IntegerKeyframeAnimation extends KeyframeAnimation<Integer> {
 
+  @Nullable private final ScalarKeyframes packedKeyframes;
+
   public IntegerKeyframeAnimation(List<Keyframe<Integer>> keyframes) {
+    this(keyframes, null);
+  }
+
+  /**
+   * @param packedKeyframes the same keyframes packed with {@link ScalarKeyframes#ofIntegers(List)}.
+   */
+  public IntegerKeyframeAnimation(List<Keyframe<Integer>> keyframes, @Nullable ScalarKeyframes packedKeyframes) {
     super(keyframes);
+    this.packedKeyframes = packedKeyframes;
   }
 
   @Override
@@ -43,6 +55,9 @@ public class IntegerKeyframeAnimation extends KeyframeAnimation<Integer> {
    * Optimization to avoid autoboxing.
    */
   public int getIntValue() {
+    if (packedKeyframes != null && valueCallback == null) {
+      return (int) packedKeyframes.getValue(getCurrentKeyframeIndex(), progress, isDiscrete());
+    }
     return getIntValue(getCurrentKeyframe(), getInterpolatedCurrentKeyframeProgress());
   }
 }
@@ -0,0 +1,192 @@
+package com.airbnb.lottie.animation.keyframe;
+
+import android.view.animation.Interpolator;
+
+import androidx.annotation.Nullable;
+
+import com.airbnb.lottie.LottieComposition;
+import com.airbnb.lottie.utils.MiscUtils;
+import com.airbnb.lottie.value.Keyframe;
+
+import java.util.AbstractList;
+import java.util.List;
+
+/**
+ * Packed storage for the keyframes of a float or integer property.
+ * <p>
+ * Scalar properties such as opacity, rotation, and trim path offsets make up most of the keyframes in a composition.
+ * Evaluating them through {@link Keyframe} means unboxing the values and reading the progress of each keyframe from a
+ * separate object. This stores the same data in parallel arrays so that {@link FloatKeyframeAnimation} and
+ * {@link IntegerKeyframeAnimation} can compute their values without boxing or chasing pointers.
+ * <p>
+ * It is immutable and can be shared by every animation created from the same parsed property. Once a property has been
+ * packed, it only keeps this and creates {@link Keyframe} objects from it the first time that they are asked for. See
+ * {@link #asFloatKeyframes()}.
+ */
+public class ScalarKeyframes {
+
+  @Nullable private LottieComposition composition;
+  private final float[] startFrames;
+  /**
+   * NaN for keyframes without an end frame.
+   */
+  private final float[] endFrames;
+  final float[] startProgress;
+  final float[] endProgress;
+  private final float[] startValues;
+  private final float[] endValues;
+  /**
+   * Null for keyframes that don't animate.
+   */
+  private final Interpolator[] interpolators;
+
+  private ScalarKeyframes(int size) {
+    startFrames = new float[size];
+    endFrames = new float[size];
+    startProgress = new float[size];
+    endProgress = new float[size];
+    startValues = new float[size];
+    endValues = new float[size];
+    interpolators = new Interpolator[size];
+  }
+
+  /**
+   * Returns null if the keyframes can't be packed such as if they are missing values or use split dimensions.
+   */
+  @Nullable
+  public static ScalarKeyframes ofFloats(List<Keyframe<Float>> keyframes) {
+    if (keyframes.isEmpty()) {
+      return null;
+    }
+    ScalarKeyframes packed = new ScalarKeyframes(keyframes.size());
+    for (int i = 0; i < keyframes.size(); i++) {
+      Keyframe<Float> keyframe = keyframes.get(i);
+      if (keyframe.startValue == null || keyframe.endValue == null || !packed.set(i, keyframe)) {
+        return null;
+      }
+      packed.startValues[i] = keyframe.startValue;
+      packed.endValues[i] = keyframe.endValue;
+    }
+    return packed;
+  }
+
+  /**
+   * Returns null if the keyframes can't be packed such as if they are missing values or use split dimensions.
+   */
+  @Nullable
+  public static ScalarKeyframes ofIntegers(List<Keyframe<Integer>> keyframes) {
+    if (keyframes.isEmpty()) {
+      return null;
+    }
+    ScalarKeyframes packed = new ScalarKeyframes(keyframes.size());
+    for (int i = 0; i < keyframes.size(); i++) {
+      Keyframe<Integer> keyframe = keyframes.get(i);
+      if (keyframe.startValue == null || !packed.set(i, keyframe)) {
+        return null;
+      }
+      packed.startValues[i] = keyframe.startValue;
+      packed.endValues[i] = keyframe.endValue == null ? keyframe.startValue : keyframe.endValue;
+    }
+    return packed;
+  }
+
+  private boolean set(int index, Keyframe<?> keyframe) {
+    if (keyframe.xInterpolator != null || keyframe.yInterpolator != null) {
+      return false;
+    }
+    if (index == 0) {
+      composition = keyframe.getComposition();
+    } else if (keyframe.getComposition() != composition) {
+      return false;
+    }
+    startFrames[index] = keyframe.startFrame;
+    endFrames[index] = keyframe.endFrame == null ? Float.NaN : keyframe.endFrame;
+    startProgress[index] = keyframe.getStartProgress();
+    endProgress[index] = keyframe.getEndProgress();
+    interpolators[index] = keyframe.interpolator;
+    return true;
+  }
+
+  /**
+   * Returns the value of the keyframe at {@code index} at the given animation progress.
+   * This matches {@link BaseKeyframeAnimation#getInterpolatedCurrentKeyframeProgress()}.
+   *
+   * @param isDiscrete true if the animation only ever shows the start value of its keyframes.
+   */
+  float getValue(int index, float progress, boolean isDiscrete) {
+    Interpolator interpolator = interpolators[index];
+    float startValue = startValues[index];
+    if (interpolator == null) {
+      return startValue;
+    }
+    float linearProgress = 0f;
+    if (!isDiscrete) {
+      float start = startProgress[index];
+      linearProgress = (progress - start) / (endProgress[index] - start);
+    }
+    return MiscUtils.lerp(startValue, endValues[index], interpolator.getInterpolation(linearProgress));
+  }
+
+  boolean isStatic(int index) {
+    return interpolators[index] == null;
+  }
+
+  /**
+   * Returns an unmodifiable view of these keyframes as float keyframes. Each {@link Keyframe} is created the first time
+   * that it is requested with {@link List#get(int)}.
+   */
+  public List<Keyframe<Float>> asFloatKeyframes() {
+    return new KeyframeList<>(this, false);
+  }
+
+  /**
+   * Returns an unmodifiable view of these keyframes as integer keyframes. Each {@link Keyframe} is created the first
+   * time that it is requested with {@link List#get(int)}.
+   */
+  public List<Keyframe<Integer>> asIntegerKeyframes() {
+    return new KeyframeList<>(this, true);
+  }
+
+  static final class KeyframeList<T> extends AbstractList<Keyframe<T>> {
+
+    final ScalarKeyframes packed;
+    private final boolean isInteger;
+    /**
+     * Keyframes that have been requested. Threads that race to create the same one create equal keyframes so it doesn't
+     * matter which one is kept.
+     */
+    @Nullable private Keyframe<T>[] keyframes;
+
+    private KeyframeList(ScalarKeyframes packed, boolean isInteger) {
+      this.packed = packed;
+      this.isInteger = isInteger;
+    }
+
+    @Override public Keyframe<T> get(int index) {
+      Keyframe<T>[] keyframes = this.keyframes;
+      if (keyframes == null) {
+        //noinspection unchecked
+        keyframes = new Keyframe[size()];
+        this.keyframes = keyframes;
+      }
+      Keyframe<T> keyframe = keyframes[index];
+      if (keyframe == null) {
+        float endFrame = packed.endFrames[index];
+        //noinspection ConstantConditions
+        keyframe = new Keyframe<>(packed.composition, box(packed.startValues[index]), box(packed.endValues[index]),
+            packed.interpolators[index], packed.startFrames[index], Float.isNaN(endFrame) ? null : endFrame);
+        keyframes[index] = keyframe;
+      }
+      return keyframe;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T box(float value) {
+      return (T) (isInteger ? Integer.valueOf((int) value) : Float.valueOf(value));
+    }
+
+    @Override public int size() {
+      return packed.startProgress.length;
+    }
+  }
+}
@@ -16,6 +16,12 @@ public class ShapeKeyframeAnimation extends BaseKeyframeAnimation<ShapeData, Pat
   private Path valueCallbackEndPath;
 
   private List<ShapeModifierContent> shapeModifiers;
+  /**
+   * Set when one of the shape modifiers changes. The shape itself may not have changed so the cached path has to be
+   * rebuilt even if the progress is the same.
+   */
+  private boolean isModifiedShapeDirty;
+  private final AnimationListener shapeModifierListener = () -> isModifiedShapeDirty = true;
 
   public ShapeKeyframeAnimation(List<Keyframe<ShapeData>> keyframes) {
     super(keyframes);
@@ -24,13 +30,13 @@ public class ShapeKeyframeAnimation extends BaseKeyframeAnimation<ShapeData, Pat
   @Override protected boolean skipCache() {
     // If there are shape modifiers but no animation on the shape itself, the shape animation
     // will think nothing changed and will keep returning its cached value.
-    // Ideally, we would have a dirty flag rather than permanently disabling the cache
-    // when there is a modifier. However, because shape modifiers can be reused across multiple
-    // other contents, it isn't trivial to know when to flip dirty to false.
-    return shapeModifiers != null && !shapeModifiers.isEmpty();
+    // Each animation listens to its modifiers itself so the flag belongs to this shape even when
+    // the modifiers are shared with other contents.
+    return isModifiedShapeDirty;
   }
 
   @Override public Path getValue(Keyframe<ShapeData> keyframe, float keyframeProgress) {
+    isModifiedShapeDirty = false;
     ShapeData startShapeData = keyframe.startValue;
     ShapeData endShapeData = keyframe.endValue;
 
@@ -61,5 +67,11 @@ public class ShapeKeyframeAnimation extends BaseKeyframeAnimation<ShapeData, Pat
 
   public void setShapeModifiers(@Nullable List<ShapeModifierContent> shapeModifiers) {
     this.shapeModifiers = shapeModifiers;
+    if (shapeModifiers != null) {
+      for (int i = 0; i < shapeModifiers.size(); i++) {
+        shapeModifiers.get(i).addUpdateListener(shapeModifierListener);
+      }
+    }
+    isModifiedShapeDirty = true;
   }
 }
@@ -59,6 +59,10 @@ public class SplitDimensionPathKeyframeAnimation extends BaseKeyframeAnimation<P
     }
   }
 
+  @Override public boolean isStatic() {
+    return !hasValueCallback() && xValueCallback == null && yValueCallback == null && xAnimation.isStatic() && yAnimation.isStatic();
+  }
+
   @Override public PointF getValue() {
     return getValue(null, 0);
   }
@@ -121,6 +121,19 @@ public class TransformKeyframeAnimation {
     layer.addAnimation(rotationZ);
   }
 
+  /**
+   * Returns true if the matrix and opacity of this transform are the same at every progress.
+   */
+  public boolean isStatic() {
+    return isStatic(opacity) && isStatic(startOpacity) && isStatic(endOpacity) && isStatic(anchorPoint) && isStatic(position) &&
+        isStatic(scale) && isStatic(rotation) && isStatic(skew) && isStatic(skewAngle) && isStatic(rotationX) && isStatic(rotationY) &&
+        isStatic(rotationZ);
+  }
+
+  private static boolean isStatic(@Nullable BaseKeyframeAnimation<?, ?> animation) {
+    return animation == null || animation.isStatic();
+  }
+
   public void addListener(final BaseKeyframeAnimation.AnimationListener listener) {
     if (opacity != null) {
       opacity.addUpdateListener(listener);
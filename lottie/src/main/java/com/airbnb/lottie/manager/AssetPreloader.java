@@ -0,0 +1,125 @@
+package com.airbnb.lottie.manager;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Typeface;
+import android.text.TextUtils;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
+import androidx.annotation.WorkerThread;
+
+import com.airbnb.lottie.LottieComposition;
+import com.airbnb.lottie.LottieImageAsset;
+import com.airbnb.lottie.model.Font;
+import com.airbnb.lottie.model.LottieImageCache;
+import com.airbnb.lottie.utils.BitmapDecoder;
+import com.airbnb.lottie.utils.Logger;
+
+import java.io.IOException;
+import java.util.Map;
+
+import okio.BufferedSource;
+import okio.Okio;
+
+/**
+ * Loads the images and fonts of a composition ahead of time so that they aren't loaded on the thread that draws the
+ * first frame that uses them. Images are decoded into {@link LottieImageCache} with the same keys that
+ * {@link ImageAssetManager} looks them up with, so they are shared and evicted like images that drawables decode.
+ * They are software bitmaps because whether a drawable uses hardware bitmaps depends on its render mode, which isn't
+ * known yet. Drawables that use hardware bitmaps fall back to them.
+ * Fonts are set on the composition's {@link Font}s the same way that fonts from a zip file are. Images and fonts that
+ * are already set or cached are skipped.
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY)
+public final class AssetPreloader {
+
+  private AssetPreloader() {
+  }
+
+  /**
+   * @param imagesFolder       the folder in src/main/assets that images which aren't embedded in the animation are loaded
+   *                           from or null to only load embedded images.
+   * @param fontsFolder        the folder in src/main/assets that fonts are loaded from or null to not load fonts.
+   * @param fontFileExtension  the extension of the font files, including the period.
+   */
+  @WorkerThread
+  public static void preload(Context context, LottieComposition composition, @Nullable String imagesFolder,
+      @Nullable String fontsFolder, String fontFileExtension) {
+    imagesFolder = withTrailingSlash(imagesFolder);
+    LottieImageCache imageCache = LottieImageCache.getInstance();
+    Map<String, LottieImageAsset> imageAssets = composition.getImages();
+    for (LottieImageAsset asset : imageAssets.values()) {
+      if (asset.getBitmap() != null) {
+        continue;
+      }
+      boolean embedded = asset.hasBitmap();
+      if (!embedded && TextUtils.isEmpty(imagesFolder)) {
+        continue;
+      }
+      Object cacheComposition = embedded ? imageAssets : null;
+      String source = embedded ? asset.getId() : imagesFolder + asset.getFileName();
+      int width = asset.getWidth();
+      int height = asset.getHeight();
+      LottieImageCache.Entry entry = imageCache.acquire(AssetPreloader.class, cacheComposition, source, width, height, false);
+      if (entry == null) {
+        Bitmap bitmap = loadBitmap(context, asset, source);
+        if (bitmap == null) {
+          continue;
+        }
+        entry = imageCache.put(AssetPreloader.class, cacheComposition, source, width, height, false, bitmap);
+      }
+      // Nothing draws the image yet so it is kept within the budget of the cache like images of recycled drawables. An
+      // image that is larger than the whole budget is evicted right away so preloading it only warms the asset source.
+      imageCache.release(AssetPreloader.class, entry);
+    }
+    if (fontsFolder == null) {
+      return;
+    }
+    for (Font font : composition.getFonts().values()) {
+      if (font.getTypeface() == null) {
+        font.setTypeface(loadTypeface(context, font, withTrailingSlash(fontsFolder), fontFileExtension));
+      }
+    }
+  }
+
+  @Nullable
+  private static Bitmap loadBitmap(Context context, LottieImageAsset asset, String source) {
+    byte[] data;
+    try {
+      if (asset.hasBitmap()) {
+        data = asset.decodeEmbeddedData();
+      } else {
+        try (BufferedSource assetSource = Okio.buffer(Okio.source(context.getAssets().open(source)))) {
+          data = assetSource.readByteArray();
+        }
+      }
+      if (data == null) {
+        return null;
+      }
+      return BitmapDecoder.decode(data, asset.getWidth(), asset.getHeight(), false);
+    } catch (IOException | IllegalArgumentException e) {
+      Logger.warning("Unable to preload image `" + asset.getId() + "`.", e);
+      return null;
+    }
+  }
+
+  @Nullable
+  private static Typeface loadTypeface(Context context, Font font, String fontsFolder, String fontFileExtension) {
+    String path = fontsFolder + font.getFamily() + fontFileExtension;
+    try {
+      return FontAssetManager.typefaceForStyle(Typeface.createFromAsset(context.getAssets(), path), font.getStyle());
+    } catch (RuntimeException e) {
+      Logger.warning("Unable to preload font " + path + ".", e);
+      return null;
+    }
+  }
+
+  @Nullable
+  private static String withTrailingSlash(@Nullable String folder) {
+    if (TextUtils.isEmpty(folder) || folder.charAt(folder.length() - 1) == '/') {
+      return folder;
+    }
+    return folder + '/';
+  }
+}
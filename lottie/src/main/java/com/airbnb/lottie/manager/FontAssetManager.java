@@ -108,7 +108,7 @@ public class FontAssetManager {
     return typeface;
   }
 
-  private Typeface typefaceForStyle(Typeface typeface, String style) {
+  static Typeface typefaceForStyle(Typeface typeface, String style) {
     int styleInt = Typeface.NORMAL;
     boolean containsItalic = style.contains("Italic");
     boolean containsBold = style.contains("Bold");
@@ -3,29 +3,41 @@ package com.airbnb.lottie.manager;
 import android.app.Application;
 import android.content.Context;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.graphics.drawable.Drawable;
+import android.os.Build;
 import android.text.TextUtils;
-import android.util.Base64;
 import android.view.View;
 
 import androidx.annotation.Nullable;
 
 import com.airbnb.lottie.ImageAssetDelegate;
 import com.airbnb.lottie.LottieImageAsset;
+import com.airbnb.lottie.model.LottieImageCache;
+import com.airbnb.lottie.utils.BitmapDecoder;
 import com.airbnb.lottie.utils.Logger;
-import com.airbnb.lottie.utils.Utils;
 
 import java.io.IOException;
-import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+import okio.BufferedSource;
+import okio.Okio;
+
 public class ImageAssetManager {
   private static final Object bitmapHashLock = new Object();
   @Nullable private final Context context;
   private final String imagesFolder;
   @Nullable private ImageAssetDelegate delegate;
   private final Map<String, LottieImageAsset> imageAssets;
+  /**
+   * Images that were decoded or acquired from {@link LottieImageCache} by id. They aren't set on their image assets so
+   * that the cache can evict them once no drawable uses them. The cache holds this manager weakly, so entries of
+   * drawables that are dropped without being cleared aren't kept in use.
+   */
+  private final Map<String, LottieImageCache.Entry> cachedImages = new HashMap<>();
+  private boolean hardwareBitmapsAllowed = false;
 
   public ImageAssetManager(Drawable.Callback callback, String imagesFolder,
       ImageAssetDelegate delegate, Map<String, LottieImageAsset> imageAssets) {
@@ -48,21 +60,53 @@ public class ImageAssetManager {
     this.delegate = assetDelegate;
   }
 
+  /**
+   * Whether images that are decoded from now on may be {@link Bitmap.Config#HARDWARE} bitmaps. This should only be
+   * allowed if they are drawn on hardware accelerated canvases.
+   */
+  public void setHardwareBitmapsAllowed(boolean hardwareBitmapsAllowed) {
+    this.hardwareBitmapsAllowed = hardwareBitmapsAllowed;
+  }
+
   /**
    * Returns the previously set bitmap or null.
    */
   @Nullable public Bitmap updateBitmap(String id, @Nullable Bitmap bitmap) {
+    LottieImageAsset asset = imageAssets.get(id);
+    Bitmap prevBitmap = asset.getBitmap();
+    LottieImageCache.Entry entry;
+    synchronized (bitmapHashLock) {
+      entry = cachedImages.remove(id);
+    }
+    if (entry != null) {
+      if (prevBitmap == null) {
+        prevBitmap = entry.getBitmap();
+      }
+      LottieImageCache.getInstance().release(this, entry);
+    }
     if (bitmap == null) {
-      LottieImageAsset asset = imageAssets.get(id);
-      Bitmap ret = asset.getBitmap();
       asset.setBitmap(null);
-      return ret;
+      return prevBitmap;
     }
-    Bitmap prevBitmap = imageAssets.get(id).getBitmap();
     putBitmap(id, bitmap);
     return prevBitmap;
   }
 
+  /**
+   * Releases the images that this decoded or shared with other drawables through {@link LottieImageCache}. They are
+   * decoded again or acquired from the cache if they are needed afterwards.
+   */
+  public void release() {
+    List<LottieImageCache.Entry> entries;
+    synchronized (bitmapHashLock) {
+      entries = new ArrayList<>(cachedImages.values());
+      cachedImages.clear();
+    }
+    for (LottieImageCache.Entry entry : entries) {
+      LottieImageCache.getInstance().release(this, entry);
+    }
+  }
+
   @Nullable public LottieImageAsset getImageAssetById(String id) {
     return imageAssets.get(id);
   }
@@ -92,52 +136,59 @@ public class ImageAssetManager {
       return null;
     }
 
+    LottieImageCache.Entry entry;
+    synchronized (bitmapHashLock) {
+      entry = cachedImages.get(id);
+    }
+    if (entry != null) {
+      return entry.getBitmap();
+    }
+
     String filename = asset.getFileName();
-    BitmapFactory.Options opts = new BitmapFactory.Options();
-    opts.inScaled = true;
-    opts.inDensity = 160;
+    boolean embedded = asset.hasBitmap();
+    if (!embedded && TextUtils.isEmpty(imagesFolder)) {
+      throw new IllegalStateException("You must set an images folder before loading an image." +
+          " Set it with LottieComposition#setImagesFolder or LottieDrawable#setImagesFolder");
+    }
+    // Images from the images folder are shared by every composition that uses them. Embedded images can only be
+    // identified by the composition that they are embedded in.
+    Object composition = embedded ? imageAssets : null;
+    String source = embedded ? id : imagesFolder + filename;
+    boolean hardware = hardwareBitmapsAllowed && Build.VERSION.SDK_INT >= Build.VERSION_CODES.P;
+    LottieImageCache imageCache = LottieImageCache.getInstance();
+    entry = imageCache.acquire(this, composition, source, asset.getWidth(), asset.getHeight(), hardware);
+    if (entry == null && hardware) {
+      // Software bitmaps, like the ones that AssetPreloader decodes, can be drawn on hardware accelerated canvases too.
+      entry = imageCache.acquire(this, composition, source, asset.getWidth(), asset.getHeight(), false);
+    }
+    if (entry != null) {
+      return putCachedImage(id, entry);
+    }
 
-    if (filename.startsWith("data:") && filename.indexOf("base64,") > 0) {
+    byte[] data;
+    if (embedded) {
       // Contents look like a base64 data URI, with the format data:image/png;base64,<data>.
-      byte[] data;
       try {
-        data = Base64.decode(filename.substring(filename.indexOf(',') + 1), Base64.DEFAULT);
+        data = asset.decodeEmbeddedData();
       } catch (IllegalArgumentException e) {
         Logger.warning("data URL did not have correct base64 format.", e);
         return null;
       }
-
-      try {
-        bitmap = BitmapFactory.decodeByteArray(data, 0, data.length, opts);
-      } catch (IllegalArgumentException e) {
-        Logger.warning("Unable to decode image `" + id + "`.", e);
+      if (data == null) {
         return null;
       }
-
-      if (bitmap == null) {
-        Logger.warning("Decoded image `" + id + "` is null.");
+    } else {
+      try (BufferedSource assetSource = Okio.buffer(Okio.source(context.getAssets().open(imagesFolder + filename)))) {
+        data = assetSource.readByteArray();
+      } catch (IOException e) {
+        Logger.warning("Unable to open asset.", e);
         return null;
       }
-
-      Bitmap resizedBitmap = Utils.resizeBitmapIfNeeded(bitmap, asset.getWidth(), asset.getHeight());
-      return putBitmap(id, resizedBitmap);
     }
 
-    InputStream is;
     try {
-      if (TextUtils.isEmpty(imagesFolder)) {
-        throw new IllegalStateException("You must set an images folder before loading an image." +
-            " Set it with LottieComposition#setImagesFolder or LottieDrawable#setImagesFolder");
-      }
-      is = context.getAssets().open(imagesFolder + filename);
-    } catch (IOException e) {
-      Logger.warning("Unable to open asset.", e);
-      return null;
-    }
-
-    try {
-      bitmap = BitmapFactory.decodeStream(is, null, opts);
-    } catch (IllegalArgumentException e) {
+      bitmap = BitmapDecoder.decode(data, asset.getWidth(), asset.getHeight(), hardware);
+    } catch (IOException | IllegalArgumentException e) {
       Logger.warning("Unable to decode image `" + id + "`.", e);
       return null;
     }
@@ -145,8 +196,7 @@ public class ImageAssetManager {
       Logger.warning("Decoded image `" + id + "` is null.");
       return null;
     }
-    bitmap = Utils.resizeBitmapIfNeeded(bitmap, asset.getWidth(), asset.getHeight());
-    return putBitmap(id, bitmap);
+    return putCachedImage(id, imageCache.put(this, composition, source, asset.getWidth(), asset.getHeight(), hardware, bitmap));
   }
 
   public boolean hasSameContext(Context context) {
@@ -157,6 +207,18 @@ public class ImageAssetManager {
     return contextToCompare == this.context;
   }
 
+  private Bitmap putCachedImage(String id, LottieImageCache.Entry entry) {
+    LottieImageCache.Entry previous;
+    synchronized (bitmapHashLock) {
+      previous = cachedImages.put(id, entry);
+    }
+    if (previous != null) {
+      // Another thread loaded the same image.
+      LottieImageCache.getInstance().release(this, previous);
+    }
+    return entry.getBitmap();
+  }
+
   private Bitmap putBitmap(String key, @Nullable Bitmap bitmap) {
     synchronized (bitmapHashLock) {
       imageAssets.get(key).setBitmap(bitmap);
@@ -0,0 +1,168 @@
+package com.airbnb.lottie.model;
+
+import android.content.ComponentCallbacks2;
+import android.graphics.Bitmap;
+import android.graphics.Color;
+import android.os.Build;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
+import androidx.annotation.VisibleForTesting;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Process wide pool of bitmaps that are no longer drawn so that their memory can be reused for new bitmaps instead of
+ * being allocated again.
+ * <p>
+ * Pooled bitmaps are reused by decoding images into them with {@link android.graphics.BitmapFactory.Options#inBitmap}
+ * or by reconfiguring them to a new size. Both require KitKat and a mutable software bitmap so any other bitmap is
+ * recycled when it is put in the pool. Once the pool is over its budget, the bitmaps that were pooled first are recycled.
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY)
+public class LottieBitmapPool {
+
+  public static final int DEFAULT_MAX_SIZE_IN_BYTES = 4 * 1024 * 1024;
+
+  private static final LottieBitmapPool INSTANCE = new LottieBitmapPool();
+
+  public static LottieBitmapPool getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Ordered from least to most recently pooled.
+   */
+  private final List<Bitmap> bitmaps = new ArrayList<>();
+  private int maxSizeInBytes = DEFAULT_MAX_SIZE_IN_BYTES;
+  private int sizeInBytes = 0;
+
+  @VisibleForTesting LottieBitmapPool() {
+  }
+
+  /**
+   * Removes and returns the smallest pooled bitmap that has at least byteCount bytes allocated or null if there isn't one.
+   * The bitmap may have any size and config so it should only be used as {@link android.graphics.BitmapFactory.Options#inBitmap}
+   * or after it has been reconfigured.
+   */
+  @Nullable
+  public synchronized Bitmap getReusable(int byteCount) {
+    int bestIndex = -1;
+    for (int i = 0; i < bitmaps.size(); i++) {
+      int allocationByteCount = sizeOf(bitmaps.get(i));
+      if (allocationByteCount >= byteCount &&
+          (bestIndex == -1 || allocationByteCount < sizeOf(bitmaps.get(bestIndex)))) {
+        bestIndex = i;
+      }
+    }
+    if (bestIndex == -1) {
+      return null;
+    }
+    Bitmap bitmap = bitmaps.remove(bestIndex);
+    sizeInBytes -= sizeOf(bitmap);
+    return bitmap;
+  }
+
+  /**
+   * Returns a transparent, mutable bitmap of the given size and config. It reuses a pooled bitmap if one is large enough.
+   */
+  public Bitmap get(int width, int height, Bitmap.Config config) {
+    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT) {
+      Bitmap bitmap = getReusable(width * height * bytesPerPixel(config));
+      if (bitmap != null) {
+        bitmap.reconfigure(width, height, config);
+        bitmap.eraseColor(Color.TRANSPARENT);
+        return bitmap;
+      }
+    }
+    return Bitmap.createBitmap(width, height, config);
+  }
+
+  /**
+   * Gives the bitmap to the pool. It must not be used by the caller afterwards because it may be recycled or reused.
+   * Bitmaps that have been drawn on a hardware accelerated canvas must not be pooled because a display list may still
+   * draw them.
+   */
+  public synchronized void put(@Nullable Bitmap bitmap) {
+    if (bitmap == null || bitmap.isRecycled() || bitmaps.contains(bitmap)) {
+      return;
+    }
+    if (!isPoolable(bitmap) || sizeOf(bitmap) > maxSizeInBytes) {
+      bitmap.recycle();
+      return;
+    }
+    bitmaps.add(bitmap);
+    sizeInBytes += sizeOf(bitmap);
+    trimToSize(maxSizeInBytes);
+  }
+
+  /**
+   * Set the maximum number of bytes that pooled bitmaps may use.
+   * This must be {@literal >=} 0. 0 disables the pool.
+   */
+  public synchronized void resize(int maxSizeInBytes) {
+    if (maxSizeInBytes < 0) {
+      throw new IllegalArgumentException("maxSizeInBytes < 0");
+    }
+    this.maxSizeInBytes = maxSizeInBytes;
+    trimToSize(maxSizeInBytes);
+  }
+
+  /**
+   * Recycles every pooled bitmap.
+   */
+  public synchronized void clear() {
+    trimToSize(0);
+  }
+
+  /**
+   * Recycles pooled bitmaps in response to {@link ComponentCallbacks2#onTrimMemory(int)}.
+   */
+  public void trimMemory(int level) {
+    if (level >= ComponentCallbacks2.TRIM_MEMORY_BACKGROUND || level == ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL) {
+      clear();
+    } else if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+      synchronized (this) {
+        trimToSize(maxSizeInBytes / 2);
+      }
+    }
+  }
+
+  @VisibleForTesting synchronized int getSizeInBytes() {
+    return sizeInBytes;
+  }
+
+  private void trimToSize(int maxSize) {
+    while (sizeInBytes > maxSize && !bitmaps.isEmpty()) {
+      Bitmap bitmap = bitmaps.remove(0);
+      sizeInBytes -= sizeOf(bitmap);
+      bitmap.recycle();
+    }
+  }
+
+  private static boolean isPoolable(Bitmap bitmap) {
+    if (Build.VERSION.SDK_INT < Build.VERSION_CODES.KITKAT || !bitmap.isMutable()) {
+      return false;
+    }
+    return Build.VERSION.SDK_INT < Build.VERSION_CODES.O || bitmap.getConfig() != Bitmap.Config.HARDWARE;
+  }
+
+  private static int sizeOf(Bitmap bitmap) {
+    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT) {
+      return bitmap.getAllocationByteCount();
+    }
+    return bitmap.getByteCount();
+  }
+
+  private static int bytesPerPixel(Bitmap.Config config) {
+    if (config == Bitmap.Config.ALPHA_8) {
+      return 1;
+    } else if (config == Bitmap.Config.RGB_565 || config == Bitmap.Config.ARGB_4444) {
+      return 2;
+    } else if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O && config == Bitmap.Config.RGBA_F16) {
+      return 8;
+    }
+    return 4;
+  }
+}
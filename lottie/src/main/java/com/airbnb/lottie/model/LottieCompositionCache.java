@@ -1,22 +1,53 @@
 package com.airbnb.lottie.model;
 
+import android.content.ComponentCallbacks2;
+
+import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.RestrictTo;
 import androidx.annotation.VisibleForTesting;
 import androidx.collection.LruCache;
 
 import com.airbnb.lottie.LottieComposition;
+import com.airbnb.lottie.LottieCompositionCacheStats;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 @RestrictTo(RestrictTo.Scope.LIBRARY)
 public class LottieCompositionCache {
 
+  private static final int DEFAULT_MAX_COUNT = 20;
+
   private static final LottieCompositionCache INSTANCE = new LottieCompositionCache();
 
   public static LottieCompositionCache getInstance() {
     return INSTANCE;
   }
 
-  private final LruCache<String, LottieComposition> cache = new LruCache<>(20);
+  /**
+   * When true, entries are weighed by {@link LottieComposition#getEstimatedSizeInBytes()} and the max size of
+   * the cache is a byte budget. Otherwise, every entry has a size of 1 and the max size is a count.
+   */
+  private volatile boolean sizeInBytes = false;
+
+  /**
+   * The estimated size of each cached composition at the time that it was first put in the cache. The estimate changes
+   * once images are decoded or precomps are parsed but {@link LruCache} requires an entry's size to stay the same while
+   * it is cached.
+   */
+  private final Map<LottieComposition, Integer> sizesInBytes = Collections.synchronizedMap(new WeakHashMap<>());
+
+  private final LruCache<String, LottieComposition> cache = new LruCache<String, LottieComposition>(DEFAULT_MAX_COUNT) {
+    @Override protected int sizeOf(@NonNull String key, @NonNull LottieComposition composition) {
+      if (!sizeInBytes) {
+        return 1;
+      }
+      Integer size = sizesInBytes.get(composition);
+      return size == null ? 1 : size;
+    }
+  };
 
   @VisibleForTesting LottieCompositionCache() {
   }
@@ -33,6 +64,11 @@ public class LottieCompositionCache {
     if (cacheKey == null) {
       return;
     }
+    synchronized (sizesInBytes) {
+      if (!sizesInBytes.containsKey(composition)) {
+        sizesInBytes.put(composition, Math.max(1, composition.getEstimatedSizeInBytes()));
+      }
+    }
     cache.put(cacheKey, composition);
   }
 
@@ -44,7 +80,48 @@ public class LottieCompositionCache {
    * Set the maximum number of compositions to keep cached in memory.
    * This must be {@literal >} 0.
    */
-  public void resize(int size) {
+  public synchronized void resize(int size) {
+    setSizeInBytes(false);
     cache.resize(size);
   }
+
+  /**
+   * Set the maximum estimated number of bytes that cached compositions may retain. Large compositions or ones
+   * with many images count for more than small ones.
+   * This must be {@literal >} 0.
+   *
+   * @see LottieComposition#getEstimatedSizeInBytes()
+   */
+  public synchronized void setMaxSizeInBytes(int maxSizeInBytes) {
+    setSizeInBytes(true);
+    cache.resize(maxSizeInBytes);
+  }
+
+  /**
+   * Existing entries were weighed with the previous sizing mode so they can't be kept when it changes.
+   */
+  private void setSizeInBytes(boolean sizeInBytes) {
+    if (this.sizeInBytes != sizeInBytes) {
+      cache.evictAll();
+      this.sizeInBytes = sizeInBytes;
+    }
+  }
+
+  /**
+   * Releases cached compositions in response to {@link ComponentCallbacks2#onTrimMemory(int)}.
+   * Half of the cache is released when the app is backgrounded or memory is critically low while running
+   * and all of it is released once the app is likely to be killed.
+   */
+  public void trimMemory(int level) {
+    if (level >= ComponentCallbacks2.TRIM_MEMORY_MODERATE) {
+      cache.evictAll();
+    } else if (level >= ComponentCallbacks2.TRIM_MEMORY_BACKGROUND || level == ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL) {
+      cache.trimToSize(cache.maxSize() / 2);
+    }
+  }
+
+  public LottieCompositionCacheStats getStats() {
+    return new LottieCompositionCacheStats(cache.hitCount(), cache.missCount(), cache.evictionCount(),
+        cache.size(), cache.maxSize(), sizeInBytes);
+  }
 }
@@ -0,0 +1,219 @@
+package com.airbnb.lottie.model;
+
+import android.content.ComponentCallbacks2;
+import android.graphics.Bitmap;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
+import androidx.annotation.VisibleForTesting;
+
+import com.airbnb.lottie.LottieComposition;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Process wide cache of pre-rendered animation frames.
+ * <p>
+ * Every {@link Strip} holds one bitmap per composition frame rendered at a fixed size. Drawables that show the same
+ * composition at the same size with the same dynamic properties share a strip so each frame only has to be rendered once.
+ * Strips are ref counted and only strips that aren't used by any drawable are evicted. If a new strip wouldn't fit in the
+ * budget, {@link #acquire(LottieComposition, int, int, Object)} returns null and the drawable renders normally instead.
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY)
+public class LottieFrameCache {
+
+  public static final int DEFAULT_MAX_SIZE_IN_BYTES = 8 * 1024 * 1024;
+
+  private static final LottieFrameCache INSTANCE = new LottieFrameCache();
+
+  public static LottieFrameCache getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Ordered from least to most recently used.
+   */
+  private final LinkedHashMap<Key, Strip> strips = new LinkedHashMap<>(16, 0.75f, true);
+  private int maxSizeInBytes = DEFAULT_MAX_SIZE_IN_BYTES;
+  private int sizeInBytes = 0;
+
+  @VisibleForTesting LottieFrameCache() {
+  }
+
+  /**
+   * Returns the strip for the composition at the given size and increments its ref count or null if it doesn't fit in the budget.
+   * Call {@link #release(Strip)} once it is no longer used.
+   *
+   * @param renderState identifies the dynamic properties that the frames are rendered with. Drawables only share a strip if
+   *                    their render states are equal.
+   */
+  @Nullable
+  public synchronized Strip acquire(LottieComposition composition, int width, int height, Object renderState) {
+    Key key = new Key(composition, width, height, renderState);
+    Strip strip = strips.get(key);
+    if (strip == null) {
+      int frameCount = (int) Math.ceil(composition.getDurationFrames()) + 1;
+      long size = (long) width * height * 4 * frameCount;
+      if (size > maxSizeInBytes) {
+        return null;
+      }
+      trimToSize(maxSizeInBytes - (int) size);
+      if (sizeInBytes + size > maxSizeInBytes) {
+        // The rest of the budget is held by strips that are in use.
+        return null;
+      }
+      strip = new Strip(key, composition.getStartFrame(), frameCount, (int) size);
+      strips.put(key, strip);
+      sizeInBytes += strip.sizeInBytes;
+    }
+    strip.refCount++;
+    return strip;
+  }
+
+  public synchronized void release(Strip strip) {
+    strip.refCount--;
+    if (sizeInBytes > maxSizeInBytes) {
+      trimToSize(maxSizeInBytes);
+    }
+  }
+
+  /**
+   * Set the maximum number of bytes that pre-rendered frames may use.
+   * This must be {@literal >} 0.
+   */
+  public synchronized void resize(int maxSizeInBytes) {
+    if (maxSizeInBytes <= 0) {
+      throw new IllegalArgumentException("maxSizeInBytes <= 0");
+    }
+    this.maxSizeInBytes = maxSizeInBytes;
+    trimToSize(maxSizeInBytes);
+  }
+
+  /**
+   * Evicts every strip that isn't currently in use.
+   */
+  public synchronized void clear() {
+    trimToSize(0);
+  }
+
+  /**
+   * Releases strips that aren't in use in response to {@link ComponentCallbacks2#onTrimMemory(int)}.
+   */
+  public void trimMemory(int level) {
+    if (level >= ComponentCallbacks2.TRIM_MEMORY_BACKGROUND || level == ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL) {
+      clear();
+    }
+  }
+
+  @VisibleForTesting synchronized int getSizeInBytes() {
+    return sizeInBytes;
+  }
+
+  private void trimToSize(int maxSize) {
+    Iterator<Map.Entry<Key, Strip>> it = strips.entrySet().iterator();
+    while (sizeInBytes > maxSize && it.hasNext()) {
+      Strip strip = it.next().getValue();
+      if (strip.refCount > 0) {
+        continue;
+      }
+      it.remove();
+      sizeInBytes -= strip.sizeInBytes;
+      strip.clear();
+    }
+  }
+
+  /**
+   * The pre-rendered frames of one composition at one size. Frames are rendered lazily the first time they are drawn.
+   */
+  public static final class Strip {
+    private final Key key;
+    private final float startFrame;
+    private final Bitmap[] frames;
+    private final int sizeInBytes;
+    private int refCount = 0;
+
+    private Strip(Key key, float startFrame, int frameCount, int sizeInBytes) {
+      this.key = key;
+      this.startFrame = startFrame;
+      this.frames = new Bitmap[frameCount];
+      this.sizeInBytes = sizeInBytes;
+    }
+
+    public boolean matches(LottieComposition composition, int width, int height, Object renderState) {
+      return key.composition == composition && key.width == width && key.height == height && key.renderState.equals(renderState);
+    }
+
+    public int getWidth() {
+      return key.width;
+    }
+
+    public int getHeight() {
+      return key.height;
+    }
+
+    /**
+     * Returns the index of the pre-rendered frame closest to the given composition frame.
+     */
+    public int getFrameIndex(float frame) {
+      int index = Math.round(frame - startFrame);
+      return Math.max(0, Math.min(frames.length - 1, index));
+    }
+
+    /**
+     * Returns the composition frame that the frame at the given index is rendered at.
+     */
+    public float getFrame(int index) {
+      return startFrame + index;
+    }
+
+    @Nullable
+    public synchronized Bitmap getBitmap(int index) {
+      return frames[index];
+    }
+
+    public synchronized void putBitmap(int index, Bitmap bitmap) {
+      frames[index] = bitmap;
+    }
+
+    private synchronized void clear() {
+      for (int i = 0; i < frames.length; i++) {
+        frames[i] = null;
+      }
+    }
+  }
+
+  private static final class Key {
+    private final LottieComposition composition;
+    private final int width;
+    private final int height;
+    private final Object renderState;
+
+    private Key(LottieComposition composition, int width, int height, Object renderState) {
+      this.composition = composition;
+      this.width = width;
+      this.height = height;
+      this.renderState = renderState;
+    }
+
+    @Override public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key key = (Key) o;
+      return composition == key.composition && width == key.width && height == key.height && renderState.equals(key.renderState);
+    }
+
+    @Override public int hashCode() {
+      int result = System.identityHashCode(composition);
+      result = 31 * result + width;
+      result = 31 * result + height;
+      result = 31 * result + renderState.hashCode();
+      return result;
+    }
+  }
+}
@@ -0,0 +1,243 @@
+package com.airbnb.lottie.model;
+
+import android.content.ComponentCallbacks2;
+import android.graphics.Bitmap;
+import android.os.Build;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
+import androidx.annotation.VisibleForTesting;
+
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Process wide cache of decoded image assets.
+ * <p>
+ * Every drawable that shows an image at the same size shares one bitmap. Images from an images folder are identified by
+ * their path so they are shared even between different compositions of the same animation. Images that are embedded in
+ * an animation are only shared between drawables that show the same composition.
+ * <p>
+ * Entries are ref counted per owner. Entries that are in use are never evicted, even if they exceed the budget. Entries
+ * that aren't are kept until the budget is exceeded so that drawables in recycled list items don't have to decode their
+ * images again. Evicted bitmaps aren't recycled because they may still have been handed out by
+ * {@link com.airbnb.lottie.LottieDrawable#getBitmapForId(String)}.
+ * <p>
+ * Owners and compositions are held weakly. Refs of owners that are dropped without releasing them no longer keep their
+ * entries in use, and entries of compositions that have been garbage collected are evicted because they can't be
+ * acquired again.
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY)
+public class LottieImageCache {
+
+  public static final int DEFAULT_MAX_SIZE_IN_BYTES = 8 * 1024 * 1024;
+
+  private static final LottieImageCache INSTANCE = new LottieImageCache();
+
+  public static LottieImageCache getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Ordered from least to most recently used.
+   */
+  private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private int maxSizeInBytes = DEFAULT_MAX_SIZE_IN_BYTES;
+  private int sizeInBytes = 0;
+
+  @VisibleForTesting LottieImageCache() {
+  }
+
+  /**
+   * Returns the cached entry for the image and increments the ref count of owner on it or null if it hasn't been decoded
+   * yet. Call {@link #release(Object, Entry)} once owner no longer uses it.
+   *
+   * @param owner       the object that uses the entry. The entry is no longer in use once owner has released it or has
+   *                    been garbage collected.
+   * @param composition identifies the composition for images that are embedded in it or null for images that are loaded
+   *                    from a path. It is compared by identity.
+   * @param source      the path of the image or the id of the image asset if it is embedded.
+   */
+  @Nullable
+  public synchronized Entry acquire(Object owner, @Nullable Object composition, String source, int width, int height,
+      boolean hardware) {
+    Entry entry = entries.get(new Key(composition, source, width, height, hardware));
+    if (entry != null) {
+      entry.retain(owner);
+    }
+    return entry;
+  }
+
+  /**
+   * Adds a decoded image to the cache and returns its entry with a ref count of one for owner. If another thread has
+   * decoded the same image in the meantime, its entry is returned instead.
+   *
+   * @see #acquire(Object, Object, String, int, int, boolean)
+   */
+  public synchronized Entry put(Object owner, @Nullable Object composition, String source, int width, int height,
+      boolean hardware, Bitmap bitmap) {
+    Key key = new Key(composition, source, width, height, hardware);
+    Entry entry = entries.get(key);
+    if (entry == null) {
+      entry = new Entry(bitmap);
+      entries.put(key, entry);
+      sizeInBytes += entry.sizeInBytes;
+    }
+    entry.retain(owner);
+    trimToSize(maxSizeInBytes);
+    return entry;
+  }
+
+  public synchronized void release(Object owner, Entry entry) {
+    entry.release(owner);
+    if (sizeInBytes > maxSizeInBytes) {
+      trimToSize(maxSizeInBytes);
+    }
+  }
+
+  /**
+   * Set the maximum number of bytes that decoded images which aren't in use may keep.
+   * This must be {@literal >=} 0. With 0, images are dropped as soon as no drawable uses them.
+   */
+  public synchronized void resize(int maxSizeInBytes) {
+    if (maxSizeInBytes < 0) {
+      throw new IllegalArgumentException("maxSizeInBytes < 0");
+    }
+    this.maxSizeInBytes = maxSizeInBytes;
+    trimToSize(maxSizeInBytes);
+  }
+
+  /**
+   * Evicts every image that isn't currently in use.
+   */
+  public synchronized void clear() {
+    trimToSize(0);
+  }
+
+  /**
+   * Evicts images that aren't in use in response to {@link ComponentCallbacks2#onTrimMemory(int)}.
+   */
+  public void trimMemory(int level) {
+    if (level >= ComponentCallbacks2.TRIM_MEMORY_BACKGROUND || level == ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL) {
+      clear();
+    } else if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+      synchronized (this) {
+        trimToSize(maxSizeInBytes / 2);
+      }
+    }
+  }
+
+  @VisibleForTesting synchronized int getSizeInBytes() {
+    return sizeInBytes;
+  }
+
+  private void trimToSize(int maxSize) {
+    Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator();
+    while (it.hasNext()) {
+      Map.Entry<Key, Entry> mapEntry = it.next();
+      Entry entry = mapEntry.getValue();
+      boolean stale = mapEntry.getKey().isStale();
+      if (!stale && (sizeInBytes <= maxSize || entry.isInUse())) {
+        continue;
+      }
+      it.remove();
+      sizeInBytes -= entry.sizeInBytes;
+    }
+  }
+
+  /**
+   * One decoded image.
+   */
+  public static final class Entry {
+    private final Bitmap bitmap;
+    private final int sizeInBytes;
+    /**
+     * The ref count of each owner.
+     */
+    private final Map<Object, Integer> owners = new WeakHashMap<>();
+
+    private Entry(Bitmap bitmap) {
+      this.bitmap = bitmap;
+      // Hardware bitmaps don't use the heap but they still use memory.
+      this.sizeInBytes = Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT ? bitmap.getAllocationByteCount() : bitmap.getByteCount();
+    }
+
+    public Bitmap getBitmap() {
+      return bitmap;
+    }
+
+    private void retain(Object owner) {
+      Integer refCount = owners.get(owner);
+      owners.put(owner, refCount == null ? 1 : refCount + 1);
+    }
+
+    private void release(Object owner) {
+      Integer refCount = owners.get(owner);
+      if (refCount == null || refCount <= 1) {
+        owners.remove(owner);
+      } else {
+        owners.put(owner, refCount - 1);
+      }
+    }
+
+    private boolean isInUse() {
+      return !owners.isEmpty();
+    }
+  }
+
+  private static final class Key {
+    /**
+     * Held weakly so that cached embedded images don't keep their composition alive.
+     */
+    @Nullable private final WeakReference<Object> composition;
+    private final int compositionHashCode;
+    private final String source;
+    private final int width;
+    private final int height;
+    private final boolean hardware;
+
+    private Key(@Nullable Object composition, String source, int width, int height, boolean hardware) {
+      this.composition = composition == null ? null : new WeakReference<>(composition);
+      this.compositionHashCode = System.identityHashCode(composition);
+      this.source = source;
+      this.width = width;
+      this.height = height;
+      this.hardware = hardware;
+    }
+
+    @Nullable private Object getComposition() {
+      return composition == null ? null : composition.get();
+    }
+
+    /**
+     * Whether the composition of this key has been garbage collected so it can't be looked up anymore.
+     */
+    private boolean isStale() {
+      return composition != null && composition.get() == null;
+    }
+
+    @Override public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key key = (Key) o;
+      return !isStale() && getComposition() == key.getComposition() && width == key.width && height == key.height && hardware == key.hardware &&
+          source.equals(key.source);
+    }
+
+    @Override public int hashCode() {
+      int result = compositionHashCode;
+      result = 31 * result + source.hashCode();
+      result = 31 * result + width;
+      result = 31 * result + height;
+      result = 31 * result + (hardware ? 1 : 0);
+      return result;
+    }
+  }
+}
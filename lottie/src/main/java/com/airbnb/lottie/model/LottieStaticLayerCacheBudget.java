@@ -0,0 +1,70 @@
+package com.airbnb.lottie.model;
+
+import androidx.annotation.RestrictTo;
+import androidx.annotation.VisibleForTesting;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Process wide budget for the bitmaps that static layers are rendered into when
+ * {@link com.airbnb.lottie.LottieDrawable#setStaticLayerCachingEnabled(boolean)} is enabled.
+ * <p>
+ * Each cache reserves the size of its bitmap before allocating it. Layers that don't fit in the budget are drawn normally
+ * instead. Reservations are held weakly by the cache that made them so that caches of drawables that are dropped without
+ * being cleared don't keep their share of the budget.
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY)
+public class LottieStaticLayerCacheBudget {
+
+  public static final int DEFAULT_MAX_SIZE_IN_BYTES = 16 * 1024 * 1024;
+
+  private static final LottieStaticLayerCacheBudget INSTANCE = new LottieStaticLayerCacheBudget();
+
+  public static LottieStaticLayerCacheBudget getInstance() {
+    return INSTANCE;
+  }
+
+  private final Map<Object, Integer> reservations = new WeakHashMap<>();
+  private int maxSizeInBytes = DEFAULT_MAX_SIZE_IN_BYTES;
+
+  @VisibleForTesting LottieStaticLayerCacheBudget() {
+  }
+
+  /**
+   * Replaces the reservation of owner with sizeInBytes. Returns false and releases the previous reservation if that would
+   * exceed the budget.
+   */
+  public synchronized boolean reserve(Object owner, int sizeInBytes) {
+    reservations.remove(owner);
+    if (getSizeInBytes() + (long) sizeInBytes > maxSizeInBytes) {
+      return false;
+    }
+    reservations.put(owner, sizeInBytes);
+    return true;
+  }
+
+  public synchronized void release(Object owner) {
+    reservations.remove(owner);
+  }
+
+  /**
+   * Set the maximum number of bytes that static layer caches may use across all drawables.
+   * This must be {@literal >=} 0. 0 disables static layer caching. Existing caches keep their bitmaps until they are
+   * re-rendered.
+   */
+  public synchronized void resize(int maxSizeInBytes) {
+    if (maxSizeInBytes < 0) {
+      throw new IllegalArgumentException("maxSizeInBytes < 0");
+    }
+    this.maxSizeInBytes = maxSizeInBytes;
+  }
+
+  @VisibleForTesting synchronized int getSizeInBytes() {
+    long size = 0;
+    for (Integer reservation : reservations.values()) {
+      size += reservation;
+    }
+    return (int) Math.min(size, Integer.MAX_VALUE);
+  }
+}
@@ -1,17 +1,35 @@
 package com.airbnb.lottie.model.animatable;
 
+import androidx.annotation.Nullable;
+
 import com.airbnb.lottie.animation.keyframe.FloatKeyframeAnimation;
+import com.airbnb.lottie.animation.keyframe.ScalarKeyframes;
 import com.airbnb.lottie.value.Keyframe;
 
 import java.util.List;
 
 public class AnimatableFloatValue extends BaseAnimatableValue<Float, Float> {
 
+  /**
+   * Packed lazily because parsers may still modify the keyframes after creating this. Once packed, {@link #keyframes} is
+   * replaced with a view of the packed keyframes so that the parsed keyframes can be garbage collected.
+   */
+  @Nullable private volatile ScalarKeyframes packedKeyframes;
+  private volatile boolean isPacked;
+
   public AnimatableFloatValue(List<Keyframe<Float>> keyframes) {
     super(keyframes);
   }
 
   @Override public FloatKeyframeAnimation createAnimation() {
-    return new FloatKeyframeAnimation(keyframes);
+    if (!isPacked) {
+      ScalarKeyframes packedKeyframes = ScalarKeyframes.ofFloats(keyframes);
+      if (packedKeyframes != null) {
+        keyframes = packedKeyframes.asFloatKeyframes();
+      }
+      this.packedKeyframes = packedKeyframes;
+      isPacked = true;
+    }
+    return new FloatKeyframeAnimation(keyframes, packedKeyframes);
   }
 }
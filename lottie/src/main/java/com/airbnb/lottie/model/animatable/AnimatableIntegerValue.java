@@ -1,18 +1,36 @@
 package com.airbnb.lottie.model.animatable;
 
+import androidx.annotation.Nullable;
+
 import com.airbnb.lottie.animation.keyframe.BaseKeyframeAnimation;
 import com.airbnb.lottie.animation.keyframe.IntegerKeyframeAnimation;
+import com.airbnb.lottie.animation.keyframe.ScalarKeyframes;
 import com.airbnb.lottie.value.Keyframe;
 
 import java.util.List;
 
 public class AnimatableIntegerValue extends BaseAnimatableValue<Integer, Integer> {
 
+  /**
+   * Packed lazily because parsers may still modify the keyframes after creating this. Once packed, {@link #keyframes} is
+   * replaced with a view of the packed keyframes so that the parsed keyframes can be garbage collected.
+   */
+  @Nullable private volatile ScalarKeyframes packedKeyframes;
+  private volatile boolean isPacked;
+
   public AnimatableIntegerValue(List<Keyframe<Integer>> keyframes) {
     super(keyframes);
   }
 
   @Override public BaseKeyframeAnimation<Integer, Integer> createAnimation() {
-    return new IntegerKeyframeAnimation(keyframes);
+    if (!isPacked) {
+      ScalarKeyframes packedKeyframes = ScalarKeyframes.ofIntegers(keyframes);
+      if (packedKeyframes != null) {
+        keyframes = packedKeyframes.asIntegerKeyframes();
+      }
+      this.packedKeyframes = packedKeyframes;
+      isPacked = true;
+    }
+    return new IntegerKeyframeAnimation(keyframes, packedKeyframes);
   }
 }
@@ -7,7 +7,10 @@ import java.util.Collections;
 import java.util.List;
 
 abstract class BaseAnimatableValue<V, O> implements AnimatableValue<V, O> {
-  final List<Keyframe<V>> keyframes;
+  /**
+   * Subclasses may replace this with an equivalent, more compact list once parsing is done.
+   */
+  List<Keyframe<V>> keyframes;
 
   /**
    * Create a default static animatable path.
@@ -3,6 +3,7 @@ package com.airbnb.lottie.model.content;
 import android.graphics.PointF;
 
 import androidx.annotation.FloatRange;
+import androidx.annotation.Nullable;
 
 import com.airbnb.lottie.model.CubicCurveData;
 import com.airbnb.lottie.utils.Logger;
@@ -13,6 +14,11 @@ import java.util.List;
 
 public class ShapeData {
   private final List<CubicCurveData> curves;
+  /**
+   * Curves that were removed by {@link #setCurveCount(int)}. They are reused when the shape grows again so that
+   * shapes whose vertex count changes between frames don't allocate.
+   */
+  @Nullable private List<CubicCurveData> spareCurves;
   private PointF initialPoint;
   private boolean closed;
 
@@ -49,6 +55,29 @@ public class ShapeData {
     return curves;
   }
 
+  /**
+   * Adds or removes curves at the end of the shape until it has {@code count} curves.
+   * The values of curves that are added are undefined.
+   */
+  public void setCurveCount(int count) {
+    if (curves.size() > count) {
+      if (spareCurves == null) {
+        spareCurves = new ArrayList<>();
+      }
+      for (int i = curves.size() - 1; i >= count; i--) {
+        spareCurves.add(curves.remove(i));
+      }
+    } else if (curves.size() < count) {
+      for (int i = curves.size(); i < count; i++) {
+        if (spareCurves == null || spareCurves.isEmpty()) {
+          curves.add(new CubicCurveData());
+        } else {
+          curves.add(spareCurves.remove(spareCurves.size() - 1));
+        }
+      }
+    }
+  }
+
   public void interpolateBetween(ShapeData shapeData1, ShapeData shapeData2,
       @FloatRange(from = 0f, to = 1f) float percentage) {
     if (initialPoint == null) {
@@ -63,15 +92,7 @@ public class ShapeData {
     }
 
     int points = Math.min(shapeData1.getCurves().size(), shapeData2.getCurves().size());
-    if (curves.size() < points) {
-      for (int i = curves.size(); i < points; i++) {
-        curves.add(new CubicCurveData());
-      }
-    } else if (curves.size() > points) {
-      for (int i = curves.size() - 1; i >= points; i--) {
-        curves.remove(curves.size() - 1);
-      }
-    }
+    setCurveCount(points);
 
     PointF initialPoint1 = shapeData1.getInitialPoint();
     PointF initialPoint2 = shapeData2.getInitialPoint();
@@ -60,8 +60,10 @@ public abstract class BaseLayer
       case SHAPE:
         return new ShapeLayer(drawable, layerModel, compositionLayer, composition);
       case PRE_COMP:
+        // Lazy precomps are parsed when the layer is first used.
+        String refId = layerModel.getRefId();
         return new CompositionLayer(drawable, layerModel,
-            composition.getPrecomps(layerModel.getRefId()), composition);
+            composition.isPrecompParsed(refId) ? composition.getPrecomps(refId) : null, composition);
       case SOLID:
         return new SolidLayer(drawable, layerModel);
       case IMAGE:
@@ -121,6 +123,14 @@ public abstract class BaseLayer
 
   @Nullable LPaint solidWhitePaint;
 
+  /**
+   * True if everything this layer draws, apart from whether it is visible, is the same on every frame.
+   *
+   * @see #updateStaticLayerCaches(boolean)
+   */
+  private boolean isContentStatic = false;
+  @Nullable private StaticLayerCache staticLayerCache;
+
   BaseLayer(LottieDrawable lottieDrawable, Layer layerModel) {
     this.lottieDrawable = lottieDrawable;
     this.layerModel = layerModel;
@@ -262,7 +272,16 @@ public abstract class BaseLayer
       }
     }
     int alpha = (int) ((parentAlpha / 255f * (float) opacity / 100f) * 255);
+    if (alpha == 0 && !outlineMasksAndMattes) {
+      // A fully transparent layer draws nothing.
+      L.endSection(drawTraceName);
+      return;
+    }
     if (!hasMatteOnThisLayer() && !hasMasksOnThisLayer() && getBlendMode() == LBlendMode.NORMAL) {
+      if (staticLayerCache != null && shadowToApply == null && staticLayerCache.draw(canvas, matrix, alpha)) {
+        recordRenderTime(L.endSection(drawTraceName));
+        return;
+      }
       matrix.preConcat(transform.getMatrix());
       if (L.isTraceEnabled()) {
         L.beginSection("Layer#drawLayer");
@@ -691,6 +710,97 @@ public abstract class BaseLayer
     }
   }
 
+  /**
+   * Recomputes which layers never change and, if enabled, caches the rendered output of the outermost ones.
+   * This has to be called again whenever something that could make a layer change, like a value callback, is set.
+   *
+   * @see com.airbnb.lottie.LottieDrawable#setStaticLayerCachingEnabled(boolean)
+   */
+  public void updateStaticLayerCaches(boolean enabled) {
+    updateIsContentStatic();
+    setStaticLayerCacheEnabled(enabled);
+  }
+
+  /**
+   * Computes {@link #isContentStatic}. Layers that contain other layers must update them first.
+   */
+  void updateIsContentStatic() {
+    isContentStatic = computeIsContentStatic();
+  }
+
+  boolean computeIsContentStatic() {
+    if (getBlurEffect() != null || getDropShadowEffect() != null || !transform.isStatic()) {
+      // Effects may draw outside of the layer bounds.
+      return false;
+    }
+    buildParentLayerListIfNeeded();
+    for (int i = 0; i < parentLayers.size(); i++) {
+      if (!parentLayers.get(i).transform.isStatic()) {
+        return false;
+      }
+    }
+    if (mask != null) {
+      for (int i = 0; i < mask.getMaskAnimations().size(); i++) {
+        if (!mask.getMaskAnimations().get(i).isStatic()) {
+          return false;
+        }
+      }
+    }
+    if (matteLayer != null) {
+      matteLayer.updateIsContentStatic();
+      if (!matteLayer.isStatic()) {
+        return false;
+      }
+    }
+    for (int i = 0; i < animations.size(); i++) {
+      BaseKeyframeAnimation<?, ?> animation = animations.get(i);
+      // Visibility is checked before the cache is drawn.
+      if (animation != inOutAnimation && !animation.isStatic()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns true if this layer draws exactly the same thing on every frame, including whether it is visible.
+   */
+  boolean isStatic() {
+    return isContentStatic && (inOutAnimation == null || inOutAnimation.isStatic());
+  }
+
+  /**
+   * Whether drawing this layer is expensive enough that caching it is worthwhile when it is static.
+   */
+  boolean isWorthCaching() {
+    return false;
+  }
+
+  /**
+   * Returns false if this layer may draw outside of the bounds from {@link #getBounds(RectF, Matrix, boolean)}.
+   */
+  boolean drawsWithinBounds() {
+    return getBlurEffect() == null && getDropShadowEffect() == null;
+  }
+
+  /**
+   * Caches this layer if it is static. Layers that contain other layers pass enabled to them only if they aren't cached
+   * themselves.
+   */
+  void setStaticLayerCacheEnabled(boolean enabled) {
+    if (staticLayerCache != null) {
+      staticLayerCache.release();
+      staticLayerCache = null;
+    }
+    if (enabled && isContentStatic && isWorthCaching()) {
+      staticLayerCache = new StaticLayerCache(this);
+    }
+  }
+
+  boolean hasStaticLayerCache() {
+    return staticLayerCache != null;
+  }
+
   private void buildParentLayerListIfNeeded() {
     if (parentLayers != null) {
       return;
@@ -22,7 +22,13 @@ import com.airbnb.lottie.utils.OffscreenLayer;
 import com.airbnb.lottie.value.LottieValueCallback;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public class CompositionLayer extends BaseLayer {
   @Nullable private BaseKeyframeAnimation<Float, Float> timeRemapping;
@@ -41,7 +47,34 @@ public class CompositionLayer extends BaseLayer {
 
   @Nullable private DropShadowKeyframeAnimation dropShadowAnimation;
 
-  public CompositionLayer(LottieDrawable lottieDrawable, Layer layerModel, List<Layer> layerModels,
+  private final LottieComposition composition;
+  /**
+   * Null until the child layers have been built.
+   */
+  @Nullable private LayerTimelineIndex timelineIndex;
+  /**
+   * The indices of the layers that can be visible at the current progress.
+   */
+  private int[] activeLayers;
+  /**
+   * The bounds of each layer and whether it was drawn when damage was last tracked. Null until it is first tracked.
+   *
+   * @see #getDamagedBounds(RectF, Matrix)
+   */
+  @Nullable private RectF[] damageTrackedBounds;
+  @Nullable private boolean[] damageTrackedDrawn;
+  @Nullable private boolean[] drawnLayers;
+  /**
+   * Applied to child layers that are built lazily.
+   */
+  private boolean outlineChildMasksAndMattes;
+  private boolean childStaticLayerCacheEnabled;
+
+  /**
+   * @param layerModels the layers of the precomp or null to build them when this layer is first used. Pass null for
+   *                    precomps that haven't been parsed so that precomps that are never on screen are never parsed.
+   */
+  public CompositionLayer(LottieDrawable lottieDrawable, Layer layerModel, @Nullable List<Layer> layerModels,
       LottieComposition composition) {
     super(lottieDrawable, layerModel);
 
@@ -55,10 +88,44 @@ public class CompositionLayer extends BaseLayer {
       this.timeRemapping = null;
     }
 
+    if (getDropShadowEffect() != null) {
+      dropShadowAnimation = new DropShadowKeyframeAnimation(this, this, getDropShadowEffect());
+    }
+
+    this.composition = composition;
+    if (layerModels != null) {
+      buildLayers(layerModels);
+    }
+  }
+
+  /**
+   * Builds the child layers of lazy precomps the first time that they are needed. The precomp is parsed then too.
+   */
+  private void buildLayersIfNeeded() {
+    if (timelineIndex != null) {
+      return;
+    }
+    List<Layer> layerModels = composition.getPrecomps(layerModel.getRefId());
+    buildLayers(layerModels == null ? Collections.<Layer>emptyList() : layerModels);
+    for (int i = 0; i < layers.size(); i++) {
+      BaseLayer layer = layers.get(i);
+      if (outlineChildMasksAndMattes) {
+        layer.setOutlineMasksAndMattes(true);
+      }
+      if (childStaticLayerCacheEnabled) {
+        layer.updateIsContentStatic();
+        layer.setStaticLayerCacheEnabled(true);
+      }
+    }
+    lottieDrawable.onLazyPrecompLayersBuilt();
+  }
+
+  private void buildLayers(List<Layer> layerModels) {
     LongSparseArray<BaseLayer> layerMap =
         new LongSparseArray<>(composition.getLayers().size());
 
     BaseLayer mattedLayer = null;
+    Map<BaseLayer, BaseLayer> mattedLayersByMatte = new HashMap<>();
     for (int i = layerModels.size() - 1; i >= 0; i--) {
       Layer lm = layerModels.get(i);
       BaseLayer layer = BaseLayer.forModel(this, lm, lottieDrawable, composition);
@@ -68,6 +135,7 @@ public class CompositionLayer extends BaseLayer {
       layerMap.put(layer.getLayerModel().getId(), layer);
       if (mattedLayer != null) {
         mattedLayer.setMatteLayer(layer);
+        mattedLayersByMatte.put(layer, mattedLayer);
         mattedLayer = null;
       } else {
         layers.add(0, layer);
@@ -80,6 +148,9 @@ public class CompositionLayer extends BaseLayer {
       }
     }
 
+    // Parents have to stay up to date even outside of their own in and out points because their children use their
+    // transforms. Mattes are only updated by the layer that they are applied to.
+    Set<BaseLayer> parentLayers = new HashSet<>();
     for (int i = 0; i < layerMap.size(); i++) {
       long key = layerMap.keyAt(i);
       BaseLayer layerView = layerMap.get(key);
@@ -92,11 +163,15 @@ public class CompositionLayer extends BaseLayer {
       BaseLayer parentLayer = layerMap.get(layerView.getLayerModel().getParentId());
       if (parentLayer != null) {
         layerView.setParentLayer(parentLayer);
+        BaseLayer mattedParentLayer = mattedLayersByMatte.get(parentLayer);
+        parentLayers.add(mattedParentLayer == null ? parentLayer : mattedParentLayer);
       }
     }
 
-    if (getDropShadowEffect() != null) {
-      dropShadowAnimation = new DropShadowKeyframeAnimation(this, this, getDropShadowEffect());
+    timelineIndex = LayerTimelineIndex.build(layers, parentLayers);
+    activeLayers = new int[layers.size()];
+    for (int i = 0; i < activeLayers.length; i++) {
+      activeLayers[i] = i;
     }
   }
 
@@ -106,15 +181,63 @@ public class CompositionLayer extends BaseLayer {
 
   @Override public void setOutlineMasksAndMattes(boolean outline) {
     super.setOutlineMasksAndMattes(outline);
+    outlineChildMasksAndMattes = outline;
     for (BaseLayer layer : layers) {
       layer.setOutlineMasksAndMattes(outline);
     }
   }
 
+  @Override void updateIsContentStatic() {
+    for (int i = 0; i < layers.size(); i++) {
+      layers.get(i).updateIsContentStatic();
+    }
+    super.updateIsContentStatic();
+  }
+
+  @Override boolean computeIsContentStatic() {
+    if (timelineIndex == null || !super.computeIsContentStatic()) {
+      // Layers that haven't been built yet are treated as animated.
+      return false;
+    }
+    for (int i = 0; i < layers.size(); i++) {
+      if (!layers.get(i).isStatic()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override boolean isWorthCaching() {
+    return true;
+  }
+
+  @Override boolean drawsWithinBounds() {
+    if (!super.drawsWithinBounds()) {
+      return false;
+    }
+    buildLayersIfNeeded();
+    for (int i = 0; i < layers.size(); i++) {
+      if (!layers.get(i).drawsWithinBounds()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override void setStaticLayerCacheEnabled(boolean enabled) {
+    super.setStaticLayerCacheEnabled(enabled);
+    boolean childrenEnabled = enabled && !hasStaticLayerCache();
+    childStaticLayerCacheEnabled = childrenEnabled;
+    for (int i = 0; i < layers.size(); i++) {
+      layers.get(i).setStaticLayerCacheEnabled(childrenEnabled);
+    }
+  }
+
   @Override void drawLayer(Canvas canvas, Matrix parentMatrix, int parentAlpha, @Nullable DropShadow parentShadowToApply) {
     if (L.isTraceEnabled()) {
       L.beginSection("CompositionLayer#draw");
     }
+    buildLayersIfNeeded();
     // Apply off-screen rendering only when needed in order to improve rendering performance.
     boolean hasShadow = parentShadowToApply != null || dropShadowAnimation != null;
     boolean isDrawingWithOffScreen =
@@ -156,8 +279,9 @@ public class CompositionLayer extends BaseLayer {
 
     canvas.save();
     if (canvas.clipRect(newClipRect)) {
-      for (int i = layers.size() - 1; i >= 0; i--) {
-        BaseLayer layer = layers.get(i);
+      int[] activeLayers = this.activeLayers;
+      for (int i = activeLayers.length - 1; i >= 0; i--) {
+        BaseLayer layer = layers.get(activeLayers[i]);
         layer.draw(targetCanvas, parentMatrix, childAlpha, shadowToApply);
       }
     }
@@ -174,6 +298,7 @@ public class CompositionLayer extends BaseLayer {
 
   @Override public void getBounds(RectF outBounds, Matrix parentMatrix, boolean applyParents) {
     super.getBounds(outBounds, parentMatrix, applyParents);
+    buildLayersIfNeeded();
     for (int i = layers.size() - 1; i >= 0; i--) {
       rect.set(0, 0, 0, 0);
       layers.get(i).getBounds(rect, boundsMatrix, true);
@@ -181,6 +306,92 @@ public class CompositionLayer extends BaseLayer {
     }
   }
 
+  /**
+   * Records the bounds of the layers that are drawn at the current progress so that
+   * {@link #getDamagedBounds(RectF, Matrix)} can find the area that changed since. Call this whenever everything was
+   * drawn.
+   */
+  public void resetDamageTracking(Matrix parentMatrix) {
+    buildLayersIfNeeded();
+    int size = layers.size();
+    if (damageTrackedBounds == null || damageTrackedBounds.length != size) {
+      damageTrackedBounds = new RectF[size];
+      for (int i = 0; i < size; i++) {
+        damageTrackedBounds[i] = new RectF();
+      }
+      damageTrackedDrawn = new boolean[size];
+      drawnLayers = new boolean[size];
+    }
+    // Sets boundsMatrix to the matrix that the layers are drawn with.
+    super.getBounds(rect, parentMatrix, true);
+    updateDrawnLayers();
+    for (int i = 0; i < size; i++) {
+      damageTrackedDrawn[i] = drawnLayers[i];
+      if (drawnLayers[i]) {
+        getLayerBounds(layers.get(i), damageTrackedBounds[i]);
+      }
+    }
+  }
+
+  /**
+   * Sets outDamage to the area that may look different than it did when damage was last tracked and tracks the current
+   * progress instead. Layers that are static and drawn at both progresses don't add to it. parentMatrix has to be the
+   * same as the last time.
+   * <p>
+   * Returns false if the area isn't known, such as when a layer that changed may draw outside of its bounds. Everything
+   * has to be redrawn then and {@link #resetDamageTracking(Matrix)} has to be called.
+   */
+  public boolean getDamagedBounds(RectF outDamage, Matrix parentMatrix) {
+    outDamage.setEmpty();
+    RectF[] damageTrackedBounds = this.damageTrackedBounds;
+    boolean[] damageTrackedDrawn = this.damageTrackedDrawn;
+    boolean[] drawnLayers = this.drawnLayers;
+    if (damageTrackedBounds == null || damageTrackedDrawn == null || drawnLayers == null ||
+        damageTrackedBounds.length != layers.size() || !super.computeIsContentStatic()) {
+      // This layer's own transform, masks, or time remapping change everything that it draws.
+      return false;
+    }
+    super.getBounds(rect, parentMatrix, true);
+    updateDrawnLayers();
+    for (int i = 0; i < layers.size(); i++) {
+      BaseLayer layer = layers.get(i);
+      boolean drawn = drawnLayers[i];
+      if (drawn == damageTrackedDrawn[i] && (!drawn || layer.isStatic())) {
+        continue;
+      }
+      if (!layer.drawsWithinBounds()) {
+        return false;
+      }
+      RectF bounds = damageTrackedBounds[i];
+      if (damageTrackedDrawn[i]) {
+        outDamage.union(bounds);
+      }
+      if (drawn) {
+        getLayerBounds(layer, bounds);
+        outDamage.union(bounds);
+      }
+      damageTrackedDrawn[i] = drawn;
+    }
+    return true;
+  }
+
+  private void updateDrawnLayers() {
+    boolean[] drawnLayers = this.drawnLayers;
+    if (drawnLayers == null) {
+      return;
+    }
+    Arrays.fill(drawnLayers, false);
+    int[] activeLayers = this.activeLayers;
+    for (int i = 0; i < activeLayers.length; i++) {
+      drawnLayers[activeLayers[i]] = !layers.get(activeLayers[i]).getLayerModel().isHidden();
+    }
+  }
+
+  private void getLayerBounds(BaseLayer layer, RectF outBounds) {
+    outBounds.set(0, 0, 0, 0);
+    layer.getBounds(outBounds, boundsMatrix, true);
+  }
+
   @Override public void setProgress(@FloatRange(from = 0f, to = 1f) float progress) {
     if (L.isTraceEnabled()) {
       L.beginSection("CompositionLayer#setProgress");
@@ -199,13 +410,16 @@ public class CompositionLayer extends BaseLayer {
     if (timeRemapping == null) {
       progress -= layerModel.getStartProgress();
     }
+    buildLayersIfNeeded();
     //Time stretch needs to be divided if is not "__container"
     if (layerModel.getTimeStretch() != 0 && !"__container".equals(layerModel.getName())) {
       progress /= layerModel.getTimeStretch();
     }
-    for (int i = layers.size() - 1; i >= 0; i--) {
-      layers.get(i).setProgress(progress);
+    int[] activeLayers = timelineIndex.getActiveLayers(progress);
+    for (int i = activeLayers.length - 1; i >= 0; i--) {
+      layers.get(activeLayers[i]).setProgress(progress);
     }
+    this.activeLayers = activeLayers;
     if (L.isTraceEnabled()) {
       L.endSection("CompositionLayer#setProgress");
     }
@@ -217,6 +431,7 @@ public class CompositionLayer extends BaseLayer {
 
   public boolean hasMasks() {
     if (hasMasks == null) {
+      buildLayersIfNeeded();
       for (int i = layers.size() - 1; i >= 0; i--) {
         BaseLayer layer = layers.get(i);
         if (layer instanceof ShapeLayer) {
@@ -240,6 +455,7 @@ public class CompositionLayer extends BaseLayer {
         hasMatte = true;
         return true;
       }
+      buildLayersIfNeeded();
 
       for (int i = layers.size() - 1; i >= 0; i--) {
         if (layers.get(i).hasMatteOnThisLayer()) {
@@ -255,6 +471,7 @@ public class CompositionLayer extends BaseLayer {
   @Override
   protected void resolveChildKeyPath(KeyPath keyPath, int depth, List<KeyPath> accumulator,
       KeyPath currentPartialKeyPath) {
+    buildLayersIfNeeded();
     for (int i = 0; i < layers.size(); i++) {
       layers.get(i).resolveKeyPath(keyPath, depth, accumulator, currentPartialKeyPath);
     }
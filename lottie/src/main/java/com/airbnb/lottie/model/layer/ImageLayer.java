@@ -7,6 +7,7 @@ import android.graphics.Matrix;
 import android.graphics.Paint;
 import android.graphics.Rect;
 import android.graphics.RectF;
+import android.os.Build;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -35,6 +36,11 @@ public class ImageLayer extends BaseLayer {
   @Nullable private DropShadowKeyframeAnimation dropShadowAnimation;
   @Nullable private OffscreenLayer offscreenLayer;
   @Nullable private OffscreenLayer.ComposeOp offscreenOp;
+  /**
+   * A software copy of {@link #hardwareBitmap} for canvases that can't draw hardware bitmaps.
+   */
+  @Nullable private Bitmap softwareBitmap;
+  @Nullable private Bitmap hardwareBitmap;
 
   ImageLayer(LottieDrawable lottieDrawable, Layer layerModel) {
     super(lottieDrawable, layerModel);
@@ -45,6 +51,12 @@ public class ImageLayer extends BaseLayer {
     }
   }
 
+  @Override boolean computeIsContentStatic() {
+    // Value callbacks can return a different bitmap or color filter on every frame. Bitmaps that are replaced with
+    // LottieDrawable#updateBitmap or an ImageAssetDelegate make the drawable recompute which layers are static.
+    return imageAnimation == null && colorFilterAnimation == null && super.computeIsContentStatic();
+  }
+
   @Override public void drawLayer(@NonNull Canvas canvas, Matrix parentMatrix, int parentAlpha, @Nullable DropShadow parentShadowToApply) {
     Bitmap bitmap = getBitmap();
     if (bitmap == null || bitmap.isRecycled() || lottieImageAsset == null) {
@@ -91,7 +103,10 @@ public class ImageLayer extends BaseLayer {
 
     targetCanvas.save();
     targetCanvas.concat(parentMatrix);
-    targetCanvas.drawBitmap(bitmap, src, dst, paint);
+    Bitmap drawableBitmap = getBitmapForCanvas(targetCanvas, bitmap);
+    if (drawableBitmap != null) {
+      targetCanvas.drawBitmap(drawableBitmap, src, dst, paint);
+    }
 
     if (renderOffScreen) {
       offscreenLayer.finish();
@@ -122,6 +137,23 @@ public class ImageLayer extends BaseLayer {
     }
   }
 
+  /**
+   * Images may be decoded into {@link Bitmap.Config#HARDWARE} bitmaps which can't be drawn on software canvases such as
+   * the ones used for software rendering and the frame cache. A software copy is drawn on those instead.
+   */
+  @Nullable
+  private Bitmap getBitmapForCanvas(Canvas canvas, Bitmap bitmap) {
+    if (Build.VERSION.SDK_INT < Build.VERSION_CODES.O || bitmap.getConfig() != Bitmap.Config.HARDWARE ||
+        canvas.isHardwareAccelerated()) {
+      return bitmap;
+    }
+    if (hardwareBitmap != bitmap || softwareBitmap == null) {
+      hardwareBitmap = bitmap;
+      softwareBitmap = bitmap.copy(Bitmap.Config.ARGB_8888, false);
+    }
+    return softwareBitmap;
+  }
+
   @Nullable
   private Bitmap getBitmap() {
     if (imageAnimation != null) {
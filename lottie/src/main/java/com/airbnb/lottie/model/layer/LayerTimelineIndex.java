@@ -0,0 +1,147 @@
+package com.airbnb.lottie.model.layer;
+
+import com.airbnb.lottie.value.Keyframe;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Maps progress ranges of a composition to the child layers that can draw anything in them.
+ * <p>
+ * Layers are only active between their in and out points. The index splits the timeline at every in and out point so
+ * that {@link CompositionLayer} can look up the layers it has to update and draw with a binary search instead of
+ * walking every child layer on every frame. Ranges are slightly conservative at their edges. The layer's own
+ * visibility is still checked when it is drawn.
+ */
+class LayerTimelineIndex {
+
+  /**
+   * Segment i covers [boundaries[i - 1], boundaries[i]). The first and last segments are open ended.
+   */
+  private final float[] boundaries;
+  /**
+   * The indices of the layers that are active in each segment in ascending order.
+   */
+  private final int[][] activeLayers;
+
+  private LayerTimelineIndex(float[] boundaries, int[][] activeLayers) {
+    this.boundaries = boundaries;
+    this.activeLayers = activeLayers;
+  }
+
+  /**
+   * @param alwaysActive layers that have to be updated on every frame, such as parents of other layers, because their
+   *                     transforms are used even when they aren't visible themselves.
+   */
+  static LayerTimelineIndex build(List<BaseLayer> layers, Set<BaseLayer> alwaysActive) {
+    int layerCount = layers.size();
+    // Every layer is active within a single range of [start, end].
+    float[] starts = new float[layerCount];
+    float[] ends = new float[layerCount];
+    List<Float> points = new ArrayList<>();
+    for (int i = 0; i < layerCount; i++) {
+      BaseLayer layer = layers.get(i);
+      starts[i] = Float.NEGATIVE_INFINITY;
+      ends[i] = Float.POSITIVE_INFINITY;
+      if (alwaysActive.contains(layer)) {
+        continue;
+      }
+      if (layer.getLayerModel().isHidden()) {
+        starts[i] = Float.POSITIVE_INFINITY;
+        continue;
+      }
+      List<Keyframe<Float>> inOutKeyframes = layer.getLayerModel().getInOutKeyframes();
+      if (inOutKeyframes.isEmpty()) {
+        continue;
+      }
+      setActiveRange(inOutKeyframes, starts, ends, i);
+      if (!Float.isInfinite(starts[i])) {
+        points.add(starts[i]);
+      }
+      if (!Float.isInfinite(ends[i])) {
+        points.add(ends[i]);
+      }
+    }
+
+    float[] sortedPoints = new float[points.size()];
+    for (int i = 0; i < sortedPoints.length; i++) {
+      sortedPoints[i] = points.get(i);
+    }
+    Arrays.sort(sortedPoints);
+
+    List<Float> boundaries = new ArrayList<>();
+    List<int[]> activeLayers = new ArrayList<>();
+    int[] scratch = new int[layerCount];
+    int[] previous = null;
+    for (int segment = 0; segment <= sortedPoints.length; segment++) {
+      if (segment > 0 && segment < sortedPoints.length && sortedPoints[segment] == sortedPoints[segment - 1]) {
+        continue;
+      }
+      float low = segment == 0 ? Float.NEGATIVE_INFINITY : sortedPoints[segment - 1];
+      float high = segment == sortedPoints.length ? Float.POSITIVE_INFINITY : sortedPoints[segment];
+      int count = 0;
+      for (int i = 0; i < layerCount; i++) {
+        if (starts[i] < high && ends[i] >= low) {
+          scratch[count++] = i;
+        }
+      }
+      int[] active = Arrays.copyOf(scratch, count);
+      if (previous != null && Arrays.equals(previous, active)) {
+        // Merge the segment with the previous one by dropping the boundary between them.
+        continue;
+      }
+      if (previous != null) {
+        boundaries.add(low);
+      }
+      activeLayers.add(active);
+      previous = active;
+    }
+
+    float[] boundariesArray = new float[boundaries.size()];
+    for (int i = 0; i < boundariesArray.length; i++) {
+      boundariesArray[i] = boundaries.get(i);
+    }
+    return new LayerTimelineIndex(boundariesArray, activeLayers.toArray(new int[0][]));
+  }
+
+  /**
+   * Sets the smallest range that contains every visible keyframe. Progress before the first keyframe or after the last
+   * one is clamped to it so those keyframes extend to infinity.
+   */
+  private static void setActiveRange(List<Keyframe<Float>> inOutKeyframes, float[] starts, float[] ends, int index) {
+    float start = Float.POSITIVE_INFINITY;
+    float end = Float.NEGATIVE_INFINITY;
+    for (int i = 0; i < inOutKeyframes.size(); i++) {
+      Keyframe<Float> keyframe = inOutKeyframes.get(i);
+      Float value = keyframe.startValue;
+      if (value == null || value != 1f) {
+        continue;
+      }
+      start = Math.min(start, i == 0 ? Float.NEGATIVE_INFINITY : keyframe.getStartProgress());
+      end = Math.max(end, i == inOutKeyframes.size() - 1 ? Float.POSITIVE_INFINITY : keyframe.getEndProgress());
+    }
+    starts[index] = start;
+    ends[index] = end;
+  }
+
+  /**
+   * Returns the indices of the layers that can be visible at the given progress in ascending order.
+   * The returned array must not be modified.
+   */
+  int[] getActiveLayers(float progress) {
+    int low = 0;
+    int high = boundaries.length;
+    // Find the number of boundaries that are <= progress.
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (boundaries[mid] <= progress) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return activeLayers[low];
+  }
+}
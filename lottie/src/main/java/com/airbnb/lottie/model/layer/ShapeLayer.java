@@ -43,6 +43,10 @@ public class ShapeLayer extends BaseLayer {
     }
   }
 
+  @Override boolean isWorthCaching() {
+    return true;
+  }
+
   @Override void drawLayer(@NonNull Canvas canvas, Matrix parentMatrix, int parentAlpha, @Nullable DropShadow parentShadowToApply) {
     // If a parent composition layer has a shadow and we have one too, prioritize our own.
     DropShadow shadowToApply = dropShadowAnimation != null
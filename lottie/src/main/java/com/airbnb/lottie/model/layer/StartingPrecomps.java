@@ -0,0 +1,75 @@
+package com.airbnb.lottie.model.layer;
+
+import com.airbnb.lottie.LottieComposition;
+import com.airbnb.lottie.value.Keyframe;
+
+import java.util.List;
+
+/**
+ * Finds the precomps that are needed to draw the first frame of a composition.
+ * <p>
+ * When precomps are parsed lazily, parsing these before the composition is shown means that the first frame can be
+ * drawn without parsing anything on the main thread.
+ */
+public class StartingPrecomps {
+
+  private StartingPrecomps() {
+  }
+
+  /**
+   * Parses every lazy precomp that can be visible at the start of the composition. This is conservative so it may also
+   * parse some that aren't.
+   */
+  public static void parse(LottieComposition composition) {
+    parse(composition, composition.getLayers(), 0f);
+  }
+
+  /**
+   * @param progress the progress of the composition that contains the layers or NaN if it could be any progress.
+   */
+  private static void parse(LottieComposition composition, List<Layer> layers, float progress) {
+    for (int i = 0; i < layers.size(); i++) {
+      Layer layer = layers.get(i);
+      if (layer.getLayerType() != Layer.LayerType.PRE_COMP || !isVisibleAt(layer, progress)) {
+        continue;
+      }
+      List<Layer> precompLayers = composition.getPrecomps(layer.getRefId());
+      if (precompLayers == null) {
+        continue;
+      }
+      // This mirrors CompositionLayer#setProgress. Time remapping can show any part of the precomp.
+      float precompProgress = Float.NaN;
+      if (layer.getTimeRemapping() == null && !Float.isNaN(progress)) {
+        precompProgress = progress - layer.getStartProgress();
+        if (layer.getTimeStretch() != 0) {
+          precompProgress /= layer.getTimeStretch();
+        }
+      }
+      parse(composition, precompLayers, precompProgress);
+    }
+  }
+
+  private static boolean isVisibleAt(Layer layer, float progress) {
+    if (layer.isHidden()) {
+      return false;
+    }
+    List<Keyframe<Float>> inOutKeyframes = layer.getInOutKeyframes();
+    if (Float.isNaN(progress) || inOutKeyframes.isEmpty()) {
+      return true;
+    }
+    for (int i = 0; i < inOutKeyframes.size(); i++) {
+      Keyframe<Float> keyframe = inOutKeyframes.get(i);
+      Float value = keyframe.startValue;
+      if (value == null || value != 1f) {
+        continue;
+      }
+      // The first and last keyframes extend past the start and end of the timeline.
+      boolean afterStart = i == 0 || keyframe.getStartProgress() <= progress;
+      boolean beforeEnd = i == inOutKeyframes.size() - 1 || progress <= keyframe.getEndProgress();
+      if (afterStart && beforeEnd) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
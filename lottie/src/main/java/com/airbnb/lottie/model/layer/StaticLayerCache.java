@@ -0,0 +1,142 @@
+package com.airbnb.lottie.model.layer;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+
+import androidx.annotation.Nullable;
+
+import com.airbnb.lottie.animation.LPaint;
+import com.airbnb.lottie.model.LottieStaticLayerCacheBudget;
+
+import java.util.Arrays;
+
+/**
+ * Holds the rendered output of a layer whose contents never change so that it can be drawn as a single bitmap.
+ * <p>
+ * The bitmap is rendered in the canvas's device space so it stays sharp. It is re-rendered whenever the matrix or
+ * alpha that the layer is drawn with change. If that keeps happening, such as when a parent layer is animated, the
+ * cache gives up and the layer goes back to being drawn normally. Bitmaps are only allocated while they fit in
+ * {@link LottieStaticLayerCacheBudget}.
+ *
+ * @see BaseLayer#updateStaticLayerCaches(boolean)
+ */
+class StaticLayerCache {
+  /**
+   * The number of re-renders in a row without a single reuse after which caching is disabled.
+   */
+  private static final int MAX_CONSECUTIVE_MISSES = 2;
+
+  private final BaseLayer layer;
+  private final Matrix canvasMatrix = new Matrix();
+  private final Matrix deviceMatrix = new Matrix();
+  private final Matrix renderMatrix = new Matrix();
+  private final Matrix drawMatrix = new Matrix();
+  private final float[] values = new float[9];
+  private final float[] cachedValues = new float[9];
+  private final RectF bounds = new RectF();
+  private final Rect deviceBounds = new Rect();
+  private final Paint paint = new LPaint(Paint.FILTER_BITMAP_FLAG);
+
+  @Nullable private Bitmap bitmap;
+  @Nullable private Canvas bitmapCanvas;
+  private int cachedAlpha = -1;
+  private int consecutiveMisses = 0;
+  private boolean disabled = false;
+
+  StaticLayerCache(BaseLayer layer) {
+    this.layer = layer;
+  }
+
+  /**
+   * Draws the layer from the cache, rendering it first if needed.
+   *
+   * @param parentMatrix the matrix that the layer will be drawn with, excluding its own transform.
+   * @return false if the layer couldn't be drawn from the cache and should be drawn normally.
+   */
+  boolean draw(Canvas canvas, Matrix parentMatrix, int alpha) {
+    if (disabled) {
+      return false;
+    }
+    //noinspection deprecation
+    canvas.getMatrix(canvasMatrix);
+    deviceMatrix.set(parentMatrix);
+    deviceMatrix.postConcat(canvasMatrix);
+    deviceMatrix.getValues(values);
+
+    if (bitmap == null || alpha != cachedAlpha || !Arrays.equals(values, cachedValues)) {
+      if (bitmap != null && ++consecutiveMisses >= MAX_CONSECUTIVE_MISSES) {
+        disabled = true;
+        release();
+        return false;
+      }
+      if (!render(canvas, parentMatrix, alpha)) {
+        return false;
+      }
+    } else {
+      consecutiveMisses = 0;
+    }
+
+    if (!canvasMatrix.invert(drawMatrix)) {
+      return false;
+    }
+    drawMatrix.preTranslate(deviceBounds.left, deviceBounds.top);
+    //noinspection ConstantConditions
+    canvas.drawBitmap(bitmap, drawMatrix, paint);
+    return true;
+  }
+
+  private boolean render(Canvas canvas, Matrix parentMatrix, int alpha) {
+    layer.getBounds(bounds, parentMatrix, false);
+    canvasMatrix.mapRect(bounds);
+    bounds.roundOut(deviceBounds);
+    // Pad the bounds for anti-aliasing.
+    deviceBounds.inset(-1, -1);
+    // Only the part of the layer that is on the canvas is ever visible.
+    if (!deviceBounds.intersect(0, 0, canvas.getWidth(), canvas.getHeight())) {
+      release();
+      return false;
+    }
+
+    int width = deviceBounds.width();
+    int height = deviceBounds.height();
+    if (bitmap == null || bitmap.getWidth() != width || bitmap.getHeight() != height) {
+      release();
+      if (!LottieStaticLayerCacheBudget.getInstance().reserve(this, width * height * 4)) {
+        // Draw the layer normally until other caches free up enough of the budget.
+        return false;
+      }
+      bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+      if (bitmapCanvas == null) {
+        bitmapCanvas = new Canvas();
+      }
+      bitmapCanvas.setBitmap(bitmap);
+    } else {
+      bitmap.eraseColor(0);
+    }
+
+    renderMatrix.set(parentMatrix);
+    renderMatrix.preConcat(layer.transform.getMatrix());
+    renderMatrix.postConcat(canvasMatrix);
+    renderMatrix.postTranslate(-deviceBounds.left, -deviceBounds.top);
+    //noinspection ConstantConditions
+    layer.drawLayer(bitmapCanvas, renderMatrix, alpha, null);
+
+    System.arraycopy(values, 0, cachedValues, 0, values.length);
+    cachedAlpha = alpha;
+    return true;
+  }
+
+  void release() {
+    if (bitmap != null) {
+      LottieStaticLayerCacheBudget.getInstance().release(this);
+    }
+    bitmap = null;
+    if (bitmapCanvas != null) {
+      bitmapCanvas.setBitmap(null);
+    }
+  }
+}
@@ -156,6 +156,16 @@ public class TextLayer extends BaseLayer {
     }
   }
 
+  @Override boolean computeIsContentStatic() {
+    // Text can be replaced at any time with a TextDelegate.
+    return false;
+  }
+
+  @Override boolean drawsWithinBounds() {
+    // The bounds don't take the text or the layer's transform into account yet.
+    return false;
+  }
+
   @Override
   public void getBounds(RectF outBounds, Matrix parentMatrix, boolean applyParents) {
     super.getBounds(outBounds, parentMatrix, applyParents);
@@ -0,0 +1,130 @@
+package com.airbnb.lottie.network;
+
+import static com.airbnb.lottie.utils.Utils.closeQuietly;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import com.airbnb.lottie.LottieComposition;
+import com.airbnb.lottie.LottieCompositionFactory;
+import com.airbnb.lottie.LottieImageAsset;
+import com.airbnb.lottie.LottieResult;
+import com.airbnb.lottie.model.LottieCompositionCache;
+import com.airbnb.lottie.utils.Logger;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.BufferedSource;
+import okio.ByteString;
+import okio.Source;
+
+/**
+ * A pre-parsed form of a cached network animation that loads without tokenizing json or inflating a zip.
+ * <p>
+ * It is the animation in the binary format from {@link LottieCompositionFactory#writeBinarySync(Source, okio.Sink)}
+ * followed by the images that the composition holds, already scaled to the size of their assets:
+ * <pre>
+ *   "LOTTIEC" version:int
+ *   length:int binary-json
+ *   count:int (idLength:int id pngLength:int png)*
+ * </pre>
+ * Only images with a bitmap on their {@link LottieImageAsset} are saved. For network animations those are the images
+ * in zip files, which are decoded while the zip is read. Images that are embedded in the json are already part of the
+ * binary animation. Images that drawables decode later from an images folder or an
+ * {@link com.airbnb.lottie.ImageAssetDelegate} are kept in {@link com.airbnb.lottie.model.LottieImageCache} rather than
+ * in the composition. They aren't saved because they are loaded the same way when the compiled file is used.
+ */
+class CompiledCacheFile {
+  private static final ByteString MAGIC = ByteString.encodeUtf8("LOTTIEC");
+  private static final int VERSION = 1;
+
+  private CompiledCacheFile() {
+  }
+
+  @WorkerThread
+  static void write(Source json, LottieComposition composition, BufferedSink sink) throws IOException {
+    sink.write(MAGIC);
+    sink.writeInt(VERSION);
+
+    Buffer binary = new Buffer();
+    LottieCompositionFactory.writeBinarySync(json, binary);
+    sink.writeInt((int) binary.size());
+    sink.writeAll(binary);
+
+    List<LottieImageAsset> images = new ArrayList<>();
+    for (LottieImageAsset asset : composition.getImages().values()) {
+      if (asset.getBitmap() != null) {
+        images.add(asset);
+      }
+    }
+    sink.writeInt(images.size());
+    for (LottieImageAsset asset : images) {
+      ByteString id = ByteString.encodeUtf8(asset.getId());
+      sink.writeInt(id.size());
+      sink.write(id);
+      Buffer png = new Buffer();
+      //noinspection ConstantConditions
+      if (!asset.getBitmap().compress(Bitmap.CompressFormat.PNG, 100, png.outputStream())) {
+        throw new IOException("Unable to encode image " + asset.getId() + ".");
+      }
+      sink.writeInt((int) png.size());
+      sink.writeAll(png);
+    }
+  }
+
+  /**
+   * Loads a composition that was written with {@link #write(Source, LottieComposition, BufferedSink)}. The source is
+   * closed.
+   */
+  @WorkerThread
+  static LottieResult<LottieComposition> read(BufferedSource source, @Nullable String cacheKey) {
+    try {
+      LottieComposition cachedComposition = LottieCompositionCache.getInstance().get(cacheKey);
+      if (cachedComposition != null) {
+        return new LottieResult<>(cachedComposition);
+      }
+      if (!source.rangeEquals(0, MAGIC)) {
+        throw new IOException("Not a compiled cache file.");
+      }
+      source.skip(MAGIC.size());
+      int version = source.readInt();
+      if (version != VERSION) {
+        throw new IOException("Unsupported compiled cache file version " + version + ".");
+      }
+
+      Buffer binary = new Buffer();
+      source.readFully(binary, source.readInt());
+      LottieResult<LottieComposition> result = LottieCompositionFactory.fromBinarySourceSync(binary, null);
+      LottieComposition composition = result.getValue();
+      if (composition == null) {
+        return result;
+      }
+
+      int imageCount = source.readInt();
+      for (int i = 0; i < imageCount; i++) {
+        String id = source.readUtf8(source.readInt());
+        byte[] png = source.readByteArray(source.readInt());
+        LottieImageAsset asset = composition.getImages().get(id);
+        if (asset == null) {
+          Logger.warning("Compiled cache file has an image for " + id + " but the animation doesn't.");
+          continue;
+        }
+        asset.setBitmap(BitmapFactory.decodeByteArray(png, 0, png.length));
+      }
+
+      LottieCompositionCache.getInstance().put(cacheKey, composition);
+      return new LottieResult<>(composition);
+    } catch (IOException e) {
+      return new LottieResult<>(e);
+    } finally {
+      closeQuietly(source);
+    }
+  }
+}
@@ -30,6 +30,22 @@ public class DefaultLottieFetchResult implements LottieFetchResult {
     }
   }
 
+  @Override public boolean isNotModified() {
+    try {
+      return connection.getResponseCode() == HttpURLConnection.HTTP_NOT_MODIFIED;
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  @Nullable @Override public String eTag() {
+    return connection.getHeaderField("ETag");
+  }
+
+  @Nullable @Override public String lastModified() {
+    return connection.getHeaderField("Last-Modified");
+  }
+
   @NonNull @Override public InputStream bodyByteStream() throws IOException {
     return connection.getInputStream();
   }
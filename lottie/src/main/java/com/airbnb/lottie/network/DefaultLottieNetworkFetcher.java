@@ -1,6 +1,7 @@
 package com.airbnb.lottie.network;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.annotation.RestrictTo;
 
 import java.io.IOException;
@@ -13,8 +14,20 @@ public class DefaultLottieNetworkFetcher implements LottieNetworkFetcher {
   @Override
   @NonNull
   public LottieFetchResult fetchSync(@NonNull String url) throws IOException {
+    return fetchSync(url, null, null);
+  }
+
+  @Override
+  @NonNull
+  public LottieFetchResult fetchSync(@NonNull String url, @Nullable String eTag, @Nullable String lastModified) throws IOException {
     final HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
     connection.setRequestMethod("GET");
+    if (eTag != null) {
+      connection.setRequestProperty("If-None-Match", eTag);
+    }
+    if (lastModified != null) {
+      connection.setRequestProperty("If-Modified-Since", lastModified);
+    }
     connection.connect();
     return new DefaultLottieFetchResult(connection);
   }
@@ -9,7 +9,11 @@ import androidx.annotation.RestrictTo;
 public enum FileExtension {
   JSON(".json"),
   ZIP(".zip"),
-  GZIP(".gz");
+  GZIP(".gz"),
+  /**
+   * A pre-parsed animation written by {@link CompiledCacheFile}. This is only used by the network cache.
+   */
+  COMPILED(".lottiec");
 
   public final String extension;
 
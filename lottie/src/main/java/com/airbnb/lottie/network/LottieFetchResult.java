@@ -33,4 +33,27 @@ public interface LottieFetchResult extends Closeable {
    */
   @Nullable
   String error();
+
+  /**
+   * @return True if a conditional request was answered with 304 Not Modified
+   */
+  default boolean isNotModified() {
+    return false;
+  }
+
+  /**
+   * @return The ETag header of the response
+   */
+  @Nullable
+  default String eTag() {
+    return null;
+  }
+
+  /**
+   * @return The Last-Modified header of the response
+   */
+  @Nullable
+  default String lastModified() {
+    return null;
+  }
 }
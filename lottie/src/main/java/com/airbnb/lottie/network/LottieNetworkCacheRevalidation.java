@@ -0,0 +1,23 @@
+package com.airbnb.lottie.network;
+
+/**
+ * Controls whether animations in the network cache are checked for updates.
+ *
+ * @see com.airbnb.lottie.LottieConfig.Builder#setNetworkCacheRevalidation(LottieNetworkCacheRevalidation)
+ */
+public enum LottieNetworkCacheRevalidation {
+  /**
+   * Cached animations are used forever and never fetched again. This is the default.
+   */
+  NEVER,
+  /**
+   * Cached animations are revalidated with a conditional request every time that they are loaded. The cached animation
+   * is used if the server says it hasn't changed or if the request fails.
+   */
+  ALWAYS,
+  /**
+   * Cached animations are returned immediately and revalidated in the background. If the animation changed, the new one
+   * replaces it in the cache and is used the next time that it is loaded.
+   */
+  STALE_WHILE_REVALIDATE
+}
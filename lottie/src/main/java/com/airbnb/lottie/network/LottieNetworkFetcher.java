@@ -1,6 +1,7 @@
 package com.airbnb.lottie.network;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.annotation.WorkerThread;
 
 import java.io.IOException;
@@ -17,4 +18,18 @@ public interface LottieNetworkFetcher {
   @WorkerThread
   @NonNull
   LottieFetchResult fetchSync(@NonNull String url) throws IOException;
+
+  /**
+   * Fetch a url that is already in the network cache. The validators are from the response that was cached and
+   * should be sent as If-None-Match and If-Modified-Since headers. If the animation hasn't changed,
+   * {@link LottieFetchResult#isNotModified()} should return true and the cached animation will be used.
+   * <p>
+   * This is used when {@link LottieNetworkCacheRevalidation} is enabled. By default, this ignores the validators and
+   * fetches the whole animation.
+   */
+  @WorkerThread
+  @NonNull
+  default LottieFetchResult fetchSync(@NonNull String url, @Nullable String eTag, @Nullable String lastModified) throws IOException {
+    return fetchSync(url);
+  }
 }
@@ -8,8 +8,11 @@ import androidx.annotation.Nullable;
 import androidx.annotation.RestrictTo;
 import androidx.annotation.WorkerThread;
 
+import com.airbnb.lottie.LottieComposition;
+import com.airbnb.lottie.LottieNetworkCacheStats;
 import com.airbnb.lottie.utils.Logger;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
@@ -19,21 +22,46 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.Enumeration;
+import java.util.Properties;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import okio.BufferedSink;
+import okio.Okio;
+import okio.Source;
 
 /**
  * Helper class to save and restore animations fetched from an URL to the app disk cache.
  */
 @RestrictTo(RestrictTo.Scope.LIBRARY)
 public class NetworkCache {
+  static final String VALIDATORS_EXTENSION = ".meta";
+  private static final String ETAG = "etag";
+  private static final String LAST_MODIFIED = "last-modified";
 
   @NonNull
   private final LottieNetworkCacheProvider cacheProvider;
+  private final long maxSizeInBytes;
+  @Nullable
+  private NetworkCacheJournal journal;
 
   public NetworkCache(@NonNull LottieNetworkCacheProvider cacheProvider) {
+    this(cacheProvider, 0);
+  }
+
+  /**
+   * @param maxSizeInBytes the number of bytes that cached animations may use before the least recently used ones are
+   *                       evicted or 0 for no limit.
+   */
+  public NetworkCache(@NonNull LottieNetworkCacheProvider cacheProvider, long maxSizeInBytes) {
     this.cacheProvider = cacheProvider;
+    this.maxSizeInBytes = maxSizeInBytes;
   }
 
   public void clear() {
+    journal().reset();
     File parentDir = parentDir();
     if (parentDir.exists()) {
       File[] files = parentDir.listFiles();
@@ -63,6 +91,7 @@ public class NetworkCache {
       return null;
     }
     if (cachedFile == null) {
+      journal().recordMiss();
       return null;
     }
 
@@ -70,11 +99,16 @@ public class NetworkCache {
     try {
       inputStream = new FileInputStream(cachedFile);
     } catch (FileNotFoundException e) {
+      // It was evicted after it was found.
+      journal().recordMiss();
       return null;
     }
+    journal().recordHit(cachedFile.getName());
 
     FileExtension extension;
-    if (cachedFile.getAbsolutePath().endsWith(".zip")) {
+    if (cachedFile.getAbsolutePath().endsWith(FileExtension.COMPILED.extension)) {
+      extension = FileExtension.COMPILED;
+    } else if (cachedFile.getAbsolutePath().endsWith(".zip")) {
       extension = FileExtension.ZIP;
     } else if (cachedFile.getAbsolutePath().endsWith(".gz")) {
       extension = FileExtension.GZIP;
@@ -87,56 +121,220 @@ public class NetworkCache {
   }
 
   /**
-   * Writes an InputStream from a network response to a temporary file. If the file successfully parses
-   * to an composition, {@link #renameTempFile(String, FileExtension)} should be called to move the file
-   * to its final location for future cache hits.
+   * Writes an InputStream from a network response to a temporary file as the returned stream is read so the
+   * response can be parsed while it downloads. If it successfully parses to a composition and
+   * {@link TempCacheFileInputStream#isComplete()} is true once the stream is closed,
+   * {@link #renameTempFile(String, FileExtension)} should be called to move the file to its final location for future
+   * cache hits.
    */
-  File writeTempCacheFile(String url, InputStream stream, FileExtension extension) throws IOException {
+  TempCacheFileInputStream readThroughTempCacheFile(String url, InputStream stream, FileExtension extension) throws IOException {
     String fileName = filenameForUrl(url, extension, true);
     File file = new File(parentDir(), fileName);
+    OutputStream output;
     try {
-      OutputStream output = new FileOutputStream(file);
-      //noinspection TryFinallyCanBeTryWithResources
-      try {
-        byte[] buffer = new byte[1024];
-        int read;
-
-        while ((read = stream.read(buffer)) != -1) {
-          output.write(buffer, 0, read);
-        }
-
-        output.flush();
-      } finally {
-        output.close();
-      }
-    } finally {
+      output = new FileOutputStream(file);
+    } catch (IOException e) {
       stream.close();
+      throw e;
     }
-    return file;
+    return new TempCacheFileInputStream(stream, new BufferedOutputStream(output));
   }
 
   /**
-   * If the file created by {@link #writeTempCacheFile(String, InputStream, FileExtension)} was successfully parsed,
+   * If the file created by {@link #readThroughTempCacheFile(String, InputStream, FileExtension)} was successfully parsed,
    * this should be called to remove the temporary part of its name which will allow it to be a cache hit in the future.
+   * <p>
+   * The rename atomically replaces any previous version of the animation so readers never see a partial file. Cached
+   * copies of the url with other extensions are removed and the least recently used animations are evicted if the cache
+   * is over its budget.
    */
-  void renameTempFile(String url, FileExtension extension) {
+  synchronized void renameTempFile(String url, FileExtension extension) {
     String fileName = filenameForUrl(url, extension, true);
     File file = new File(parentDir(), fileName);
     String newFileName = file.getAbsolutePath().replace(".temp", "");
     File newFile = new File(newFileName);
+    journal().ensureLoaded();
     boolean renamed = file.renameTo(newFile);
     Logger.debug("Copying temp file to real file (" + newFile + ")");
     if (!renamed) {
       Logger.warning("Unable to rename cache file " + file.getAbsolutePath() + " to " + newFile.getAbsolutePath() + ".");
+      return;
+    }
+    for (FileExtension otherExtension : FileExtension.values()) {
+      if (otherExtension != extension) {
+        remove(new File(parentDir(), filenameForUrl(url, otherExtension, false)));
+      }
+    }
+    journal().recordWrite(newFile.getName(), newFile.length());
+  }
+
+  private void remove(File cachedFile) {
+    if (cachedFile.delete()) {
+      //noinspection ResultOfMethodCallIgnored
+      validatorsFileFor(cachedFile).delete();
+      journal().recordRemove(cachedFile.getName());
     }
   }
 
   /**
-   * Returns the cache file for the given url if it exists. Checks for both json and zip.
-   * Returns null if neither exist.
+   * Returns a snapshot of the network cache's size and hit, miss, and eviction counts.
+   */
+  @NonNull
+  @WorkerThread
+  public LottieNetworkCacheStats getStats() {
+    return journal().getStats();
+  }
+
+  private synchronized NetworkCacheJournal journal() {
+    if (journal == null) {
+      journal = new NetworkCacheJournal(parentDir(), maxSizeInBytes);
+    }
+    return journal;
+  }
+
+  /**
+   * Returns the ETag and Last-Modified headers of the cached response for the url. Either may be null.
+   * Returns null if none were saved.
+   */
+  @Nullable
+  @WorkerThread
+  Pair<String, String> getValidators(String url) {
+    File cachedFile;
+    try {
+      cachedFile = getCachedFile(url);
+    } catch (FileNotFoundException e) {
+      return null;
+    }
+    if (cachedFile == null) {
+      return null;
+    }
+    File file = validatorsFileFor(cachedFile);
+    if (!file.exists()) {
+      return null;
+    }
+    Properties properties = new Properties();
+    try (InputStream input = new FileInputStream(file)) {
+      properties.load(input);
+    } catch (IOException e) {
+      Logger.warning("Unable to read cache validators for " + url + ".", e);
+      return null;
+    }
+    return new Pair<>(properties.getProperty(ETAG), properties.getProperty(LAST_MODIFIED));
+  }
+
+  /**
+   * Saves the ETag and Last-Modified headers of a response next to its cache file so that it can be revalidated
+   * with a conditional request later.
+   */
+  @WorkerThread
+  void setValidators(String url, FileExtension extension, @Nullable String eTag, @Nullable String lastModified) {
+    File cachedFile = new File(parentDir(), filenameForUrl(url, extension, false));
+    File file = validatorsFileFor(cachedFile);
+    // The cached file is evicted immediately if it is larger than the whole cache.
+    if ((eTag == null && lastModified == null) || !cachedFile.exists()) {
+      file.delete();
+      return;
+    }
+    Properties properties = new Properties();
+    if (eTag != null) {
+      properties.setProperty(ETAG, eTag);
+    }
+    if (lastModified != null) {
+      properties.setProperty(LAST_MODIFIED, lastModified);
+    }
+    try (OutputStream output = new FileOutputStream(file)) {
+      properties.store(output, null);
+    } catch (IOException e) {
+      Logger.warning("Unable to save cache validators for " + url + ".", e);
+    }
+  }
+
+  /**
+   * Replaces the cached json, zip, or gzip file for the url with a {@link CompiledCacheFile} that loads faster.
+   * <p>
+   * This is meant to run in the background after the animation was fetched. The compiled file is discarded if the
+   * cached file changed while it was being written.
+   *
+   * @param composition the composition that was parsed from the cached file. Its images are saved in the compiled file.
+   */
+  @WorkerThread
+  void writeCompiledFile(String url, FileExtension extension, LottieComposition composition) {
+    File sourceFile = new File(parentDir(), filenameForUrl(url, extension, false));
+    long sourceLastModified = sourceFile.lastModified();
+    long sourceLength = sourceFile.length();
+    if (!sourceFile.exists()) {
+      return;
+    }
+    File tempFile = new File(parentDir(), filenameForUrl(url, FileExtension.COMPILED, true));
+    try (ZipFile zipFile = extension == FileExtension.ZIP ? new ZipFile(sourceFile) : null;
+         BufferedSink sink = Okio.buffer(Okio.sink(tempFile))) {
+      Source json;
+      switch (extension) {
+        case ZIP:
+          json = Okio.source(zipFile.getInputStream(findJsonEntry(zipFile)));
+          break;
+        case GZIP:
+          json = Okio.source(new GZIPInputStream(new FileInputStream(sourceFile)));
+          break;
+        case JSON:
+          json = Okio.source(sourceFile);
+          break;
+        default:
+          throw new IllegalArgumentException("Unable to compile " + extension + " files.");
+      }
+      CompiledCacheFile.write(json, composition, sink);
+    } catch (IOException | RuntimeException e) {
+      Logger.warning("Unable to compile the cached animation for " + url + ".", e);
+      //noinspection ResultOfMethodCallIgnored
+      tempFile.delete();
+      return;
+    }
+
+    synchronized (this) {
+      if (!sourceFile.exists() || sourceFile.lastModified() != sourceLastModified || sourceFile.length() != sourceLength) {
+        Logger.debug("The cached animation for " + url + " changed while it was compiled.");
+        //noinspection ResultOfMethodCallIgnored
+        tempFile.delete();
+        return;
+      }
+      File compiledFile = new File(parentDir(), filenameForUrl(url, FileExtension.COMPILED, false));
+      //noinspection ResultOfMethodCallIgnored
+      validatorsFileFor(sourceFile).renameTo(validatorsFileFor(compiledFile));
+      // This removes the source file.
+      renameTempFile(url, FileExtension.COMPILED);
+    }
+  }
+
+  /**
+   * Finds the animation in a zip the same way as {@link com.airbnb.lottie.LottieCompositionFactory#fromZipStreamSync}. If
+   * there is more than one, the last one is used.
+   */
+  private static ZipEntry findJsonEntry(ZipFile zipFile) throws IOException {
+    ZipEntry jsonEntry = null;
+    Enumeration<? extends ZipEntry> entries = zipFile.entries();
+    while (entries.hasMoreElements()) {
+      ZipEntry entry = entries.nextElement();
+      String name = entry.getName();
+      if (!name.contains("__MACOSX") && !name.equalsIgnoreCase("manifest.json") && name.contains(".json")) {
+        jsonEntry = entry;
+      }
+    }
+    if (jsonEntry == null) {
+      throw new IOException("Unable to find the animation in the zip.");
+    }
+    return jsonEntry;
+  }
+
+  /**
+   * Returns the cache file for the given url if it exists. Checks for compiled, json, zip, and gzip files.
+   * Returns null if none exist.
    */
   @Nullable
   private File getCachedFile(String url) throws FileNotFoundException {
+    File compiledFile = new File(parentDir(), filenameForUrl(url, FileExtension.COMPILED, false));
+    if (compiledFile.exists()) {
+      return compiledFile;
+    }
     File jsonFile = new File(parentDir(), filenameForUrl(url, FileExtension.JSON, false));
     if (jsonFile.exists()) {
       return jsonFile;
@@ -163,6 +361,10 @@ public class NetworkCache {
     return file;
   }
 
+  static File validatorsFileFor(File cachedFile) {
+    return new File(cachedFile.getPath() + VALIDATORS_EXTENSION);
+  }
+
   private static String filenameForUrl(String url, FileExtension extension, boolean isTemp) {
     String prefix = "lottie_cache_";
     String suffix = (isTemp ? extension.tempExtension() : extension.extension);
@@ -0,0 +1,308 @@
+package com.airbnb.lottie.network;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import com.airbnb.lottie.LottieNetworkCacheStats;
+import com.airbnb.lottie.utils.Logger;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tracks the size and access order of every animation in the network cache so that it can be kept under a byte budget
+ * by evicting the least recently used ones.
+ * <p>
+ * Writes, reads, and removals are appended to a journal file so that the access order survives process restarts. Each
+ * line is one of:
+ * <ul>
+ *   <li>{@code C <file> <size>} when a file is committed to the cache.</li>
+ *   <li>{@code R <file>} when a file is read from the cache.</li>
+ *   <li>{@code D <file>} when a file is removed from the cache.</li>
+ * </ul>
+ * The journal is rewritten once most of its lines are redundant. It is only a hint: files that are on disk but not in
+ * the journal, such as ones cached by older versions of Lottie, are treated as the least recently used in the order
+ * that they were modified.
+ */
+class NetworkCacheJournal {
+  static final String JOURNAL_FILE_NAME = "lottie_cache_journal";
+  private static final String JOURNAL_TEMP_FILE_NAME = JOURNAL_FILE_NAME + ".tmp";
+  private static final String CLEAN = "C";
+  private static final String READ = "R";
+  private static final String REMOVE = "D";
+  private static final int MIN_REDUNDANT_OPS_TO_COMPACT = 1000;
+  private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+  private final File dir;
+  /**
+   * The max number of bytes that cached animations may use or 0 if the cache is unbounded.
+   */
+  private final long maxSizeInBytes;
+  /**
+   * File names to sizes in access order, least recently used first.
+   */
+  private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private boolean loaded = false;
+  private long size = 0;
+  private int redundantOpCount = 0;
+  @Nullable private Writer journalWriter;
+  private int hitCount = 0;
+  private int missCount = 0;
+  private int evictionCount = 0;
+
+  NetworkCacheJournal(File dir, long maxSizeInBytes) {
+    this.dir = dir;
+    this.maxSizeInBytes = maxSizeInBytes;
+  }
+
+  /**
+   * Returns true for the names of files that this tracks. Temporary files, validators, and the journal aren't tracked.
+   */
+  static boolean isCacheFile(String name) {
+    if (!name.startsWith("lottie_cache_") || name.contains(".temp")) {
+      return false;
+    }
+    for (FileExtension extension : FileExtension.values()) {
+      if (name.endsWith(extension.extension)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @WorkerThread
+  synchronized void recordHit(String fileName) {
+    ensureLoaded();
+    hitCount++;
+    if (entries.get(fileName) == null) {
+      // This can happen if the file was cached by another process.
+      long length = new File(dir, fileName).length();
+      entries.put(fileName, length);
+      size += length;
+      append(CLEAN + " " + fileName + " " + length);
+      trimToSize();
+    } else {
+      append(READ + " " + fileName);
+    }
+  }
+
+  synchronized void recordMiss() {
+    missCount++;
+  }
+
+  /**
+   * Records a file that was just committed to the cache and evicts the least recently used files if the cache is over
+   * its budget. This may evict the new file if it is larger than the whole budget.
+   */
+  @WorkerThread
+  synchronized void recordWrite(String fileName, long length) {
+    ensureLoaded();
+    Long previous = entries.put(fileName, length);
+    if (previous != null) {
+      size -= previous;
+    }
+    size += length;
+    append(CLEAN + " " + fileName + " " + length);
+    trimToSize();
+  }
+
+  @WorkerThread
+  synchronized void recordRemove(String fileName) {
+    ensureLoaded();
+    Long previous = entries.remove(fileName);
+    if (previous != null) {
+      size -= previous;
+      append(REMOVE + " " + fileName);
+    }
+  }
+
+  /**
+   * Forgets every entry. This should be called before the cache directory is deleted so that the journal is closed.
+   */
+  synchronized void reset() {
+    closeWriter();
+    entries.clear();
+    size = 0;
+    redundantOpCount = 0;
+    loaded = false;
+  }
+
+  @NonNull
+  @WorkerThread
+  synchronized LottieNetworkCacheStats getStats() {
+    ensureLoaded();
+    return new LottieNetworkCacheStats(hitCount, missCount, evictionCount, entries.size(), size, maxSizeInBytes);
+  }
+
+  private void trimToSize() {
+    if (maxSizeInBytes <= 0) {
+      return;
+    }
+    Iterator<Map.Entry<String, Long>> iterator = entries.entrySet().iterator();
+    while (size > maxSizeInBytes && iterator.hasNext()) {
+      Map.Entry<String, Long> eldest = iterator.next();
+      iterator.remove();
+      size -= eldest.getValue();
+      evictionCount++;
+      File file = new File(dir, eldest.getKey());
+      Logger.debug("Evicting " + file.getAbsolutePath() + " from the network cache.");
+      if (!file.delete() && file.exists()) {
+        Logger.warning("Unable to delete evicted cache file " + file.getAbsolutePath() + ".");
+      }
+      //noinspection ResultOfMethodCallIgnored
+      NetworkCache.validatorsFileFor(file).delete();
+      append(REMOVE + " " + eldest.getKey());
+    }
+  }
+
+  /**
+   * Reads the journal and reconciles it with the files in the cache directory if that hasn't happened yet. This must
+   * happen before a new file is renamed into the cache or it would be mistaken for an untracked old one.
+   */
+  @WorkerThread
+  synchronized void ensureLoaded() {
+    if (loaded) {
+      return;
+    }
+    loaded = true;
+    LinkedHashMap<String, Long> journaled = new LinkedHashMap<>(16, 0.75f, true);
+    int lineCount = readJournal(journaled);
+
+    File[] files = dir.listFiles();
+    List<File> untracked = new ArrayList<>();
+    LinkedHashMap<String, File> onDisk = new LinkedHashMap<>();
+    if (files != null) {
+      for (File file : files) {
+        if (isCacheFile(file.getName())) {
+          onDisk.put(file.getName(), file);
+          if (!journaled.containsKey(file.getName())) {
+            untracked.add(file);
+          }
+        }
+      }
+    }
+    // Files that aren't in the journal predate it so they are the least recently used.
+    File[] sortedUntracked = untracked.toArray(new File[0]);
+    Arrays.sort(sortedUntracked, (a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+
+    entries.clear();
+    size = 0;
+    for (File file : sortedUntracked) {
+      put(file.getName(), file.length());
+    }
+    for (String name : journaled.keySet()) {
+      File file = onDisk.get(name);
+      if (file != null) {
+        put(name, file.length());
+      }
+    }
+
+    redundantOpCount = lineCount - entries.size();
+    if (!untracked.isEmpty() || redundantOpCount >= MIN_REDUNDANT_OPS_TO_COMPACT) {
+      rewriteJournal();
+    }
+    trimToSize();
+  }
+
+  private void put(String name, long length) {
+    entries.put(name, length);
+    size += length;
+  }
+
+  /**
+   * Replays the journal into entries and returns the number of lines that it had.
+   */
+  private int readJournal(LinkedHashMap<String, Long> entries) {
+    File journal = new File(dir, JOURNAL_FILE_NAME);
+    if (!journal.exists()) {
+      return 0;
+    }
+    int lineCount = 0;
+    try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(journal), UTF_8))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        lineCount++;
+        String[] parts = line.split(" ");
+        if (parts.length == 3 && CLEAN.equals(parts[0])) {
+          entries.put(parts[1], Long.parseLong(parts[2]));
+        } else if (parts.length == 2 && READ.equals(parts[0])) {
+          entries.get(parts[1]);
+        } else if (parts.length == 2 && REMOVE.equals(parts[0])) {
+          entries.remove(parts[1]);
+        }
+      }
+    } catch (IOException | NumberFormatException e) {
+      // A corrupt journal only loses the access order. The files on disk are still used.
+      Logger.warning("Unable to read the network cache journal.", e);
+      entries.clear();
+    }
+    return lineCount;
+  }
+
+  private void append(String line) {
+    redundantOpCount++;
+    // The entries already include this operation so a rewritten journal doesn't need the line.
+    if (redundantOpCount >= MIN_REDUNDANT_OPS_TO_COMPACT && redundantOpCount >= entries.size() && rewriteJournal()) {
+      return;
+    }
+    try {
+      if (journalWriter == null) {
+        journalWriter = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(new File(dir, JOURNAL_FILE_NAME), true), UTF_8));
+      }
+      journalWriter.write(line);
+      journalWriter.write('\n');
+      journalWriter.flush();
+    } catch (IOException e) {
+      Logger.warning("Unable to write to the network cache journal.", e);
+      closeWriter();
+    }
+  }
+
+  /**
+   * Writes the current entries to a new journal and atomically replaces the old one with it.
+   */
+  private boolean rewriteJournal() {
+    closeWriter();
+    File temp = new File(dir, JOURNAL_TEMP_FILE_NAME);
+    try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(temp), UTF_8))) {
+      for (Map.Entry<String, Long> entry : entries.entrySet()) {
+        writer.write(CLEAN + " " + entry.getKey() + " " + entry.getValue() + "\n");
+      }
+    } catch (IOException e) {
+      Logger.warning("Unable to rewrite the network cache journal.", e);
+      return false;
+    }
+    if (!temp.renameTo(new File(dir, JOURNAL_FILE_NAME))) {
+      Logger.warning("Unable to replace the network cache journal.");
+      return false;
+    }
+    redundantOpCount = 0;
+    return true;
+  }
+
+  private void closeWriter() {
+    if (journalWriter != null) {
+      try {
+        journalWriter.close();
+      } catch (IOException e) {
+        // Do nothing.
+      }
+      journalWriter = null;
+    }
+  }
+}
@@ -1,5 +1,7 @@
 package com.airbnb.lottie.network;
 
+import static com.airbnb.lottie.utils.Utils.closeQuietly;
+
 import android.content.Context;
 import android.util.Pair;
 
@@ -8,18 +10,26 @@ import androidx.annotation.Nullable;
 import androidx.annotation.RestrictTo;
 import androidx.annotation.WorkerThread;
 
+import com.airbnb.lottie.L;
 import com.airbnb.lottie.LottieComposition;
 import com.airbnb.lottie.LottieCompositionFactory;
 import com.airbnb.lottie.LottieResult;
+import com.airbnb.lottie.LottieTask;
+import com.airbnb.lottie.model.Font;
+import com.airbnb.lottie.model.LottieCompositionCache;
 import com.airbnb.lottie.utils.Logger;
 
-import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.ZipInputStream;
 
+import okio.Okio;
+
 @RestrictTo(RestrictTo.Scope.LIBRARY)
 public class NetworkFetcher {
 
@@ -27,10 +37,26 @@ public class NetworkFetcher {
   private final NetworkCache networkCache;
   @NonNull
   private final LottieNetworkFetcher fetcher;
+  @NonNull
+  private final LottieNetworkCacheRevalidation revalidation;
+  @NonNull
+  private final Executor backgroundExecutor;
+  private final Map<String, InFlightFetch> inFlightFetches = new HashMap<>();
 
   public NetworkFetcher(@Nullable NetworkCache networkCache, @NonNull LottieNetworkFetcher fetcher) {
+    this(networkCache, fetcher, LottieNetworkCacheRevalidation.NEVER, LottieTask.EXECUTOR);
+  }
+
+  /**
+   * @param backgroundExecutor runs background revalidations for {@link LottieNetworkCacheRevalidation#STALE_WHILE_REVALIDATE}
+   *                           and writes compiled cache files.
+   */
+  public NetworkFetcher(@Nullable NetworkCache networkCache, @NonNull LottieNetworkFetcher fetcher,
+      @NonNull LottieNetworkCacheRevalidation revalidation, @NonNull Executor backgroundExecutor) {
     this.networkCache = networkCache;
     this.fetcher = fetcher;
+    this.revalidation = revalidation;
+    this.backgroundExecutor = backgroundExecutor;
   }
 
   @NonNull
@@ -38,12 +64,56 @@ public class NetworkFetcher {
   public LottieResult<LottieComposition> fetchSync(Context context, @NonNull String url, @Nullable String cacheKey) {
     LottieComposition result = fetchFromCache(context, url, cacheKey);
     if (result != null) {
-      return new LottieResult<>(result);
+      switch (revalidation) {
+        case ALWAYS:
+          return fetchFromNetworkOnce(context, url, cacheKey, result);
+        case STALE_WHILE_REVALIDATE:
+          backgroundExecutor.execute(() -> fetchFromNetworkOnce(context, url, cacheKey, result));
+          return new LottieResult<>(result);
+        case NEVER:
+        default:
+          return new LottieResult<>(result);
+      }
     }
 
     Logger.debug("Animation for " + url + " not found in cache. Fetching from network.");
 
-    return fetchFromNetwork(context, url, cacheKey);
+    return fetchFromNetworkOnce(context, url, cacheKey, null);
+  }
+
+  /**
+   * Animations are often requested by several views at once, possibly with different cache keys. Only the first request
+   * for a url downloads it and the rest wait for its result.
+   */
+  @NonNull
+  @WorkerThread
+  private LottieResult<LottieComposition> fetchFromNetworkOnce(Context context, @NonNull String url, @Nullable String cacheKey,
+      @Nullable LottieComposition cached) {
+    InFlightFetch fetch;
+    boolean isOwner = false;
+    synchronized (inFlightFetches) {
+      fetch = inFlightFetches.get(url);
+      if (fetch == null) {
+        fetch = new InFlightFetch();
+        inFlightFetches.put(url, fetch);
+        isOwner = true;
+      }
+    }
+    if (!isOwner) {
+      Logger.debug("Waiting for the in flight fetch of " + url);
+      return fetch.await();
+    }
+
+    LottieResult<LottieComposition> result = null;
+    try {
+      result = fetchFromNetwork(context, url, cacheKey, cached);
+      return result;
+    } finally {
+      synchronized (inFlightFetches) {
+        inFlightFetches.remove(url);
+      }
+      fetch.complete(result != null ? result : new LottieResult<>(new IllegalStateException("Unable to fetch " + url)));
+    }
   }
 
   @Nullable
@@ -61,6 +131,9 @@ public class NetworkFetcher {
     InputStream inputStream = cacheResult.second;
     LottieResult<LottieComposition> result;
     switch (extension) {
+      case COMPILED:
+        result = CompiledCacheFile.read(Okio.buffer(Okio.source(inputStream)), cacheKey);
+        break;
       case ZIP:
         result = LottieCompositionFactory.fromZipStreamSync(context, new ZipInputStream(inputStream), cacheKey);
         break;
@@ -80,24 +153,50 @@ public class NetworkFetcher {
     return null;
   }
 
+  /**
+   * @param cached if set, the animation is already in the network cache and this revalidates it. The cached animation is
+   *               returned if it hasn't changed or if it can't be fetched.
+   */
   @NonNull
   @WorkerThread
-  private LottieResult<LottieComposition> fetchFromNetwork(Context context, @NonNull String url, @Nullable String cacheKey) {
+  private LottieResult<LottieComposition> fetchFromNetwork(Context context, @NonNull String url, @Nullable String cacheKey,
+      @Nullable LottieComposition cached) {
     Logger.debug("Fetching " + url);
 
     LottieFetchResult fetchResult = null;
     try {
-      fetchResult = fetcher.fetchSync(url);
+      if (cached == null) {
+        fetchResult = fetcher.fetchSync(url);
+      } else {
+        Pair<String, String> validators = networkCache == null ? null : networkCache.getValidators(url);
+        fetchResult = validators == null ? fetcher.fetchSync(url, null, null) : fetcher.fetchSync(url, validators.first, validators.second);
+        if (fetchResult.isNotModified()) {
+          Logger.debug(url + " has not been modified.");
+          return new LottieResult<>(cached);
+        }
+      }
       if (fetchResult.isSuccessful()) {
         InputStream inputStream = fetchResult.bodyByteStream();
         String contentType = fetchResult.contentType();
-        LottieResult<LottieComposition> result = fromInputStream(context, url, inputStream, contentType, cacheKey);
+        LottieResult<LottieComposition> result = fromInputStream(context, url, inputStream, contentType, cacheKey,
+            fetchResult.eTag(), fetchResult.lastModified(), cached != null);
         Logger.debug("Completed fetch from network. Success: " + (result.getValue() != null));
+        if (cached != null && result.getValue() == null) {
+          Logger.warning("Unable to parse the updated animation for " + url + ". Using the cached one.", result.getException());
+          return new LottieResult<>(cached);
+        }
         return result;
+      } else if (cached != null) {
+        Logger.warning("Unable to revalidate " + url + ". Using the cached animation. " + fetchResult.error());
+        return new LottieResult<>(cached);
       } else {
         return new LottieResult<>(new IllegalArgumentException(fetchResult.error()));
       }
     } catch (Exception e) {
+      if (cached != null) {
+        Logger.warning("Unable to revalidate " + url + ". Using the cached animation.", e);
+        return new LottieResult<>(cached);
+      }
       return new LottieResult<>(e);
     } finally {
       if (fetchResult != null) {
@@ -110,11 +209,13 @@ public class NetworkFetcher {
     }
   }
 
+  /**
+   * @param replaceCached if true, this is an update to an animation that may already be in the composition cache.
+   */
   @NonNull
   private LottieResult<LottieComposition> fromInputStream(Context context, @NonNull String url, @NonNull InputStream inputStream, @Nullable String contentType,
-      @Nullable String cacheKey) throws IOException {
+      @Nullable String cacheKey, @Nullable String eTag, @Nullable String lastModified, boolean replaceCached) throws IOException {
     FileExtension extension;
-    LottieResult<LottieComposition> result;
     if (contentType == null) {
       // Assume JSON for best effort parsing. If it fails, it will just deliver the parse exception
       // in the result which is more useful than failing here.
@@ -126,53 +227,92 @@ public class NetworkFetcher {
         url.split("\\?")[0].endsWith(".lottie")) {
       Logger.debug("Handling zip response.");
       extension = FileExtension.ZIP;
-      result = fromZipStream(context, url, inputStream, cacheKey);
     } else if (contentType.contains("application/gzip") ||
         contentType.contains("application/x-gzip") ||
         url.split("\\?")[0].endsWith(".tgs")) {
       Logger.debug("Handling gzip response.");
       extension = FileExtension.GZIP;
-      result = fromGzipStream(url, inputStream, cacheKey);
     } else {
       Logger.debug("Received json response.");
       extension = FileExtension.JSON;
-      result = fromJsonStream(url, inputStream, cacheKey);
     }
 
-    if (cacheKey != null && result.getValue() != null && networkCache != null) {
+    // The response is parsed as it downloads and written to the cache at the same time.
+    TempCacheFileInputStream cacheStream = null;
+    String resultCacheKey = null;
+    if (cacheKey != null && networkCache != null) {
+      inputStream = cacheStream = networkCache.readThroughTempCacheFile(url, inputStream, extension);
+      // The parsers return the cached composition for their cache key without reading the stream.
+      resultCacheKey = replaceCached ? null : url;
+    }
+
+    LottieResult<LottieComposition> result = null;
+    try {
+      switch (extension) {
+        case ZIP:
+          result = LottieCompositionFactory.fromZipStreamSync(context, new ZipInputStream(inputStream), resultCacheKey);
+          break;
+        case GZIP:
+          result = LottieCompositionFactory.fromJsonInputStreamSync(new GZIPInputStream(inputStream), resultCacheKey);
+          break;
+        default:
+          result = LottieCompositionFactory.fromJsonInputStreamSync(inputStream, resultCacheKey);
+      }
+    } finally {
+      if (cacheStream != null && (result == null || result.getValue() == null)) {
+        // The rest of a response that can't be parsed won't be cached so it isn't downloaded.
+        cacheStream.abort();
+      }
+      // Otherwise, closing copies anything that the parser didn't read to the cache file.
+      closeQuietly(cacheStream);
+    }
+
+    if (cacheStream != null && cacheStream.isComplete() && result.getValue() != null) {
       networkCache.renameTempFile(url, extension);
+      networkCache.setValidators(url, extension, eTag, lastModified);
+      if (L.isNetworkCacheCompilationEnabled() && canCompile(result.getValue())) {
+        LottieComposition composition = result.getValue();
+        backgroundExecutor.execute(() -> networkCache.writeCompiledFile(url, extension, composition));
+      }
+      if (replaceCached) {
+        LottieCompositionCache.getInstance().put(url, result.getValue());
+        LottieCompositionCache.getInstance().put(cacheKey, result.getValue());
+      }
     }
 
     return result;
   }
 
-  @NonNull
-  private LottieResult<LottieComposition> fromZipStream(Context context, @NonNull String url, @NonNull InputStream inputStream, @Nullable String cacheKey)
-      throws IOException {
-    if (cacheKey == null || networkCache == null) {
-      return LottieCompositionFactory.fromZipStreamSync(context, new ZipInputStream(inputStream), null);
+  /**
+   * Fonts from zip files are loaded from temporary files so they can't be saved in a compiled file.
+   */
+  private static boolean canCompile(LottieComposition composition) {
+    for (Font font : composition.getFonts().values()) {
+      if (font.getTypeface() != null) {
+        return false;
+      }
     }
-    File file = networkCache.writeTempCacheFile(url, inputStream, FileExtension.ZIP);
-    return LottieCompositionFactory.fromZipStreamSync(context, new ZipInputStream(new FileInputStream(file)), url);
+    return true;
   }
 
-  @NonNull
-  private LottieResult<LottieComposition> fromGzipStream(@NonNull String url, @NonNull InputStream inputStream, @Nullable String cacheKey)
-      throws IOException {
-    if (cacheKey == null || networkCache == null) {
-      return LottieCompositionFactory.fromJsonInputStreamSync(new GZIPInputStream(inputStream), null);
+  private static class InFlightFetch {
+    private final CountDownLatch latch = new CountDownLatch(1);
+    @Nullable private volatile LottieResult<LottieComposition> result;
+
+    void complete(LottieResult<LottieComposition> result) {
+      this.result = result;
+      latch.countDown();
     }
-    File file = networkCache.writeTempCacheFile(url, inputStream, FileExtension.GZIP);
-    return LottieCompositionFactory.fromJsonInputStreamSync(new GZIPInputStream(new FileInputStream(file)), url);
-  }
 
-  @NonNull
-  private LottieResult<LottieComposition> fromJsonStream(@NonNull String url, @NonNull InputStream inputStream, @Nullable String cacheKey)
-      throws IOException {
-    if (cacheKey == null || networkCache == null) {
-      return LottieCompositionFactory.fromJsonInputStreamSync(inputStream, null);
+    LottieResult<LottieComposition> await() {
+      try {
+        latch.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return new LottieResult<>(e);
+      }
+      //noinspection ConstantConditions
+      return result;
     }
-    File file = networkCache.writeTempCacheFile(url, inputStream, FileExtension.JSON);
-    return LottieCompositionFactory.fromJsonInputStreamSync(new FileInputStream(file.getAbsolutePath()), url);
   }
 }
@@ -0,0 +1,133 @@
+package com.airbnb.lottie.network;
+
+import androidx.annotation.NonNull;
+
+import com.airbnb.lottie.utils.Logger;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Copies a network response to its temporary cache file as it is read so that it can be parsed while it is still
+ * downloading rather than after it has been written to disk.
+ * <p>
+ * Parsers may stop reading before the end of the response (e.g. a zip's central directory) so closing the stream
+ * copies whatever is left unless it was {@link #abort() aborted}. The file is only complete if {@link #isComplete()}
+ * returns true after it is closed.
+ */
+class TempCacheFileInputStream extends FilterInputStream {
+  private final OutputStream output;
+  private boolean closed = false;
+  private boolean failed = false;
+  private boolean aborted = false;
+  private boolean complete = false;
+
+  TempCacheFileInputStream(InputStream in, OutputStream output) {
+    super(in);
+    this.output = output;
+  }
+
+  @Override public int read() throws IOException {
+    int b = super.read();
+    if (b != -1) {
+      write(b);
+    }
+    return b;
+  }
+
+  @Override public int read(@NonNull byte[] b, int off, int len) throws IOException {
+    int read = super.read(b, off, len);
+    if (read > 0) {
+      write(b, off, read);
+    }
+    return read;
+  }
+
+  @Override public long skip(long n) throws IOException {
+    // Skipped bytes still need to be written to the file.
+    byte[] buffer = new byte[(int) Math.min(n, 4 * 1024)];
+    long skipped = 0;
+    while (skipped < n) {
+      int read = read(buffer, 0, (int) Math.min(buffer.length, n - skipped));
+      if (read == -1) {
+        break;
+      }
+      skipped += read;
+    }
+    return skipped;
+  }
+
+  @Override public boolean markSupported() {
+    return false;
+  }
+
+  @Override public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    try {
+      if (!failed && !aborted) {
+        byte[] buffer = new byte[4 * 1024];
+        //noinspection StatementWithEmptyBody
+        while (read(buffer, 0, buffer.length) != -1) {
+        }
+        output.flush();
+        complete = !failed;
+      }
+    } finally {
+      try {
+        output.close();
+      } finally {
+        super.close();
+      }
+    }
+  }
+
+  /**
+   * Makes {@link #close()} close the response without reading the rest of it. Call this if the response can't be parsed
+   * so that the connection is dropped rather than downloading a file that won't be cached.
+   */
+  void abort() {
+    aborted = true;
+  }
+
+  /**
+   * True if the entire response was written to the cache file.
+   */
+  boolean isComplete() {
+    return complete;
+  }
+
+  private void write(int b) {
+    if (failed) {
+      return;
+    }
+    try {
+      output.write(b);
+    } catch (IOException e) {
+      onWriteFailed(e);
+    }
+  }
+
+  private void write(byte[] b, int off, int len) {
+    if (failed) {
+      return;
+    }
+    try {
+      output.write(b, off, len);
+    } catch (IOException e) {
+      onWriteFailed(e);
+    }
+  }
+
+  /**
+   * A full disk shouldn't fail the animation. It just won't be cached.
+   */
+  private void onWriteFailed(IOException e) {
+    failed = true;
+    Logger.warning("Unable to write to the network cache.", e);
+  }
+}
@@ -0,0 +1,218 @@
+package com.airbnb.lottie.parser;
+
+import androidx.annotation.Nullable;
+
+import java.nio.charset.Charset;
+
+/**
+ * Finds the byte ranges of values in a json document without parsing them.
+ * <p>
+ * This only tracks strings and nesting so it is much faster than tokenizing the document. It is used to split the
+ * elements of top level arrays into independent documents that can be parsed in parallel.
+ */
+class JsonSpans {
+  private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+  private JsonSpans() {
+  }
+
+  /**
+   * Returns the [start, end) offsets of the elements of the top level array with each name, packed as pairs.
+   * Names that aren't in the document or whose value isn't an array get null so that the caller parses them normally.
+   * <p>
+   * Returns null if the document isn't an object that this can split. Parsing it normally will report the error. That
+   * includes documents with a name that appears twice or with escaped top level names, because this compares raw bytes
+   * and could otherwise disagree with the parser about which value is which.
+   */
+  @Nullable
+  static int[][] splitTopLevelArrays(byte[] json, String... names) {
+    byte[][] nameBytes = new byte[names.length][];
+    int[][] spans = new int[names.length][];
+    boolean[] seen = new boolean[names.length];
+    for (int i = 0; i < names.length; i++) {
+      nameBytes[i] = names[i].getBytes(UTF_8);
+    }
+
+    int pos = skipWhitespace(json, 0);
+    if (pos >= json.length || json[pos] != '{') {
+      return null;
+    }
+    pos = skipWhitespace(json, pos + 1);
+    while (pos < json.length && json[pos] != '}') {
+      if (json[pos] != '"') {
+        return null;
+      }
+      int nameStart = pos + 1;
+      pos = stringEnd(json, pos);
+      if (pos < 0) {
+        return null;
+      }
+      int nameEnd = pos - 1;
+      if (containsEscape(json, nameStart, nameEnd)) {
+        return null;
+      }
+      pos = skipWhitespace(json, pos);
+      if (pos >= json.length || json[pos] != ':') {
+        return null;
+      }
+      pos = skipWhitespace(json, pos + 1);
+
+      int index = indexOf(nameBytes, json, nameStart, nameEnd);
+      if (index >= 0) {
+        if (seen[index]) {
+          return null;
+        }
+        seen[index] = true;
+      }
+      if (index >= 0 && pos < json.length && json[pos] == '[') {
+        pos = splitArray(json, pos, spans, index);
+      } else {
+        pos = valueEnd(json, pos);
+      }
+      if (pos < 0) {
+        return null;
+      }
+      pos = skipWhitespace(json, pos);
+      if (pos < json.length && json[pos] == ',') {
+        pos = skipWhitespace(json, pos + 1);
+      }
+    }
+    return pos < json.length ? spans : null;
+  }
+
+  /**
+   * Records the elements of the array that starts at {@code pos} and returns the offset after it.
+   */
+  private static int splitArray(byte[] json, int pos, int[][] spans, int index) {
+    int[] elements = new int[16];
+    int count = 0;
+    pos = skipWhitespace(json, pos + 1);
+    while (pos < json.length && json[pos] != ']') {
+      int end = valueEnd(json, pos);
+      if (end < 0) {
+        return -1;
+      }
+      if (count + 2 > elements.length) {
+        int[] grown = new int[elements.length * 2];
+        System.arraycopy(elements, 0, grown, 0, count);
+        elements = grown;
+      }
+      elements[count++] = pos;
+      elements[count++] = end;
+      pos = skipWhitespace(json, end);
+      if (pos < json.length && json[pos] == ',') {
+        pos = skipWhitespace(json, pos + 1);
+      }
+    }
+    if (pos >= json.length) {
+      return -1;
+    }
+    int[] trimmed = new int[count];
+    System.arraycopy(elements, 0, trimmed, 0, count);
+    spans[index] = trimmed;
+    return pos + 1;
+  }
+
+  /**
+   * Returns the offset after the value that starts at {@code pos} or -1 if it isn't terminated.
+   */
+  private static int valueEnd(byte[] json, int pos) {
+    if (pos >= json.length) {
+      return -1;
+    }
+    byte b = json[pos];
+    if (b == '"') {
+      return stringEnd(json, pos);
+    }
+    if (b != '{' && b != '[') {
+      // Numbers and literals end at the next structural character or whitespace.
+      while (pos < json.length) {
+        b = json[pos];
+        if (b == ',' || b == '}' || b == ']' || isWhitespace(b)) {
+          break;
+        }
+        pos++;
+      }
+      return pos;
+    }
+    int depth = 0;
+    while (pos < json.length) {
+      b = json[pos];
+      if (b == '"') {
+        pos = stringEnd(json, pos);
+        if (pos < 0) {
+          return -1;
+        }
+        continue;
+      }
+      if (b == '{' || b == '[') {
+        depth++;
+      } else if (b == '}' || b == ']') {
+        depth--;
+        if (depth == 0) {
+          return pos + 1;
+        }
+      }
+      pos++;
+    }
+    return -1;
+  }
+
+  /**
+   * Returns the offset after the closing quote of the string whose opening quote is at {@code pos}.
+   */
+  private static int stringEnd(byte[] json, int pos) {
+    pos++;
+    while (pos < json.length) {
+      byte b = json[pos];
+      if (b == '\\') {
+        pos += 2;
+      } else if (b == '"') {
+        return pos + 1;
+      } else {
+        pos++;
+      }
+    }
+    return -1;
+  }
+
+  private static boolean containsEscape(byte[] json, int start, int end) {
+    for (int i = start; i < end; i++) {
+      if (json[i] == '\\') {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static int indexOf(byte[][] names, byte[] json, int start, int end) {
+    for (int i = 0; i < names.length; i++) {
+      byte[] name = names[i];
+      if (name.length != end - start) {
+        continue;
+      }
+      boolean matches = true;
+      for (int j = 0; j < name.length; j++) {
+        if (json[start + j] != name[j]) {
+          matches = false;
+          break;
+        }
+      }
+      if (matches) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static int skipWhitespace(byte[] json, int pos) {
+    while (pos < json.length && isWhitespace(json[pos])) {
+      pos++;
+    }
+    return pos;
+  }
+
+  private static boolean isWhitespace(byte b) {
+    return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+  }
+}
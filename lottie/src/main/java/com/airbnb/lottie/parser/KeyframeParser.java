@@ -11,6 +11,7 @@ import androidx.core.view.animation.PathInterpolatorCompat;
 import com.airbnb.lottie.L;
 import com.airbnb.lottie.Lottie;
 import com.airbnb.lottie.LottieComposition;
+import com.airbnb.lottie.model.content.ShapeData;
 import com.airbnb.lottie.parser.moshi.JsonReader;
 import com.airbnb.lottie.utils.MiscUtils;
 import com.airbnb.lottie.utils.Utils;
@@ -74,14 +75,22 @@ class KeyframeParser {
    */
   static <T> Keyframe<T> parse(JsonReader reader, LottieComposition composition,
       float scale, ValueParser<T> valueParser, boolean animated, boolean multiDimensional) throws IOException {
-
+    Keyframe<T> keyframe;
     if (animated && multiDimensional) {
-      return parseMultiDimensionalKeyframe(composition, reader, scale, valueParser);
+      keyframe = parseMultiDimensionalKeyframe(composition, reader, scale, valueParser);
     } else if (animated) {
-      return parseKeyframe(composition, reader, scale, valueParser);
+      keyframe = parseKeyframe(composition, reader, scale, valueParser);
     } else {
-      return parseStaticValue(reader, scale, valueParser);
+      keyframe = parseStaticValue(reader, scale, valueParser);
+    }
+    composition.incrementKeyframeCount(1);
+    if (keyframe.startValue instanceof ShapeData) {
+      composition.incrementShapeVertexCount(((ShapeData) keyframe.startValue).getCurves().size());
     }
+    if (keyframe.endValue instanceof ShapeData) {
+      composition.incrementShapeVertexCount(((ShapeData) keyframe.endValue).getCurves().size());
+    }
+    return keyframe;
   }
 
   /**
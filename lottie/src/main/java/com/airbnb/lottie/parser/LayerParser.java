@@ -310,6 +310,7 @@ public class LayerParser {
       }
       transform.setAutoOrient(autoOrient);
     }
+    composition.incrementLayerCount(1);
     return new Layer(shapes, composition, layerName, layerId, layerType, parentId, refId,
         masks, transform, solidWidth, solidHeight, solidColor, timeStretch, startFrame,
         preCompWidth, preCompHeight, text, textProperties, inOutKeyframes, matteType,
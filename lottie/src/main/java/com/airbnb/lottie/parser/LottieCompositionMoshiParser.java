@@ -2,6 +2,7 @@ package com.airbnb.lottie.parser;
 
 import android.graphics.Rect;
 
+import androidx.annotation.Nullable;
 import androidx.collection.LongSparseArray;
 import androidx.collection.SparseArrayCompat;
 
@@ -16,6 +17,7 @@ import com.airbnb.lottie.utils.Logger;
 import com.airbnb.lottie.utils.Utils;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -38,6 +40,22 @@ public class LottieCompositionMoshiParser {
   );
 
   public static LottieComposition parse(JsonReader reader) throws IOException {
+    return parse(reader, null);
+  }
+
+  /**
+   * @param mappedSource if the reader reads from a memory mapped file, embedded images will reference the mapping
+   *                     rather than being copied into Strings.
+   */
+  public static LottieComposition parse(JsonReader reader, @Nullable MappedJsonSource mappedSource) throws IOException {
+    return parse(reader, mappedSource, new LottieComposition(), null);
+  }
+
+  /**
+   * @param splitParser if set, assets and font characters are skipped here if it parses them.
+   */
+  static LottieComposition parse(JsonReader reader, @Nullable MappedJsonSource mappedSource,
+      LottieComposition composition, @Nullable SplitCompositionParser splitParser) throws IOException {
     float scale = Utils.dpScale();
     float startFrame = 0f;
     float endFrame = 0f;
@@ -52,7 +70,6 @@ public class LottieCompositionMoshiParser {
     List<Marker> markers = new ArrayList<>();
     SparseArrayCompat<FontCharacter> characters = new SparseArrayCompat<>();
 
-    LottieComposition composition = new LottieComposition();
     reader.beginObject();
     while (reader.hasNext()) {
       switch (reader.selectName(NAMES)) {
@@ -89,12 +106,20 @@ public class LottieCompositionMoshiParser {
           parseLayers(reader, composition, layers, layerMap);
           break;
         case 7:
-          parseAssets(reader, composition, precomps, images);
+          if (splitParser != null && splitParser.parsesAssets()) {
+            reader.skipValue();
+            break;
+          }
+          parseAssets(reader, composition, precomps, images, mappedSource);
           break;
         case 8:
           parseFonts(reader, fonts);
           break;
         case 9:
+          if (splitParser != null && splitParser.parsesCharacters()) {
+            reader.skipValue();
+            break;
+          }
           parseChars(reader, composition, characters);
           break;
         case 10:
@@ -105,6 +130,9 @@ public class LottieCompositionMoshiParser {
           reader.skipValue();
       }
     }
+    if (splitParser != null) {
+      splitParser.finish(precomps, images, characters);
+    }
     int scaledWidth = (int) (unscaledWidth * scale);
     int scaledHeight = (int) (unscaledHeight * scale);
     Rect bounds = new Rect(0, 0, scaledWidth, scaledHeight);
@@ -147,60 +175,92 @@ public class LottieCompositionMoshiParser {
   );
 
   private static void parseAssets(JsonReader reader, LottieComposition composition,
-      Map<String, List<Layer>> precomps, Map<String, LottieImageAsset> images) throws IOException {
+      Map<String, List<Layer>> precomps, Map<String, LottieImageAsset> images,
+      @Nullable MappedJsonSource mappedSource) throws IOException {
     reader.beginArray();
     while (reader.hasNext()) {
-      String id = null;
-      // For precomps
-      List<Layer> layers = new ArrayList<>();
-      LongSparseArray<Layer> layerMap = new LongSparseArray<>();
-      // For images
-      int width = 0;
-      int height = 0;
-      String imageFileName = null;
-      String relativeFolder = null;
-      reader.beginObject();
-      while (reader.hasNext()) {
-        switch (reader.selectName(ASSETS_NAMES)) {
-          case 0:
-            id = reader.nextString();
+      parseAsset(reader, composition, precomps, images, mappedSource, false);
+    }
+    reader.endArray();
+  }
+
+  /**
+   * @param skipLayers if true, the layers of a precomp are skipped and it isn't added to precomps.
+   * @return the id of the asset if it is a precomp that was skipped.
+   */
+  @Nullable
+  static String parseAsset(JsonReader reader, LottieComposition composition,
+      Map<String, List<Layer>> precomps, Map<String, LottieImageAsset> images,
+      @Nullable MappedJsonSource mappedSource, boolean skipLayers) throws IOException {
+    String id = null;
+    // For precomps
+    List<Layer> layers = new ArrayList<>();
+    LongSparseArray<Layer> layerMap = new LongSparseArray<>();
+    // For images
+    int width = 0;
+    int height = 0;
+    String imageFileName = null;
+    String relativeFolder = null;
+    ByteBuffer embeddedData = null;
+    reader.beginObject();
+    while (reader.hasNext()) {
+      switch (reader.selectName(ASSETS_NAMES)) {
+        case 0:
+          id = reader.nextString();
+          break;
+        case 1:
+          if (skipLayers) {
+            reader.skipValue();
             break;
-          case 1:
-            reader.beginArray();
-            while (reader.hasNext()) {
-              Layer layer = LayerParser.parse(reader, composition);
-              layerMap.put(layer.getId(), layer);
-              layers.add(layer);
+          }
+          reader.beginArray();
+          while (reader.hasNext()) {
+            Layer layer = LayerParser.parse(reader, composition);
+            layerMap.put(layer.getId(), layer);
+            layers.add(layer);
+          }
+          reader.endArray();
+          break;
+        case 2:
+          width = reader.nextInt();
+          break;
+        case 3:
+          height = reader.nextInt();
+          break;
+        case 4:
+          if (mappedSource != null && reader.peek() == JsonReader.Token.STRING) {
+            // The opening quote has been consumed so this is the first character of the string.
+            long start = mappedSource.position();
+            long dataStart = mappedSource.embeddedDataStart(start);
+            if (dataStart != -1) {
+              imageFileName = mappedSource.header(start, dataStart);
+              reader.skipValue();
+              // Exclude the closing quote.
+              embeddedData = mappedSource.slice(dataStart, mappedSource.position() - 1);
+              break;
             }
-            reader.endArray();
-            break;
-          case 2:
-            width = reader.nextInt();
-            break;
-          case 3:
-            height = reader.nextInt();
-            break;
-          case 4:
-            imageFileName = reader.nextString();
-            break;
-          case 5:
-            relativeFolder = reader.nextString();
-            break;
-          default:
-            reader.skipName();
-            reader.skipValue();
-        }
-      }
-      reader.endObject();
-      if (imageFileName != null) {
-        LottieImageAsset image =
-            new LottieImageAsset(width, height, id, imageFileName, relativeFolder);
-        images.put(image.getId(), image);
-      } else {
-        precomps.put(id, layers);
+          }
+          imageFileName = reader.nextString();
+          break;
+        case 5:
+          relativeFolder = reader.nextString();
+          break;
+        default:
+          reader.skipName();
+          reader.skipValue();
       }
     }
-    reader.endArray();
+    reader.endObject();
+    if (imageFileName != null) {
+      LottieImageAsset image =
+          new LottieImageAsset(width, height, id, imageFileName, relativeFolder, embeddedData);
+      images.put(image.getId(), image);
+    } else if (skipLayers) {
+      return id;
+    } else {
+      precomps.put(id, layers);
+    }
+    return null;
   }
 
   private static final JsonReader.Options FONT_NAMES = JsonReader.Options.of("list");
@@ -0,0 +1,119 @@
+package com.airbnb.lottie.parser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.Okio;
+import okio.Source;
+import okio.Timeout;
+
+/**
+ * A {@link Source} backed by a memory mapped animation file.
+ * <p>
+ * Bytes are copied into the reader's buffer in small chunks so the whole file never has to be
+ * held on the heap. Because the mapping is random access, the parser can also record where large
+ * values such as base64 encoded images live and decode them later without ever creating a String.
+ */
+public class MappedJsonSource implements Source {
+  private static final int CHUNK_SIZE = 8192;
+  private static final String DATA_URI_PREFIX = "data:";
+  private static final String BASE64_MARKER = "base64,";
+  /**
+   * The longest mime type header that will be searched for the base64 marker.
+   */
+  private static final int MAX_DATA_URI_HEADER = 64;
+
+  private final ByteBuffer mapping;
+  private final BufferedSource buffered;
+
+  public MappedJsonSource(ByteBuffer mapping) {
+    this.mapping = mapping;
+    this.buffered = Okio.buffer(this);
+  }
+
+  /**
+   * The buffered source that the json reader should be created with.
+   */
+  public BufferedSource buffered() {
+    return buffered;
+  }
+
+  /**
+   * The offset in the mapping of the next byte that the buffered source will return.
+   */
+  long position() {
+    return mapping.position() - buffered.buffer().size();
+  }
+
+  /**
+   * If the string that starts at {@code start} is a base64 data uri, returns the offset of the first
+   * byte of encoded data. Otherwise, returns -1.
+   */
+  long embeddedDataStart(long start) {
+    if (!matches(start, DATA_URI_PREFIX)) {
+      return -1;
+    }
+    long end = Math.min(mapping.limit(), start + MAX_DATA_URI_HEADER);
+    for (long i = start + DATA_URI_PREFIX.length(); i < end; i++) {
+      if (mapping.get((int) i) == ',') {
+        return matches(i - BASE64_MARKER.length() + 1, BASE64_MARKER) ? i + 1 : -1;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Returns the data uri header (everything up to and including the comma) of an embedded image.
+   */
+  String header(long start, long dataStart) {
+    byte[] bytes = new byte[(int) (dataStart - start)];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = mapping.get((int) (start + i));
+    }
+    return new String(bytes);
+  }
+
+  /**
+   * Returns a read only view of the mapping between {@code start} and {@code end} that shares its memory.
+   */
+  ByteBuffer slice(long start, long end) {
+    ByteBuffer slice = mapping.duplicate();
+    slice.limit((int) end);
+    slice.position((int) start);
+    return slice.slice().asReadOnlyBuffer();
+  }
+
+  private boolean matches(long offset, String value) {
+    if (offset < 0 || offset + value.length() > mapping.limit()) {
+      return false;
+    }
+    for (int i = 0; i < value.length(); i++) {
+      if (mapping.get((int) (offset + i)) != value.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override public long read(Buffer sink, long byteCount) throws IOException {
+    if (!mapping.hasRemaining()) {
+      return -1;
+    }
+    int count = (int) Math.min(Math.min(byteCount, CHUNK_SIZE), mapping.remaining());
+    ByteBuffer chunk = mapping.duplicate();
+    chunk.limit(chunk.position() + count);
+    sink.write(chunk);
+    mapping.position(mapping.position() + count);
+    return count;
+  }
+
+  @Override public Timeout timeout() {
+    return Timeout.NONE;
+  }
+
+  @Override public void close() {
+    // The mapping is released when it is garbage collected.
+  }
+}
@@ -0,0 +1,226 @@
+package com.airbnb.lottie.parser;
+
+import androidx.annotation.Nullable;
+import androidx.collection.SparseArrayCompat;
+
+import com.airbnb.lottie.LottieComposition;
+import com.airbnb.lottie.LottieImageAsset;
+import com.airbnb.lottie.model.FontCharacter;
+import com.airbnb.lottie.model.layer.Layer;
+import com.airbnb.lottie.parser.moshi.JsonReader;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okio.Buffer;
+
+/**
+ * Parses the assets and font characters of a json composition separately from the rest of it.
+ * <p>
+ * Large animations keep most of their layers in precomps and text animations can have hundreds of glyphs. Each of
+ * those is independent of the others so the document is first split into the byte ranges of every asset and
+ * character with {@link JsonSpans}. Then:
+ * <ul>
+ *   <li>If there is an executor, they are parsed on it while the calling thread parses the top level layers. The
+ *   calling thread then helps with any ranges that no worker has claimed yet so parsing never waits on a busy
+ *   executor.</li>
+ *   <li>If precomps are lazy, their layers are skipped and their byte ranges are kept in the composition so that they
+ *   can be parsed the first time that they are used. See {@link LottieComposition#getPrecomps(String)}.</li>
+ * </ul>
+ * The results are merged in the order that they appear in the document so the composition is identical to one parsed
+ * sequentially.
+ */
+public class SplitCompositionParser {
+
+  private final byte[] json;
+  private final LottieComposition composition;
+  private final boolean lazyPrecomps;
+  /**
+   * [start, end) offsets of each asset followed by each character.
+   */
+  private final int[] spans;
+  private final int assetCount;
+  /**
+   * False if the document has no "assets" or "chars" array that {@link JsonSpans} could split. The composition parser
+   * then parses them inline like it would without this.
+   */
+  private final boolean parsesAssets;
+  private final boolean parsesCharacters;
+  private final Object[] results;
+  private final AtomicInteger nextSpan = new AtomicInteger();
+  private final CountDownLatch remaining;
+  private volatile Throwable error;
+
+  private SplitCompositionParser(byte[] json, LottieComposition composition, boolean lazyPrecomps,
+      @Nullable int[] assetSpans, @Nullable int[] characterSpans) {
+    this.json = json;
+    this.composition = composition;
+    this.lazyPrecomps = lazyPrecomps;
+    parsesAssets = assetSpans != null;
+    parsesCharacters = characterSpans != null;
+    if (assetSpans == null) {
+      assetSpans = new int[0];
+    }
+    if (characterSpans == null) {
+      characterSpans = new int[0];
+    }
+    assetCount = assetSpans.length / 2;
+    spans = new int[assetSpans.length + characterSpans.length];
+    System.arraycopy(assetSpans, 0, spans, 0, assetSpans.length);
+    System.arraycopy(characterSpans, 0, spans, assetSpans.length, characterSpans.length);
+    results = new Object[spans.length / 2];
+    remaining = new CountDownLatch(results.length);
+  }
+
+  public static LottieComposition parse(byte[] json, Executor executor, int parallelism) throws IOException {
+    return parse(json, executor, parallelism, false);
+  }
+
+  /**
+   * @param executor     if set, assets and characters are parsed on it in parallel.
+   * @param parallelism  the number of workers to start on the executor in addition to the calling thread.
+   * @param lazyPrecomps if true, precomp layers are parsed the first time they are used rather than now.
+   */
+  public static LottieComposition parse(byte[] json, @Nullable Executor executor, int parallelism,
+      boolean lazyPrecomps) throws IOException {
+    LottieComposition composition = new LottieComposition();
+    int[][] spans = JsonSpans.splitTopLevelArrays(json, "assets", "chars");
+    if (spans == null) {
+      return LottieCompositionMoshiParser.parse(reader(json, 0, json.length), null, composition, null);
+    }
+    SplitCompositionParser parser = new SplitCompositionParser(json, composition, lazyPrecomps, spans[0], spans[1]);
+    if (executor != null) {
+      int workers = Math.min(parallelism, parser.results.length);
+      for (int i = 0; i < workers; i++) {
+        executor.execute(parser::parseSpans);
+      }
+    }
+    return LottieCompositionMoshiParser.parse(reader(json, 0, json.length), null, composition, parser);
+  }
+
+  /**
+   * Returns true if the top level "assets" array is parsed by this rather than by the composition parser.
+   */
+  boolean parsesAssets() {
+    return parsesAssets;
+  }
+
+  /**
+   * Returns true if the top level "chars" array is parsed by this rather than by the composition parser.
+   */
+  boolean parsesCharacters() {
+    return parsesCharacters;
+  }
+
+  /**
+   * Waits for every asset and character to be parsed and adds them in document order.
+   */
+  void finish(Map<String, List<Layer>> precomps, Map<String, LottieImageAsset> images,
+      SparseArrayCompat<FontCharacter> characters) throws IOException {
+    parseSpans();
+    try {
+      remaining.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while parsing assets.", e);
+    }
+    Throwable error = this.error;
+    if (error instanceof IOException) {
+      throw (IOException) error;
+    } else if (error instanceof RuntimeException) {
+      throw (RuntimeException) error;
+    } else if (error != null) {
+      throw new IllegalStateException(error);
+    }
+
+    Map<String, LazyPrecomp> lazyPrecomps = null;
+    for (int i = 0; i < results.length; i++) {
+      if (i < assetCount) {
+        AssetResult asset = (AssetResult) results[i];
+        precomps.putAll(asset.precomps);
+        images.putAll(asset.images);
+        if (asset.lazyPrecompId != null) {
+          if (lazyPrecomps == null) {
+            lazyPrecomps = new HashMap<>();
+          }
+          lazyPrecomps.put(asset.lazyPrecompId, new LazyPrecomp(asset.lazyPrecompId, json, spans[i * 2], spans[i * 2 + 1]));
+        }
+      } else {
+        FontCharacter character = (FontCharacter) results[i];
+        characters.put(character.hashCode(), character);
+      }
+    }
+    if (lazyPrecomps != null) {
+      composition.setLazyPrecomps(lazyPrecomps, json.length);
+    }
+  }
+
+  private void parseSpans() {
+    int index;
+    while ((index = nextSpan.getAndIncrement()) < results.length) {
+      try {
+        if (error == null) {
+          results[index] = parseSpan(index);
+        }
+      } catch (Throwable e) {
+        error = e;
+      } finally {
+        remaining.countDown();
+      }
+    }
+  }
+
+  private Object parseSpan(int index) throws IOException {
+    JsonReader reader = reader(json, spans[index * 2], spans[index * 2 + 1]);
+    if (index < assetCount) {
+      AssetResult asset = new AssetResult();
+      asset.lazyPrecompId =
+          LottieCompositionMoshiParser.parseAsset(reader, composition, asset.precomps, asset.images, null, lazyPrecomps);
+      return asset;
+    }
+    return FontCharacterParser.parse(reader, composition);
+  }
+
+  private static JsonReader reader(byte[] json, int start, int end) {
+    return JsonReader.of(new Buffer().write(json, start, end - start));
+  }
+
+  private static class AssetResult {
+    final Map<String, List<Layer>> precomps = new HashMap<>(1);
+    final Map<String, LottieImageAsset> images = new HashMap<>(1);
+    @Nullable String lazyPrecompId;
+  }
+
+  /**
+   * The byte range of a precomp asset whose layers haven't been parsed yet.
+   */
+  public static class LazyPrecomp {
+    private final String id;
+    private final byte[] json;
+    private final int start;
+    private final int end;
+
+    LazyPrecomp(String id, byte[] json, int start, int end) {
+      this.id = id;
+      this.json = json;
+      this.start = start;
+      this.end = end;
+    }
+
+    public List<Layer> parse(LottieComposition composition) throws IOException {
+      Map<String, List<Layer>> precomps = new HashMap<>(1);
+      LottieCompositionMoshiParser.parseAsset(reader(json, start, end), composition, precomps, new HashMap<>(1), null,
+          false);
+      List<Layer> layers = precomps.get(id);
+      if (layers == null) {
+        throw new IOException("Unable to parse precomp " + id);
+      }
+      return layers;
+    }
+  }
+}
@@ -0,0 +1,344 @@
+package com.airbnb.lottie.parser.moshi;
+
+import java.io.IOException;
+
+import okio.BufferedSource;
+
+/**
+ * Reads the precompiled token stream produced by {@link JsonBinaryWriter}.
+ * <p>
+ * Names and strings are resolved from a table at the head of the document, numbers are stored
+ * in their binary form and every object and array is prefixed with its byte length so that
+ * {@link #skipValue()} never has to walk the skipped subtree.
+ */
+final class JsonBinaryReader extends JsonReader {
+
+  private static final int PEEKED_NONE = 0;
+  private static final int PEEKED_EOF = -1;
+
+  private final BufferedSource source;
+
+  private String[] strings;
+  private int peeked = PEEKED_NONE;
+  /**
+   * The string table index of a peeked name or string.
+   */
+  private int peekedIndex;
+  /**
+   * The value of a peeked integer.
+   */
+  private long peekedLong;
+  /**
+   * The value of a peeked float or double.
+   */
+  private double peekedDouble;
+  /**
+   * The number of bytes in a peeked object or array, including its end tag.
+   */
+  private long peekedLength;
+
+  JsonBinaryReader(BufferedSource source) {
+    if (source == null) {
+      throw new NullPointerException("source == null");
+    }
+    this.source = source;
+    pushScope(JsonScope.EMPTY_DOCUMENT);
+  }
+
+  @Override public void beginArray() throws IOException {
+    int p = peekTag();
+    if (p != JsonBinaryWriter.BEGIN_ARRAY) {
+      throw new JsonDataException("Expected BEGIN_ARRAY but was " + peek() + " at path " + getPath());
+    }
+    pushScope(JsonScope.EMPTY_ARRAY);
+    pathIndices[stackSize - 1] = 0;
+    peeked = PEEKED_NONE;
+  }
+
+  @Override public void endArray() throws IOException {
+    int p = peekTag();
+    if (p != JsonBinaryWriter.END_ARRAY) {
+      throw new JsonDataException("Expected END_ARRAY but was " + peek() + " at path " + getPath());
+    }
+    stackSize--;
+    pathIndices[stackSize - 1]++;
+    peeked = PEEKED_NONE;
+  }
+
+  @Override public void beginObject() throws IOException {
+    int p = peekTag();
+    if (p != JsonBinaryWriter.BEGIN_OBJECT) {
+      throw new JsonDataException("Expected BEGIN_OBJECT but was " + peek() + " at path " + getPath());
+    }
+    pushScope(JsonScope.EMPTY_OBJECT);
+    peeked = PEEKED_NONE;
+  }
+
+  @Override public void endObject() throws IOException {
+    int p = peekTag();
+    if (p != JsonBinaryWriter.END_OBJECT) {
+      throw new JsonDataException("Expected END_OBJECT but was " + peek() + " at path " + getPath());
+    }
+    stackSize--;
+    pathNames[stackSize] = null; // Free the last path name so that it can be garbage collected!
+    pathIndices[stackSize - 1]++;
+    peeked = PEEKED_NONE;
+  }
+
+  @Override public boolean hasNext() throws IOException {
+    int p = peekTag();
+    return p != JsonBinaryWriter.END_OBJECT && p != JsonBinaryWriter.END_ARRAY && p != PEEKED_EOF;
+  }
+
+  @Override public Token peek() throws IOException {
+    switch (peekTag()) {
+      case JsonBinaryWriter.BEGIN_OBJECT:
+        return Token.BEGIN_OBJECT;
+      case JsonBinaryWriter.END_OBJECT:
+        return Token.END_OBJECT;
+      case JsonBinaryWriter.BEGIN_ARRAY:
+        return Token.BEGIN_ARRAY;
+      case JsonBinaryWriter.END_ARRAY:
+        return Token.END_ARRAY;
+      case JsonBinaryWriter.NAME:
+        return Token.NAME;
+      case JsonBinaryWriter.STRING:
+        return Token.STRING;
+      case JsonBinaryWriter.INT:
+      case JsonBinaryWriter.FLOAT:
+      case JsonBinaryWriter.DOUBLE:
+        return Token.NUMBER;
+      case JsonBinaryWriter.TRUE:
+      case JsonBinaryWriter.FALSE:
+        return Token.BOOLEAN;
+      case JsonBinaryWriter.NULL:
+        return Token.NULL;
+      case PEEKED_EOF:
+        return Token.END_DOCUMENT;
+      default:
+        throw new AssertionError();
+    }
+  }
+
+  private int peekTag() throws IOException {
+    if (peeked != PEEKED_NONE) {
+      return peeked;
+    }
+    int peekStack = scopes[stackSize - 1];
+    if (peekStack == JsonScope.CLOSED) {
+      throw new IllegalStateException("JsonReader is closed");
+    } else if (peekStack == JsonScope.EMPTY_DOCUMENT) {
+      readHeader();
+      scopes[stackSize - 1] = JsonScope.NONEMPTY_DOCUMENT;
+    } else if (peekStack == JsonScope.NONEMPTY_DOCUMENT && source.exhausted()) {
+      return peeked = PEEKED_EOF;
+    }
+
+    int tag = source.readByte();
+    switch (tag) {
+      case JsonBinaryWriter.BEGIN_OBJECT:
+      case JsonBinaryWriter.BEGIN_ARRAY:
+        peekedLength = readVarint();
+        break;
+      case JsonBinaryWriter.NAME:
+      case JsonBinaryWriter.STRING:
+        peekedIndex = (int) readVarint();
+        if (peekedIndex < 0 || peekedIndex >= strings.length) {
+          throw syntaxError("Invalid string index " + peekedIndex);
+        }
+        break;
+      case JsonBinaryWriter.INT:
+        long zigZag = readVarint();
+        peekedLong = (zigZag >>> 1) ^ -(zigZag & 1);
+        break;
+      case JsonBinaryWriter.FLOAT:
+        peekedDouble = Float.intBitsToFloat(source.readInt());
+        break;
+      case JsonBinaryWriter.DOUBLE:
+        peekedDouble = Double.longBitsToDouble(source.readLong());
+        break;
+      case JsonBinaryWriter.END_OBJECT:
+      case JsonBinaryWriter.END_ARRAY:
+      case JsonBinaryWriter.TRUE:
+      case JsonBinaryWriter.FALSE:
+      case JsonBinaryWriter.NULL:
+        break;
+      default:
+        throw syntaxError("Unexpected tag " + tag);
+    }
+    return peeked = tag;
+  }
+
+  private void readHeader() throws IOException {
+    for (byte b : JsonBinaryWriter.MAGIC) {
+      if (source.readByte() != b) {
+        throw syntaxError("Not a binary Lottie document");
+      }
+    }
+    int version = source.readByte();
+    if (version != JsonBinaryWriter.VERSION) {
+      throw syntaxError("Unsupported binary Lottie version " + version);
+    }
+    int count = (int) readVarint();
+    strings = new String[count];
+    for (int i = 0; i < count; i++) {
+      strings[i] = source.readUtf8(readVarint());
+    }
+  }
+
+  private long readVarint() throws IOException {
+    long result = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      byte b = source.readByte();
+      result |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return result;
+      }
+    }
+    throw syntaxError("Malformed varint");
+  }
+
+  @Override public String nextName() throws IOException {
+    int p = peekTag();
+    if (p != JsonBinaryWriter.NAME) {
+      throw new JsonDataException("Expected a name but was " + peek() + " at path " + getPath());
+    }
+    String result = strings[peekedIndex];
+    peeked = PEEKED_NONE;
+    pathNames[stackSize - 1] = result;
+    return result;
+  }
+
+  @Override public int selectName(Options options) throws IOException {
+    int p = peekTag();
+    if (p != JsonBinaryWriter.NAME) {
+      return -1;
+    }
+    String name = strings[peekedIndex];
+    for (int i = 0, size = options.strings.length; i < size; i++) {
+      if (name.equals(options.strings[i])) {
+        peeked = PEEKED_NONE;
+        pathNames[stackSize - 1] = name;
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  @Override public void skipName() throws IOException {
+    if (failOnUnknown) {
+      throw new JsonDataException("Cannot skip unexpected " + peek() + " at " + getPath());
+    }
+    int p = peekTag();
+    if (p != JsonBinaryWriter.NAME) {
+      throw new JsonDataException("Expected a name but was " + peek() + " at path " + getPath());
+    }
+    peeked = PEEKED_NONE;
+    pathNames[stackSize - 1] = "null";
+  }
+
+  @Override public String nextString() throws IOException {
+    int p = peekTag();
+    String result;
+    if (p == JsonBinaryWriter.STRING) {
+      result = strings[peekedIndex];
+    } else if (p == JsonBinaryWriter.INT) {
+      result = Long.toString(peekedLong);
+    } else if (p == JsonBinaryWriter.FLOAT || p == JsonBinaryWriter.DOUBLE) {
+      result = Double.toString(peekedDouble);
+    } else {
+      throw new JsonDataException("Expected a string but was " + peek() + " at path " + getPath());
+    }
+    peeked = PEEKED_NONE;
+    pathIndices[stackSize - 1]++;
+    return result;
+  }
+
+  @Override public boolean nextBoolean() throws IOException {
+    int p = peekTag();
+    boolean result;
+    if (p == JsonBinaryWriter.TRUE) {
+      result = true;
+    } else if (p == JsonBinaryWriter.FALSE) {
+      result = false;
+    } else {
+      throw new JsonDataException("Expected a boolean but was " + peek() + " at path " + getPath());
+    }
+    peeked = PEEKED_NONE;
+    pathIndices[stackSize - 1]++;
+    return result;
+  }
+
+  @Override public double nextDouble() throws IOException {
+    int p = peekTag();
+    double result;
+    if (p == JsonBinaryWriter.INT) {
+      result = (double) peekedLong;
+    } else if (p == JsonBinaryWriter.FLOAT || p == JsonBinaryWriter.DOUBLE) {
+      result = peekedDouble;
+    } else if (p == JsonBinaryWriter.STRING) {
+      try {
+        result = Double.parseDouble(strings[peekedIndex]);
+      } catch (NumberFormatException e) {
+        throw new JsonDataException("Expected a double but was " + strings[peekedIndex] + " at path " + getPath());
+      }
+    } else {
+      throw new JsonDataException("Expected a double but was " + peek() + " at path " + getPath());
+    }
+    peeked = PEEKED_NONE;
+    pathIndices[stackSize - 1]++;
+    return result;
+  }
+
+  @Override public int nextInt() throws IOException {
+    int p = peekTag();
+    double asDouble;
+    if (p == JsonBinaryWriter.INT) {
+      asDouble = peekedLong;
+    } else if (p == JsonBinaryWriter.FLOAT || p == JsonBinaryWriter.DOUBLE) {
+      asDouble = peekedDouble;
+    } else if (p == JsonBinaryWriter.STRING) {
+      try {
+        asDouble = Double.parseDouble(strings[peekedIndex]);
+      } catch (NumberFormatException e) {
+        throw new JsonDataException("Expected an int but was " + strings[peekedIndex] + " at path " + getPath());
+      }
+    } else {
+      throw new JsonDataException("Expected an int but was " + peek() + " at path " + getPath());
+    }
+    int result = (int) asDouble;
+    if (result != asDouble) { // Make sure no precision was lost casting to 'int'.
+      throw new JsonDataException("Expected an int but was " + asDouble + " at path " + getPath());
+    }
+    peeked = PEEKED_NONE;
+    pathIndices[stackSize - 1]++;
+    return result;
+  }
+
+  @Override public void skipValue() throws IOException {
+    if (failOnUnknown) {
+      throw new JsonDataException("Cannot skip unexpected " + peek() + " at " + getPath());
+    }
+    int p = peekTag();
+    if (p == JsonBinaryWriter.BEGIN_OBJECT || p == JsonBinaryWriter.BEGIN_ARRAY) {
+      // The length prefix covers the whole subtree so there is no need to walk it.
+      source.skip(peekedLength);
+    } else if (p == JsonBinaryWriter.END_OBJECT || p == JsonBinaryWriter.END_ARRAY || p == PEEKED_EOF) {
+      throw new JsonDataException("Expected a value but was " + peek() + " at path " + getPath());
+    }
+    peeked = PEEKED_NONE;
+    pathIndices[stackSize - 1]++;
+    pathNames[stackSize - 1] = "null";
+  }
+
+  @Override public void close() throws IOException {
+    peeked = PEEKED_NONE;
+    scopes[0] = JsonScope.CLOSED;
+    stackSize = 1;
+    source.close();
+  }
+
+  @Override public String toString() {
+    return "JsonBinaryReader(" + source + ")";
+  }
+}
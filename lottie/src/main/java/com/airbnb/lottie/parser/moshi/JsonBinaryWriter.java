@@ -0,0 +1,151 @@
+package com.airbnb.lottie.parser.moshi;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.BufferedSource;
+import okio.ByteString;
+
+/**
+ * Converts a JSON document into the precompiled binary token stream read by {@link JsonBinaryReader}.
+ * <p>
+ * The layout is:
+ * <pre>
+ *   magic ("LTB") | version | string count | (utf8 length, utf8 bytes)* | value
+ * </pre>
+ * where a value is a one byte tag followed by its payload. Names and strings are indices into the
+ * string table, integers are zig-zag varints, fractional numbers are stored as a float when that is
+ * lossless and as a double otherwise, and objects and arrays are prefixed with their byte length.
+ */
+public final class JsonBinaryWriter {
+
+  static final byte[] MAGIC = new byte[]{'L', 'T', 'B'};
+  static final int VERSION = 1;
+
+  static final int BEGIN_OBJECT = 1;
+  static final int END_OBJECT = 2;
+  static final int BEGIN_ARRAY = 3;
+  static final int END_ARRAY = 4;
+  static final int NAME = 5;
+  static final int STRING = 6;
+  static final int INT = 7;
+  static final int FLOAT = 8;
+  static final int DOUBLE = 9;
+  static final int TRUE = 10;
+  static final int FALSE = 11;
+  static final int NULL = 12;
+
+  private final Map<String, Integer> strings = new LinkedHashMap<>();
+
+  private JsonBinaryWriter() {
+  }
+
+  /**
+   * Returns true if {@code source} starts with the binary document header. This does not consume any bytes.
+   */
+  public static boolean isBinary(BufferedSource source) throws IOException {
+    return source.rangeEquals(0, ByteString.of(MAGIC));
+  }
+
+  /**
+   * Reads the whole JSON document from {@code reader} and writes its binary form to {@code sink}.
+   */
+  public static void write(JsonReader reader, BufferedSink sink) throws IOException {
+    JsonBinaryWriter writer = new JsonBinaryWriter();
+    Buffer body = new Buffer();
+    writer.writeValue(reader, body);
+
+    sink.write(MAGIC);
+    sink.writeByte(VERSION);
+    writeVarint(sink, writer.strings.size());
+    Buffer utf8 = new Buffer();
+    for (String string : writer.strings.keySet()) {
+      utf8.writeUtf8(string);
+      writeVarint(sink, utf8.size());
+      sink.writeAll(utf8);
+    }
+    sink.writeAll(body);
+    sink.flush();
+  }
+
+  private void writeValue(JsonReader reader, Buffer out) throws IOException {
+    switch (reader.peek()) {
+      case BEGIN_OBJECT:
+        Buffer object = new Buffer();
+        reader.beginObject();
+        while (reader.hasNext()) {
+          object.writeByte(NAME);
+          writeVarint(object, indexOf(reader.nextName()));
+          writeValue(reader, object);
+        }
+        reader.endObject();
+        object.writeByte(END_OBJECT);
+        out.writeByte(BEGIN_OBJECT);
+        writeVarint(out, object.size());
+        out.writeAll(object);
+        break;
+      case BEGIN_ARRAY:
+        Buffer array = new Buffer();
+        reader.beginArray();
+        while (reader.hasNext()) {
+          writeValue(reader, array);
+        }
+        reader.endArray();
+        array.writeByte(END_ARRAY);
+        out.writeByte(BEGIN_ARRAY);
+        writeVarint(out, array.size());
+        out.writeAll(array);
+        break;
+      case STRING:
+        out.writeByte(STRING);
+        writeVarint(out, indexOf(reader.nextString()));
+        break;
+      case NUMBER:
+        writeNumber(reader.nextDouble(), out);
+        break;
+      case BOOLEAN:
+        out.writeByte(reader.nextBoolean() ? TRUE : FALSE);
+        break;
+      case NULL:
+        reader.skipValue();
+        out.writeByte(NULL);
+        break;
+      default:
+        throw new JsonDataException("Unexpected " + reader.peek() + " at path " + reader.getPath());
+    }
+  }
+
+  private static void writeNumber(double value, Buffer out) throws IOException {
+    long asLong = (long) value;
+    if (asLong == value && (asLong != 0 || 1 / value > 0)) {
+      out.writeByte(INT);
+      writeVarint(out, (asLong << 1) ^ (asLong >> 63));
+    } else if ((float) value == value) {
+      out.writeByte(FLOAT);
+      out.writeInt(Float.floatToIntBits((float) value));
+    } else {
+      out.writeByte(DOUBLE);
+      out.writeLong(Double.doubleToLongBits(value));
+    }
+  }
+
+  private int indexOf(String string) {
+    Integer index = strings.get(string);
+    if (index == null) {
+      index = strings.size();
+      strings.put(string, index);
+    }
+    return index;
+  }
+
+  private static void writeVarint(BufferedSink sink, long value) throws IOException {
+    while ((value & ~0x7FL) != 0) {
+      sink.writeByte((int) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    sink.writeByte((int) value);
+  }
+}
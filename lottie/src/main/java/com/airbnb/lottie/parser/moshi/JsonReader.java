@@ -224,6 +224,13 @@ public abstract class JsonReader implements Closeable {
     return new JsonUtf8Reader(source);
   }
 
+  /**
+   * Returns a new instance that reads a document precompiled by {@link JsonBinaryWriter} from {@code source}.
+   */
+  public static JsonReader ofBinary(BufferedSource source) {
+    return new JsonBinaryReader(source);
+  }
+
   // Package-private to control subclasses.
   JsonReader() {
     scopes = new int[32];
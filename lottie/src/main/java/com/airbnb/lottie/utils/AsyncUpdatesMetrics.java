@@ -0,0 +1,76 @@
+package com.airbnb.lottie.utils;
+
+import com.airbnb.lottie.LottieAsyncUpdatesStats;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process wide counters for the background progress updates used by {@link com.airbnb.lottie.AsyncUpdates}.
+ */
+public class AsyncUpdatesMetrics {
+
+  private static final AtomicInteger queueDepth = new AtomicInteger();
+  private static final AtomicLong scheduledCount = new AtomicLong();
+  private static final AtomicLong startedCount = new AtomicLong();
+  private static final AtomicLong completedCount = new AtomicLong();
+  private static final AtomicLong droppedCount = new AtomicLong();
+  private static final AtomicLong totalWaitTimeNanos = new AtomicLong();
+  private static final AtomicLong maxWaitTimeNanos = new AtomicLong();
+
+  private AsyncUpdatesMetrics() {
+  }
+
+  /**
+   * A progress update was handed to the executor.
+   */
+  public static void onScheduled() {
+    scheduledCount.incrementAndGet();
+    queueDepth.incrementAndGet();
+  }
+
+  /**
+   * A progress update was not scheduled because the drawable already had one pending or the executor rejected it.
+   */
+  public static void onDropped() {
+    droppedCount.incrementAndGet();
+  }
+
+  /**
+   * A scheduled progress update that will never run, such as one that the executor rejected.
+   */
+  public static void onUnscheduled() {
+    queueDepth.decrementAndGet();
+  }
+
+  /**
+   * A scheduled progress update started running after waiting in the queue for {@code waitTimeNanos}.
+   */
+  public static void onStarted(long waitTimeNanos) {
+    queueDepth.decrementAndGet();
+    startedCount.incrementAndGet();
+    totalWaitTimeNanos.addAndGet(waitTimeNanos);
+    long max;
+    do {
+      max = maxWaitTimeNanos.get();
+    } while (waitTimeNanos > max && !maxWaitTimeNanos.compareAndSet(max, waitTimeNanos));
+  }
+
+  public static void onCompleted() {
+    completedCount.incrementAndGet();
+  }
+
+  public static LottieAsyncUpdatesStats getStats() {
+    return new LottieAsyncUpdatesStats(queueDepth.get(), scheduledCount.get(), startedCount.get(), completedCount.get(),
+        droppedCount.get(), totalWaitTimeNanos.get(), maxWaitTimeNanos.get());
+  }
+
+  public static void reset() {
+    scheduledCount.set(0);
+    startedCount.set(0);
+    completedCount.set(0);
+    droppedCount.set(0);
+    totalWaitTimeNanos.set(0);
+    maxWaitTimeNanos.set(0);
+  }
+}
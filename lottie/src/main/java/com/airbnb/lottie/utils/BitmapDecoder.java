@@ -0,0 +1,115 @@
+package com.airbnb.lottie.utils;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.ImageDecoder;
+import android.os.Build;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.RequiresApi;
+import androidx.annotation.RestrictTo;
+
+import com.airbnb.lottie.model.LottieBitmapPool;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Decodes images at the size of their image asset rather than decoding them at full size and scaling them afterwards.
+ * <p>
+ * On Pie and above, {@link ImageDecoder} decodes directly to the target size and may allocate a
+ * {@link Bitmap.Config#HARDWARE} bitmap that only lives in graphics memory. On older versions, images are subsampled to
+ * the smallest power of two that is still at least as large as the target, decoded into a bitmap from
+ * {@link LottieBitmapPool} if one fits, and only then scaled to the exact size.
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY)
+public final class BitmapDecoder {
+
+  private BitmapDecoder() {
+  }
+
+  /**
+   * @param width          the width that the bitmap will be drawn at or 0 to decode it at its full size.
+   * @param height         the height that the bitmap will be drawn at or 0 to decode it at its full size.
+   * @param allowHardware  whether the bitmap may be a {@link Bitmap.Config#HARDWARE} bitmap. Those can only be drawn on
+   *                       hardware accelerated canvases.
+   * @return the bitmap or null if the data couldn't be decoded.
+   */
+  @Nullable
+  public static Bitmap decode(byte[] data, int width, int height, boolean allowHardware) throws IOException {
+    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.P) {
+      return decodeWithImageDecoder(data, width, height, allowHardware);
+    }
+    return decodeWithBitmapFactory(data, width, height);
+  }
+
+  @RequiresApi(api = Build.VERSION_CODES.P)
+  private static Bitmap decodeWithImageDecoder(byte[] data, int width, int height, boolean allowHardware) throws IOException {
+    ImageDecoder.Source source = ImageDecoder.createSource(ByteBuffer.wrap(data));
+    Bitmap bitmap = ImageDecoder.decodeBitmap(source, (decoder, info, s) -> {
+      if (width > 0 && height > 0) {
+        decoder.setTargetSize(width, height);
+      }
+      decoder.setAllocator(allowHardware ? ImageDecoder.ALLOCATOR_HARDWARE : ImageDecoder.ALLOCATOR_SOFTWARE);
+    });
+    // Match the density that BitmapFactory gives the bitmap with inDensity.
+    bitmap.setDensity(160);
+    return bitmap;
+  }
+
+  @Nullable
+  private static Bitmap decodeWithBitmapFactory(byte[] data, int width, int height) {
+    BitmapFactory.Options opts = new BitmapFactory.Options();
+    opts.inScaled = true;
+    opts.inDensity = 160;
+    // Mutable bitmaps can be given to the pool once they are no longer used.
+    opts.inMutable = true;
+    if (width > 0 && height > 0) {
+      opts.inJustDecodeBounds = true;
+      BitmapFactory.decodeByteArray(data, 0, data.length, opts);
+      opts.inJustDecodeBounds = false;
+      if (opts.outWidth > 0 && opts.outHeight > 0) {
+        opts.inSampleSize = calculateInSampleSize(opts.outWidth, opts.outHeight, width, height);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT) {
+          int sampledWidth = (opts.outWidth + opts.inSampleSize - 1) / opts.inSampleSize;
+          int sampledHeight = (opts.outHeight + opts.inSampleSize - 1) / opts.inSampleSize;
+          opts.inBitmap = LottieBitmapPool.getInstance().getReusable(sampledWidth * sampledHeight * 4);
+        }
+      }
+    }
+
+    Bitmap bitmap;
+    try {
+      bitmap = BitmapFactory.decodeByteArray(data, 0, data.length, opts);
+    } catch (IllegalArgumentException e) {
+      if (opts.inBitmap == null) {
+        throw e;
+      }
+      // The pooled bitmap couldn't be reused for this image.
+      LottieBitmapPool.getInstance().put(opts.inBitmap);
+      opts.inBitmap = null;
+      bitmap = BitmapFactory.decodeByteArray(data, 0, data.length, opts);
+    }
+    if (bitmap == null) {
+      LottieBitmapPool.getInstance().put(opts.inBitmap);
+      return null;
+    }
+
+    if (width > 0 && height > 0) {
+      // Subsampling only gets within a factor of two of the target size.
+      return Utils.resizeBitmapIfNeeded(bitmap, width, height);
+    }
+    return bitmap;
+  }
+
+  /**
+   * Returns the largest power of two that the image can be subsampled by without becoming smaller than the target size.
+   */
+  static int calculateInSampleSize(int imageWidth, int imageHeight, int width, int height) {
+    int inSampleSize = 1;
+    while (imageWidth / (inSampleSize * 2) >= width && imageHeight / (inSampleSize * 2) >= height) {
+      inSampleSize *= 2;
+    }
+    return inSampleSize;
+  }
+}
@@ -19,6 +19,7 @@ import androidx.annotation.Nullable;
 import androidx.core.graphics.BlendModeCompat;
 import androidx.core.graphics.PaintCompat;
 import com.airbnb.lottie.animation.LPaint;
+import com.airbnb.lottie.model.LottieBitmapPool;
 
 /**
  * An OffscreenLayer encapsulates a "child surface" onto which canvas draw calls can be issued.
@@ -115,6 +116,12 @@ public class OffscreenLayer {
 
   // For RenderStrategy.BITMAP:
   @Nullable private Bitmap bitmap;
+  /**
+   * Whether {@link #bitmap} and {@link #shadowBitmap} have been drawn on a hardware accelerated canvas. A display list may
+   * still reference them, so they aren't given to {@link LottieBitmapPool} once they are replaced.
+   */
+  private boolean bitmapDrawnToHardwareCanvas = false;
+  private boolean shadowBitmapDrawnToHardwareCanvas = false;
   @Nullable private Canvas bitmapCanvas;
   @Nullable private Rect bitmapSrcRect;
   @Nullable private LPaint clearPaint;
@@ -190,11 +197,16 @@ public class OffscreenLayer {
     // In certain cases the provided bounds can have a width or height of 0, which will cause a runtime crash
     // when we try to allocate a Bitmap. To guard against this, use a minimum size of 1x1.
     // See https://github.com/airbnb/lottie-android/issues/2620
-    return Bitmap.createBitmap(Math.max(width, 1), Math.max(height, 1), cfg);
+    return LottieBitmapPool.getInstance().get(Math.max(width, 1), Math.max(height, 1), cfg);
   }
 
-  private void deallocateBitmap(Bitmap bitmap) {
-    bitmap.recycle();
+  private void deallocateBitmap(Bitmap bitmap, boolean drawnToHardwareCanvas) {
+    if (drawnToHardwareCanvas) {
+      // A display list may still draw it. It is freed once that no longer references it.
+      return;
+    }
+    // Layers that grow or shrink hand their old bitmap to another layer instead of freeing it.
+    LottieBitmapPool.getInstance().put(bitmap);
   }
 
   private boolean needNewBitmap(@Nullable Bitmap bitmap, RectF bounds) {
@@ -273,9 +285,10 @@ public class OffscreenLayer {
 
         if (needNewBitmap(bitmap, scaledBounds)) {
           if (bitmap != null) {
-            deallocateBitmap(bitmap);
+            deallocateBitmap(bitmap, bitmapDrawnToHardwareCanvas);
           }
           bitmap = allocateBitmap(scaledBounds, Bitmap.Config.ARGB_8888);
+          bitmapDrawnToHardwareCanvas = false;
           bitmapCanvas = new Canvas(bitmap);
         } else {
           if (bitmapCanvas == null) {
@@ -376,6 +389,9 @@ public class OffscreenLayer {
         if (bitmapSrcRect == null) bitmapSrcRect = new Rect();
         bitmapSrcRect.set(0, 0, (int)(targetRect.width() * preExistingTransform[Matrix.MSCALE_X]), (int)(targetRect.height() * preExistingTransform[Matrix.MSCALE_Y]));
         parentCanvas.drawBitmap(bitmap, bitmapSrcRect, targetRect, composePaint);
+        if (parentCanvas.isHardwareAccelerated()) {
+          bitmapDrawnToHardwareCanvas = true;
+        }
         break;
 
       case RENDER_NODE:
@@ -445,13 +461,15 @@ public class OffscreenLayer {
     shadowBitmapSrcRect.set(0, 0, (int)Math.round(scaledRectIncludingShadow.width()), (int)Math.round(scaledRectIncludingShadow.height()));
     if (needNewBitmap(shadowBitmap, scaledRectIncludingShadow)) {
       if (shadowBitmap != null) {
-        deallocateBitmap(shadowBitmap);
+        deallocateBitmap(shadowBitmap, shadowBitmapDrawnToHardwareCanvas);
       }
       if (shadowMaskBitmap != null) {
-        deallocateBitmap(shadowMaskBitmap);
+        // The mask is only drawn onto shadowBitmap.
+        deallocateBitmap(shadowMaskBitmap, false);
       }
 
       shadowBitmap = allocateBitmap(scaledRectIncludingShadow, Bitmap.Config.ARGB_8888);
+      shadowBitmapDrawnToHardwareCanvas = false;
       shadowMaskBitmap = allocateBitmap(scaledRectIncludingShadow, Bitmap.Config.ALPHA_8);
       shadowBitmapCanvas = new Canvas(shadowBitmap);
       shadowMaskBitmapCanvas = new Canvas(shadowMaskBitmap);
@@ -506,6 +524,9 @@ public class OffscreenLayer {
     // directly onto the canvas with shadowPaint, but this breaks the blur, since Paint.setMaskFilter() is not
     // supported on hardware canvases.
     targetCanvas.drawBitmap(shadowBitmap, shadowBitmapSrcRect, intRectIncludingShadow, composePaint);
+    if (targetCanvas.isHardwareAccelerated()) {
+      shadowBitmapDrawnToHardwareCanvas = true;
+    }
   }
 
   /** Renders a shadow (only the shadow) of this.renderNode to the provided canvas. */
@@ -21,6 +21,7 @@ import com.airbnb.lottie.L;
 import com.airbnb.lottie.animation.LPaint;
 import com.airbnb.lottie.animation.content.TrimPathContent;
 import com.airbnb.lottie.animation.keyframe.FloatKeyframeAnimation;
+import com.airbnb.lottie.model.LottieBitmapPool;
 
 import java.io.Closeable;
 import java.io.InterruptedIOException;
@@ -140,15 +141,32 @@ public final class Utils {
   public static void applyTrimPathIfNeeded(
       Path path, float startValue, float endValue, float offsetValue) {
     if (L.isTraceEnabled()) {
-      L.beginSection("applyTrimPathIfNeeded");
+      L.beginSection("applyTrimPathIfNeeded#measure");
     }
     final PathMeasure pathMeasure = threadLocalPathMeasure.get();
+    pathMeasure.setPath(path, false);
+    float length = pathMeasure.getLength();
+    if (L.isTraceEnabled()) {
+      L.endSection("applyTrimPathIfNeeded#measure");
+    }
+    applyTrimPathIfNeeded(path, pathMeasure, length, startValue, endValue, offsetValue);
+  }
+
+  /**
+   * Trims the first contour of a path with a {@link PathMeasure} that has already measured it.
+   * This lets callers reuse the measurement of a path that doesn't change between frames.
+   *
+   * @param pathMeasure a measure that is set to a path with the same contents as {@code path}.
+   * @param length      the length of the first contour of the path.
+   */
+  public static void applyTrimPathIfNeeded(
+      Path path, PathMeasure pathMeasure, float length, float startValue, float endValue, float offsetValue) {
+    if (L.isTraceEnabled()) {
+      L.beginSection("applyTrimPathIfNeeded");
+    }
     final Path tempPath = threadLocalTempPath.get();
     final Path tempPath2 = threadLocalTempPath2.get();
 
-    pathMeasure.setPath(path, false);
-
-    float length = pathMeasure.getLength();
     if (startValue == 1f && endValue == 0f) {
       if (L.isTraceEnabled()) {
         L.endSection("applyTrimPathIfNeeded");
@@ -279,13 +297,14 @@ public final class Utils {
   /**
    * Resize the bitmap to exactly the same size as the specified dimension, changing the aspect ratio if needed.
    * Returns the original bitmap if the dimensions already match.
+   * The original bitmap is given to {@link LottieBitmapPool} if it was resized.
    */
   public static Bitmap resizeBitmapIfNeeded(@NonNull Bitmap bitmap, int width, int height) {
     if (bitmap.getWidth() == width && bitmap.getHeight() == height) {
       return bitmap;
     }
     Bitmap resizedBitmap = Bitmap.createScaledBitmap(bitmap, width, height, true);
-    bitmap.recycle();
+    LottieBitmapPool.getInstance().put(bitmap);
     return resizedBitmap;
   }
 
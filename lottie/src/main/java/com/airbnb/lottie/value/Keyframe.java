@@ -5,13 +5,11 @@ import android.view.animation.Interpolator;
 
 import androidx.annotation.FloatRange;
 import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
 
 import com.airbnb.lottie.LottieComposition;
 
 public class Keyframe<T> {
-  private static final float UNSET_FLOAT = -3987645.78543923f;
-  private static final int UNSET_INT = 784923401;
-
   @Nullable private final LottieComposition composition;
   @Nullable public final T startValue;
   @Nullable public T endValue;
@@ -21,12 +19,6 @@ public class Keyframe<T> {
   public final float startFrame;
   @Nullable public Float endFrame;
 
-  private float startValueFloat = UNSET_FLOAT;
-  private float endValueFloat = UNSET_FLOAT;
-
-  private int startValueInt = UNSET_INT;
-  private int endValueInt = UNSET_INT;
-
   private float startProgress = Float.MIN_VALUE;
   private float endProgress = Float.MIN_VALUE;
 
@@ -105,6 +97,12 @@ public class Keyframe<T> {
     return new Keyframe<T>(startValue, endValue);
   }
 
+  @RestrictTo(RestrictTo.Scope.LIBRARY)
+  @Nullable
+  public LottieComposition getComposition() {
+    return composition;
+  }
+
   public float getStartProgress() {
     if (composition == null) {
       return 0f;
@@ -144,40 +142,32 @@ public class Keyframe<T> {
    * Optimization to avoid autoboxing.
    */
   public float getStartValueFloat() {
-    if (startValueFloat == UNSET_FLOAT) {
-      startValueFloat = (float) (Float) startValue;
-    }
-    return startValueFloat;
+    //noinspection ConstantConditions
+    return (Float) startValue;
   }
 
   /**
    * Optimization to avoid autoboxing.
    */
   public float getEndValueFloat() {
-    if (endValueFloat == UNSET_FLOAT) {
-      endValueFloat = (float) (Float) endValue;
-    }
-    return endValueFloat;
+    //noinspection ConstantConditions
+    return (Float) endValue;
   }
 
   /**
    * Optimization to avoid autoboxing.
    */
   public int getStartValueInt() {
-    if (startValueInt == UNSET_INT) {
-      startValueInt = (int) (Integer) startValue;
-    }
-    return startValueInt;
+    //noinspection ConstantConditions
+    return (Integer) startValue;
   }
 
   /**
    * Optimization to avoid autoboxing.
    */
   public int getEndValueInt() {
-    if (endValueInt == UNSET_INT) {
-      endValueInt = (int) (Integer) endValue;
-    }
-    return endValueInt;
+    //noinspection ConstantConditions
+    return (Integer) endValue;
   }
 
   @Override public String toString() {
@@ -0,0 +1,252 @@
+package com.airbnb.lottie;
+
+import static okio.Okio.buffer;
+import static okio.Okio.source;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import android.graphics.Path;
+import android.graphics.PointF;
+import android.view.animation.Interpolator;
+
+import androidx.collection.SparseArrayCompat;
+
+import com.airbnb.lottie.model.KeyPath;
+import com.airbnb.lottie.model.layer.Layer;
+import com.airbnb.lottie.parser.moshi.JsonReader;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import okio.Buffer;
+
+public class LottieCompositionBinaryTest extends BaseTest {
+
+  @Test
+  public void testSquaresRoundTrip() throws IOException {
+    assertRoundTrip(Fixtures.SQUARES.getBytes());
+  }
+
+  @Test
+  public void testResourceRoundTrip() throws IOException {
+    InputStream stream = Objects.requireNonNull(getClass().getClassLoader()).getResourceAsStream("test1.json");
+    assertRoundTrip(buffer(source(stream)).readByteArray());
+  }
+
+  @Test
+  public void testTokensRoundTrip() throws IOException {
+    byte[] json = Fixtures.SQUARES.getBytes();
+    JsonReader jsonReader = JsonReader.of(buffer(source(new ByteArrayInputStream(json))));
+    JsonReader binaryReader = JsonReader.ofBinary(toBinary(json));
+    while (jsonReader.peek() != JsonReader.Token.END_DOCUMENT) {
+      JsonReader.Token token = jsonReader.peek();
+      assertEquals(token, binaryReader.peek());
+      switch (token) {
+        case BEGIN_OBJECT:
+          jsonReader.beginObject();
+          binaryReader.beginObject();
+          break;
+        case END_OBJECT:
+          jsonReader.endObject();
+          binaryReader.endObject();
+          break;
+        case BEGIN_ARRAY:
+          jsonReader.beginArray();
+          binaryReader.beginArray();
+          break;
+        case END_ARRAY:
+          jsonReader.endArray();
+          binaryReader.endArray();
+          break;
+        case NAME:
+          assertEquals(jsonReader.nextName(), binaryReader.nextName());
+          break;
+        case STRING:
+          assertEquals(jsonReader.nextString(), binaryReader.nextString());
+          break;
+        case NUMBER:
+          assertEquals(jsonReader.nextDouble(), binaryReader.nextDouble(), 0);
+          break;
+        case BOOLEAN:
+          assertEquals(jsonReader.nextBoolean(), binaryReader.nextBoolean());
+          break;
+        default:
+          jsonReader.skipValue();
+          binaryReader.skipValue();
+      }
+      assertEquals(jsonReader.getPath(), binaryReader.getPath());
+    }
+    assertEquals(JsonReader.Token.END_DOCUMENT, binaryReader.peek());
+  }
+
+  @Test
+  public void testInputStreamDetectsBinary() throws IOException {
+    byte[] binary = toBinary(Fixtures.SQUARES.getBytes()).readByteArray();
+    LottieResult<LottieComposition> result =
+        LottieCompositionFactory.fromInputStreamSync(null, new ByteArrayInputStream(binary), null);
+    assertNull(result.getException());
+    assertNotNull(result.getValue());
+  }
+
+  private static void assertRoundTrip(byte[] json) throws IOException {
+    LottieResult<LottieComposition> jsonResult = LottieCompositionFactory.fromJsonInputStreamSync(new ByteArrayInputStream(json), null);
+    LottieResult<LottieComposition> binaryResult = LottieCompositionFactory.fromBinarySourceSync(toBinary(json), null);
+    assertNull(binaryResult.getException());
+    LottieComposition expected = jsonResult.getValue();
+    LottieComposition actual = binaryResult.getValue();
+    assertNotNull(expected);
+    assertNotNull(actual);
+
+    assertEquals(expected.getBounds(), actual.getBounds());
+    assertEquals(expected.getStartFrame(), actual.getStartFrame(), 0);
+    assertEquals(expected.getEndFrame(), actual.getEndFrame(), 0);
+    assertEquals(expected.getFrameRate(), actual.getFrameRate(), 0);
+    assertEquals(expected.getMarkers().size(), actual.getMarkers().size());
+    assertEquals(expected.getLayers().size(), actual.getLayers().size());
+    for (int i = 0; i < expected.getLayers().size(); i++) {
+      Layer expectedLayer = expected.getLayers().get(i);
+      Layer actualLayer = actual.getLayers().get(i);
+      assertEquals(expectedLayer.getName(), actualLayer.getName());
+      assertEquals(expectedLayer.getId(), actualLayer.getId());
+      assertEquals(expectedLayer.getLayerType(), actualLayer.getLayerType());
+      assertEquals(expectedLayer.getRefId(), actualLayer.getRefId());
+    }
+    // Compare every model object, including keyframe values, interpolators, and shape vertices.
+    IdentityHashMap<Object, Object> visited = new IdentityHashMap<>();
+    assertDeepEquals("layers", expected.getLayers(), actual.getLayers(), visited);
+    for (Layer layer : expected.getLayers()) {
+      assertPrecompsDeepEqual(expected, actual, layer, visited);
+    }
+    assertDeepEquals("images", expected.getImages(), actual.getImages(), visited);
+    assertDeepEquals("fonts", expected.getFonts(), actual.getFonts(), visited);
+    assertDeepEquals("characters", expected.getCharacters(), actual.getCharacters(), visited);
+    assertDeepEquals("markers", expected.getMarkers(), actual.getMarkers(), visited);
+    assertEquals(resolveAll(expected), resolveAll(actual));
+  }
+
+  private static void assertPrecompsDeepEqual(LottieComposition expected, LottieComposition actual, Layer layer,
+      IdentityHashMap<Object, Object> visited) {
+    String refId = layer.getRefId();
+    if (layer.getLayerType() != Layer.LayerType.PRE_COMP || refId == null) {
+      return;
+    }
+    List<Layer> expectedPrecomps = expected.getPrecomps(refId);
+    if (visited.containsKey(expectedPrecomps)) {
+      return;
+    }
+    assertDeepEquals("precomps[" + refId + "]", expectedPrecomps, actual.getPrecomps(refId), visited);
+    if (expectedPrecomps != null) {
+      for (Layer precompLayer : expectedPrecomps) {
+        assertPrecompsDeepEqual(expected, actual, precompLayer, visited);
+      }
+    }
+  }
+
+  /**
+   * Compares two model object graphs field by field. The composition that objects point back to is skipped because
+   * it is compared separately and paths are skipped because they are built from the values that are compared.
+   */
+  private static void assertDeepEquals(String path, Object expected, Object actual, IdentityHashMap<Object, Object> visited) {
+    if (expected == null || actual == null) {
+      assertEquals(path, expected, actual);
+      return;
+    }
+    assertEquals(path, expected.getClass(), actual.getClass());
+    if (expected instanceof Float || expected instanceof Double) {
+      assertEquals(path, ((Number) expected).doubleValue(), ((Number) actual).doubleValue(), 1e-4);
+      return;
+    }
+    if (expected instanceof Number || expected instanceof String || expected instanceof Boolean ||
+        expected instanceof Character || expected instanceof Enum) {
+      assertEquals(path, expected, actual);
+      return;
+    }
+    if (expected instanceof LottieComposition || expected instanceof Path) {
+      return;
+    }
+    if (visited.put(expected, actual) != null) {
+      return;
+    }
+    if (expected instanceof PointF) {
+      assertEquals(path + ".x", ((PointF) expected).x, ((PointF) actual).x, 1e-4);
+      assertEquals(path + ".y", ((PointF) expected).y, ((PointF) actual).y, 1e-4);
+    } else if (expected instanceof Interpolator) {
+      for (float t = 0f; t <= 1f; t += 0.125f) {
+        assertEquals(path + "(" + t + ")", ((Interpolator) expected).getInterpolation(t),
+            ((Interpolator) actual).getInterpolation(t), 1e-4);
+      }
+    } else if (expected.getClass().isArray()) {
+      assertEquals(path + ".length", Array.getLength(expected), Array.getLength(actual));
+      for (int i = 0; i < Array.getLength(expected); i++) {
+        assertDeepEquals(path + "[" + i + "]", Array.get(expected, i), Array.get(actual, i), visited);
+      }
+    } else if (expected instanceof List) {
+      List<?> expectedList = (List<?>) expected;
+      List<?> actualList = (List<?>) actual;
+      assertEquals(path + ".size", expectedList.size(), actualList.size());
+      for (int i = 0; i < expectedList.size(); i++) {
+        assertDeepEquals(path + "[" + i + "]", expectedList.get(i), actualList.get(i), visited);
+      }
+    } else if (expected instanceof Map) {
+      Map<?, ?> expectedMap = (Map<?, ?>) expected;
+      Map<?, ?> actualMap = (Map<?, ?>) actual;
+      assertEquals(path + ".keys", expectedMap.keySet(), actualMap.keySet());
+      for (Map.Entry<?, ?> entry : expectedMap.entrySet()) {
+        assertDeepEquals(path + "[" + entry.getKey() + "]", entry.getValue(), actualMap.get(entry.getKey()), visited);
+      }
+    } else if (expected instanceof SparseArrayCompat) {
+      SparseArrayCompat<?> expectedArray = (SparseArrayCompat<?>) expected;
+      SparseArrayCompat<?> actualArray = (SparseArrayCompat<?>) actual;
+      assertEquals(path + ".size", expectedArray.size(), actualArray.size());
+      for (int i = 0; i < expectedArray.size(); i++) {
+        assertEquals(path + ".keyAt(" + i + ")", expectedArray.keyAt(i), actualArray.keyAt(i));
+        assertDeepEquals(path + "[" + expectedArray.keyAt(i) + "]", expectedArray.valueAt(i), actualArray.valueAt(i), visited);
+      }
+    } else if (expected.getClass().getName().startsWith("java.")) {
+      assertEquals(path, expected, actual);
+    } else {
+      for (Class<?> c = expected.getClass(); c != null && c != Object.class; c = c.getSuperclass()) {
+        for (Field field : c.getDeclaredFields()) {
+          if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic() || field.getName().startsWith("__robo")) {
+            continue;
+          }
+          field.setAccessible(true);
+          try {
+            assertDeepEquals(path + "." + field.getName(), field.get(expected), field.get(actual), visited);
+          } catch (IllegalAccessException e) {
+            fail(e.getMessage());
+          }
+        }
+      }
+    }
+  }
+
+  private static List<String> resolveAll(LottieComposition composition) {
+    LottieDrawable drawable = new LottieDrawable();
+    drawable.setComposition(composition);
+    List<String> keyPaths = new ArrayList<>();
+    for (KeyPath keyPath : drawable.resolveKeyPath(new KeyPath("**"))) {
+      keyPaths.add(keyPath.keysToString());
+    }
+    return keyPaths;
+  }
+
+  private static Buffer toBinary(byte[] json) throws IOException {
+    Buffer binary = new Buffer();
+    LottieCompositionFactory.writeBinarySync(source(new ByteArrayInputStream(json)), binary);
+    return binary;
+  }
+}
@@ -1,21 +1,36 @@
 package com.airbnb.lottie;
 
+import android.os.Build;
+import android.util.Base64;
+
 import com.airbnb.lottie.model.LottieCompositionCache;
+import com.airbnb.lottie.model.LottieImageCache;
 
 import com.airbnb.lottie.parser.moshi.JsonReader;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
 
+import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
+
+import javax.imageio.ImageIO;
 
 import static junit.framework.Assert.assertEquals;
 import static junit.framework.Assert.assertNotNull;
 import static junit.framework.Assert.assertNotSame;
 import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertTrue;
 import static okio.Okio.buffer;
 import static okio.Okio.source;
 import static org.junit.Assert.assertNotEquals;
@@ -34,6 +49,9 @@ public class LottieCompositionFactoryTest extends BaseTest {
 
     private static final String NOT_JSON = "not json";
 
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     @Before
     public void setup() {
         LottieCompositionCache.getInstance().clear();
@@ -138,11 +156,66 @@ public class LottieCompositionFactoryTest extends BaseTest {
         assertNotSame(taskFoo1, taskFoo2);
     }
 
+    @Test
+    public void testLoadFile() throws IOException {
+        File file = temporaryFolder.newFile("animation.json");
+        writeFile(file, JSON);
+        LottieResult<LottieComposition> result = LottieCompositionFactory.fromFileSync(null, file, "file");
+        assertNull(result.getException());
+        assertNotNull(result.getValue());
+    }
+
+    @Test
+    public void testLoadFileWithEmbeddedImage() throws IOException {
+        String base64 = Base64.encodeToString(new byte[]{1, 2, 3, 4, 5}, Base64.NO_WRAP);
+        String json = JSON.replace("\"assets\":[]",
+            "\"assets\":[{\"id\":\"image_0\",\"w\":10,\"h\":10,\"u\":\"\",\"p\":\"data:image/png;base64," + base64 + "\",\"e\":1}]");
+        File file = temporaryFolder.newFile("embedded.json");
+        writeFile(file, json);
+        LottieComposition composition = LottieCompositionFactory.fromFileSync(null, file, null).getValue();
+        assertNotNull(composition);
+        LottieImageAsset asset = composition.getImages().get("image_0");
+        assertEquals("data:image/png;base64,", asset.getFileName());
+        assertTrue(asset.hasBitmap());
+        assertTrue(Arrays.equals(new byte[]{1, 2, 3, 4, 5}, asset.decodeEmbeddedData()));
+    }
+
+    @Test
+    @Config(sdk = Build.VERSION_CODES.O_MR1)
+    public void testPreloadedImagesAreCachedRatherThanSetOnTheComposition() throws IOException {
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB), "png", png);
+        String base64 = Base64.encodeToString(png.toByteArray(), Base64.NO_WRAP);
+        String json = JSON.replace("\"assets\":[]",
+            "\"assets\":[{\"id\":\"image_0\",\"w\":10,\"h\":10,\"u\":\"\",\"p\":\"data:image/png;base64," + base64 + "\",\"e\":1}]");
+        LottieComposition composition = LottieCompositionFactory.fromJsonStringSync(json, null).getValue();
+        assertNotNull(composition);
+        int estimatedSizeInBytes = composition.getEstimatedSizeInBytes();
+
+        LottieCompositionFactory.preloadAssetsSync(RuntimeEnvironment.getApplication(), composition, null, null, ".ttf");
+
+        LottieImageAsset asset = composition.getImages().get("image_0");
+        assertNull(asset.getBitmap());
+        assertEquals(estimatedSizeInBytes, composition.getEstimatedSizeInBytes());
+        Object owner = new Object();
+        LottieImageCache.Entry entry = LottieImageCache.getInstance()
+            .acquire(owner, composition.getImages(), "image_0", asset.getWidth(), asset.getHeight(), false);
+        assertNotNull(entry);
+        assertEquals(10, entry.getBitmap().getWidth());
+        LottieImageCache.getInstance().release(owner, entry);
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testCannotSetCacheSizeToZero() {
         LottieCompositionFactory.setMaxCacheSize(0);
     }
 
+    private static void writeFile(File file, String contents) throws IOException {
+        try (FileOutputStream stream = new FileOutputStream(file)) {
+            stream.write(contents.getBytes());
+        }
+    }
+
     private static InputStream getNeverCompletingInputStream() {
         return new InputStream() {
             @Override public int read() throws IOException {
@@ -1,24 +1,42 @@
 package com.airbnb.lottie;
 
 import android.animation.Animator;
+import android.graphics.Canvas;
 import android.graphics.Rect;
+import android.graphics.RenderNode;
+import android.os.Build;
 import androidx.collection.LongSparseArray;
 import androidx.collection.SparseArrayCompat;
 import com.airbnb.lottie.configurations.reducemotion.ReducedMotionMode;
+import com.airbnb.lottie.parser.SplitCompositionParser;
 
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.GraphicsMode;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
 import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertSame;
+import static junit.framework.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 public class LottieDrawableTest extends BaseTest {
 
@@ -29,6 +47,11 @@ public class LottieDrawableTest extends BaseTest {
     MockitoAnnotations.initMocks(this);
   }
 
+  @After
+  public void tearDown() {
+    L.setAsyncUpdatesExecutor(null);
+  }
+
   @SuppressWarnings("SameParameterValue")
   private LottieComposition createComposition(int startFrame, int endFrame) {
     LottieComposition composition = new LottieComposition();
@@ -125,6 +148,135 @@ public class LottieDrawableTest extends BaseTest {
     verify(animatorListener, atLeastOnce()).onAnimationEnd(any(Animator.class), eq(false));
   }
 
+  @Test
+  public void testQueuedProgressUpdatesAreCoalesced() {
+    List<Runnable> queue = new ArrayList<>();
+    L.setAsyncUpdatesExecutor(queue::add);
+    LottieDrawable drawable = new LottieDrawable();
+    drawable.setAsyncUpdates(AsyncUpdates.ENABLED);
+    drawable.setComposition(createComposition(31, 391));
+    LottieAsyncUpdatesStats before = Lottie.getAsyncUpdatesStats();
+
+    drawable.scheduleProgressUpdate();
+    drawable.scheduleProgressUpdate();
+    assertEquals(1, queue.size());
+    LottieAsyncUpdatesStats stats = Lottie.getAsyncUpdatesStats();
+    assertEquals(1, stats.getScheduledCount() - before.getScheduledCount());
+    assertEquals(1, stats.getDroppedCount() - before.getDroppedCount());
+    assertEquals(1, stats.getQueueDepth() - before.getQueueDepth());
+    assertEquals(0, stats.getStartedCount() - before.getStartedCount());
+
+    queue.get(0).run();
+    stats = Lottie.getAsyncUpdatesStats();
+    assertEquals(1, stats.getStartedCount() - before.getStartedCount());
+    assertEquals(1, stats.getCompletedCount() - before.getCompletedCount());
+    assertEquals(0, stats.getQueueDepth() - before.getQueueDepth());
+
+    // Once the queued update has started, the next one is scheduled again.
+    drawable.scheduleProgressUpdate();
+    assertEquals(2, queue.size());
+    queue.get(1).run();
+  }
+
+  @Test
+  public void testRejectedProgressUpdatesAreDropped() {
+    L.setAsyncUpdatesExecutor(command -> {
+      throw new RejectedExecutionException();
+    });
+    LottieDrawable drawable = new LottieDrawable();
+    drawable.setAsyncUpdates(AsyncUpdates.ENABLED);
+    drawable.setComposition(createComposition(31, 391));
+    LottieAsyncUpdatesStats before = Lottie.getAsyncUpdatesStats();
+
+    drawable.scheduleProgressUpdate();
+    drawable.scheduleProgressUpdate();
+    LottieAsyncUpdatesStats stats = Lottie.getAsyncUpdatesStats();
+    // Rejected updates don't stay pending so both were handed to the executor.
+    assertEquals(2, stats.getScheduledCount() - before.getScheduledCount());
+    assertEquals(2, stats.getDroppedCount() - before.getDroppedCount());
+    assertEquals(0, stats.getQueueDepth() - before.getQueueDepth());
+  }
+
+  @Test
+  public void testRenderModeIsComputedAgainWhenTheCompositionFinishesLoading() {
+    LottieComposition composition = createComposition(31, 391);
+    LottieDrawable drawable = new LottieDrawable();
+    drawable.setComposition(composition);
+    assertEquals(RenderMode.HARDWARE, drawable.getRenderMode());
+
+    // Precomps that are parsed after a partial result was set can add masks and mattes.
+    composition.incrementMatteOrMaskCount(5);
+    drawable.onCompositionLoaded();
+    assertEquals(RenderMode.SOFTWARE, drawable.getRenderMode());
+  }
+
+  @Test
+  @Config(sdk = Build.VERSION_CODES.O_MR1)
+  public void testRenderModeIsComputedAgainWhenALazyPrecompHasADashPattern() throws IOException {
+    String stroke = "{\"ty\":\"st\",\"c\":{\"a\":0,\"k\":[1,0,0,1]},\"o\":{\"a\":0,\"k\":100},\"w\":{\"a\":0,\"k\":2}," +
+        "\"lc\":1,\"lj\":1,\"ml\":4,\"d\":[{\"n\":\"d\",\"nm\":\"dash\",\"v\":{\"a\":0,\"k\":5}}],\"nm\":\"stroke\"}";
+    String rect = "{\"ty\":\"rc\",\"d\":1,\"s\":{\"a\":0,\"k\":[10,10]},\"p\":{\"a\":0,\"k\":[5,5]},\"r\":{\"a\":0,\"k\":0}," +
+        "\"nm\":\"rect\"}";
+    String json = "{\"v\":\"5.7.4\",\"fr\":30,\"ip\":0,\"op\":60,\"w\":100,\"h\":100," +
+        "\"assets\":[{\"id\":\"comp_0\",\"layers\":[{\"ty\":4,\"nm\":\"dashed\",\"ind\":1,\"ks\":{},\"ip\":0,\"op\":60," +
+        "\"st\":0,\"shapes\":[" + rect + "," + stroke + "]}]}]," +
+        // The precomp starts halfway through so it isn't parsed when the composition is set.
+        "\"layers\":[{\"ty\":0,\"nm\":\"precomp\",\"refId\":\"comp_0\",\"ind\":1,\"ks\":{},\"w\":100,\"h\":100," +
+        "\"ip\":30,\"op\":60,\"st\":0}]}";
+    LottieComposition composition = SplitCompositionParser.parse(json.getBytes(StandardCharsets.UTF_8), null, 0, true);
+    LottieDrawable drawable = new LottieDrawable();
+    drawable.setComposition(composition);
+    assertFalse(composition.isPrecompParsed("comp_0"));
+    assertEquals(RenderMode.HARDWARE, drawable.getRenderMode());
+
+    drawable.setProgress(1f);
+
+    assertTrue(composition.isPrecompParsed("comp_0"));
+    assertEquals(RenderMode.SOFTWARE, drawable.getRenderMode());
+  }
+
+  @Test
+  @Config(sdk = Build.VERSION_CODES.Q)
+  @GraphicsMode(GraphicsMode.Mode.NATIVE)
+  public void testDisplayListIsOnlyRecordedAgainWhenTheDrawableChanged() {
+    LottieComposition composition = new LottieComposition();
+    composition.init(new Rect(0, 0, 100, 100), 0, 100, 60, new ArrayList<>(),
+        new LongSparseArray<>(0), new HashMap<>(0),
+        new HashMap<>(0), 1f, new SparseArrayCompat<>(0),
+        new HashMap<>(0), new ArrayList<>(), 0, 0);
+    LottieDrawable drawable = new LottieDrawable();
+    drawable.setComposition(composition);
+    drawable.setBounds(0, 0, 100, 100);
+    drawable.setDisplayListCachingEnabled(true);
+    drawable.setPerformanceTrackingEnabled(true);
+    // The root composition layer reports one frame each time it is recorded.
+    int[] recordings = new int[1];
+    composition.getPerformanceTracker().addFrameListener(renderTimeMs -> recordings[0]++);
+    Canvas canvas = mock(Canvas.class);
+    when(canvas.isHardwareAccelerated()).thenReturn(true);
+
+    drawable.draw(canvas);
+    drawable.draw(canvas);
+    assertEquals(1, recordings[0]);
+    ArgumentCaptor<RenderNode> renderNodes = ArgumentCaptor.forClass(RenderNode.class);
+    verify(canvas, times(2)).drawRenderNode(renderNodes.capture());
+    assertSame(renderNodes.getAllValues().get(0), renderNodes.getAllValues().get(1));
+
+    drawable.invalidateSelf();
+    drawable.draw(canvas);
+    assertEquals(2, recordings[0]);
+
+    drawable.setProgress(0.5f);
+    drawable.draw(canvas);
+    drawable.draw(canvas);
+    assertEquals(3, recordings[0]);
+
+    drawable.setAlpha(128);
+    drawable.draw(canvas);
+    assertEquals(4, recordings[0]);
+    verify(canvas, times(6)).drawRenderNode(renderNodes.getAllValues().get(0));
+  }
+
   private void disableSystemAnimation() {
     Lottie.initialize(new LottieConfig.Builder().setReducedMotionOption(
         context -> ReducedMotionMode.REDUCED_MOTION
@@ -9,16 +9,22 @@ import org.mockito.junit.MockitoRule;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
+import static org.robolectric.Shadows.shadowOf;
 
 import android.os.Looper;
 
@@ -28,6 +34,10 @@ public class LottieTaskTest extends BaseTest {
   public LottieListener<Integer> successListener;
   @Mock
   public LottieListener<Throwable> failureListener;
+  @Mock
+  public LottieListener<Integer> partialListener;
+  @Mock
+  public LottieListener<Integer> thenAction;
 
   @Rule
   public MockitoRule rule = MockitoJUnit.rule();
@@ -86,6 +96,108 @@ public class LottieTaskTest extends BaseTest {
     verifyNoInteractions(failureListener);
   }
 
+  @Test
+  public void testPartialListener() throws InterruptedException {
+    CountDownLatch start = new CountDownLatch(1);
+    CountDownLatch partialPublished = new CountDownLatch(1);
+    CountDownLatch finish = new CountDownLatch(1);
+    LottieTask.ProgressiveCallable<Integer> callable = onPartialResult -> {
+      start.await();
+      onPartialResult.onResult(4);
+      partialPublished.countDown();
+      finish.await();
+      return new LottieResult<>(5);
+    };
+    // Run the task on a thread that can be joined so that the test knows when the final result has been posted.
+    Thread[] worker = new Thread[1];
+    Executor executor = LottieTask.EXECUTOR;
+    LottieTask.EXECUTOR = runnable -> {
+      worker[0] = new Thread(runnable);
+      worker[0].start();
+    };
+    try {
+      new LottieTask<>(uiLooper, callable)
+          .addPartialListener(partialListener)
+          .addListener(successListener);
+    } finally {
+      LottieTask.EXECUTOR = executor;
+    }
+    start.countDown();
+    assertTrue(partialPublished.await(5, TimeUnit.SECONDS));
+    shadowOf(uiLooper).idle();
+    verify(partialListener, times(1)).onResult(4);
+    verifyNoInteractions(successListener);
+
+    finish.countDown();
+    worker[0].join(5000);
+    assertFalse(worker[0].isAlive());
+    shadowOf(uiLooper).idle();
+    verify(successListener, times(1)).onResult(5);
+    verify(partialListener, times(1)).onResult(4);
+  }
+
+  @Test
+  public void testThenRunsTheActionBeforeCompleting() {
+    List<Runnable> queued = new ArrayList<>();
+    Executor executor = LottieTask.EXECUTOR;
+    LottieTask.EXECUTOR = queued::add;
+    try {
+      new LottieTask<>(uiLooper, () -> new LottieResult<>(5))
+          .then(thenAction)
+          .addListener(successListener);
+      // Nothing waits for the first task while it runs.
+      assertEquals(1, queued.size());
+
+      queued.remove(0).run();
+      shadowOf(uiLooper).idle();
+      verifyNoInteractions(thenAction);
+      verifyNoInteractions(successListener);
+      assertEquals(1, queued.size());
+
+      queued.remove(0).run();
+      shadowOf(uiLooper).idle();
+      verify(thenAction, times(1)).onResult(5);
+      verify(successListener, times(1)).onResult(5);
+    } finally {
+      LottieTask.EXECUTOR = executor;
+    }
+  }
+
+  @Test
+  public void testThenRunsTheActionOnceForACompletedTask() {
+    List<Runnable> queued = new ArrayList<>();
+    Executor executor = LottieTask.EXECUTOR;
+    LottieTask.EXECUTOR = queued::add;
+    try {
+      new LottieTask<>(uiLooper, () -> new LottieResult<>(5), true)
+          .then(thenAction)
+          .addListener(successListener);
+      assertEquals(1, queued.size());
+
+      queued.remove(0).run();
+      shadowOf(uiLooper).idle();
+      verify(thenAction, times(1)).onResult(5);
+      verify(successListener, times(1)).onResult(5);
+      assertTrue(queued.isEmpty());
+    } finally {
+      LottieTask.EXECUTOR = executor;
+    }
+  }
+
+  @Test
+  public void testThenForwardsFailures() {
+    final IllegalStateException exception = new IllegalStateException("foo");
+    new LottieTask<>(uiLooper, (Callable<LottieResult<Integer>>) () -> {
+      throw exception;
+    }, true)
+        .then(thenAction)
+        .addListener(successListener)
+        .addFailureListener(failureListener);
+    verifyNoInteractions(thenAction);
+    verifyNoInteractions(successListener);
+    verify(failureListener, times(1)).onResult(exception);
+  }
+
   @Test
   public void executorIsRealThreadPoolByDefault() {
     AtomicBoolean isDirect = new AtomicBoolean();
@@ -0,0 +1,114 @@
+package com.airbnb.lottie.animation.keyframe;
+
+import android.graphics.Rect;
+import android.view.animation.LinearInterpolator;
+
+import androidx.collection.LongSparseArray;
+import androidx.collection.SparseArrayCompat;
+
+import com.airbnb.lottie.BaseTest;
+import com.airbnb.lottie.LottieComposition;
+import com.airbnb.lottie.value.Keyframe;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class KeyframeLookupTest extends BaseTest {
+
+  static final int KEYFRAME_COUNT = 5000;
+
+  private FloatKeyframeAnimation animation;
+
+  @Before
+  public void setup() {
+    animation = createAnimation(KEYFRAME_COUNT);
+  }
+
+  @Test
+  public void testSequential() {
+    for (float frame = 0; frame < KEYFRAME_COUNT; frame += 0.25f) {
+      assertFrame(frame);
+    }
+  }
+
+  @Test
+  public void testReverse() {
+    for (float frame = KEYFRAME_COUNT - 1; frame >= 0; frame -= 0.25f) {
+      assertFrame(frame);
+    }
+  }
+
+  @Test
+  public void testRandomSeeks() {
+    Random random = new Random(0);
+    for (int i = 0; i < 10_000; i++) {
+      assertFrame(random.nextInt(KEYFRAME_COUNT * 4) / 4f);
+    }
+  }
+
+  @Test
+  public void testGap() {
+    List<Keyframe<Float>> keyframes = new ArrayList<>();
+    LottieComposition composition = createComposition(30);
+    keyframes.add(new Keyframe<>(composition, 0f, 10f, new LinearInterpolator(), 0f, 10f));
+    keyframes.add(new Keyframe<>(composition, 10f, 20f, new LinearInterpolator(), 10f, 15f));
+    keyframes.add(new Keyframe<>(composition, 100f, 200f, new LinearInterpolator(), 20f, 30f));
+    FloatKeyframeAnimation animation = new FloatKeyframeAnimation(keyframes, ScalarKeyframes.ofFloats(keyframes));
+
+    animation.setProgress(17f / 30f);
+    assertEquals(0, animation.getCurrentKeyframeIndex());
+    animation.setProgress(25f / 30f);
+    assertEquals(2, animation.getCurrentKeyframeIndex());
+    assertEquals(150f, animation.getFloatValue(), 0.001f);
+  }
+
+  @Test
+  public void testPackedKeyframesAreOnlyCreatedOnce() {
+    List<Keyframe<Float>> keyframes = new ArrayList<>();
+    LottieComposition composition = createComposition(30);
+    keyframes.add(new Keyframe<>(composition, 0f, 10f, new LinearInterpolator(), 0f, 10f));
+    keyframes.add(new Keyframe<>(composition, 10f, 20f, null, 10f, null));
+    //noinspection ConstantConditions
+    List<Keyframe<Float>> packedKeyframes = ScalarKeyframes.ofFloats(keyframes).asFloatKeyframes();
+
+    Keyframe<Float> keyframe = packedKeyframes.get(1);
+    assertSame(keyframe, packedKeyframes.get(1));
+    assertEquals(10f, keyframe.startValue, 0f);
+    assertNull(keyframe.endFrame);
+    assertEquals(0f, packedKeyframes.get(0).startFrame, 0f);
+  }
+
+  private void assertFrame(float frame) {
+    animation.setProgress(frame / KEYFRAME_COUNT);
+    assertEquals(frame, animation.getFloatValue(), 0.01f);
+  }
+
+  /**
+   * Creates an animation with one linear keyframe per frame whose value is the frame.
+   */
+  static FloatKeyframeAnimation createAnimation(int keyframeCount) {
+    LottieComposition composition = createComposition(keyframeCount);
+    LinearInterpolator interpolator = new LinearInterpolator();
+    List<Keyframe<Float>> keyframes = new ArrayList<>(keyframeCount);
+    for (int i = 0; i < keyframeCount; i++) {
+      keyframes.add(new Keyframe<>(composition, (float) i, i + 1f, interpolator, i, i + 1f));
+    }
+    return new FloatKeyframeAnimation(keyframes, ScalarKeyframes.ofFloats(keyframes));
+  }
+
+  private static LottieComposition createComposition(int durationFrames) {
+    LottieComposition composition = new LottieComposition();
+    composition.init(new Rect(), 0f, durationFrames, 60f, new ArrayList<>(), new LongSparseArray<>(), new HashMap<>(),
+        new HashMap<>(), 1f, new SparseArrayCompat<>(), new HashMap<>(), new ArrayList<>(), 0, 0);
+    return composition;
+  }
+}
@@ -0,0 +1,131 @@
+package com.airbnb.lottie.animation.keyframe;
+
+import android.graphics.PointF;
+import android.graphics.Rect;
+import android.view.animation.LinearInterpolator;
+
+import androidx.collection.LongSparseArray;
+import androidx.collection.SparseArrayCompat;
+
+import com.airbnb.lottie.BaseTest;
+import com.airbnb.lottie.LottieComposition;
+import com.airbnb.lottie.animation.content.Content;
+import com.airbnb.lottie.animation.content.ShapeModifierContent;
+import com.airbnb.lottie.model.CubicCurveData;
+import com.airbnb.lottie.model.content.ShapeData;
+import com.airbnb.lottie.value.Keyframe;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class ShapeKeyframeAnimationTest extends BaseTest {
+
+  @Test
+  public void testStaticShapeIsOnlyModifiedOnce() {
+    CountingShapeModifier modifier = new CountingShapeModifier();
+    ShapeKeyframeAnimation animation = createStaticAnimation(modifier);
+
+    animation.getValue();
+    animation.getValue();
+    animation.setProgress(0.5f);
+    animation.getValue();
+
+    assertEquals(1, modifier.modifyCount);
+  }
+
+  @Test
+  public void testShapeIsModifiedAgainWhenTheModifierChanges() {
+    CountingShapeModifier modifier = new CountingShapeModifier();
+    ShapeKeyframeAnimation animation = createStaticAnimation(modifier);
+    animation.getValue();
+
+    modifier.notifyListeners();
+    animation.getValue();
+    animation.getValue();
+
+    assertEquals(2, modifier.modifyCount);
+  }
+
+  @Test
+  public void testSharedModifierRebuildsEveryShape() {
+    CountingShapeModifier modifier = new CountingShapeModifier();
+    ShapeKeyframeAnimation first = createStaticAnimation(modifier);
+    ShapeKeyframeAnimation second = createStaticAnimation(modifier);
+    first.getValue();
+    second.getValue();
+    assertEquals(2, modifier.modifyCount);
+
+    modifier.notifyListeners();
+    first.getValue();
+    first.getValue();
+    second.getValue();
+
+    assertEquals(4, modifier.modifyCount);
+  }
+
+  @Test
+  public void testAnimatedShapeIsModifiedWhenTheProgressChanges() {
+    LottieComposition composition = new LottieComposition();
+    composition.init(new Rect(), 0f, 10f, 60f, new ArrayList<>(), new LongSparseArray<>(), new HashMap<>(),
+        new HashMap<>(), 1f, new SparseArrayCompat<>(), new HashMap<>(), new ArrayList<>(), 0, 0);
+    List<Keyframe<ShapeData>> keyframes = Collections.singletonList(
+        new Keyframe<>(composition, createShape(0f), createShape(10f), new LinearInterpolator(), 0f, 10f));
+    CountingShapeModifier modifier = new CountingShapeModifier();
+    ShapeKeyframeAnimation animation = new ShapeKeyframeAnimation(keyframes);
+    animation.setShapeModifiers(Collections.singletonList(modifier));
+
+    animation.setProgress(0.25f);
+    animation.getValue();
+    animation.getValue();
+    animation.setProgress(0.5f);
+    animation.getValue();
+
+    assertEquals(2, modifier.modifyCount);
+  }
+
+  private static ShapeKeyframeAnimation createStaticAnimation(ShapeModifierContent modifier) {
+    ShapeKeyframeAnimation animation = new ShapeKeyframeAnimation(Collections.singletonList(new Keyframe<>(createShape(0f))));
+    animation.setShapeModifiers(Collections.singletonList(modifier));
+    return animation;
+  }
+
+  private static ShapeData createShape(float x) {
+    List<CubicCurveData> curves = new ArrayList<>();
+    curves.add(new CubicCurveData(new PointF(x, 0f), new PointF(x, 10f), new PointF(x, 10f)));
+    return new ShapeData(new PointF(x, 0f), false, curves);
+  }
+
+  private static class CountingShapeModifier implements ShapeModifierContent {
+
+    private final List<BaseKeyframeAnimation.AnimationListener> listeners = new ArrayList<>();
+    int modifyCount;
+
+    @Override public void addUpdateListener(BaseKeyframeAnimation.AnimationListener listener) {
+      listeners.add(listener);
+    }
+
+    @Override public ShapeData modifyShape(ShapeData shapeData) {
+      modifyCount++;
+      return shapeData;
+    }
+
+    void notifyListeners() {
+      for (BaseKeyframeAnimation.AnimationListener listener : listeners) {
+        listener.onValueChanged();
+      }
+    }
+
+    @Override public String getName() {
+      return "modifier";
+    }
+
+    @Override public void setContents(List<Content> contentsBefore, List<Content> contentsAfter) {
+    }
+  }
+}
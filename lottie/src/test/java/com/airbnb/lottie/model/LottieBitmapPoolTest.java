@@ -0,0 +1,75 @@
+package com.airbnb.lottie.model;
+
+import android.content.ComponentCallbacks2;
+import android.graphics.Bitmap;
+
+import com.airbnb.lottie.BaseTest;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class LottieBitmapPoolTest extends BaseTest {
+
+  /**
+   * A 10x10 ARGB_8888 bitmap.
+   */
+  private static final int BITMAP_SIZE = 10 * 10 * 4;
+
+  private LottieBitmapPool pool;
+
+  @Before
+  public void setup() {
+    pool = new LottieBitmapPool();
+    pool.resize(BITMAP_SIZE * 2);
+  }
+
+  @Test
+  public void testSmallestBitmapThatFitsIsReused() {
+    Bitmap large = Bitmap.createBitmap(10, 10, Bitmap.Config.ARGB_8888);
+    Bitmap small = Bitmap.createBitmap(5, 5, Bitmap.Config.ARGB_8888);
+    pool.put(large);
+    pool.put(small);
+
+    assertSame(small, pool.getReusable(4 * 4 * 4));
+    assertNull(pool.getReusable(BITMAP_SIZE + 1));
+    assertSame(large, pool.getReusable(BITMAP_SIZE));
+    assertEquals(0, pool.getSizeInBytes());
+  }
+
+  @Test
+  public void testOldestBitmapsAreRecycledOverBudget() {
+    Bitmap first = Bitmap.createBitmap(10, 10, Bitmap.Config.ARGB_8888);
+    Bitmap second = Bitmap.createBitmap(10, 10, Bitmap.Config.ARGB_8888);
+    Bitmap third = Bitmap.createBitmap(10, 10, Bitmap.Config.ARGB_8888);
+    pool.put(first);
+    pool.put(second);
+    pool.put(third);
+
+    assertTrue(first.isRecycled());
+    assertEquals(BITMAP_SIZE * 2, pool.getSizeInBytes());
+  }
+
+  @Test
+  public void testImmutableBitmapsAreRecycled() {
+    Bitmap bitmap = Bitmap.createBitmap(10, 10, Bitmap.Config.ARGB_8888).copy(Bitmap.Config.ARGB_8888, false);
+    pool.put(bitmap);
+
+    assertTrue(bitmap.isRecycled());
+    assertEquals(0, pool.getSizeInBytes());
+  }
+
+  @Test
+  public void testTrimMemoryRecyclesEverything() {
+    Bitmap bitmap = Bitmap.createBitmap(10, 10, Bitmap.Config.ARGB_8888);
+    pool.put(bitmap);
+    pool.trimMemory(ComponentCallbacks2.TRIM_MEMORY_BACKGROUND);
+
+    assertTrue(bitmap.isRecycled());
+    assertEquals(0, pool.getSizeInBytes());
+  }
+}
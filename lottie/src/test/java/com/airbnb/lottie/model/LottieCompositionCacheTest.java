@@ -1,5 +1,7 @@
 package com.airbnb.lottie.model;
 
+import android.content.ComponentCallbacks2;
+
 import com.airbnb.lottie.BaseTest;
 import com.airbnb.lottie.LottieComposition;
 
@@ -9,6 +11,8 @@ import org.mockito.Mockito;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.when;
 
 public class LottieCompositionCacheTest extends BaseTest  {
 
@@ -37,4 +41,62 @@ public class LottieCompositionCacheTest extends BaseTest  {
     cache.put("foo", composition);
     assertEquals(composition, cache.get("foo"));
   }
+
+  @Test
+  public void testByteBudgetEvictsLeastRecentlyUsed() {
+    cache.setMaxSizeInBytes(100);
+    LottieComposition small = compositionOfSize(30);
+    LottieComposition large = compositionOfSize(80);
+    cache.put("foo", composition);
+    cache.put("small", small);
+    cache.put("large", large);
+    assertNull(cache.get("foo"));
+    assertNull(cache.get("small"));
+    assertSame(large, cache.get("large"));
+  }
+
+  @Test
+  public void testSizeIsTakenWhenPut() {
+    cache.setMaxSizeInBytes(100);
+    LottieComposition composition = Mockito.mock(LottieComposition.class);
+    // The estimate grows once images are decoded or precomps are parsed.
+    when(composition.getEstimatedSizeInBytes()).thenReturn(30, 90);
+    cache.put("foo", composition);
+    assertEquals(30, cache.getStats().getSize());
+
+    cache.put("bar", compositionOfSize(60));
+    assertSame(composition, cache.get("foo"));
+    assertEquals(90, cache.getStats().getSize());
+
+    cache.clear();
+    assertEquals(0, cache.getStats().getSize());
+  }
+
+  @Test
+  public void testTrimMemory() {
+    cache.setMaxSizeInBytes(100);
+    cache.put("foo", compositionOfSize(30));
+    cache.put("bar", compositionOfSize(30));
+    cache.trimMemory(ComponentCallbacks2.TRIM_MEMORY_BACKGROUND);
+    assertNull(cache.get("foo"));
+    assertEquals(30, cache.getStats().getSize());
+    cache.trimMemory(ComponentCallbacks2.TRIM_MEMORY_COMPLETE);
+    assertEquals(0, cache.getStats().getSize());
+  }
+
+  @Test
+  public void testStats() {
+    cache.put("foo", composition);
+    cache.get("foo");
+    cache.get("bar");
+    assertEquals(1, cache.getStats().getHitCount());
+    assertEquals(1, cache.getStats().getMissCount());
+    assertEquals(1, cache.getStats().getSize());
+  }
+
+  private static LottieComposition compositionOfSize(int bytes) {
+    LottieComposition composition = Mockito.mock(LottieComposition.class);
+    when(composition.getEstimatedSizeInBytes()).thenReturn(bytes);
+    return composition;
+  }
 }
@@ -0,0 +1,71 @@
+package com.airbnb.lottie.model;
+
+import com.airbnb.lottie.BaseTest;
+import com.airbnb.lottie.LottieComposition;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.when;
+
+public class LottieFrameCacheTest extends BaseTest {
+
+  /**
+   * 10x10 ARGB_8888 frames with 10 frames.
+   */
+  private static final int STRIP_SIZE = 10 * 10 * 4 * 10;
+
+  private LottieComposition composition;
+  private LottieFrameCache cache;
+
+  @Before
+  public void setup() {
+    composition = Mockito.mock(LottieComposition.class);
+    when(composition.getStartFrame()).thenReturn(0f);
+    when(composition.getDurationFrames()).thenReturn(9f);
+    cache = new LottieFrameCache();
+    cache.resize(STRIP_SIZE * 2);
+  }
+
+  @Test
+  public void testSameStateIsShared() {
+    LottieFrameCache.Strip strip = cache.acquire(composition, 10, 10, "");
+    assertNotNull(strip);
+    assertSame(strip, cache.acquire(composition, 10, 10, ""));
+    assertNotSame(strip, cache.acquire(composition, 10, 10, "custom"));
+    assertEquals(STRIP_SIZE * 2, cache.getSizeInBytes());
+  }
+
+  @Test
+  public void testStripsInUseAreNotEvicted() {
+    LottieFrameCache.Strip first = cache.acquire(composition, 10, 10, "first");
+    LottieFrameCache.Strip second = cache.acquire(composition, 10, 10, "second");
+    assertNotNull(first);
+    assertNotNull(second);
+    assertNull(cache.acquire(composition, 10, 10, "third"));
+
+    cache.release(first);
+    assertNotNull(cache.acquire(composition, 10, 10, "third"));
+    assertEquals(STRIP_SIZE * 2, cache.getSizeInBytes());
+  }
+
+  @Test
+  public void testTooLarge() {
+    assertNull(cache.acquire(composition, 100, 100, ""));
+  }
+
+  @Test
+  public void testFrameIndex() {
+    LottieFrameCache.Strip strip = cache.acquire(composition, 10, 10, "");
+    assertNotNull(strip);
+    assertEquals(0, strip.getFrameIndex(-5f));
+    assertEquals(4, strip.getFrameIndex(3.6f));
+    assertEquals(9, strip.getFrameIndex(20f));
+  }
+}
@@ -0,0 +1,133 @@
+package com.airbnb.lottie.model;
+
+import android.graphics.Bitmap;
+
+import com.airbnb.lottie.BaseTest;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.ref.WeakReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class LottieImageCacheTest extends BaseTest {
+
+  /**
+   * A 10x10 ARGB_8888 bitmap.
+   */
+  private static final int IMAGE_SIZE = 10 * 10 * 4;
+
+  private final Object owner = new Object();
+  private LottieImageCache cache;
+
+  @Before
+  public void setup() {
+    cache = new LottieImageCache();
+    cache.resize(IMAGE_SIZE);
+  }
+
+  @Test
+  public void testImagesAreSharedBySourceAndSize() {
+    Bitmap bitmap = Bitmap.createBitmap(10, 10, Bitmap.Config.ARGB_8888);
+    LottieImageCache.Entry entry = cache.put(owner, null, "images/img_0.png", 10, 10, false, bitmap);
+
+    LottieImageCache.Entry shared = cache.acquire(owner, null, "images/img_0.png", 10, 10, false);
+    assertSame(entry, shared);
+    assertSame(bitmap, shared.getBitmap());
+    assertNull(cache.acquire(owner, null, "images/img_0.png", 20, 20, false));
+    assertNull(cache.acquire(owner, null, "images/img_0.png", 10, 10, true));
+  }
+
+  @Test
+  public void testEmbeddedImagesAreOnlySharedByTheSameComposition() {
+    Object composition = new Object();
+    cache.put(owner, composition, "image_0", 10, 10, false, Bitmap.createBitmap(10, 10, Bitmap.Config.ARGB_8888));
+
+    assertNotNull(cache.acquire(owner, composition, "image_0", 10, 10, false));
+    assertNull(cache.acquire(owner, new Object(), "image_0", 10, 10, false));
+  }
+
+  @Test
+  public void testImagesInUseAreNotEvicted() {
+    LottieImageCache.Entry first = cache.put(owner, null, "first.png", 10, 10, false, Bitmap.createBitmap(10, 10, Bitmap.Config.ARGB_8888));
+    LottieImageCache.Entry second = cache.put(owner, null, "second.png", 10, 10, false, Bitmap.createBitmap(10, 10, Bitmap.Config.ARGB_8888));
+    assertEquals(IMAGE_SIZE * 2, cache.getSizeInBytes());
+
+    cache.release(owner, first);
+    assertEquals(IMAGE_SIZE, cache.getSizeInBytes());
+    assertNull(cache.acquire(owner, null, "first.png", 10, 10, false));
+
+    cache.release(owner, second);
+    assertEquals(IMAGE_SIZE, cache.getSizeInBytes());
+    assertSame(second, cache.acquire(owner, null, "second.png", 10, 10, false));
+  }
+
+  @Test
+  public void testClearOnlyEvictsImagesThatArentInUse() {
+    LottieImageCache.Entry inUse = cache.put(owner, null, "in_use.png", 10, 10, false, Bitmap.createBitmap(10, 10, Bitmap.Config.ARGB_8888));
+    LottieImageCache.Entry unused = cache.put(owner, null, "unused.png", 5, 5, false, Bitmap.createBitmap(5, 5, Bitmap.Config.ARGB_8888));
+    cache.release(owner, unused);
+
+    cache.clear();
+    assertEquals(IMAGE_SIZE, cache.getSizeInBytes());
+    assertSame(inUse, cache.acquire(owner, null, "in_use.png", 10, 10, false));
+  }
+
+  @Test
+  public void testEntriesAreRefCountedPerOwner() {
+    Object other = new Object();
+    LottieImageCache.Entry entry = cache.put(owner, null, "image.png", 10, 10, false, Bitmap.createBitmap(10, 10, Bitmap.Config.ARGB_8888));
+    cache.acquire(owner, null, "image.png", 10, 10, false);
+    cache.acquire(other, null, "image.png", 10, 10, false);
+
+    cache.release(owner, entry);
+    cache.release(other, entry);
+    cache.resize(0);
+    assertEquals(IMAGE_SIZE, cache.getSizeInBytes());
+
+    cache.release(owner, entry);
+    cache.clear();
+    assertEquals(0, cache.getSizeInBytes());
+  }
+
+  @Test
+  public void testRefsOfCollectedOwnersDontKeepImagesInUse() {
+    Object leakedOwner = new Object();
+    WeakReference<Object> leakedOwnerRef = new WeakReference<>(leakedOwner);
+    cache.put(leakedOwner, null, "leaked.png", 10, 10, false, Bitmap.createBitmap(10, 10, Bitmap.Config.ARGB_8888));
+    //noinspection UnusedAssignment
+    leakedOwner = null;
+    awaitCollection(leakedOwnerRef);
+
+    cache.put(owner, null, "image.png", 10, 10, false, Bitmap.createBitmap(10, 10, Bitmap.Config.ARGB_8888));
+    assertEquals(IMAGE_SIZE, cache.getSizeInBytes());
+    assertNull(cache.acquire(owner, null, "leaked.png", 10, 10, false));
+  }
+
+  @Test
+  public void testImagesOfCollectedCompositionsAreEvicted() {
+    cache.resize(IMAGE_SIZE * 4);
+    Object composition = new Object();
+    WeakReference<Object> compositionRef = new WeakReference<>(composition);
+    LottieImageCache.Entry entry = cache.put(owner, composition, "image_0", 10, 10, false, Bitmap.createBitmap(10, 10, Bitmap.Config.ARGB_8888));
+    cache.release(owner, entry);
+    //noinspection UnusedAssignment
+    composition = null;
+    awaitCollection(compositionRef);
+
+    cache.put(owner, null, "image.png", 10, 10, false, Bitmap.createBitmap(10, 10, Bitmap.Config.ARGB_8888));
+    assertEquals(IMAGE_SIZE, cache.getSizeInBytes());
+  }
+
+  private static void awaitCollection(WeakReference<?> ref) {
+    for (int i = 0; i < 20 && ref.get() != null; i++) {
+      System.gc();
+      System.runFinalization();
+    }
+    assertNull(ref.get());
+  }
+}
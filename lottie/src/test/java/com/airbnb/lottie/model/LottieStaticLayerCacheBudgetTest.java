@@ -0,0 +1,51 @@
+package com.airbnb.lottie.model;
+
+import com.airbnb.lottie.BaseTest;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LottieStaticLayerCacheBudgetTest extends BaseTest {
+
+  private LottieStaticLayerCacheBudget budget;
+
+  @Before
+  public void setup() {
+    budget = new LottieStaticLayerCacheBudget();
+    budget.resize(100);
+  }
+
+  @Test
+  public void testReservationsOverBudgetAreRejected() {
+    Object first = new Object();
+    Object second = new Object();
+    assertTrue(budget.reserve(first, 60));
+    assertFalse(budget.reserve(second, 60));
+    assertEquals(60, budget.getSizeInBytes());
+
+    budget.release(first);
+    assertTrue(budget.reserve(second, 60));
+    assertEquals(60, budget.getSizeInBytes());
+  }
+
+  @Test
+  public void testReservingAgainReplacesThePreviousReservation() {
+    Object owner = new Object();
+    assertTrue(budget.reserve(owner, 60));
+    assertTrue(budget.reserve(owner, 80));
+    assertEquals(80, budget.getSizeInBytes());
+
+    assertFalse(budget.reserve(owner, 120));
+    assertEquals(0, budget.getSizeInBytes());
+  }
+
+  @Test
+  public void testZeroDisablesCaching() {
+    budget.resize(0);
+    assertFalse(budget.reserve(new Object(), 1));
+  }
+}
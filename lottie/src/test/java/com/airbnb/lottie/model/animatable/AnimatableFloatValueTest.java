@@ -0,0 +1,109 @@
+package com.airbnb.lottie.model.animatable;
+
+import android.graphics.Rect;
+import android.view.animation.LinearInterpolator;
+
+import androidx.collection.LongSparseArray;
+import androidx.collection.SparseArrayCompat;
+
+import com.airbnb.lottie.BaseTest;
+import com.airbnb.lottie.LottieComposition;
+import com.airbnb.lottie.animation.keyframe.FloatKeyframeAnimation;
+import com.airbnb.lottie.value.Keyframe;
+import com.airbnb.lottie.value.LottieFrameInfo;
+import com.airbnb.lottie.value.LottieValueCallback;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class AnimatableFloatValueTest extends BaseTest {
+
+  private List<Keyframe<Float>> keyframes;
+
+  @Before
+  public void setup() {
+    LottieComposition composition = new LottieComposition();
+    composition.init(new Rect(), 0f, 30f, 60f, new ArrayList<>(), new LongSparseArray<>(), new HashMap<>(),
+        new HashMap<>(), 1f, new SparseArrayCompat<>(), new HashMap<>(), new ArrayList<>(), 0, 0);
+    LinearInterpolator interpolator = new LinearInterpolator();
+    keyframes = new ArrayList<>();
+    keyframes.add(new Keyframe<>(composition, 0f, 10f, interpolator, 0f, 10f));
+    keyframes.add(new Keyframe<>(composition, 10f, 10f, null, 10f, 20f));
+    keyframes.add(new Keyframe<>(composition, 10f, 40f, interpolator, 20f, null));
+  }
+
+  @Test
+  public void testParsedKeyframesAreReleasedOnceCreatingAnAnimation() {
+    AnimatableFloatValue value = new AnimatableFloatValue(keyframes);
+    assertSame(keyframes, value.getKeyframes());
+
+    value.createAnimation();
+
+    List<Keyframe<Float>> packedKeyframes = value.getKeyframes();
+    assertNotSame(keyframes, packedKeyframes);
+    assertEquals(keyframes.size(), packedKeyframes.size());
+    for (int i = 0; i < keyframes.size(); i++) {
+      Keyframe<Float> expected = keyframes.get(i);
+      Keyframe<Float> actual = packedKeyframes.get(i);
+      assertNotSame(expected, actual);
+      assertEquals(expected.startValue, actual.startValue);
+      assertEquals(expected.endValue, actual.endValue);
+      assertSame(expected.interpolator, actual.interpolator);
+      assertEquals(expected.startFrame, actual.startFrame, 0f);
+      assertEquals(expected.endFrame, actual.endFrame);
+      assertEquals(expected.getStartProgress(), actual.getStartProgress(), 0f);
+      assertEquals(expected.getEndProgress(), actual.getEndProgress(), 0f);
+    }
+  }
+
+  @Test
+  public void testPackedAnimationMatchesParsedKeyframes() {
+    FloatKeyframeAnimation parsed = new FloatKeyframeAnimation(new ArrayList<>(keyframes));
+    FloatKeyframeAnimation packed = new AnimatableFloatValue(keyframes).createAnimation();
+    for (float frame = 0f; frame <= 30f; frame += 0.5f) {
+      parsed.setProgress(frame / 30f);
+      packed.setProgress(frame / 30f);
+      assertEquals(parsed.getFloatValue(), packed.getFloatValue(), 0.0001f);
+      assertEquals(parsed.getValue(), packed.getValue(), 0.0001f);
+    }
+  }
+
+  @Test
+  public void testValueCallbackSeesPackedKeyframes() {
+    FloatKeyframeAnimation animation = new AnimatableFloatValue(keyframes).createAnimation();
+    List<LottieFrameInfo<Float>> frameInfos = new ArrayList<>();
+    animation.setValueCallback(new LottieValueCallback<Float>() {
+      @Override public Float getValue(LottieFrameInfo<Float> frameInfo) {
+        frameInfos.add(frameInfo);
+        return null;
+      }
+    });
+
+    animation.setProgress(25f / 30f);
+    assertEquals(25f, animation.getFloatValue(), 0.0001f);
+    LottieFrameInfo<Float> frameInfo = frameInfos.get(frameInfos.size() - 1);
+    assertEquals(20f, frameInfo.getStartFrame(), 0f);
+    assertEquals(10f, frameInfo.getStartValue(), 0f);
+    assertEquals(40f, frameInfo.getEndValue(), 0f);
+  }
+
+  @Test
+  public void testKeyframesThatCantBePackedAreKept() {
+    keyframes.set(1, new Keyframe<>(10f));
+    AnimatableFloatValue value = new AnimatableFloatValue(keyframes);
+
+    value.createAnimation();
+
+    assertSame(keyframes, value.getKeyframes());
+    assertNull(value.getKeyframes().get(1).getComposition());
+  }
+}
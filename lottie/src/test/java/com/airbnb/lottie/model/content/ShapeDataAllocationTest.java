@@ -0,0 +1,97 @@
+package com.airbnb.lottie.model.content;
+
+import android.graphics.PointF;
+
+import com.airbnb.lottie.BaseTest;
+import com.airbnb.lottie.LottieDrawable;
+import com.airbnb.lottie.animation.content.RoundedCornersContent;
+import com.airbnb.lottie.model.CubicCurveData;
+import com.airbnb.lottie.model.animatable.AnimatableFloatValue;
+import com.airbnb.lottie.model.layer.BaseLayer;
+import com.airbnb.lottie.value.Keyframe;
+
+import org.junit.Assume;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ShapeDataAllocationTest extends BaseTest {
+
+  private static final int ITERATIONS = 10_000;
+
+  @Test
+  public void testCurveCountReusesCurves() {
+    ShapeData shapeData = new ShapeData();
+    shapeData.setCurveCount(4);
+    CubicCurveData last = shapeData.getCurves().get(3);
+    shapeData.setCurveCount(2);
+    assertEquals(2, shapeData.getCurves().size());
+    shapeData.setCurveCount(4);
+    assertEquals(4, shapeData.getCurves().size());
+    assertTrue(shapeData.getCurves().contains(last));
+  }
+
+  /**
+   * Interpolating shapes and rounding their corners happens on every frame so it shouldn't allocate once the buffers
+   * have grown to fit the largest shape, even when the vertex count changes from one call to the next.
+   */
+  @Test
+  public void testInterpolateAndModifyDoNotAllocate() {
+    ShapeData square = createPolygon(4);
+    ShapeData squareEnd = createPolygon(4);
+    ShapeData hexagon = createPolygon(6);
+    ShapeData hexagonEnd = createPolygon(6);
+    RoundedCornersContent roundedCorners = new RoundedCornersContent(new LottieDrawable(), Mockito.mock(BaseLayer.class),
+        new RoundedCorners("Round Corners", new AnimatableFloatValue(Collections.singletonList(new Keyframe<>(5f)))));
+    ShapeData interpolated = new ShapeData();
+
+    Runnable frame = () -> {
+      interpolated.interpolateBetween(square, squareEnd, 0.5f);
+      roundedCorners.modifyShape(interpolated);
+      interpolated.interpolateBetween(hexagon, hexagonEnd, 0.5f);
+      roundedCorners.modifyShape(interpolated);
+    };
+    for (int i = 0; i < ITERATIONS; i++) {
+      frame.run();
+    }
+
+    long allocatedBefore = getAllocatedBytes();
+    Assume.assumeTrue("Allocation tracking isn't supported", allocatedBefore >= 0);
+    for (int i = 0; i < ITERATIONS; i++) {
+      frame.run();
+    }
+    long allocated = getAllocatedBytes() - allocatedBefore;
+    // Allow for a few incidental allocations by the test harness but not one per frame.
+    assertTrue("Allocated " + allocated + " bytes in " + ITERATIONS + " frames", allocated < ITERATIONS);
+  }
+
+  private static ShapeData createPolygon(int sides) {
+    List<CubicCurveData> curves = new ArrayList<>(sides);
+    for (int i = 1; i <= sides; i++) {
+      double angle = 2 * Math.PI * i / sides;
+      PointF vertex = new PointF((float) Math.cos(angle) * 100f, (float) Math.sin(angle) * 100f);
+      PointF previous = i == 1 ? new PointF(100f, 0f) : curves.get(i - 2).getVertex();
+      // Control points on the vertices make sharp corners that will be rounded.
+      curves.add(new CubicCurveData(new PointF(previous.x, previous.y), new PointF(vertex.x, vertex.y), vertex));
+    }
+    return new ShapeData(new PointF(100f, 0f), true, curves);
+  }
+
+  private static long getAllocatedBytes() {
+    java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    if (bean instanceof com.sun.management.ThreadMXBean) {
+      com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+      if (sunBean.isThreadAllocatedMemorySupported() && sunBean.isThreadAllocatedMemoryEnabled()) {
+        return sunBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+      }
+    }
+    return -1;
+  }
+}
@@ -0,0 +1,160 @@
+package com.airbnb.lottie.model.layer;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Matrix;
+import android.graphics.RectF;
+
+import com.airbnb.lottie.BaseTest;
+import com.airbnb.lottie.LottieComposition;
+import com.airbnb.lottie.LottieCompositionFactory;
+import com.airbnb.lottie.LottieDrawable;
+import com.airbnb.lottie.parser.LayerParser;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+public class CompositionLayerTest extends BaseTest {
+
+  private static final String STATIC_TRANSFORM = "\"ks\":{\"o\":{\"a\":0,\"k\":100},\"r\":{\"a\":0,\"k\":0},\"p\":{\"a\":0,\"k\":[0,0,0]}," +
+      "\"a\":{\"a\":0,\"k\":[0,0,0]},\"s\":{\"a\":0,\"k\":[100,100,100]}}";
+  /**
+   * Moves the layer 60px to the right over 60 frames.
+   */
+  private static final String MOVING_TRANSFORM = "\"ks\":{\"o\":{\"a\":0,\"k\":100},\"r\":{\"a\":0,\"k\":0}," +
+      "\"p\":{\"a\":1,\"k\":[{\"t\":0,\"s\":[0,0,0],\"o\":{\"x\":0,\"y\":0},\"i\":{\"x\":1,\"y\":1}},{\"t\":60,\"s\":[60,0,0]}]}," +
+      "\"a\":{\"a\":0,\"k\":[0,0,0]},\"s\":{\"a\":0,\"k\":[100,100,100]}}";
+
+  private final Matrix matrix = new Matrix();
+  private final RectF damage = new RectF();
+
+  @Test
+  public void testDamageIsUnknownUntilItIsTracked() {
+    CompositionLayer compositionLayer = createCompositionLayer(layer(1, STATIC_TRANSFORM, 0, 5, 0, 60));
+
+    assertFalse(compositionLayer.getDamagedBounds(damage, matrix));
+  }
+
+  @Test
+  public void testStaticLayersAreNotDamaged() {
+    CompositionLayer compositionLayer = createCompositionLayer(layer(1, STATIC_TRANSFORM, 0, 5, 0, 60));
+    compositionLayer.resetDamageTracking(matrix);
+
+    compositionLayer.setProgress(0.5f);
+
+    assertTrue(compositionLayer.getDamagedBounds(damage, matrix));
+    assertTrue(damage.isEmpty());
+  }
+
+  @Test
+  public void testMovingLayersDamageTheirPreviousAndCurrentBounds() {
+    CompositionLayer compositionLayer = createCompositionLayer(
+        layer(1, STATIC_TRANSFORM, 5, 5, 0, 60) + "," + layer(2, MOVING_TRANSFORM, 25, 5, 0, 60));
+    compositionLayer.resetDamageTracking(matrix);
+
+    compositionLayer.setProgress(0.25f);
+
+    assertTrue(compositionLayer.getDamagedBounds(damage, matrix));
+    // The moving layer was drawn from x 20 to 30. The static layer at x 0 to 10 isn't damaged.
+    assertEquals(20f, damage.left, 0.01f);
+    assertEquals(0f, damage.top, 0.01f);
+    assertEquals(10f, damage.bottom, 0.01f);
+    assertTrue(damage.right > 30f);
+    assertFalse(damage.contains(5f, 5f));
+  }
+
+  @Test
+  public void testDamageIsTrackedFromTheLastCall() {
+    CompositionLayer compositionLayer = createCompositionLayer(layer(1, MOVING_TRANSFORM, 5, 5, 0, 60));
+    compositionLayer.resetDamageTracking(matrix);
+    compositionLayer.setProgress(0.5f);
+    assertTrue(compositionLayer.getDamagedBounds(damage, matrix));
+    float previousRight = damage.right;
+
+    compositionLayer.setProgress(0.75f);
+    assertTrue(compositionLayer.getDamagedBounds(damage, matrix));
+
+    // Only the bounds at 0.5 and 0.75 are damaged, not the bounds at 0.
+    assertEquals(previousRight - 10f, damage.left, 0.01f);
+    assertTrue(damage.left > 10f);
+  }
+
+  @Test
+  public void testLayersThatStartOrStopBeingDrawnAreDamaged() {
+    CompositionLayer compositionLayer = createCompositionLayer(
+        layer(1, STATIC_TRANSFORM, 5, 5, 0, 30) + "," + layer(2, STATIC_TRANSFORM, 5, 55, 30, 60));
+    compositionLayer.resetDamageTracking(matrix);
+
+    compositionLayer.setProgress(0.75f);
+
+    assertTrue(compositionLayer.getDamagedBounds(damage, matrix));
+    assertEquals(new RectF(0f, 0f, 10f, 60f), damage);
+  }
+
+  @Test
+  public void testStaticImageLayersAreDrawnFromTheStaticLayerCache() {
+    String imageLayer = "{\"ddd\":0,\"ind\":1,\"ty\":2,\"nm\":\"image\",\"refId\":\"image_0\",\"sr\":1," + STATIC_TRANSFORM +
+        ",\"ao\":0,\"ip\":0,\"op\":60,\"st\":0,\"bm\":0}";
+    String json = "{\"v\":\"5.0.0\",\"fr\":30,\"ip\":0,\"op\":60,\"w\":100,\"h\":100," +
+        "\"assets\":[{\"id\":\"image_0\",\"w\":10,\"h\":10,\"u\":\"images/\",\"p\":\"img_0.png\",\"e\":0}]," +
+        "\"layers\":[" + imageLayer + "]}";
+    LottieComposition composition = LottieCompositionFactory.fromJsonStringSync(json, null).getValue();
+    assertNotNull(composition);
+    LottieDrawable drawable = spy(new LottieDrawable());
+    drawable.setComposition(composition);
+    doReturn(Bitmap.createBitmap(10, 10, Bitmap.Config.ARGB_8888)).when(drawable).getBitmapForId("image_0");
+    CompositionLayer compositionLayer =
+        new CompositionLayer(drawable, LayerParser.parse(composition), composition.getLayers(), composition);
+    compositionLayer.updateStaticLayerCaches(true);
+    compositionLayer.setProgress(0f);
+    assertTrue(compositionLayer.hasStaticLayerCache());
+    Canvas canvas = new Canvas(Bitmap.createBitmap(100, 100, Bitmap.Config.ARGB_8888));
+
+    compositionLayer.draw(canvas, matrix, 255, null);
+    verify(drawable, atLeastOnce()).getBitmapForId("image_0");
+    clearInvocations(drawable);
+    compositionLayer.draw(canvas, matrix, 255, null);
+    // The image isn't drawn again while it is cached.
+    verify(drawable, never()).getBitmapForId(anyString());
+
+    // A drawable recomputes its static layers when one of its bitmaps is replaced.
+    compositionLayer.updateStaticLayerCaches(true);
+    compositionLayer.draw(canvas, matrix, 255, null);
+    verify(drawable, atLeastOnce()).getBitmapForId("image_0");
+  }
+
+  private static CompositionLayer createCompositionLayer(String layers) {
+    String json = "{\"v\":\"5.0.0\",\"fr\":30,\"ip\":0,\"op\":60,\"w\":100,\"h\":100,\"assets\":[],\"layers\":[" + layers + "]}";
+    LottieComposition composition = LottieCompositionFactory.fromJsonStringSync(json, null).getValue();
+    assertNotNull(composition);
+    LottieDrawable drawable = new LottieDrawable();
+    drawable.setComposition(composition);
+    CompositionLayer compositionLayer =
+        new CompositionLayer(drawable, LayerParser.parse(composition), composition.getLayers(), composition);
+    compositionLayer.updateStaticLayerCaches(false);
+    compositionLayer.setProgress(0f);
+    return compositionLayer;
+  }
+
+  /**
+   * A layer with a 10x10 rectangle centered at x, y.
+   */
+  private static String layer(int index, String transform, int x, int y, int inFrame, int outFrame) {
+    return "{\"ddd\":0,\"ind\":" + index + ",\"ty\":4,\"nm\":\"layer " + index + "\",\"sr\":1," + transform + ",\"ao\":0," +
+        "\"shapes\":[{\"ty\":\"rc\",\"d\":1,\"s\":{\"a\":0,\"k\":[10,10]},\"p\":{\"a\":0,\"k\":[" + x + "," + y + "]}," +
+        "\"r\":{\"a\":0,\"k\":0},\"nm\":\"rect\",\"hd\":false},{\"ty\":\"fl\",\"c\":{\"a\":0,\"k\":[1,0,0,1]}," +
+        "\"o\":{\"a\":0,\"k\":100},\"r\":1,\"nm\":\"fill\",\"hd\":false}],\"ip\":" + inFrame + ",\"op\":" + outFrame +
+        ",\"st\":0,\"bm\":0}";
+  }
+}
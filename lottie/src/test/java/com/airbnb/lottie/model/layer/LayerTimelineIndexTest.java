@@ -0,0 +1,64 @@
+package com.airbnb.lottie.model.layer;
+
+import com.airbnb.lottie.BaseTest;
+import com.airbnb.lottie.LottieComposition;
+import com.airbnb.lottie.LottieCompositionFactory;
+import com.airbnb.lottie.LottieDrawable;
+import com.airbnb.lottie.parser.LayerParser;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNotNull;
+
+public class LayerTimelineIndexTest extends BaseTest {
+
+  private static final String TRANSFORM = "\"ks\":{\"o\":{\"a\":0,\"k\":100},\"r\":{\"a\":0,\"k\":0},\"p\":{\"a\":0,\"k\":[0,0,0]}," +
+      "\"a\":{\"a\":0,\"k\":[0,0,0]},\"s\":{\"a\":0,\"k\":[100,100,100]}}";
+
+  private List<BaseLayer> layers;
+
+  @Before
+  public void setup() {
+    String json = "{\"v\":\"5.0.0\",\"fr\":30,\"ip\":0,\"op\":100,\"w\":100,\"h\":100,\"assets\":[],\"layers\":[" +
+        layer(1, "first", 0, 40, false) + "," +
+        layer(2, "second", 60, 100, false) + "," +
+        layer(3, "hidden", 0, 100, true) + "," +
+        layer(4, "always", 0, 100, false) + "]}";
+    LottieComposition composition = LottieCompositionFactory.fromJsonStringSync(json, null).getValue();
+    assertNotNull(composition);
+    LottieDrawable drawable = new LottieDrawable();
+    CompositionLayer compositionLayer = new CompositionLayer(drawable, LayerParser.parse(composition), null, composition);
+    layers = new ArrayList<>();
+    for (int i = 0; i < composition.getLayers().size(); i++) {
+      layers.add(BaseLayer.forModel(compositionLayer, composition.getLayers().get(i), drawable, composition));
+    }
+  }
+
+  @Test
+  public void testOnlyLayersBetweenTheirInAndOutPointsAreActive() {
+    LayerTimelineIndex index = LayerTimelineIndex.build(layers, Collections.<BaseLayer>emptySet());
+    assertArrayEquals(new int[]{0, 3}, index.getActiveLayers(0f));
+    assertArrayEquals(new int[]{0, 3}, index.getActiveLayers(0.25f));
+    assertArrayEquals(new int[]{1, 3}, index.getActiveLayers(0.75f));
+    assertArrayEquals(new int[]{1, 3}, index.getActiveLayers(1f));
+  }
+
+  @Test
+  public void testAlwaysActiveLayersAreActiveOnEveryFrame() {
+    LayerTimelineIndex index = LayerTimelineIndex.build(layers, new HashSet<>(Collections.singletonList(layers.get(1))));
+    assertArrayEquals(new int[]{0, 1, 3}, index.getActiveLayers(0.25f));
+    assertArrayEquals(new int[]{1, 3}, index.getActiveLayers(0.75f));
+  }
+
+  private static String layer(int index, String name, int inFrame, int outFrame, boolean hidden) {
+    return "{\"ty\":3,\"ind\":" + index + ",\"nm\":\"" + name + "\",\"ip\":" + inFrame + ",\"op\":" + outFrame +
+        ",\"st\":0,\"sr\":1,\"hd\":" + hidden + "," + TRANSFORM + "}";
+  }
+}
@@ -0,0 +1,40 @@
+package com.airbnb.lottie.network;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import android.graphics.Bitmap;
+
+import com.airbnb.lottie.BaseTest;
+import com.airbnb.lottie.LottieComposition;
+import com.airbnb.lottie.LottieCompositionFactory;
+
+import org.junit.Test;
+
+import java.io.IOException;
+
+import okio.Buffer;
+
+public class CompiledCacheFileTest extends BaseTest {
+  private static final String JSON = "{\"v\":\"5.5.0\",\"fr\":30,\"ip\":0,\"op\":60,\"w\":100,\"h\":100,\"layers\":[],\"assets\":["
+      + "{\"id\":\"zipped\",\"w\":10,\"h\":10,\"u\":\"images/\",\"p\":\"img_0.png\"},"
+      + "{\"id\":\"folder\",\"w\":10,\"h\":10,\"u\":\"images/\",\"p\":\"img_1.png\"}]}";
+
+  @Test
+  public void testOnlyImagesHeldByTheCompositionAreSaved() throws IOException {
+    LottieComposition composition = LottieCompositionFactory.fromJsonStringSync(JSON, null).getValue();
+    assertNotNull(composition);
+    // Images from zip files are set on their assets while the zip is read. Other images are only decoded by drawables.
+    composition.getImages().get("zipped").setBitmap(Bitmap.createBitmap(10, 10, Bitmap.Config.ARGB_8888));
+
+    Buffer compiled = new Buffer();
+    CompiledCacheFile.write(new Buffer().writeUtf8(JSON), composition, compiled);
+    LottieComposition read = CompiledCacheFile.read(compiled, null).getValue();
+
+    assertNotNull(read);
+    assertEquals(100, read.getBounds().width());
+    assertNotNull(read.getImages().get("zipped").getBitmap());
+    assertNull(read.getImages().get("folder").getBitmap());
+  }
+}
@@ -0,0 +1,108 @@
+package com.airbnb.lottie.network;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import android.util.Pair;
+
+import com.airbnb.lottie.BaseTest;
+import com.airbnb.lottie.LottieNetworkCacheStats;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+public class NetworkCacheTest extends BaseTest {
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void testLeastRecentlyUsedAnimationIsEvicted() throws IOException {
+    NetworkCache cache = new NetworkCache(() -> temporaryFolder.getRoot(), 250);
+    put(cache, "https://lottie.test/a.json", 100);
+    put(cache, "https://lottie.test/b.json", 100);
+    assertTrue(fetch(cache, "https://lottie.test/a.json"));
+    put(cache, "https://lottie.test/c.json", 100);
+
+    assertFalse(fetch(cache, "https://lottie.test/b.json"));
+    assertTrue(fetch(cache, "https://lottie.test/a.json"));
+    assertTrue(fetch(cache, "https://lottie.test/c.json"));
+
+    LottieNetworkCacheStats stats = cache.getStats();
+    assertEquals(3, stats.getHitCount());
+    assertEquals(1, stats.getMissCount());
+    assertEquals(1, stats.getEvictionCount());
+    assertEquals(2, stats.getEntryCount());
+    assertEquals(200, stats.getSizeInBytes());
+  }
+
+  @Test
+  public void testAccessOrderSurvivesRestarts() throws IOException {
+    NetworkCache cache = new NetworkCache(() -> temporaryFolder.getRoot(), 250);
+    put(cache, "https://lottie.test/a.json", 100);
+    put(cache, "https://lottie.test/b.json", 100);
+    assertTrue(fetch(cache, "https://lottie.test/a.json"));
+
+    NetworkCache restartedCache = new NetworkCache(() -> temporaryFolder.getRoot(), 250);
+    put(restartedCache, "https://lottie.test/c.json", 100);
+
+    assertFalse(fetch(restartedCache, "https://lottie.test/b.json"));
+    assertTrue(fetch(restartedCache, "https://lottie.test/a.json"));
+  }
+
+  @Test
+  public void testUnboundedCacheDoesNotEvict() throws IOException {
+    NetworkCache cache = new NetworkCache(() -> temporaryFolder.getRoot());
+    put(cache, "https://lottie.test/a.json", 100);
+    put(cache, "https://lottie.test/b.json", 100);
+
+    LottieNetworkCacheStats stats = cache.getStats();
+    assertEquals(0, stats.getEvictionCount());
+    assertEquals(200, stats.getSizeInBytes());
+  }
+
+  @Test
+  public void testClosingCopiesTheRestOfTheResponse() throws IOException {
+    NetworkCache cache = new NetworkCache(() -> temporaryFolder.getRoot());
+    ByteArrayInputStream response = new ByteArrayInputStream(new byte[100]);
+    TempCacheFileInputStream stream = cache.readThroughTempCacheFile("https://lottie.test/a.json", response, FileExtension.JSON);
+    assertEquals(10, stream.read(new byte[10], 0, 10));
+    stream.close();
+    assertEquals(0, response.available());
+    assertTrue(stream.isComplete());
+  }
+
+  @Test
+  public void testAbortedResponseIsNotDownloaded() throws IOException {
+    NetworkCache cache = new NetworkCache(() -> temporaryFolder.getRoot());
+    ByteArrayInputStream response = new ByteArrayInputStream(new byte[100]);
+    TempCacheFileInputStream stream = cache.readThroughTempCacheFile("https://lottie.test/a.json", response, FileExtension.JSON);
+    assertEquals(10, stream.read(new byte[10], 0, 10));
+    stream.abort();
+    stream.close();
+    assertEquals(90, response.available());
+    assertFalse(stream.isComplete());
+  }
+
+  private static void put(NetworkCache cache, String url, int size) throws IOException {
+    TempCacheFileInputStream stream = cache.readThroughTempCacheFile(url, new ByteArrayInputStream(new byte[size]), FileExtension.JSON);
+    stream.close();
+    assertTrue(stream.isComplete());
+    cache.renameTempFile(url, FileExtension.JSON);
+  }
+
+  private static boolean fetch(NetworkCache cache, String url) throws IOException {
+    Pair<FileExtension, InputStream> result = cache.fetch(url);
+    if (result == null) {
+      return false;
+    }
+    result.second.close();
+    return true;
+  }
+}
@@ -0,0 +1,214 @@
+package com.airbnb.lottie.network;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.util.Pair;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.airbnb.lottie.BaseTest;
+import com.airbnb.lottie.L;
+import com.airbnb.lottie.LottieComposition;
+import com.airbnb.lottie.LottieResult;
+import com.airbnb.lottie.model.LottieCompositionCache;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.robolectric.RuntimeEnvironment;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class NetworkFetcherTest extends BaseTest {
+  private static final String JSON = "{\"v\":\"5.5.0\",\"fr\":30,\"ip\":0,\"op\":60,\"w\":100,\"h\":100,\"layers\":[]}";
+  private static final String UPDATED_JSON = "{\"v\":\"5.5.0\",\"fr\":30,\"ip\":0,\"op\":60,\"w\":200,\"h\":200,\"layers\":[]}";
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private final Context context = RuntimeEnvironment.getApplication();
+
+  @Test
+  public void testConcurrentFetchesOfTheSameUrlShareOneDownload() throws Exception {
+    CountDownLatch fetchStarted = new CountDownLatch(1);
+    CountDownLatch releaseFetch = new CountDownLatch(1);
+    CountingFetcher fetcher = new CountingFetcher(fetchStarted, releaseFetch);
+    NetworkFetcher networkFetcher = new NetworkFetcher(null, fetcher);
+
+    AtomicReference<LottieResult<LottieComposition>> first = new AtomicReference<>();
+    AtomicReference<LottieResult<LottieComposition>> second = new AtomicReference<>();
+    Thread firstThread = new Thread(() -> first.set(networkFetcher.fetchSync(context, "https://lottie.test/a.json", "a")));
+    firstThread.start();
+    fetchStarted.await(5, TimeUnit.SECONDS);
+
+    Thread secondThread = new Thread(() -> second.set(networkFetcher.fetchSync(context, "https://lottie.test/a.json", "b")));
+    secondThread.start();
+    // Wait for the second fetch to join the first before letting the download finish.
+    while (secondThread.getState() != Thread.State.WAITING && secondThread.isAlive()) {
+      Thread.yield();
+    }
+    releaseFetch.countDown();
+    firstThread.join(5000);
+    secondThread.join(5000);
+
+    assertEquals(1, fetcher.fetchCount.get());
+    assertNotNull(first.get().getValue());
+    assertSame(first.get().getValue(), second.get().getValue());
+  }
+
+  @Test
+  public void testResponseIsCachedWhileItIsParsed() throws Exception {
+    CountingFetcher fetcher = new CountingFetcher(new CountDownLatch(1), new CountDownLatch(0));
+    NetworkCache networkCache = new NetworkCache(() -> temporaryFolder.getRoot());
+    NetworkFetcher networkFetcher = new NetworkFetcher(networkCache, fetcher);
+
+    LottieResult<LottieComposition> networkResult = networkFetcher.fetchSync(context, "https://lottie.test/b.json", "cached");
+    assertNotNull(networkResult.getValue());
+
+    LottieResult<LottieComposition> cacheResult = networkFetcher.fetchSync(context, "https://lottie.test/b.json", "cached");
+    assertNotNull(cacheResult.getValue());
+    assertEquals(1, fetcher.fetchCount.get());
+  }
+
+  @Test
+  public void testRevalidationUsesTheCachedAnimationIfItIsNotModified() {
+    CountingFetcher fetcher = new CountingFetcher(new CountDownLatch(1), new CountDownLatch(0));
+    NetworkCache networkCache = new NetworkCache(() -> temporaryFolder.getRoot());
+    NetworkFetcher networkFetcher = new NetworkFetcher(networkCache, fetcher, LottieNetworkCacheRevalidation.ALWAYS, Runnable::run);
+
+    LottieComposition networkComposition = networkFetcher.fetchSync(context, "https://lottie.test/c.json", "c").getValue();
+    LottieComposition revalidatedComposition = networkFetcher.fetchSync(context, "https://lottie.test/c.json", "c").getValue();
+
+    assertEquals(2, fetcher.fetchCount.get());
+    assertEquals("\"1\"", fetcher.lastRequestETag);
+    assertNotNull(networkComposition);
+    assertNotNull(revalidatedComposition);
+    assertEquals(100, revalidatedComposition.getBounds().width());
+  }
+
+  @Test
+  public void testStaleWhileRevalidateReturnsTheCachedAnimationAndUpdatesIt() {
+    CountingFetcher fetcher = new CountingFetcher(new CountDownLatch(1), new CountDownLatch(0));
+    NetworkCache networkCache = new NetworkCache(() -> temporaryFolder.getRoot());
+    List<Runnable> revalidations = new ArrayList<>();
+    NetworkFetcher networkFetcher =
+        new NetworkFetcher(networkCache, fetcher, LottieNetworkCacheRevalidation.STALE_WHILE_REVALIDATE, revalidations::add);
+
+    networkFetcher.fetchSync(context, "https://lottie.test/d.json", "d");
+    assertTrue(revalidations.isEmpty());
+
+    fetcher.update(UPDATED_JSON, "\"2\"");
+    LottieComposition stale = networkFetcher.fetchSync(context, "https://lottie.test/d.json", "d").getValue();
+    assertNotNull(stale);
+    assertEquals(100, stale.getBounds().width());
+    assertEquals(1, revalidations.size());
+
+    revalidations.get(0).run();
+    assertEquals("\"1\"", fetcher.lastRequestETag);
+    LottieComposition updated = LottieCompositionCache.getInstance().get("d");
+    assertNotNull(updated);
+    assertEquals(200, updated.getBounds().width());
+    assertEquals("\"2\"", networkCache.getValidators("https://lottie.test/d.json").first);
+  }
+
+  @Test
+  public void testCachedAnimationIsCompiled() throws Exception {
+    CountingFetcher fetcher = new CountingFetcher(new CountDownLatch(1), new CountDownLatch(0));
+    NetworkCache networkCache = new NetworkCache(() -> temporaryFolder.getRoot());
+    NetworkFetcher networkFetcher = new NetworkFetcher(networkCache, fetcher, LottieNetworkCacheRevalidation.NEVER, Runnable::run);
+    L.setNetworkCacheCompilationEnabled(true);
+    try {
+      networkFetcher.fetchSync(context, "https://lottie.test/e.json", "e");
+    } finally {
+      L.setNetworkCacheCompilationEnabled(false);
+    }
+
+    Pair<FileExtension, InputStream> cached = networkCache.fetch("https://lottie.test/e.json");
+    assertNotNull(cached);
+    cached.second.close();
+    assertEquals(FileExtension.COMPILED, cached.first);
+
+    LottieCompositionCache.getInstance().clear();
+    LottieComposition composition = networkFetcher.fetchSync(context, "https://lottie.test/e.json", "e").getValue();
+    assertNotNull(composition);
+    assertEquals(100, composition.getBounds().width());
+    assertEquals(1, fetcher.fetchCount.get());
+  }
+
+  private static class CountingFetcher implements LottieNetworkFetcher {
+    final AtomicInteger fetchCount = new AtomicInteger();
+    private final CountDownLatch fetchStarted;
+    private final CountDownLatch releaseFetch;
+    private volatile String json = JSON;
+    private volatile String eTag = "\"1\"";
+    @Nullable volatile String lastRequestETag;
+
+    CountingFetcher(CountDownLatch fetchStarted, CountDownLatch releaseFetch) {
+      this.fetchStarted = fetchStarted;
+      this.releaseFetch = releaseFetch;
+    }
+
+    void update(String json, String eTag) {
+      this.json = json;
+      this.eTag = eTag;
+    }
+
+    @NonNull @Override public LottieFetchResult fetchSync(@NonNull String url) {
+      return fetchSync(url, null, null);
+    }
+
+    @NonNull @Override public LottieFetchResult fetchSync(@NonNull String url, @Nullable String requestETag, @Nullable String lastModified) {
+      fetchCount.incrementAndGet();
+      lastRequestETag = requestETag;
+      final String json = this.json;
+      final String eTag = this.eTag;
+      final boolean notModified = eTag.equals(requestETag);
+      fetchStarted.countDown();
+      try {
+        releaseFetch.await(5, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return new LottieFetchResult() {
+        @Override public boolean isSuccessful() {
+          return !notModified;
+        }
+
+        @Override public boolean isNotModified() {
+          return notModified;
+        }
+
+        @Nullable @Override public String eTag() {
+          return eTag;
+        }
+
+        @NonNull @Override public InputStream bodyByteStream() {
+          return new ByteArrayInputStream(json.getBytes());
+        }
+
+        @Nullable @Override public String contentType() {
+          return "application/json";
+        }
+
+        @Nullable @Override public String error() {
+          return null;
+        }
+
+        @Override public void close() {
+        }
+      };
+    }
+  }
+}
@@ -0,0 +1,205 @@
+package com.airbnb.lottie.parser;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.airbnb.lottie.BaseTest;
+import com.airbnb.lottie.LottieComposition;
+import com.airbnb.lottie.LottieDrawable;
+import com.airbnb.lottie.model.layer.Layer;
+import com.airbnb.lottie.model.layer.StartingPrecomps;
+import com.airbnb.lottie.parser.moshi.JsonReader;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import okio.Buffer;
+
+public class SplitCompositionParserTest extends BaseTest {
+
+  private static final int PRECOMP_COUNT = 20;
+  private static final byte[] INVALID_PRECOMP_JSON =
+      "{\"v\":\"5.7.4\",\"fr\":60,\"ip\":0,\"op\":60,\"w\":100,\"h\":100,\"assets\":[{\"id\":\"comp_0\",\"layers\":5}],\"layers\":[]}"
+          .getBytes(StandardCharsets.UTF_8);
+  private static final String LAYER = "{\"ty\":3,\"nm\":\"%s\",\"ind\":%d,\"ks\":{},\"ip\":0,\"op\":60,\"st\":0}";
+
+  @Test
+  public void testSplitTopLevelArrays() {
+    String json = "{\"nm\":\"]}\\\"[\", \"assets\" : [ {\"id\":\"a\",\"p\":\"[\"} , {\"id\":\"b\"}],\"w\":1,\"chars\":[]}";
+    int[][] spans = JsonSpans.splitTopLevelArrays(json.getBytes(StandardCharsets.UTF_8), "assets", "chars", "fonts");
+    assertNotNull(spans);
+    assertEquals(4, spans[0].length);
+    assertEquals("{\"id\":\"a\",\"p\":\"[\"}", json.substring(spans[0][0], spans[0][1]));
+    assertEquals("{\"id\":\"b\"}", json.substring(spans[0][2], spans[0][3]));
+    assertArrayEquals(new int[0], spans[1]);
+    assertNull(spans[2]);
+  }
+
+  @Test
+  public void testSplitDocumentWithAmbiguousNames() {
+    assertNull(JsonSpans.splitTopLevelArrays("{\"assets\":[],\"assets\":[{}]}".getBytes(StandardCharsets.UTF_8), "assets"));
+    assertNull(JsonSpans.splitTopLevelArrays("{\"ass\\u0065ts\":[{}]}".getBytes(StandardCharsets.UTF_8), "assets"));
+  }
+
+  @Test
+  public void testAssetsThatCantBeSplitAreParsedInline() throws IOException {
+    byte[] json = new String(createJson(), StandardCharsets.UTF_8)
+        .replace("\"assets\"", "\"ass\\u0065ts\"")
+        .getBytes(StandardCharsets.UTF_8);
+    LottieComposition expected = LottieCompositionMoshiParser.parse(JsonReader.of(new Buffer().write(json)));
+    assertEquals(10, expected.getPrecomps("comp_0").size());
+    assertSameComposition(expected, SplitCompositionParser.parse(json, runnable -> {
+    }, 3));
+    assertSameComposition(expected, SplitCompositionParser.parse(json, null, 0, true));
+  }
+
+  @Test
+  public void testSplitUnterminatedDocument() {
+    assertNull(JsonSpans.splitTopLevelArrays("{\"assets\":[{}".getBytes(StandardCharsets.UTF_8), "assets"));
+    assertNull(JsonSpans.splitTopLevelArrays("[]".getBytes(StandardCharsets.UTF_8), "assets"));
+  }
+
+  @Test
+  public void testMatchesSequentialParse() throws IOException {
+    byte[] json = createJson();
+    LottieComposition expected = LottieCompositionMoshiParser.parse(JsonReader.of(new Buffer().write(json)));
+    ExecutorService executor = Executors.newFixedThreadPool(3);
+    try {
+      assertSameComposition(expected, SplitCompositionParser.parse(json, executor, 3));
+    } finally {
+      executor.shutdown();
+    }
+    // Nothing runs on the executor so the calling thread has to parse everything itself.
+    assertSameComposition(expected, SplitCompositionParser.parse(json, runnable -> {
+    }, 3));
+  }
+
+  @Test
+  public void testLazyPrecompsMatchSequentialParse() throws IOException {
+    byte[] json = createJson();
+    LottieComposition expected = LottieCompositionMoshiParser.parse(JsonReader.of(new Buffer().write(json)));
+    LottieComposition actual = SplitCompositionParser.parse(json, null, 0, true);
+    assertFalse(actual.isPrecompParsed("comp_0"));
+    int sizeInBytes = actual.getEstimatedSizeInBytes();
+    assertSameComposition(expected, actual, false);
+    assertTrue(actual.isPrecompParsed("comp_0"));
+    // Lazy precomps are weighed by their document so parsing them doesn't change the size of a cached composition.
+    assertEquals(sizeInBytes, actual.getEstimatedSizeInBytes());
+  }
+
+  @Test
+  public void testLazyPrecompThatCantBeParsedIsEmpty() throws IOException {
+    LottieComposition composition = SplitCompositionParser.parse(INVALID_PRECOMP_JSON, null, 0, true);
+    assertFalse(composition.isPrecompParsed("comp_0"));
+
+    assertTrue(composition.getPrecomps("comp_0").isEmpty());
+    assertTrue(composition.isPrecompParsed("comp_0"));
+    assertTrue(composition.getWarnings().contains("Unable to parse precomp comp_0"));
+  }
+
+  @Test
+  public void testParsingLazyPrecompsUpFrontReportsErrors() throws IOException {
+    LottieComposition composition = SplitCompositionParser.parse(INVALID_PRECOMP_JSON, null, 0, true);
+    try {
+      composition.parseLazyPrecomps();
+      fail();
+    } catch (IOException | RuntimeException e) {
+      // Expected.
+    }
+    assertTrue(composition.getPrecomps("comp_0").isEmpty());
+  }
+
+  @Test
+  public void testLazyPrecompsAreParsedWhenActive() throws IOException {
+    LottieComposition composition = SplitCompositionParser.parse(createJson(), null, 0, true);
+    LottieDrawable drawable = new LottieDrawable();
+    drawable.setComposition(composition);
+    drawable.setProgress(0f);
+    for (int i = 0; i < PRECOMP_COUNT; i++) {
+      // The second half of the precomps start halfway through the animation.
+      assertEquals(i < PRECOMP_COUNT / 2, composition.isPrecompParsed("comp_" + i));
+    }
+    drawable.setProgress(1f);
+    for (int i = 0; i < PRECOMP_COUNT; i++) {
+      assertTrue(composition.isPrecompParsed("comp_" + i));
+    }
+  }
+
+  @Test
+  public void testStartingPrecomps() throws IOException {
+    LottieComposition composition = SplitCompositionParser.parse(createJson(), null, 0, true);
+    StartingPrecomps.parse(composition);
+    for (int i = 0; i < PRECOMP_COUNT; i++) {
+      assertEquals(i < PRECOMP_COUNT / 2, composition.isPrecompParsed("comp_" + i));
+    }
+  }
+
+  private static void assertSameComposition(LottieComposition expected, LottieComposition actual) {
+    assertSameComposition(expected, actual, true);
+  }
+
+  private static void assertSameComposition(LottieComposition expected, LottieComposition actual, boolean compareSize) {
+    assertEquals(expected.getLayers().size(), actual.getLayers().size());
+    for (int precomp = 0; precomp < PRECOMP_COUNT; precomp++) {
+      List<Layer> expectedLayers = expected.getPrecomps("comp_" + precomp);
+      List<Layer> actualLayers = actual.getPrecomps("comp_" + precomp);
+      assertEquals(expectedLayers.size(), actualLayers.size());
+      for (int i = 0; i < expectedLayers.size(); i++) {
+        assertEquals(expectedLayers.get(i).getName(), actualLayers.get(i).getName());
+      }
+    }
+    assertEquals(expected.getImages().keySet(), actual.getImages().keySet());
+    assertEquals(expected.getCharacters().size(), actual.getCharacters().size());
+    for (int i = 0; i < expected.getCharacters().size(); i++) {
+      assertEquals(expected.getCharacters().keyAt(i), actual.getCharacters().keyAt(i));
+    }
+    if (compareSize) {
+      assertEquals(expected.getEstimatedSizeInBytes(), actual.getEstimatedSizeInBytes());
+    }
+  }
+
+  private static byte[] createJson() {
+    StringBuilder sb = new StringBuilder("{\"v\":\"5.7.4\",\"fr\":60,\"ip\":0,\"op\":60,\"w\":100,\"h\":100,\"nm\":\"[{\\\"\",");
+    sb.append("\"assets\":[");
+    for (int i = 0; i < PRECOMP_COUNT; i++) {
+      sb.append("{\"id\":\"comp_").append(i).append("\",\"layers\":[");
+      for (int j = 0; j < 10; j++) {
+        if (j > 0) {
+          sb.append(',');
+        }
+        sb.append(String.format(LAYER, "layer " + i + "." + j, j + 1));
+      }
+      sb.append("]},");
+    }
+    sb.append("{\"id\":\"image_0\",\"w\":10,\"h\":10,\"u\":\"images/\",\"p\":\"img_0.png\"}],");
+    sb.append("\"chars\":[");
+    for (int i = 0; i < 26; i++) {
+      if (i > 0) {
+        sb.append(',');
+      }
+      sb.append("{\"ch\":\"").append((char) ('a' + i))
+          .append("\",\"size\":12,\"w\":50,\"style\":\"Regular\",\"fFamily\":\"Sans\",\"data\":{}}");
+    }
+    sb.append("],\"layers\":[");
+    for (int i = 0; i < PRECOMP_COUNT; i++) {
+      if (i > 0) {
+        sb.append(',');
+      }
+      sb.append("{\"ty\":0,\"nm\":\"precomp ").append(i).append("\",\"ind\":").append(i + 1)
+          .append(",\"refId\":\"comp_").append(i).append("\",\"w\":100,\"h\":100,\"ks\":{},\"ip\":")
+          .append(i < PRECOMP_COUNT / 2 ? 0 : 30).append(",\"op\":60,\"st\":0}");
+    }
+    sb.append("]}");
+    return sb.toString().getBytes(StandardCharsets.UTF_8);
+  }
+}
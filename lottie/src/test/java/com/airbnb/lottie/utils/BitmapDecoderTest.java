@@ -0,0 +1,72 @@
+package com.airbnb.lottie.utils;
+
+import android.graphics.Bitmap;
+import android.os.Build;
+
+import com.airbnb.lottie.BaseTest;
+
+import org.junit.Test;
+import org.robolectric.annotation.Config;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+public class BitmapDecoderTest extends BaseTest {
+
+  @Test
+  public void testInSampleSizeStaysAtLeastAsLargeAsTheTarget() {
+    assertEquals(4, BitmapDecoder.calculateInSampleSize(400, 400, 100, 100));
+    assertEquals(2, BitmapDecoder.calculateInSampleSize(400, 400, 150, 150));
+    assertEquals(2, BitmapDecoder.calculateInSampleSize(400, 400, 101, 101));
+    assertEquals(1, BitmapDecoder.calculateInSampleSize(100, 100, 100, 100));
+    assertEquals(1, BitmapDecoder.calculateInSampleSize(100, 100, 200, 200));
+  }
+
+  @Test
+  public void testInSampleSizeIsLimitedByTheSmallerDimension() {
+    assertEquals(1, BitmapDecoder.calculateInSampleSize(400, 100, 100, 100));
+    assertEquals(2, BitmapDecoder.calculateInSampleSize(400, 200, 100, 100));
+  }
+
+  @Test
+  @Config(sdk = Build.VERSION_CODES.O_MR1)
+  public void testImageIsDecodedAtTheTargetSize() throws IOException {
+    Bitmap bitmap = BitmapDecoder.decode(createPng(40, 40), 10, 10, false);
+
+    assertNotNull(bitmap);
+    assertEquals(10, bitmap.getWidth());
+    assertEquals(10, bitmap.getHeight());
+  }
+
+  @Test
+  @Config(sdk = Build.VERSION_CODES.O_MR1)
+  public void testImageIsScaledToATargetSizeThatIsntAPowerOfTwo() throws IOException {
+    Bitmap bitmap = BitmapDecoder.decode(createPng(40, 40), 15, 12, false);
+
+    assertNotNull(bitmap);
+    assertEquals(15, bitmap.getWidth());
+    assertEquals(12, bitmap.getHeight());
+  }
+
+  @Test
+  @Config(sdk = Build.VERSION_CODES.O_MR1)
+  public void testImageWithoutATargetSizeIsDecodedAtFullSize() throws IOException {
+    Bitmap bitmap = BitmapDecoder.decode(createPng(40, 20), 0, 0, false);
+
+    assertNotNull(bitmap);
+    assertEquals(40, bitmap.getWidth());
+    assertEquals(20, bitmap.getHeight());
+  }
+
+  private static byte[] createPng(int width, int height) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB), "png", out);
+    return out.toByteArray();
+  }
+}
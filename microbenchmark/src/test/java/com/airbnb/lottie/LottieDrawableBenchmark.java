@@ -0,0 +1,45 @@
+package com.airbnb.lottie;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+
+import com.airbnb.lottie.microbenchmark.BaseBenchmark;
+import com.airbnb.lottie.microbenchmark.Microbenchmark;
+import com.airbnb.lottie.microbenchmark.Samples;
+
+import org.junit.Test;
+
+public class LottieDrawableBenchmark extends BaseBenchmark {
+
+  @Test
+  public void setProgress() throws Exception {
+    for (Samples.Sample sample : Samples.load()) {
+      LottieDrawable drawable = new LottieDrawable();
+      drawable.setComposition(sample.parse());
+      float frames = Math.max(1f, drawable.getComposition().getDurationFrames());
+      int[] frame = {0};
+      Microbenchmark.run("LottieDrawable.setProgress " + sample.name, () ->
+          drawable.setProgress((frame[0]++ % frames) / frames));
+    }
+  }
+
+  @Test
+  public void setProgressAndDraw() throws Exception {
+    for (Samples.Sample sample : Samples.load()) {
+      LottieDrawable drawable = new LottieDrawable();
+      LottieComposition composition = sample.parse();
+      drawable.setComposition(composition);
+      Bitmap bitmap = Bitmap.createBitmap(Math.max(1, composition.getBounds().width()),
+          Math.max(1, composition.getBounds().height()), Bitmap.Config.ARGB_8888);
+      Canvas canvas = new Canvas(bitmap);
+      drawable.setBounds(0, 0, bitmap.getWidth(), bitmap.getHeight());
+      float frames = Math.max(1f, composition.getDurationFrames());
+      int[] frame = {0};
+      Microbenchmark.run("LottieDrawable.setProgress + draw " + sample.name, () -> {
+        drawable.setProgress((frame[0]++ % frames) / frames);
+        bitmap.eraseColor(0);
+        drawable.draw(canvas);
+      });
+    }
+  }
+}
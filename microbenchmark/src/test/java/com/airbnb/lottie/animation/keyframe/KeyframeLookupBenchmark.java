@@ -0,0 +1,77 @@
+package com.airbnb.lottie.animation.keyframe;
+
+import android.graphics.Rect;
+import android.view.animation.LinearInterpolator;
+
+import androidx.collection.LongSparseArray;
+import androidx.collection.SparseArrayCompat;
+
+import com.airbnb.lottie.LottieComposition;
+import com.airbnb.lottie.microbenchmark.BaseBenchmark;
+import com.airbnb.lottie.microbenchmark.Microbenchmark;
+import com.airbnb.lottie.value.Keyframe;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures how long it takes to move a property with thousands of keyframes to a new progress.
+ */
+public class KeyframeLookupBenchmark extends BaseBenchmark {
+
+  private static final int KEYFRAME_COUNT = 10_000;
+  private static final int STEPS = KEYFRAME_COUNT * 4;
+
+  @Test
+  public void sequential() throws Exception {
+    float[] progresses = new float[STEPS];
+    for (int i = 0; i < STEPS; i++) {
+      progresses[i] = i / (float) STEPS;
+    }
+    run("sequential", progresses);
+  }
+
+  @Test
+  public void reverse() throws Exception {
+    float[] progresses = new float[STEPS];
+    for (int i = 0; i < STEPS; i++) {
+      progresses[i] = 1f - i / (float) STEPS;
+    }
+    run("reverse", progresses);
+  }
+
+  @Test
+  public void randomSeeks() throws Exception {
+    Random random = new Random(0);
+    float[] progresses = new float[STEPS];
+    for (int i = 0; i < STEPS; i++) {
+      progresses[i] = random.nextFloat();
+    }
+    run("random seeks", progresses);
+  }
+
+  private static void run(String name, float[] progresses) throws Exception {
+    FloatKeyframeAnimation animation = createAnimation();
+    int[] step = {0};
+    Microbenchmark.run("FloatKeyframeAnimation " + name + " " + KEYFRAME_COUNT + " keyframes", () -> {
+      animation.setProgress(progresses[step[0]++ % progresses.length]);
+      Microbenchmark.consume(animation.getFloatValue());
+    });
+  }
+
+  private static FloatKeyframeAnimation createAnimation() {
+    LottieComposition composition = new LottieComposition();
+    composition.init(new Rect(), 0f, KEYFRAME_COUNT, 60f, new ArrayList<>(), new LongSparseArray<>(), new HashMap<>(),
+        new HashMap<>(), 1f, new SparseArrayCompat<>(), new HashMap<>(), new ArrayList<>(), 0, 0);
+    LinearInterpolator interpolator = new LinearInterpolator();
+    List<Keyframe<Float>> keyframes = new ArrayList<>(KEYFRAME_COUNT);
+    for (int i = 0; i < KEYFRAME_COUNT; i++) {
+      keyframes.add(new Keyframe<>(composition, (float) i, i + 1f, interpolator, i, i + 1f));
+    }
+    return new FloatKeyframeAnimation(keyframes, ScalarKeyframes.ofFloats(keyframes));
+  }
+}
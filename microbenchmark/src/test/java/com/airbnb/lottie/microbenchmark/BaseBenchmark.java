@@ -0,0 +1,19 @@
+package com.airbnb.lottie.microbenchmark;
+
+import android.os.Build;
+
+import org.junit.Ignore;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.GraphicsMode;
+
+/**
+ * Benchmarks use the native graphics mode so that paths and canvases do real work instead of recording calls.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = Build.VERSION_CODES.P)
+@GraphicsMode(GraphicsMode.Mode.NATIVE)
+@Ignore("Base Benchmark")
+public class BaseBenchmark {
+}
@@ -0,0 +1,109 @@
+package com.airbnb.lottie.microbenchmark;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Locale;
+
+/**
+ * A minimal benchmark harness that runs under Robolectric.
+ * <p>
+ * Each benchmark is warmed up for {@code lottie.benchmark.warmupMs} and then measured for
+ * {@code lottie.benchmark.measureMs}. It reports the throughput and the number of bytes allocated per operation on the
+ * benchmark thread. Results are printed and appended to the file in {@code lottie.benchmark.output} so that two runs
+ * can be compared.
+ */
+public final class Microbenchmark {
+
+  public interface Op {
+    void run() throws Exception;
+  }
+
+  private static final long WARMUP_NANOS = Long.getLong("lottie.benchmark.warmupMs", 2_000) * 1_000_000;
+  private static final long MEASURE_NANOS = Long.getLong("lottie.benchmark.measureMs", 5_000) * 1_000_000;
+
+  /**
+   * Anything that benchmarks return is folded in here so the JIT can't eliminate the work.
+   */
+  private static volatile int blackhole;
+
+  private Microbenchmark() {
+  }
+
+  public static void consume(Object value) {
+    blackhole += System.identityHashCode(value);
+  }
+
+  public static void consume(float value) {
+    blackhole += Float.floatToRawIntBits(value);
+  }
+
+  public static void run(String name, Op op) throws Exception {
+    // Run the op in batches so that the cost of reading the clock doesn't dominate fast ops.
+    int batchSize = 1;
+    long warmupEnd = System.nanoTime() + WARMUP_NANOS;
+    while (System.nanoTime() < warmupEnd) {
+      long start = System.nanoTime();
+      for (int i = 0; i < batchSize; i++) {
+        op.run();
+      }
+      if (System.nanoTime() - start < 1_000_000) {
+        batchSize *= 2;
+      }
+    }
+
+    long ops = 0;
+    long allocatedBefore = getAllocatedBytes();
+    long start = System.nanoTime();
+    long elapsed;
+    do {
+      for (int i = 0; i < batchSize; i++) {
+        op.run();
+      }
+      ops += batchSize;
+      elapsed = System.nanoTime() - start;
+    } while (elapsed < MEASURE_NANOS);
+    long allocated = getAllocatedBytes() - allocatedBefore;
+
+    double nanosPerOp = elapsed / (double) ops;
+    double opsPerSecond = ops * 1_000_000_000.0 / elapsed;
+    double bytesPerOp = allocatedBefore < 0 ? Double.NaN : allocated / (double) ops;
+    System.out.println(String.format(Locale.US, "%-60s %12.1f ops/s %12.1f ns/op %12.1f B/op",
+        name, opsPerSecond, nanosPerOp, bytesPerOp));
+    record(name, opsPerSecond, nanosPerOp, bytesPerOp);
+  }
+
+  /**
+   * Returns the number of bytes allocated by the current thread or -1 if the JVM can't measure it.
+   */
+  private static long getAllocatedBytes() {
+    ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    if (bean instanceof com.sun.management.ThreadMXBean) {
+      com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+      if (sunBean.isThreadAllocatedMemorySupported() && sunBean.isThreadAllocatedMemoryEnabled()) {
+        return sunBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+      }
+    }
+    return -1;
+  }
+
+  private static void record(String name, double opsPerSecond, double nanosPerOp, double bytesPerOp) throws IOException {
+    String output = System.getProperty("lottie.benchmark.output");
+    if (output == null) {
+      return;
+    }
+    File file = new File(output);
+    //noinspection ResultOfMethodCallIgnored
+    file.getParentFile().mkdirs();
+    boolean writeHeader = !file.exists();
+    try (Writer writer = new FileWriter(file, true)) {
+      if (writeHeader) {
+        writer.write("benchmark,ops_per_second,ns_per_op,bytes_per_op\n");
+      }
+      writer.write(String.format(Locale.US, "\"%s\",%.1f,%.1f,%.1f\n", name, opsPerSecond, nanosPerOp, bytesPerOp));
+    }
+  }
+}
@@ -0,0 +1,72 @@
+package com.airbnb.lottie.microbenchmark;
+
+import com.airbnb.lottie.LottieComposition;
+import com.airbnb.lottie.parser.LottieCompositionMoshiParser;
+import com.airbnb.lottie.parser.moshi.JsonReader;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.Okio;
+
+/**
+ * The sample animations that benchmarks run against.
+ * <p>
+ * {@code lottie.benchmark.samples} is a comma separated list of files or directories relative to
+ * {@code lottie.benchmark.assets}. It defaults to the animations at the root of the snapshot test assets.
+ */
+public final class Samples {
+
+  public static final class Sample {
+    public final String name;
+    public final byte[] json;
+
+    Sample(String name, byte[] json) {
+      this.name = name;
+      this.json = json;
+    }
+
+    public JsonReader newReader() {
+      return JsonReader.of(new Buffer().write(json));
+    }
+
+    public LottieComposition parse() throws IOException {
+      return LottieCompositionMoshiParser.parse(newReader());
+    }
+  }
+
+  private Samples() {
+  }
+
+  public static List<Sample> load() throws IOException {
+    String assets = System.getProperty("lottie.benchmark.assets");
+    if (assets == null) {
+      throw new IllegalStateException("lottie.benchmark.assets is not set. Run the benchmarks with Gradle.");
+    }
+    List<Sample> samples = new ArrayList<>();
+    for (String path : System.getProperty("lottie.benchmark.samples", ".").split(",")) {
+      File file = new File(assets, path.trim());
+      File[] files = file.isDirectory() ? file.listFiles() : new File[]{file};
+      if (files == null) {
+        continue;
+      }
+      Arrays.sort(files);
+      for (File sample : files) {
+        if (sample.isFile() && sample.getName().endsWith(".json")) {
+          try (BufferedSource source = Okio.buffer(Okio.source(sample))) {
+            samples.add(new Sample(sample.getName(), source.readByteArray()));
+          }
+        }
+      }
+    }
+    if (samples.isEmpty()) {
+      throw new IllegalStateException("No samples found for " + System.getProperty("lottie.benchmark.samples"));
+    }
+    return samples;
+  }
+}
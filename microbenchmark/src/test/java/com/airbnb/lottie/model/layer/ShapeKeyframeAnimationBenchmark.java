@@ -0,0 +1,65 @@
+package com.airbnb.lottie.model.layer;
+
+import com.airbnb.lottie.LottieComposition;
+import com.airbnb.lottie.animation.keyframe.ShapeKeyframeAnimation;
+import com.airbnb.lottie.microbenchmark.BaseBenchmark;
+import com.airbnb.lottie.microbenchmark.Microbenchmark;
+import com.airbnb.lottie.microbenchmark.Samples;
+import com.airbnb.lottie.model.content.ContentModel;
+import com.airbnb.lottie.model.content.ShapeGroup;
+import com.airbnb.lottie.model.content.ShapePath;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ShapeKeyframeAnimationBenchmark extends BaseBenchmark {
+
+  private static final int FRAMES = 60;
+
+  @Test
+  public void getValue() throws Exception {
+    for (Samples.Sample sample : Samples.load()) {
+      LottieComposition composition = sample.parse();
+      List<ShapeKeyframeAnimation> animations = new ArrayList<>();
+      addAnimatedShapes(composition, composition.getLayers(), animations);
+      if (animations.isEmpty()) {
+        continue;
+      }
+      // Every op moves all of the animated shapes to the next frame so that none of them return a cached path.
+      int[] frame = {0};
+      Microbenchmark.run("ShapeKeyframeAnimation.getValue " + sample.name + " (" + animations.size() + " shapes)", () -> {
+        float progress = (frame[0]++ % FRAMES) / (float) FRAMES;
+        for (int i = 0; i < animations.size(); i++) {
+          ShapeKeyframeAnimation animation = animations.get(i);
+          animation.setProgress(progress);
+          Microbenchmark.consume(animation.getValue());
+        }
+      });
+    }
+  }
+
+  private static void addAnimatedShapes(LottieComposition composition, List<Layer> layers,
+      List<ShapeKeyframeAnimation> animations) {
+    for (Layer layer : layers) {
+      addAnimatedShapes(layer.getShapes(), animations);
+      if (layer.getLayerType() == Layer.LayerType.PRE_COMP && layer.getRefId() != null) {
+        List<Layer> precomp = composition.getPrecomps(layer.getRefId());
+        if (precomp != null) {
+          addAnimatedShapes(composition, precomp, animations);
+        }
+      }
+    }
+  }
+
+  private static void addAnimatedShapes(List<ContentModel> contents, List<ShapeKeyframeAnimation> animations) {
+    for (ContentModel content : contents) {
+      if (content instanceof ShapeGroup) {
+        addAnimatedShapes(((ShapeGroup) content).getItems(), animations);
+      } else if (content instanceof ShapePath && !((ShapePath) content).getShapePath().isStatic()) {
+        animations.add(((ShapePath) content).getShapePath().createAnimation());
+      }
+    }
+  }
+}
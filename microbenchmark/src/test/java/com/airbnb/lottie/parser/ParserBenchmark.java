@@ -0,0 +1,93 @@
+package com.airbnb.lottie.parser;
+
+import com.airbnb.lottie.L;
+import com.airbnb.lottie.LottieComposition;
+import com.airbnb.lottie.microbenchmark.BaseBenchmark;
+import com.airbnb.lottie.microbenchmark.Microbenchmark;
+import com.airbnb.lottie.microbenchmark.Samples;
+import com.airbnb.lottie.parser.moshi.JsonReader;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executor;
+
+import okio.Buffer;
+
+public class ParserBenchmark extends BaseBenchmark {
+
+  private static final int KEYFRAME_COUNT = 1000;
+
+  @Test
+  public void parseComposition() throws Exception {
+    for (Samples.Sample sample : Samples.load()) {
+      Microbenchmark.run("LottieCompositionMoshiParser.parse " + sample.name, () -> Microbenchmark.consume(sample.parse()));
+    }
+  }
+
+  /**
+   * Compare with {@link #parseComposition()}. Samples without precomps or glyphs only pay for the split.
+   * Allocations on the parsing executor aren't included in the bytes per op.
+   */
+  @Test
+  public void parseCompositionParallel() throws Exception {
+    Executor executor = L.getParsingExecutor();
+    int parallelism = L.getParsingParallelism();
+    for (Samples.Sample sample : Samples.load()) {
+      Microbenchmark.run("SplitCompositionParser.parse " + sample.name,
+          () -> Microbenchmark.consume(SplitCompositionParser.parse(sample.json, executor, parallelism)));
+    }
+  }
+
+  /**
+   * Compare with {@link #parseComposition()}. This only measures loading. Precomps are parsed later when they are drawn.
+   */
+  @Test
+  public void parseCompositionLazyPrecomps() throws Exception {
+    for (Samples.Sample sample : Samples.load()) {
+      Microbenchmark.run("SplitCompositionParser.parse lazy precomps " + sample.name,
+          () -> Microbenchmark.consume(SplitCompositionParser.parse(sample.json, null, 0, true)));
+    }
+  }
+
+  @Test
+  public void parseFloatKeyframes() throws Exception {
+    byte[] json = createKeyframesJson(false);
+    LottieComposition composition = new LottieComposition();
+    Microbenchmark.run("KeyframesParser.parse " + KEYFRAME_COUNT + " float keyframes", () -> {
+      JsonReader reader = JsonReader.of(new Buffer().write(json));
+      Microbenchmark.consume(KeyframesParser.parse(reader, composition, 1f, FloatParser.INSTANCE, false));
+    });
+  }
+
+  @Test
+  public void parsePointKeyframes() throws Exception {
+    byte[] json = createKeyframesJson(true);
+    LottieComposition composition = new LottieComposition();
+    Microbenchmark.run("KeyframesParser.parse " + KEYFRAME_COUNT + " point keyframes", () -> {
+      JsonReader reader = JsonReader.of(new Buffer().write(json));
+      Microbenchmark.consume(KeyframesParser.parse(reader, composition, 1f, PointFParser.INSTANCE, true));
+    });
+  }
+
+  /**
+   * Creates an animated property with bezier keyframes in the same shape that After Effects exports them.
+   */
+  private static byte[] createKeyframesJson(boolean point) {
+    StringBuilder sb = new StringBuilder("{\"a\":1,\"k\":[");
+    for (int i = 0; i < KEYFRAME_COUNT; i++) {
+      if (i > 0) {
+        sb.append(',');
+      }
+      sb.append("{\"i\":{\"x\":[0.833],\"y\":[0.833]},\"o\":{\"x\":[0.167],\"y\":[0.167]},\"t\":").append(i);
+      if (point) {
+        sb.append(",\"s\":[").append(i).append(',').append(i * 2).append(']');
+      } else {
+        sb.append(",\"s\":[").append(i).append(']');
+      }
+      sb.append('}');
+    }
+    sb.append("]}");
+    return sb.toString().getBytes(StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,66 @@
+package com.airbnb.lottie.utils;
+
+import android.graphics.Path;
+import android.graphics.PathMeasure;
+
+import com.airbnb.lottie.microbenchmark.BaseBenchmark;
+import com.airbnb.lottie.microbenchmark.Microbenchmark;
+
+import org.junit.Test;
+
+public class TrimPathBenchmark extends BaseBenchmark {
+
+  private static final int STEPS = 100;
+
+  @Test
+  public void applyTrimPathToCurves() throws Exception {
+    Path template = new Path();
+    template.moveTo(0f, 0f);
+    for (int i = 0; i < 50; i++) {
+      template.cubicTo(i * 10f, 50f, i * 10f + 5f, -50f, i * 10f + 10f, 0f);
+    }
+    run("Utils.applyTrimPathIfNeeded 50 cubics", template);
+  }
+
+  @Test
+  public void applyTrimPathToContours() throws Exception {
+    Path template = new Path();
+    for (int i = 0; i < 20; i++) {
+      template.addCircle(i * 20f, 0f, 10f, Path.Direction.CW);
+    }
+    run("Utils.applyTrimPathIfNeeded 20 contours", template);
+  }
+
+  @Test
+  public void applyTrimPathToCurvesWithCachedMeasure() throws Exception {
+    Path template = new Path();
+    template.moveTo(0f, 0f);
+    for (int i = 0; i < 50; i++) {
+      template.cubicTo(i * 10f, 50f, i * 10f + 5f, -50f, i * 10f + 10f, 0f);
+    }
+    PathMeasure pathMeasure = new PathMeasure(template, false);
+    float length = pathMeasure.getLength();
+    Path path = new Path();
+    int[] step = {0};
+    Microbenchmark.run("Utils.applyTrimPathIfNeeded 50 cubics with a cached measure", () -> {
+      float fraction = (step[0]++ % STEPS) / (float) STEPS;
+      path.set(template);
+      Utils.applyTrimPathIfNeeded(path, pathMeasure, length, 0.1f, 0.1f + fraction * 0.8f, fraction);
+      Microbenchmark.consume(path);
+    });
+  }
+
+  /**
+   * Animates the trim like a typical stroke reveal with an offset so that the trim wraps around the end of the path.
+   */
+  private static void run(String name, Path template) throws Exception {
+    Path path = new Path();
+    int[] step = {0};
+    Microbenchmark.run(name, () -> {
+      float fraction = (step[0]++ % STEPS) / (float) STEPS;
+      path.set(template);
+      Utils.applyTrimPathIfNeeded(path, 0.1f, 0.1f + fraction * 0.8f, fraction);
+      Microbenchmark.consume(path);
+    });
+  }
+}